@@ -5,6 +5,7 @@ import com.nox.platform.module.engine.api.response.SnapshotResponse;
 import com.nox.platform.module.engine.service.EngineSnapshotService;
 import com.nox.platform.shared.abstraction.SecurityProvider;
 import com.nox.platform.shared.exception.DomainException;
+import com.nox.platform.shared.infrastructure.etag.ContentVersions;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -12,6 +13,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -23,6 +25,7 @@ public class SnapshotController {
 
     private final EngineSnapshotService engineSnapshotService;
     private final SecurityProvider securityProvider;
+    private final ContentVersions contentVersions;
 
     @PostMapping("/commit")
     @PreAuthorize("hasAuthority('workspace:manage')")
@@ -39,7 +42,10 @@ public class SnapshotController {
 
     @GetMapping
     @PreAuthorize("hasAuthority('workspace:read')")
-    public ResponseEntity<List<SnapshotResponse>> getProjectSnapshots(@PathVariable UUID projectId) {
+    public ResponseEntity<List<SnapshotResponse>> getProjectSnapshots(@PathVariable UUID projectId, WebRequest webRequest) {
+        if (contentVersions.checkNotModified(webRequest, engineSnapshotService.getSnapshotListVersionScope(projectId))) {
+            return null;
+        }
         return ResponseEntity.ok(engineSnapshotService.getProjectSnapshots(projectId));
     }
 
@@ -0,0 +1,30 @@
+package com.nox.platform.module.engine.api;
+
+import com.nox.platform.module.engine.api.request.BatchBlockOperationsRequest;
+import com.nox.platform.module.engine.api.response.BlockOperationResult;
+import com.nox.platform.module.engine.service.CoreBlockService;
+import com.nox.platform.module.iam.infrastructure.security.CustomUserDetails;
+import com.nox.platform.shared.api.ApiResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/workspaces/{workspaceId}/blocks:batch")
+@RequiredArgsConstructor
+public class StudioBlockBatchController {
+
+    private final CoreBlockService coreBlockService;
+
+    @PostMapping
+    public ApiResponse<List<BlockOperationResult>> applyBatch(
+            @PathVariable UUID workspaceId,
+            @Valid @RequestBody BatchBlockOperationsRequest request,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ApiResponse.ok(coreBlockService.applyBatch(workspaceId, request.operations(), userDetails.getId()));
+    }
+}
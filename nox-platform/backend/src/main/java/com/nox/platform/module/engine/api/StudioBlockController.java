@@ -1,16 +1,30 @@
 package com.nox.platform.module.engine.api;
 
 import com.nox.platform.module.engine.api.request.CreateCoreBlockRequest;
+import com.nox.platform.module.engine.api.request.InstantiateTemplateRequest;
+import com.nox.platform.module.engine.api.request.MergeBlockFieldsRequest;
 import com.nox.platform.module.engine.api.request.UpdateCoreBlockRequest;
+import com.nox.platform.module.engine.api.response.CoreBlockPageResponse;
 import com.nox.platform.module.engine.api.response.CoreBlockResponse;
+import com.nox.platform.module.engine.api.response.FieldMergeResponse;
+import com.nox.platform.module.engine.api.response.SubtreeRestoreResponse;
+import com.nox.platform.module.engine.api.response.TemplateInstantiationResponse;
+import com.nox.platform.module.engine.api.response.ViewportBlocksResponse;
 import com.nox.platform.module.engine.service.CoreBlockService;
+import com.nox.platform.module.engine.service.WorkspaceService;
+import com.nox.platform.module.engine.service.cache.WorkspaceGraphCache;
 import com.nox.platform.module.iam.infrastructure.security.CustomUserDetails;
 import com.nox.platform.shared.api.ApiResponse;
+import com.nox.platform.shared.infrastructure.etag.ContentVersions;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -21,6 +35,8 @@ import java.util.UUID;
 public class StudioBlockController {
 
     private final CoreBlockService coreBlockService;
+    private final WorkspaceService workspaceService;
+    private final ContentVersions contentVersions;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -31,11 +47,48 @@ public class StudioBlockController {
         return ApiResponse.ok(coreBlockService.createBlock(workspaceId, request, userDetails.getId()));
     }
 
+    @PostMapping("/instantiate")
+    @ResponseStatus(HttpStatus.CREATED)
+    public ApiResponse<TemplateInstantiationResponse> instantiateTemplate(
+            @PathVariable UUID workspaceId,
+            @Valid @RequestBody InstantiateTemplateRequest request,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ApiResponse.ok(coreBlockService.instantiateTemplate(workspaceId, request, userDetails.getId()));
+    }
+
     @GetMapping
-    public ApiResponse<List<CoreBlockResponse>> getBlocks(@PathVariable UUID workspaceId) {
+    public ApiResponse<List<CoreBlockResponse>> getBlocks(@PathVariable UUID workspaceId, WebRequest webRequest) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        if (contentVersions.checkNotModified(webRequest, WorkspaceGraphCache.versionScope(workspaceId))) {
+            return null;
+        }
         return ApiResponse.ok(coreBlockService.getWorkspaceBlocks(workspaceId));
     }
 
+    @GetMapping(params = "bbox")
+    public ApiResponse<ViewportBlocksResponse> getBlocksInViewport(
+            @PathVariable UUID workspaceId,
+            @RequestParam String bbox,
+            @RequestParam(required = false) UUID parentBlockId) {
+        return ApiResponse.ok(coreBlockService.getViewportBlocks(workspaceId, bbox, parentBlockId));
+    }
+
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamBlocks(@PathVariable UUID workspaceId) {
+        StreamingResponseBody body = out -> coreBlockService.streamWorkspaceBlocks(workspaceId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    @GetMapping("/page")
+    public ApiResponse<CoreBlockPageResponse> getBlockPage(
+            @PathVariable UUID workspaceId,
+            @RequestParam(required = false) UUID after,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ApiResponse.ok(coreBlockService.getWorkspaceBlockPage(workspaceId, after, limit));
+    }
+
     @PatchMapping("/{blockId}")
     public ApiResponse<CoreBlockResponse> updateBlock(
             @PathVariable UUID workspaceId,
@@ -44,6 +97,14 @@ public class StudioBlockController {
         return ApiResponse.ok(coreBlockService.updateBlock(workspaceId, blockId, request));
     }
 
+    @PostMapping("/{blockId}/merge")
+    public ApiResponse<FieldMergeResponse<CoreBlockResponse>> mergeBlock(
+            @PathVariable UUID workspaceId,
+            @PathVariable UUID blockId,
+            @RequestBody MergeBlockFieldsRequest request) {
+        return ApiResponse.ok(coreBlockService.mergeBlock(workspaceId, blockId, request));
+    }
+
     @DeleteMapping("/{blockId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteBlock(
@@ -52,6 +113,13 @@ public class StudioBlockController {
         coreBlockService.deleteBlock(workspaceId, blockId);
     }
 
+    @PostMapping("/{blockId}/restore")
+    public ApiResponse<SubtreeRestoreResponse> restoreBlock(
+            @PathVariable UUID workspaceId,
+            @PathVariable UUID blockId) {
+        return ApiResponse.ok(coreBlockService.restoreBlock(workspaceId, blockId));
+    }
+
     @PostMapping("/{blockId}/lock")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void lockBlock(
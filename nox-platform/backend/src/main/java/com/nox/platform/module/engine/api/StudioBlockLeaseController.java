@@ -0,0 +1,47 @@
+package com.nox.platform.module.engine.api;
+
+import com.nox.platform.module.engine.api.request.BlockLeaseRequest;
+import com.nox.platform.module.engine.api.response.BlockLeaseResponse;
+import com.nox.platform.module.engine.service.BlockLeaseService;
+import com.nox.platform.module.iam.infrastructure.security.CustomUserDetails;
+import com.nox.platform.shared.api.ApiResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/workspaces/{workspaceId}/leases")
+@RequiredArgsConstructor
+public class StudioBlockLeaseController {
+
+    private final BlockLeaseService blockLeaseService;
+
+    @PostMapping
+    public ApiResponse<BlockLeaseResponse> acquire(
+            @PathVariable UUID workspaceId,
+            @Valid @RequestBody BlockLeaseRequest request,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ApiResponse.ok(blockLeaseService.acquire(workspaceId, request.blockIds(), userDetails.getId()));
+    }
+
+    @PostMapping("/heartbeat")
+    public ApiResponse<BlockLeaseResponse> heartbeat(
+            @PathVariable UUID workspaceId,
+            @Valid @RequestBody BlockLeaseRequest request,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ApiResponse.ok(blockLeaseService.renew(workspaceId, request.blockIds(), userDetails.getId()));
+    }
+
+    @PostMapping("/release")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void release(
+            @PathVariable UUID workspaceId,
+            @Valid @RequestBody BlockLeaseRequest request,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        blockLeaseService.release(workspaceId, request.blockIds(), userDetails.getId());
+    }
+}
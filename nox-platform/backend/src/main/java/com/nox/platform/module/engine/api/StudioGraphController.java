@@ -0,0 +1,39 @@
+package com.nox.platform.module.engine.api;
+
+import com.nox.platform.module.engine.api.request.GraphDirection;
+import com.nox.platform.module.engine.api.response.GraphCyclesResponse;
+import com.nox.platform.module.engine.api.response.GraphImpactResponse;
+import com.nox.platform.module.engine.api.response.GraphTopologyResponse;
+import com.nox.platform.module.engine.service.graph.GraphAnalyticsService;
+import com.nox.platform.shared.api.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/workspaces/{workspaceId}/graph")
+@RequiredArgsConstructor
+public class StudioGraphController {
+
+    private final GraphAnalyticsService graphAnalyticsService;
+
+    @GetMapping("/impact")
+    public ApiResponse<GraphImpactResponse> getImpact(
+            @PathVariable UUID workspaceId,
+            @RequestParam UUID blockId,
+            @RequestParam(defaultValue = "DOWNSTREAM") GraphDirection direction,
+            @RequestParam(required = false) Integer maxDepth) {
+        return ApiResponse.ok(graphAnalyticsService.getImpact(workspaceId, blockId, direction, maxDepth));
+    }
+
+    @GetMapping("/cycles")
+    public ApiResponse<GraphCyclesResponse> getCycles(@PathVariable UUID workspaceId) {
+        return ApiResponse.ok(graphAnalyticsService.getCycles(workspaceId));
+    }
+
+    @GetMapping("/topological-order")
+    public ApiResponse<GraphTopologyResponse> getTopologicalOrder(@PathVariable UUID workspaceId) {
+        return ApiResponse.ok(graphAnalyticsService.getTopologicalOrder(workspaceId));
+    }
+}
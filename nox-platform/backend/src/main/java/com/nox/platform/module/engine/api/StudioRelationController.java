@@ -1,13 +1,19 @@
 package com.nox.platform.module.engine.api;
 
 import com.nox.platform.module.engine.api.request.CreateCoreRelationRequest;
+import com.nox.platform.module.engine.api.request.MergeRelationFieldsRequest;
 import com.nox.platform.module.engine.api.request.UpdateCoreRelationRequest;
 import com.nox.platform.module.engine.api.response.CoreRelationResponse;
+import com.nox.platform.module.engine.api.response.FieldMergeResponse;
 import com.nox.platform.module.engine.service.CoreRelationService;
+import com.nox.platform.module.engine.service.WorkspaceService;
+import com.nox.platform.module.engine.service.cache.WorkspaceGraphCache;
+import com.nox.platform.shared.infrastructure.etag.ContentVersions;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -18,6 +24,8 @@ import java.util.UUID;
 public class StudioRelationController {
 
     private final CoreRelationService coreRelationService;
+    private final WorkspaceService workspaceService;
+    private final ContentVersions contentVersions;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -28,10 +36,22 @@ public class StudioRelationController {
     }
 
     @GetMapping
-    public List<CoreRelationResponse> getRelations(@PathVariable UUID workspaceId) {
+    public List<CoreRelationResponse> getRelations(@PathVariable UUID workspaceId, WebRequest webRequest) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        if (contentVersions.checkNotModified(webRequest, WorkspaceGraphCache.versionScope(workspaceId))) {
+            return null;
+        }
         return coreRelationService.getWorkspaceRelations(workspaceId);
     }
 
+    @GetMapping(params = "blockId")
+    public List<CoreRelationResponse> getPortRelations(
+            @PathVariable UUID workspaceId,
+            @RequestParam UUID blockId,
+            @RequestParam(defaultValue = "") String handle) {
+        return coreRelationService.getPortRelations(workspaceId, blockId, handle);
+    }
+
     @PatchMapping("/{relationId}")
     public CoreRelationResponse updateRelation(
             @PathVariable UUID workspaceId,
@@ -40,6 +60,14 @@ public class StudioRelationController {
         return coreRelationService.updateRelation(workspaceId, relationId, request);
     }
 
+    @PostMapping("/{relationId}/merge")
+    public FieldMergeResponse<CoreRelationResponse> mergeRelation(
+            @PathVariable UUID workspaceId,
+            @PathVariable UUID relationId,
+            @RequestBody MergeRelationFieldsRequest request) {
+        return coreRelationService.mergeRelation(workspaceId, relationId, request);
+    }
+
     @DeleteMapping("/{relationId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteRelation(
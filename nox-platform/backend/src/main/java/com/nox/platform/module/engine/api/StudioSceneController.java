@@ -0,0 +1,32 @@
+package com.nox.platform.module.engine.api;
+
+import com.nox.platform.module.engine.api.response.WorkspaceSceneResponse;
+import com.nox.platform.module.engine.service.WorkspaceSceneService;
+import com.nox.platform.module.engine.service.WorkspaceService;
+import com.nox.platform.module.engine.service.cache.WorkspaceGraphCache;
+import com.nox.platform.shared.api.ApiResponse;
+import com.nox.platform.shared.infrastructure.etag.ContentVersions;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/workspaces/{workspaceId}/scene")
+@RequiredArgsConstructor
+public class StudioSceneController {
+
+    private final WorkspaceSceneService workspaceSceneService;
+    private final WorkspaceService workspaceService;
+    private final ContentVersions contentVersions;
+
+    @GetMapping
+    public ApiResponse<WorkspaceSceneResponse> getScene(@PathVariable UUID workspaceId, WebRequest webRequest) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        if (contentVersions.checkNotModified(webRequest, WorkspaceGraphCache.versionScope(workspaceId))) {
+            return null;
+        }
+        return ApiResponse.ok(workspaceSceneService.getScene(workspaceId));
+    }
+}
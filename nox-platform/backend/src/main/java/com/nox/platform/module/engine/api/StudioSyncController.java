@@ -1,6 +1,9 @@
 package com.nox.platform.module.engine.api;
 
+import com.nox.platform.module.engine.api.request.BlockMovePayload;
 import com.nox.platform.module.engine.api.request.CursorPayload;
+import com.nox.platform.module.engine.service.BlockPositionBuffer;
+import com.nox.platform.module.engine.service.WorkspaceService;
 import com.nox.platform.module.iam.infrastructure.security.CustomUserDetails;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
@@ -8,6 +11,9 @@ import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
 import org.springframework.stereotype.Controller;
 
 import java.util.UUID;
@@ -16,6 +22,9 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class StudioSyncController {
 
+    private final BlockPositionBuffer blockPositionBuffer;
+    private final WorkspaceService workspaceService;
+
     // Nơi Client bắn cục data vào: /app/workspace/{id}/cursor
     // Nơi hệ thống phát loa ra cho all Client khác: /topic/workspace/{id}/cursor
     @MessageMapping("/workspace/{workspaceId}/cursor")
@@ -32,4 +41,34 @@ public class StudioSyncController {
         
         return payload;
     }
+
+    // Vị trí kéo thả: phát ngay cho các client khác, ghi xuống DB theo lô (write-behind)
+    @MessageMapping("/workspace/{workspaceId}/move")
+    @SendTo("/topic/workspace/{workspaceId}/move")
+    public BlockMovePayload syncMove(
+            @DestinationVariable UUID workspaceId,
+            @Payload BlockMovePayload payload,
+            Authentication authentication) {
+
+        authorize(workspaceId, authentication);
+
+        CustomUserDetails user = (CustomUserDetails) authentication.getPrincipal();
+        payload.setUserId(user.getId());
+        payload.setPositions(blockPositionBuffer.submit(workspaceId, user.getId(), payload.getPositions(), payload.isDragEnd()));
+        return payload;
+    }
+
+    /**
+     * Checked on every frame, so a member removed mid-session stops moving blocks once the
+     * workspace access cache entry expires; within its TTL the check does not touch the database.
+     */
+    private void authorize(UUID workspaceId, Authentication authentication) {
+        SecurityContext previous = SecurityContextHolder.getContext();
+        try {
+            SecurityContextHolder.setContext(new SecurityContextImpl(authentication));
+            workspaceService.checkWorkspaceAccess(workspaceId);
+        } finally {
+            SecurityContextHolder.setContext(previous);
+        }
+    }
 }
@@ -0,0 +1,52 @@
+package com.nox.platform.module.engine.api;
+
+import com.nox.platform.module.engine.api.request.BulkAttachInvaderRequest;
+import com.nox.platform.module.engine.api.request.BulkDetachInvaderRequest;
+import com.nox.platform.module.engine.api.response.BlockInvaderUsageResponse;
+import com.nox.platform.module.engine.api.response.InvaderDetachResponse;
+import com.nox.platform.module.engine.service.BlockInvaderUsageService;
+import com.nox.platform.module.engine.service.WorkspaceService;
+import com.nox.platform.module.engine.service.cache.WorkspaceGraphCache;
+import com.nox.platform.shared.infrastructure.etag.ContentVersions;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/workspaces/{workspaceId}/invaders")
+@RequiredArgsConstructor
+public class StudioWorkspaceInvaderController {
+
+    private final BlockInvaderUsageService invaderUsageService;
+    private final WorkspaceService workspaceService;
+    private final ContentVersions contentVersions;
+
+    @GetMapping
+    public List<BlockInvaderUsageResponse> getWorkspaceInvaders(@PathVariable UUID workspaceId, WebRequest webRequest) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        if (contentVersions.checkNotModified(webRequest, WorkspaceGraphCache.versionScope(workspaceId))) {
+            return null;
+        }
+        return invaderUsageService.getWorkspaceInvaders(workspaceId);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<BlockInvaderUsageResponse> attachInvaderToBlocks(
+            @PathVariable UUID workspaceId,
+            @Valid @RequestBody BulkAttachInvaderRequest request) {
+        return invaderUsageService.attachInvaderToBlocks(workspaceId, request);
+    }
+
+    @PostMapping("/detach")
+    public InvaderDetachResponse detachInvaderFromBlocks(
+            @PathVariable UUID workspaceId,
+            @Valid @RequestBody BulkDetachInvaderRequest request) {
+        return invaderUsageService.detachInvaderFromBlocks(workspaceId, request);
+    }
+}
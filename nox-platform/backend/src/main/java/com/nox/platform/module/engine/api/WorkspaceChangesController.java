@@ -0,0 +1,24 @@
+package com.nox.platform.module.engine.api;
+
+import com.nox.platform.module.engine.api.response.WorkspaceChangesResponse;
+import com.nox.platform.module.engine.service.WorkspaceSyncService;
+import com.nox.platform.shared.api.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/workspaces/{workspaceId}/changes")
+@RequiredArgsConstructor
+public class WorkspaceChangesController {
+
+    private final WorkspaceSyncService workspaceSyncService;
+
+    @GetMapping
+    public ApiResponse<WorkspaceChangesResponse> getChanges(
+            @PathVariable UUID workspaceId,
+            @RequestParam(required = false) Long since) {
+        return ApiResponse.ok(workspaceSyncService.getChangesSince(workspaceId, since));
+    }
+}
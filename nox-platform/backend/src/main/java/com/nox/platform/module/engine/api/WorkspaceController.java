@@ -1,17 +1,31 @@
 package com.nox.platform.module.engine.api;
 
+import com.nox.platform.module.engine.api.request.CloneBlocksRequest;
+import com.nox.platform.module.engine.api.request.CloneWorkspaceRequest;
 import com.nox.platform.module.engine.api.request.CreateWorkspaceRequest;
+import com.nox.platform.module.engine.api.response.BlockCloneResponse;
+import com.nox.platform.module.engine.api.response.WorkspaceImportResponse;
 import com.nox.platform.module.engine.api.response.WorkspaceResponse;
+import com.nox.platform.module.engine.service.WorkspaceArchiveService;
 import com.nox.platform.module.engine.service.WorkspaceService;
+import com.nox.platform.module.engine.service.archive.ArchiveCompression;
+import com.nox.platform.module.engine.service.archive.WorkspaceArchiveCodec;
 import com.nox.platform.shared.abstraction.SecurityProvider;
 import com.nox.platform.shared.api.ApiResponse;
 import com.nox.platform.shared.exception.DomainException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 import java.util.List;
 import java.util.UUID;
@@ -22,6 +36,7 @@ import java.util.UUID;
 public class WorkspaceController {
 
     private final WorkspaceService workspaceService;
+    private final WorkspaceArchiveService workspaceArchiveService;
     private final SecurityProvider securityProvider;
 
     @PostMapping
@@ -43,6 +58,61 @@ public class WorkspaceController {
         return ResponseEntity.ok(ApiResponse.ok(workspaceService.getWorkspacesByProject(projectId)));
     }
 
+    @PostMapping("/{workspaceId}/clone")
+    @PreAuthorize("hasAuthority('workspace:manage')")
+    public ResponseEntity<ApiResponse<BlockCloneResponse>> cloneWorkspace(
+            @PathVariable UUID projectId,
+            @PathVariable UUID workspaceId,
+            @Valid @RequestBody(required = false) CloneWorkspaceRequest request) {
+        UUID currentUserId = securityProvider.getCurrentUserId()
+                .orElseThrow(() -> new DomainException("UNAUTHORIZED", "User not authenticated"));
+
+        BlockCloneResponse response = workspaceService.cloneWorkspace(workspaceId, request, currentUserId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.ok(response));
+    }
+
+    @PostMapping("/{workspaceId}/blocks/clone")
+    @PreAuthorize("hasAuthority('workspace:manage')")
+    public ResponseEntity<ApiResponse<BlockCloneResponse>> cloneBlocks(
+            @PathVariable UUID projectId,
+            @PathVariable UUID workspaceId,
+            @Valid @RequestBody CloneBlocksRequest request) {
+        UUID currentUserId = securityProvider.getCurrentUserId()
+                .orElseThrow(() -> new DomainException("UNAUTHORIZED", "User not authenticated"));
+
+        BlockCloneResponse response = workspaceService.cloneBlocks(workspaceId, request, currentUserId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.ok(response));
+    }
+
+    @GetMapping("/{workspaceId}/export")
+    @PreAuthorize("hasAuthority('workspace:read')")
+    public ResponseEntity<StreamingResponseBody> exportWorkspace(
+            @PathVariable UUID projectId,
+            @PathVariable UUID workspaceId,
+            @RequestParam(defaultValue = "GZIP") ArchiveCompression compression) {
+        StreamingResponseBody body = out -> workspaceArchiveService.exportWorkspace(workspaceId, compression, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(WorkspaceArchiveCodec.MEDIA_TYPE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(workspaceId + ".noxw")
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = {WorkspaceArchiveCodec.MEDIA_TYPE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @PreAuthorize("hasAuthority('workspace:manage')")
+    public ResponseEntity<ApiResponse<WorkspaceImportResponse>> importWorkspace(
+            @PathVariable UUID projectId,
+            @RequestParam(required = false) String name,
+            InputStream body) throws IOException {
+        UUID currentUserId = securityProvider.getCurrentUserId()
+                .orElseThrow(() -> new DomainException("UNAUTHORIZED", "User not authenticated"));
+
+        WorkspaceImportResponse response = workspaceArchiveService.importWorkspace(projectId, body, name, currentUserId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.ok(response));
+    }
+
     @DeleteMapping("/{workspaceId}")
     @PreAuthorize("hasAuthority('workspace:manage')")
     public ResponseEntity<ApiResponse<Void>> deleteWorkspace(
@@ -0,0 +1,50 @@
+package com.nox.platform.module.engine.api;
+
+import com.nox.platform.module.engine.api.response.HistoryStepResponse;
+import com.nox.platform.module.engine.api.response.WorkspaceOperationPageResponse;
+import com.nox.platform.module.engine.api.response.WorkspaceStateResponse;
+import com.nox.platform.module.engine.service.oplog.WorkspaceHistoryService;
+import com.nox.platform.module.iam.infrastructure.security.CustomUserDetails;
+import com.nox.platform.shared.api.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/workspaces/{workspaceId}/operations")
+@RequiredArgsConstructor
+public class WorkspaceHistoryController {
+
+    private final WorkspaceHistoryService workspaceHistoryService;
+
+    @GetMapping
+    public ApiResponse<WorkspaceOperationPageResponse> getOperations(
+            @PathVariable UUID workspaceId,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(required = false) Integer limit) {
+        return ApiResponse.ok(workspaceHistoryService.getOperations(workspaceId, after, limit));
+    }
+
+    @PostMapping("/undo")
+    public ApiResponse<HistoryStepResponse> undo(
+            @PathVariable UUID workspaceId,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ApiResponse.ok(workspaceHistoryService.undo(workspaceId, userDetails.getId()));
+    }
+
+    @PostMapping("/redo")
+    public ApiResponse<HistoryStepResponse> redo(
+            @PathVariable UUID workspaceId,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ApiResponse.ok(workspaceHistoryService.redo(workspaceId, userDetails.getId()));
+    }
+
+    @GetMapping("/state")
+    public ApiResponse<WorkspaceStateResponse> getStateAt(
+            @PathVariable UUID workspaceId,
+            @RequestParam long at) {
+        return ApiResponse.ok(workspaceHistoryService.getStateAt(workspaceId, at));
+    }
+}
@@ -0,0 +1,10 @@
+package com.nox.platform.module.engine.api.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record BatchBlockOperationsRequest(
+        @NotEmpty(message = "At least one operation is required") @Size(max = 1000, message = "A batch must not exceed 1000 operations") List<@Valid BlockOperationRequest> operations) {
+}
@@ -0,0 +1,10 @@
+package com.nox.platform.module.engine.api.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import java.util.UUID;
+
+public record BlockLeaseRequest(
+        @NotEmpty(message = "At least one block id is required") @Size(max = 500, message = "At most 500 blocks can be leased at once") List<UUID> blockIds) {
+}
@@ -0,0 +1,21 @@
+package com.nox.platform.module.engine.api.request;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class BlockMovePayload {
+    private UUID userId;
+    private List<Position> positions;
+    // Set on the last frame of a drag so the positions are persisted right away
+    private boolean dragEnd;
+
+    @Data
+    public static class Position {
+        private UUID blockId;
+        private double x;
+        private double y;
+    }
+}
@@ -0,0 +1,16 @@
+package com.nox.platform.module.engine.api.request;
+
+import jakarta.validation.constraints.NotNull;
+import java.util.Map;
+import java.util.UUID;
+
+public record BlockOperationRequest(
+        @NotNull(message = "Operation type is required") BlockOperationType op,
+        UUID blockId,
+        UUID parentBlockId,
+        UUID originAssetId,
+        String type,
+        String name,
+        Map<String, Object> config,
+        Map<String, Object> visual) {
+}
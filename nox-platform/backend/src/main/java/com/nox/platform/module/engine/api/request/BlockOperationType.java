@@ -0,0 +1,8 @@
+package com.nox.platform.module.engine.api.request;
+
+public enum BlockOperationType {
+    CREATE,
+    UPDATE,
+    MOVE,
+    DELETE
+}
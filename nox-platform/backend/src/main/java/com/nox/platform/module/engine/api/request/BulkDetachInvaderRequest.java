@@ -0,0 +1,12 @@
+package com.nox.platform.module.engine.api.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import java.util.UUID;
+
+public record BulkDetachInvaderRequest(
+        @NotEmpty(message = "At least one block id is required") @Size(max = 1000, message = "At most 1000 blocks can be changed at once") List<UUID> blockIds,
+        @NotNull(message = "Invader asset ID is required") UUID invaderAssetId) {
+}
@@ -0,0 +1,22 @@
+package com.nox.platform.module.engine.api.request;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Copies the selected blocks together with their descendants, the wires between copied blocks
+ * and their invader usages. Wires to blocks outside the selection are left behind.
+ *
+ * @param targetWorkspaceId   workspace to paste into; defaults to the source workspace
+ * @param targetParentBlockId parent for copied blocks whose own parent is not part of the copy
+ * @param offsetX             shift applied to the position of those same blocks
+ */
+public record CloneBlocksRequest(
+        @NotEmpty List<UUID> blockIds,
+        UUID targetWorkspaceId,
+        UUID targetParentBlockId,
+        Double offsetX,
+        Double offsetY) {
+}
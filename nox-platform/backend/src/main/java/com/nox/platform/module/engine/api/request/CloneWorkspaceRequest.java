@@ -0,0 +1,10 @@
+package com.nox.platform.module.engine.api.request;
+
+import jakarta.validation.constraints.Size;
+
+/**
+ * @param name name of the copy; defaults to the source name with a "(copy)" suffix
+ */
+public record CloneWorkspaceRequest(
+        @Size(max = 255) String name) {
+}
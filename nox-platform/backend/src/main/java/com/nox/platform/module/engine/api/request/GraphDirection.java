@@ -0,0 +1,6 @@
+package com.nox.platform.module.engine.api.request;
+
+public enum GraphDirection {
+    DOWNSTREAM,
+    UPSTREAM
+}
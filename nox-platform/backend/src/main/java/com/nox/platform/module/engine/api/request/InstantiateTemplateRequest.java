@@ -0,0 +1,21 @@
+package com.nox.platform.module.engine.api.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+/**
+ * Places {@code count} copies of a composite template's subgraph. Instance {@code i} (from 0) is
+ * shifted by {@code origin + i * step}; without a step the instances are lined up horizontally,
+ * one template width apart.
+ */
+public record InstantiateTemplateRequest(
+        @NotNull UUID templateId,
+        @Min(1) Integer count,
+        UUID parentBlockId,
+        Double originX,
+        Double originY,
+        Double stepX,
+        Double stepY) {
+}
@@ -0,0 +1,16 @@
+package com.nox.platform.module.engine.api.request;
+
+import java.util.Map;
+
+/**
+ * Lock-free edit of a block. Each top-level key of {@code config}/{@code visual}, and the name, is
+ * a last-writer-wins register: it is only written if {@code clock} is newer than the clock of the
+ * write that last set it (null removes the key). {@code clock} is the client's hybrid logical
+ * clock at the time of the edit; when omitted the server stamps the edit on arrival.
+ */
+public record MergeBlockFieldsRequest(
+        String clock,
+        String name,
+        Map<String, Object> config,
+        Map<String, Object> visual) {
+}
@@ -0,0 +1,13 @@
+package com.nox.platform.module.engine.api.request;
+
+import java.util.Map;
+
+/**
+ * Lock-free edit of a relation; {@code rules}/{@code visual} keys merge as last-writer-wins
+ * registers, see {@link MergeBlockFieldsRequest}.
+ */
+public record MergeRelationFieldsRequest(
+        String clock,
+        Map<String, Object> rules,
+        Map<String, Object> visual) {
+}
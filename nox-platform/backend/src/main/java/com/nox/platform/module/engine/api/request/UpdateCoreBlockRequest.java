@@ -3,9 +3,16 @@ package com.nox.platform.module.engine.api.request;
 import java.util.Map;
 import java.util.UUID;
 
+/**
+ * {@code config}/{@code visual} replace the whole document. {@code configPatch}/{@code visualPatch}
+ * are RFC 7396 merge patches (null removes a key) applied server-side, so concurrent edits to
+ * different keys do not overwrite each other.
+ */
 public record UpdateCoreBlockRequest(
         String name,
         UUID parentBlockId,
         Map<String, Object> config,
-        Map<String, Object> visual) {
+        Map<String, Object> visual,
+        Map<String, Object> configPatch,
+        Map<String, Object> visualPatch) {
 }
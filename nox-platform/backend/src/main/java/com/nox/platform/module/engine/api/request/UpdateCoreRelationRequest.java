@@ -2,7 +2,13 @@ package com.nox.platform.module.engine.api.request;
 
 import java.util.Map;
 
+/**
+ * {@code rules}/{@code visual} replace the whole document; the {@code *Patch} fields are
+ * RFC 7396 merge patches applied server-side.
+ */
 public record UpdateCoreRelationRequest(
         Map<String, Object> rules,
-        Map<String, Object> visual) {
+        Map<String, Object> visual,
+        Map<String, Object> rulesPatch,
+        Map<String, Object> visualPatch) {
 }
@@ -0,0 +1,15 @@
+package com.nox.platform.module.engine.api.response;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * @param blockIds source block id to the id of its copy; left empty for whole-workspace clones
+ */
+public record BlockCloneResponse(
+        UUID workspaceId,
+        int clonedBlocks,
+        int clonedRelations,
+        int clonedInvaderUsages,
+        Map<UUID, UUID> blockIds) {
+}
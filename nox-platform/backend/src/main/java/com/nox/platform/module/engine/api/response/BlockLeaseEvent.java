@@ -0,0 +1,21 @@
+package com.nox.platform.module.engine.api.response;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Broadcast on /topic/workspace/{workspaceId} whenever leases are taken or given back.
+ * Expiry is not broadcast; clients drop a lease locally once {@code expiresAt} passes.
+ */
+public record BlockLeaseEvent(
+        Type type,
+        List<UUID> blockIds,
+        UUID holderId,
+        OffsetDateTime expiresAt) {
+
+    public enum Type {
+        ACQUIRED,
+        RELEASED
+    }
+}
@@ -0,0 +1,11 @@
+package com.nox.platform.module.engine.api.response;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public record BlockLeaseResponse(
+        List<UUID> blockIds,
+        UUID holderId,
+        OffsetDateTime expiresAt) {
+}
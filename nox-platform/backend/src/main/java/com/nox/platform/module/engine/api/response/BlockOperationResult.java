@@ -0,0 +1,12 @@
+package com.nox.platform.module.engine.api.response;
+
+import com.nox.platform.module.engine.api.request.BlockOperationType;
+
+import java.util.UUID;
+
+public record BlockOperationResult(
+        int index,
+        BlockOperationType op,
+        UUID blockId,
+        CoreBlockResponse block) {
+}
@@ -0,0 +1,9 @@
+package com.nox.platform.module.engine.api.response;
+
+import java.util.List;
+import java.util.UUID;
+
+public record CoreBlockPageResponse(
+        List<CoreBlockResponse> items,
+        UUID nextCursor) {
+}
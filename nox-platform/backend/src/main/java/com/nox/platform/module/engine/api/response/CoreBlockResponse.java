@@ -1,7 +1,8 @@
 package com.nox.platform.module.engine.api.response;
 
+import com.nox.platform.shared.model.RawJson;
+
 import java.time.OffsetDateTime;
-import java.util.Map;
 import java.util.UUID;
 
 public record CoreBlockResponse(
@@ -11,9 +12,16 @@ public record CoreBlockResponse(
         UUID originAssetId,
         String type,
         String name,
-        Map<String, Object> config,
-        Map<String, Object> visual,
+        RawJson config,
+        RawJson visual,
         UUID createdById,
         OffsetDateTime updatedAt,
         OffsetDateTime deletedAt) {
+
+    // Query projections select the jsonb columns as text so they are never parsed on the read path
+    public CoreBlockResponse(UUID id, UUID workspaceId, UUID parentBlockId, UUID originAssetId, String type, String name,
+                             String config, String visual, UUID createdById, OffsetDateTime updatedAt, OffsetDateTime deletedAt) {
+        this(id, workspaceId, parentBlockId, originAssetId, type, name, RawJson.of(config), RawJson.of(visual),
+                createdById, updatedAt, deletedAt);
+    }
 }
@@ -1,7 +1,8 @@
 package com.nox.platform.module.engine.api.response;
 
+import com.nox.platform.shared.model.RawJson;
+
 import java.time.OffsetDateTime;
-import java.util.Map;
 import java.util.UUID;
 
 public record CoreRelationResponse(
@@ -10,7 +11,13 @@ public record CoreRelationResponse(
         UUID sourceBlockId,
         UUID targetBlockId,
         String type,
-        Map<String, Object> rules,
-        Map<String, Object> visual,
+        RawJson rules,
+        RawJson visual,
         OffsetDateTime deletedAt) {
+
+    // Query projections select the jsonb columns as text so they are never parsed on the read path
+    public CoreRelationResponse(UUID id, UUID workspaceId, UUID sourceBlockId, UUID targetBlockId, String type,
+                                String rules, String visual, OffsetDateTime deletedAt) {
+        this(id, workspaceId, sourceBlockId, targetBlockId, type, RawJson.of(rules), RawJson.of(visual), deletedAt);
+    }
 }
@@ -0,0 +1,13 @@
+package com.nox.platform.module.engine.api.response;
+
+import java.util.List;
+
+/**
+ * @param clock       the server's clock after the merge; clients feed it into their own clock
+ * @param staleFields fields of the request that a newer write had already set, so they were skipped
+ */
+public record FieldMergeResponse<T>(
+        T entity,
+        String clock,
+        List<String> staleFields) {
+}
@@ -0,0 +1,12 @@
+package com.nox.platform.module.engine.api.response;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Each entry of {@code cycles} is one strongly connected group of blocks that feed into each other.
+ */
+public record GraphCyclesResponse(
+        boolean acyclic,
+        List<List<UUID>> cycles) {
+}
@@ -0,0 +1,17 @@
+package com.nox.platform.module.engine.api.response;
+
+import com.nox.platform.module.engine.api.request.GraphDirection;
+
+import java.util.List;
+import java.util.UUID;
+
+public record GraphImpactResponse(
+        UUID blockId,
+        GraphDirection direction,
+        List<ImpactedBlock> impacted) {
+
+    public record ImpactedBlock(
+            UUID blockId,
+            int depth) {
+    }
+}
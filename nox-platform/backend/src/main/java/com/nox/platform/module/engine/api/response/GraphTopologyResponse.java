@@ -0,0 +1,14 @@
+package com.nox.platform.module.engine.api.response;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * {@code order} lists every block whose dependencies can be resolved, sources first.
+ * {@code unordered} holds the blocks on or behind a cycle, which have no valid position.
+ */
+public record GraphTopologyResponse(
+        boolean acyclic,
+        List<UUID> order,
+        List<UUID> unordered) {
+}
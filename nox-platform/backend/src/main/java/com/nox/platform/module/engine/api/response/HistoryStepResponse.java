@@ -0,0 +1,16 @@
+package com.nox.platform.module.engine.api.response;
+
+import com.nox.platform.module.engine.domain.OperationKind;
+
+import java.util.List;
+import java.util.UUID;
+
+public record HistoryStepResponse(
+        UUID groupId,
+        OperationKind kind,
+        UUID revertedGroupId,
+        List<CoreBlockResponse> blocks,
+        List<CoreRelationResponse> relations,
+        List<UUID> removedBlockIds,
+        List<UUID> removedRelationIds) {
+}
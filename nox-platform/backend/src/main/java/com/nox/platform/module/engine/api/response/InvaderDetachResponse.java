@@ -0,0 +1,8 @@
+package com.nox.platform.module.engine.api.response;
+
+import java.util.UUID;
+
+public record InvaderDetachResponse(
+        UUID invaderAssetId,
+        int detachedUsages) {
+}
@@ -0,0 +1,10 @@
+package com.nox.platform.module.engine.api.response;
+
+import java.util.UUID;
+
+public record SubtreeRestoreResponse(
+        UUID blockId,
+        int restoredBlocks,
+        int restoredRelations,
+        int restoredInvaderUsages) {
+}
@@ -0,0 +1,15 @@
+package com.nox.platform.module.engine.api.response;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * @param instances per instance, the template block key mapped to the id of the block created for it
+ */
+public record TemplateInstantiationResponse(
+        UUID templateId,
+        int createdBlocks,
+        int createdRelations,
+        List<Map<String, UUID>> instances) {
+}
@@ -0,0 +1,20 @@
+package com.nox.platform.module.engine.api.response;
+
+import java.util.List;
+
+/**
+ * Blocks inside the requested viewport plus the neighbouring tiles the client should prefetch
+ * in the background so panning does not wait on the network.
+ */
+public record ViewportBlocksResponse(
+        List<CoreBlockResponse> blocks,
+        boolean truncated,
+        double tileSize,
+        List<ViewportTile> prefetchTiles) {
+
+    public record ViewportTile(
+            long x,
+            long y,
+            String bbox) {
+    }
+}
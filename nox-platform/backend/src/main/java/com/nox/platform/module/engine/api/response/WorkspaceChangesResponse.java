@@ -0,0 +1,9 @@
+package com.nox.platform.module.engine.api.response;
+
+import java.util.List;
+
+public record WorkspaceChangesResponse(
+        long cursor,
+        List<CoreBlockResponse> blocks,
+        List<CoreRelationResponse> relations) {
+}
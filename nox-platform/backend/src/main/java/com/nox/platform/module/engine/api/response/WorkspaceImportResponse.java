@@ -0,0 +1,11 @@
+package com.nox.platform.module.engine.api.response;
+
+import java.util.UUID;
+
+public record WorkspaceImportResponse(
+        UUID workspaceId,
+        int importedBlocks,
+        int importedRelations,
+        int importedInvaderUsages,
+        int skippedInvaderUsages) {
+}
@@ -0,0 +1,21 @@
+package com.nox.platform.module.engine.api.response;
+
+import com.nox.platform.module.engine.domain.OperationKind;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Pushed after a group of operations commits. Large groups are sent without their operations
+ * ({@code truncated}); peers then pull {@code firstId - 1 .. lastId} from the operation feed.
+ */
+public record WorkspaceOperationEvent(
+        UUID groupId,
+        OperationKind kind,
+        UUID revertsGroupId,
+        UUID actorId,
+        long firstId,
+        long lastId,
+        boolean truncated,
+        List<WorkspaceOperationResponse> operations) {
+}
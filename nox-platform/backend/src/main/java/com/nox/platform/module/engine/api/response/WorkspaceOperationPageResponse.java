@@ -0,0 +1,9 @@
+package com.nox.platform.module.engine.api.response;
+
+import java.util.List;
+
+public record WorkspaceOperationPageResponse(
+        long cursor,
+        boolean hasMore,
+        List<WorkspaceOperationResponse> operations) {
+}
@@ -0,0 +1,21 @@
+package com.nox.platform.module.engine.api.response;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.nox.platform.module.engine.domain.OperationEntityType;
+import com.nox.platform.module.engine.domain.OperationKind;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record WorkspaceOperationResponse(
+        long id,
+        UUID groupId,
+        OperationKind kind,
+        UUID revertsGroupId,
+        UUID actorId,
+        OperationEntityType entityType,
+        UUID entityId,
+        JsonNode forward,
+        JsonNode inverse,
+        OffsetDateTime createdAt) {
+}
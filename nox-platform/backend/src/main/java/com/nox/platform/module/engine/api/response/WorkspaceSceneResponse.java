@@ -0,0 +1,12 @@
+package com.nox.platform.module.engine.api.response;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public record WorkspaceSceneResponse(
+        UUID workspaceId,
+        List<CoreBlockResponse> blocks,
+        List<CoreRelationResponse> relations,
+        Map<UUID, List<BlockInvaderUsageResponse>> invaderUsages) {
+}
@@ -0,0 +1,9 @@
+package com.nox.platform.module.engine.api.response;
+
+import java.util.List;
+
+public record WorkspaceStateResponse(
+        long at,
+        List<CoreBlockResponse> blocks,
+        List<CoreRelationResponse> relations) {
+}
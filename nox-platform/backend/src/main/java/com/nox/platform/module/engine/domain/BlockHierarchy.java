@@ -0,0 +1,16 @@
+package com.nox.platform.module.engine.domain;
+
+import java.util.UUID;
+
+/**
+ * Read-only view of the block tree keyed by id, used to validate moves
+ * without walking lazily loaded parent entities.
+ */
+@FunctionalInterface
+public interface BlockHierarchy {
+
+    /**
+     * @return the parent id of the given block, or {@code null} for a root (or unknown) block
+     */
+    UUID parentOf(UUID blockId);
+}
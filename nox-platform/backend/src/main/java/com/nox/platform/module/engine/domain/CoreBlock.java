@@ -13,6 +13,7 @@ import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.type.SqlTypes;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -71,52 +72,61 @@ public class CoreBlock extends BaseEntity {
     @Setter(AccessLevel.PROTECTED)
     private OffsetDateTime deletedAt;
 
-    @Column(name = "locked_by")
-    @Setter(AccessLevel.PROTECTED)
-    private UUID lockedBy;
-
-    @Column(name = "locked_at")
-    @Setter(AccessLevel.PROTECTED)
-    private OffsetDateTime lockedAt;
-
-    public void lock(UUID userId, OffsetDateTime currentTime) {
-        if (isLockedByOther(userId, currentTime)) {
-            throw new DomainException("BLOCK_LOCKED", "Block is currently locked by another user");
-        }
-        this.lockedBy = userId;
-        this.lockedAt = currentTime;
+    public void updateContent(String name, Map<String, Object> config, Map<String, Object> visual, OffsetDateTime currentTime) {
+        if (name != null) this.name = name;
+        if (config != null) this.config = config;
+        if (visual != null) this.visual = visual;
         this.updateTimestamp(currentTime);
     }
 
-    public void unlock(UUID userId, OffsetDateTime currentTime) {
-        if (isLockedByOther(userId, currentTime)) {
-            throw new DomainException("BLOCK_LOCKED", "You cannot unlock a block locked by someone else");
-        }
-        this.lockedBy = null;
-        this.lockedAt = null;
-        this.updateTimestamp(currentTime);
+    public void moveTo(CoreBlock newParent) {
+        validateParentAssignment(newParent, this);
+        this.parentBlock = newParent;
     }
 
-    public boolean isLockedByOther(UUID userId, OffsetDateTime currentTime) {
-        if (this.lockedBy == null) return false;
-        if (this.lockedBy.equals(userId)) return false;
-        
-        return this.lockedAt.isAfter(currentTime.minusMinutes(2));
+    public void moveTo(CoreBlock newParent, BlockHierarchy hierarchy) {
+        validateParentAssignment(newParent != null ? newParent.getId() : null, hierarchy);
+        this.parentBlock = newParent;
     }
 
-    public void updateContent(String name, Map<String, Object> config, Map<String, Object> visual, UUID userId, OffsetDateTime currentTime) {
-        if (isLockedByOther(userId, currentTime)) {
-            throw new DomainException("BLOCK_LOCKED", "Cannot update content while block is locked by another user");
+    /**
+     * Moves the block using the new parent's materialized ancestor path (root first),
+     * so cycle and depth checks need no parent traversal at all.
+     */
+    public void moveTo(CoreBlock newParent, List<UUID> parentAncestorIds) {
+        if (newParent != null) {
+            if (newParent.getId() != null && newParent.getId().equals(getId())) {
+                throw new DomainException("CIRCULAR_DEPENDENCY", "A block cannot be its own parent");
+            }
+            if (getId() != null && parentAncestorIds.contains(getId())) {
+                throw new DomainException("CIRCULAR_DEPENDENCY", "Circular block hierarchy detected");
+            }
+            if (parentAncestorIds.size() > 10) {
+                throw new DomainException("MAX_DEPTH_REACHED", "Maximum block depth (10) exceeded");
+            }
         }
-        if (name != null) this.name = name;
-        if (config != null) this.config = config;
-        if (visual != null) this.visual = visual;
-        this.updateTimestamp(currentTime);
+        this.parentBlock = newParent;
     }
 
-    public void moveTo(CoreBlock newParent) {
-        validateParentAssignment(newParent, this);
-        this.parentBlock = newParent;
+    private void validateParentAssignment(UUID parentId, BlockHierarchy hierarchy) {
+        if (parentId == null) return;
+
+        if (parentId.equals(getId())) {
+            throw new DomainException("CIRCULAR_DEPENDENCY", "A block cannot be its own parent");
+        }
+
+        UUID ancestorId = hierarchy.parentOf(parentId);
+        int depth = 0;
+        while (ancestorId != null) {
+            if (ancestorId.equals(getId())) {
+                throw new DomainException("CIRCULAR_DEPENDENCY", "Circular block hierarchy detected");
+            }
+            ancestorId = hierarchy.parentOf(ancestorId);
+            depth++;
+            if (depth > 10) {
+                throw new DomainException("MAX_DEPTH_REACHED", "Maximum block depth (10) exceeded");
+            }
+        }
     }
 
     private void validateParentAssignment(CoreBlock parent, CoreBlock current) {
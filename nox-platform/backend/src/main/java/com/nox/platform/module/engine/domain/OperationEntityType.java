@@ -0,0 +1,6 @@
+package com.nox.platform.module.engine.domain;
+
+public enum OperationEntityType {
+    BLOCK,
+    RELATION
+}
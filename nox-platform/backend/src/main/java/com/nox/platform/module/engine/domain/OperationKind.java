@@ -0,0 +1,7 @@
+package com.nox.platform.module.engine.domain;
+
+public enum OperationKind {
+    DO,
+    UNDO,
+    REDO
+}
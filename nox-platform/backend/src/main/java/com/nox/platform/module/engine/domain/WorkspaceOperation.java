@@ -0,0 +1,67 @@
+package com.nox.platform.module.engine.domain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * One entry of the append-only workspace operation log. {@code forward} is the entity state
+ * after the change and {@code inverse} the state before it; {@code null} means the entity was
+ * absent (not yet created, or soft-deleted).
+ */
+@Entity
+@Table(name = "workspace_operations")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class WorkspaceOperation {
+
+    // Drawn one at a time under the workspace write lock, so within a workspace id order is commit order
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workspace_operations_seq")
+    @SequenceGenerator(name = "workspace_operations_seq", sequenceName = "workspace_operations_id_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "workspace_id", nullable = false, updatable = false)
+    private UUID workspaceId;
+
+    @Column(name = "group_id", nullable = false, updatable = false)
+    private UUID groupId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8, updatable = false)
+    private OperationKind kind;
+
+    @Column(name = "reverts_group_id", updatable = false)
+    private UUID revertsGroupId;
+
+    @Column(name = "actor_id", updatable = false)
+    private UUID actorId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 16, updatable = false)
+    private OperationEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false, updatable = false)
+    private UUID entityId;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb", updatable = false)
+    private JsonNode forward;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb", updatable = false)
+    private JsonNode inverse;
+
+    @Column(nullable = false, updatable = false)
+    private boolean coalescible;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+}
@@ -1,15 +1,22 @@
 package com.nox.platform.module.engine.infrastructure;
 
+import com.nox.platform.module.engine.api.response.BlockInvaderUsageResponse;
 import com.nox.platform.module.engine.domain.BlockInvaderUsage;
+import com.nox.platform.module.engine.service.archive.ArchivedInvaderUsage;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 @Repository
@@ -19,7 +26,42 @@ public interface BlockInvaderUsageRepository extends JpaRepository<BlockInvaderU
 
     Optional<BlockInvaderUsage> findByBlock_IdAndInvaderAsset_Id(UUID blockId, UUID invaderAssetId);
 
+    /**
+     * Usages of one invader on any of the blocks, detached ones included since the pair is unique.
+     */
+    List<BlockInvaderUsage> findByBlock_IdInAndInvaderAsset_Id(Collection<UUID> blockIds, UUID invaderAssetId);
+
+    /**
+     * Usage with its block, whose workspace id then resolves without another query.
+     */
+    @Query("SELECT u FROM BlockInvaderUsage u JOIN FETCH u.block WHERE u.id = :usageId")
+    Optional<BlockInvaderUsage> findWithBlockById(@Param("usageId") UUID usageId);
+
+    @Query("SELECT new com.nox.platform.module.engine.api.response.BlockInvaderUsageResponse(" +
+           "u.id, u.block.id, u.invaderAsset.id, u.appliedVersion, u.configSnapshot, u.createdAt) FROM BlockInvaderUsage u " +
+           "WHERE u.block.workspace.id = :workspaceId AND u.block.deletedAt IS NULL AND u.deletedAt IS NULL " +
+           "ORDER BY u.createdAt ASC")
+    List<BlockInvaderUsageResponse> findUsageResponsesByWorkspaceId(@Param("workspaceId") UUID workspaceId);
+
+    @Query("SELECT new com.nox.platform.module.engine.service.archive.ArchivedInvaderUsage(" +
+           "u.block.id, u.invaderAsset.id, u.appliedVersion, u.configSnapshot) FROM BlockInvaderUsage u " +
+           "WHERE u.block.workspace.id = :workspaceId AND u.block.deletedAt IS NULL AND u.deletedAt IS NULL " +
+           "ORDER BY u.block.id ASC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<ArchivedInvaderUsage> streamArchivedUsages(@Param("workspaceId") UUID workspaceId);
+
     @Modifying
     @Query("UPDATE BlockInvaderUsage u SET u.deletedAt = :deletedAt WHERE u.block.id IN :blockIds AND u.deletedAt IS NULL")
-    void softDeleteUsagesByBlockIds(@Param("blockIds") List<UUID> blockIds, @Param("deletedAt") java.time.OffsetDateTime deletedAt);
+    int softDeleteUsagesByBlockIds(@Param("blockIds") List<UUID> blockIds, @Param("deletedAt") java.time.OffsetDateTime deletedAt);
+
+    @Modifying
+    @Query("UPDATE BlockInvaderUsage u SET u.deletedAt = :deletedAt " +
+           "WHERE u.block.id IN :blockIds AND u.invaderAsset.id = :invaderAssetId AND u.deletedAt IS NULL")
+    int softDeleteUsagesOfInvader(@Param("blockIds") List<UUID> blockIds,
+                                  @Param("invaderAssetId") UUID invaderAssetId,
+                                  @Param("deletedAt") java.time.OffsetDateTime deletedAt);
+
+    @Modifying
+    @Query("UPDATE BlockInvaderUsage u SET u.deletedAt = NULL WHERE u.block.id IN :blockIds AND u.deletedAt = :deletedAt")
+    int restoreUsagesByBlockIds(@Param("blockIds") List<UUID> blockIds, @Param("deletedAt") java.time.OffsetDateTime deletedAt);
 }
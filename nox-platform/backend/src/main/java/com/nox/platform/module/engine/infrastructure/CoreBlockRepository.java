@@ -1,13 +1,22 @@
 package com.nox.platform.module.engine.infrastructure;
 
+import com.nox.platform.module.engine.api.response.CoreBlockResponse;
 import com.nox.platform.module.engine.domain.CoreBlock;
+import com.nox.platform.module.engine.service.archive.ArchivedBlock;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import java.util.Optional;
 
@@ -15,6 +24,13 @@ public interface CoreBlockRepository extends JpaRepository<CoreBlock, UUID> {
 
     Optional<CoreBlock> findByIdAndWorkspace_Id(UUID id, UUID workspaceId);
 
+    @Query("SELECT b.workspace.id FROM CoreBlock b WHERE b.id = :blockId")
+    Optional<UUID> findWorkspaceIdById(@Param("blockId") UUID blockId);
+
+    List<CoreBlock> findByIdInAndWorkspace_Id(Collection<UUID> ids, UUID workspaceId);
+
+    long countByIdInAndWorkspace_Id(Collection<UUID> ids, UUID workspaceId);
+
     @Query("SELECT b FROM CoreBlock b " +
            "LEFT JOIN FETCH b.parentBlock " +
            "LEFT JOIN FETCH b.originAsset " +
@@ -23,27 +39,252 @@ public interface CoreBlockRepository extends JpaRepository<CoreBlock, UUID> {
            "ORDER BY b.createdAt ASC")
     List<CoreBlock> findBlocksWithDetailsByWorkspaceId(@Param("workspaceId") UUID workspaceId);
 
+    String BLOCK_RESPONSE_PROJECTION = "SELECT new com.nox.platform.module.engine.api.response.CoreBlockResponse(" +
+            "b.id, b.workspace.id, b.parentBlock.id, b.originAsset.id, b.type, b.name, " +
+            "cast(b.config as String), cast(b.visual as String), b.createdBy.id, b.updatedAt, b.deletedAt) FROM CoreBlock b ";
+
+    @Query(BLOCK_RESPONSE_PROJECTION +
+           "WHERE b.workspace.id = :workspaceId " +
+           "ORDER BY b.createdAt ASC")
+    List<CoreBlockResponse> findBlockResponsesByWorkspaceId(@Param("workspaceId") UUID workspaceId);
+
+    /**
+     * Current state of the given live blocks, read straight from the table rather than the persistence context.
+     */
+    @Query(BLOCK_RESPONSE_PROJECTION +
+           "WHERE b.workspace.id = :workspaceId AND b.id IN :blockIds")
+    List<CoreBlockResponse> findBlockResponsesByIds(@Param("workspaceId") UUID workspaceId,
+                                                    @Param("blockIds") Collection<UUID> blockIds);
+
+    @Query(BLOCK_RESPONSE_PROJECTION +
+           "WHERE b.workspace.id = :workspaceId " +
+           "ORDER BY b.createdAt ASC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<CoreBlockResponse> streamBlockResponsesByWorkspaceId(@Param("workspaceId") UUID workspaceId);
+
+    @Query("SELECT new com.nox.platform.module.engine.service.archive.ArchivedBlock(" +
+           "b.id, b.parentBlock.id, b.originAsset.id, b.type, b.name, b.config, b.visual) FROM CoreBlock b " +
+           "WHERE b.workspace.id = :workspaceId " +
+           "ORDER BY b.id ASC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<ArchivedBlock> streamArchivedBlocks(@Param("workspaceId") UUID workspaceId);
+
+    @Query(BLOCK_RESPONSE_PROJECTION +
+           "WHERE b.workspace.id = :workspaceId " +
+           "ORDER BY b.id ASC")
+    List<CoreBlockResponse> findBlockResponsePage(@Param("workspaceId") UUID workspaceId, Pageable pageable);
+
+    @Query(BLOCK_RESPONSE_PROJECTION +
+           "WHERE b.workspace.id = :workspaceId AND b.id > :afterId " +
+           "ORDER BY b.id ASC")
+    List<CoreBlockResponse> findBlockResponsePageAfter(@Param("workspaceId") UUID workspaceId,
+                                                       @Param("afterId") UUID afterId,
+                                                       Pageable pageable);
+
     List<CoreBlock> findByWorkspaceId(UUID workspaceId);
 
     List<CoreBlock> findByWorkspaceIdAndParentBlockIsNull(UUID workspaceId);
 
     List<CoreBlock> findByParentBlock_Id(UUID parentBlockId);
 
+    /**
+     * Subtree lookups go through the maintained {@code path} column (see V28), so each call is a
+     * primary-key probe plus one GIN index scan regardless of nesting depth.
+     */
     @Query(value = """
-        WITH RECURSIVE descendant_blocks AS (
-            SELECT id FROM core_blocks WHERE id = :rootId AND deleted_at IS NULL
-            UNION ALL
-            SELECT cb.id FROM core_blocks cb
-            INNER JOIN descendant_blocks db ON cb.parent_block_id = db.id
-            WHERE cb.deleted_at IS NULL
-        )
-        SELECT id FROM descendant_blocks;
+        SELECT id FROM core_blocks
+        WHERE deleted_at IS NULL
+          AND (id = :rootId OR path @> ARRAY[CAST(:rootId AS uuid)])
         """, nativeQuery = true)
     List<UUID> findDescendantBlockIdsByRootId(@Param("rootId") UUID rootId);
 
+    @Query(value = """
+        SELECT id FROM core_blocks
+        WHERE deleted_at IS NULL
+          AND (id IN (:rootIds) OR path && CAST(ARRAY[:rootIds] AS uuid[]))
+        """, nativeQuery = true)
+    List<UUID> findDescendantBlockIdsByRootIds(@Param("rootIds") Collection<UUID> rootIds);
+
+    /**
+     * Tombstoned root of a subtree; native because the entity restriction hides deleted rows.
+     */
+    @Query(value = "SELECT * FROM core_blocks WHERE id = :blockId AND workspace_id = :workspaceId AND deleted_at IS NOT NULL",
+           nativeQuery = true)
+    Optional<CoreBlock> findDeletedByIdAndWorkspaceId(@Param("blockId") UUID blockId, @Param("workspaceId") UUID workspaceId);
+
+    /**
+     * Blocks removed by the same cascade as the root: every descendant carrying the root's exact deletion stamp.
+     */
+    @Query(value = """
+        SELECT id FROM core_blocks
+        WHERE deleted_at = :deletedAt
+          AND (id = :rootId OR path @> ARRAY[CAST(:rootId AS uuid)])
+        """, nativeQuery = true)
+    List<UUID> findSubtreeIdsDeletedAt(@Param("rootId") UUID rootId, @Param("deletedAt") java.time.OffsetDateTime deletedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE core_blocks
+            SET deleted_at = NULL, updated_at = :restoredAt, version = version + 1
+            WHERE id IN (:blockIds) AND deleted_at = :deletedAt
+            """, nativeQuery = true)
+    int restoreBlocksByIds(@Param("blockIds") List<UUID> blockIds,
+                           @Param("deletedAt") java.time.OffsetDateTime deletedAt,
+                           @Param("restoredAt") java.time.OffsetDateTime restoredAt);
+
+    /**
+     * @return the ancestor ids of the block, root first and excluding the block itself
+     */
+    @Query(value = """
+        SELECT a.id FROM core_blocks b
+        CROSS JOIN LATERAL unnest(b.path) WITH ORDINALITY AS a(id, ord)
+        WHERE b.id = :blockId
+        ORDER BY a.ord
+        """, nativeQuery = true)
+    List<UUID> findAncestorIds(@Param("blockId") UUID blockId);
+
+    /**
+     * Parent links of the given blocks and of every ancestor on their paths, enough to validate
+     * moves among them without walking lazily loaded parents.
+     */
+    @Query(value = """
+        SELECT a.id AS "blockId", a.parent_block_id AS "parentId" FROM core_blocks a
+        WHERE a.deleted_at IS NULL
+          AND a.id IN (SELECT unnest(b.path || b.id) FROM core_blocks b
+                       WHERE b.workspace_id = :workspaceId AND b.id IN (:blockIds))
+        """, nativeQuery = true)
+    List<ParentLinkView> findParentLinksWithAncestors(@Param("workspaceId") UUID workspaceId,
+                                                      @Param("blockIds") Collection<UUID> blockIds);
+
+    /**
+     * Blocks of one hierarchy level whose canvas rectangle intersects the viewport,
+     * served by the GiST index on {@code (workspace_id, bounds)} (see V43).
+     */
+    @Query(value = """
+            SELECT * FROM core_blocks
+            WHERE workspace_id = :workspaceId
+              AND deleted_at IS NULL
+              AND parent_block_id IS NOT DISTINCT FROM CAST(:parentBlockId AS uuid)
+              AND bounds && box(point(:minX, :minY), point(:maxX, :maxY))
+            ORDER BY created_at ASC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<CoreBlock> findInViewport(@Param("workspaceId") UUID workspaceId,
+                                   @Param("parentBlockId") UUID parentBlockId,
+                                   @Param("minX") double minX,
+                                   @Param("minY") double minY,
+                                   @Param("maxX") double maxX,
+                                   @Param("maxY") double maxY,
+                                   @Param("limit") int limit);
+
+    /**
+     * Native on purpose: the entity-level {@code deleted_at IS NULL} restriction would hide tombstones,
+     * which delta sync has to ship so clients can drop removed blocks.
+     */
+    @Query(value = """
+            SELECT * FROM core_blocks
+            WHERE workspace_id = :workspaceId AND change_seq > :after AND change_seq <= :upTo
+            ORDER BY change_seq ASC
+            """, nativeQuery = true)
+    List<CoreBlock> findChangedIncludingDeleted(@Param("workspaceId") UUID workspaceId,
+                                                @Param("after") long after,
+                                                @Param("upTo") long upTo);
+
+    /**
+     * Applies RFC 7396 merge patches inside PostgreSQL (see V29). An empty patch leaves the column
+     * untouched so its TOASTed value is not rewritten. Bumps the version so stale entity writes fail
+     * optimistically instead of overwriting the patched keys.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE core_blocks
+            SET config = CASE WHEN CAST(:configPatch AS jsonb) = '{}'::jsonb THEN config
+                              ELSE jsonb_merge_patch(config, CAST(:configPatch AS jsonb)) END,
+                visual = CASE WHEN CAST(:visualPatch AS jsonb) = '{}'::jsonb THEN visual
+                              ELSE jsonb_merge_patch(visual, CAST(:visualPatch AS jsonb)) END,
+                updated_at = :updatedAt,
+                version = version + 1
+            WHERE id = :blockId AND deleted_at IS NULL
+            """, nativeQuery = true)
+    int mergePatchContent(@Param("blockId") UUID blockId,
+                          @Param("configPatch") String configPatch,
+                          @Param("visualPatch") String visualPatch,
+                          @Param("updatedAt") java.time.OffsetDateTime updatedAt);
+
+    /**
+     * Last-writer-wins merge (see V33): each top-level key of the patches, and the name, is only
+     * written when {@code stamp} is newer than the clock stored for that field, and its clock then
+     * advances to {@code stamp}. No version check is involved, so writes commute and never retry;
+     * the version is still bumped so stale whole-entity saves fail instead of undoing the merge.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE core_blocks
+            SET name = CASE WHEN CAST(:name AS text) IS NOT NULL AND lww_newer(field_clocks, 'name', :stamp)
+                            THEN CAST(:name AS text) ELSE name END,
+                config = CASE WHEN CAST(:configPatch AS jsonb) = '{}'::jsonb THEN config
+                              ELSE lww_merge(config, field_clocks, 'config', CAST(:configPatch AS jsonb), :stamp) END,
+                visual = CASE WHEN CAST(:visualPatch AS jsonb) = '{}'::jsonb THEN visual
+                              ELSE lww_merge(visual, field_clocks, 'visual', CAST(:visualPatch AS jsonb), :stamp) END,
+                field_clocks = lww_stamp(lww_stamp(lww_stamp(field_clocks,
+                                   '', CASE WHEN CAST(:name AS text) IS NOT NULL THEN jsonb_build_object('name', CAST(:name AS text)) END, :stamp),
+                                   'config', CAST(:configPatch AS jsonb), :stamp),
+                                   'visual', CAST(:visualPatch AS jsonb), :stamp),
+                updated_at = :updatedAt,
+                version = version + 1
+            WHERE id = :blockId AND deleted_at IS NULL
+            """, nativeQuery = true)
+    int mergeFields(@Param("blockId") UUID blockId,
+                    @Param("name") String name,
+                    @Param("configPatch") String configPatch,
+                    @Param("visualPatch") String visualPatch,
+                    @Param("stamp") String stamp,
+                    @Param("updatedAt") java.time.OffsetDateTime updatedAt);
+
+    /**
+     * Advances the clocks of fields written through a non-merging path, so older concurrent merges
+     * cannot bring back what that write replaced. {@code entries} is a JSON array of
+     * {@code {"id", "fields"}} objects, {@code fields} being the field names to stamp.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE core_blocks t
+            SET field_clocks = t.field_clocks || COALESCE((
+                    SELECT jsonb_object_agg(f, CAST(:stamp AS text))
+                    FROM jsonb_array_elements_text(e.fields) AS f
+                    WHERE lww_newer(t.field_clocks, f, :stamp)), '{}'::jsonb)
+            FROM jsonb_to_recordset(CAST(:entries AS jsonb)) AS e(id uuid, fields jsonb)
+            WHERE t.id = e.id
+            """, nativeQuery = true)
+    int stampFields(@Param("entries") String entries, @Param("stamp") String stamp);
+
+    @Query(value = "SELECT CAST(field_clocks AS text) FROM core_blocks WHERE id = :blockId", nativeQuery = true)
+    Optional<String> findFieldClocks(@Param("blockId") UUID blockId);
+
+    /**
+     * Persists a coalesced batch of drag positions in one statement. {@code positions} is a JSON array of
+     * {@code {"blockId", "x", "y"}} objects; only {@code visual.position} is merged, the rest of the document is kept.
+     */
+    @Transactional
     @Modifying
-    @Query("UPDATE CoreBlock b SET b.deletedAt = :deletedAt WHERE b.id IN :blockIds AND b.deletedAt IS NULL")
-    void softDeleteBlocksByIds(@Param("blockIds") List<UUID> blockIds, @Param("deletedAt") java.time.OffsetDateTime deletedAt);
+    @Query(value = """
+            UPDATE core_blocks b
+            SET visual = jsonb_merge_patch(b.visual, jsonb_build_object('position', jsonb_build_object('x', p.x, 'y', p.y))),
+                field_clocks = b.field_clocks || jsonb_build_object('visual.position', CAST(:stamp AS text)),
+                updated_at = :updatedAt,
+                version = b.version + 1
+            FROM jsonb_to_recordset(CAST(:positions AS jsonb)) AS p("blockId" uuid, x float8, y float8)
+            WHERE b.id = p."blockId" AND b.workspace_id = :workspaceId AND b.deleted_at IS NULL
+              AND lww_newer(b.field_clocks, 'visual.position', :stamp)
+            """, nativeQuery = true)
+    int updatePositions(@Param("workspaceId") UUID workspaceId,
+                        @Param("positions") String positions,
+                        @Param("stamp") String stamp,
+                        @Param("updatedAt") java.time.OffsetDateTime updatedAt);
+
+    @Modifying
+    @Query("UPDATE CoreBlock b SET b.deletedAt = :deletedAt, b.updatedAt = :deletedAt WHERE b.id IN :blockIds AND b.deletedAt IS NULL")
+    int softDeleteBlocksByIds(@Param("blockIds") List<UUID> blockIds, @Param("deletedAt") java.time.OffsetDateTime deletedAt);
 
     @Modifying
     @Query(value = """
@@ -56,4 +297,160 @@ public interface CoreBlockRepository extends JpaRepository<CoreBlock, UUID> {
             )
             """, nativeQuery = true)
     int deleteOldBlocksInBatch(@Param("threshold") java.time.OffsetDateTime threshold, @Param("limit") int limit);
+
+    /**
+     * Blocks by id whether live or tombstoned; used when replaying history onto deleted rows.
+     */
+    @Query(value = "SELECT * FROM core_blocks WHERE workspace_id = :workspaceId AND id IN (:blockIds)", nativeQuery = true)
+    List<CoreBlock> findAllByIdsIncludingDeleted(@Param("workspaceId") UUID workspaceId, @Param("blockIds") List<UUID> blockIds);
+
+    /**
+     * Which of the given ids are already taken, by a live or tombstoned block of any workspace.
+     */
+    @Query(value = "SELECT id FROM core_blocks WHERE id IN (:blockIds)", nativeQuery = true)
+    List<UUID> findTakenIds(@Param("blockIds") Collection<UUID> blockIds);
+
+    /**
+     * Overwrites the editable content of a block and revives it if it was deleted.
+     * Re-parenting goes through the path triggers from V28 like any other parent change.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE core_blocks
+            SET name = :name,
+                parent_block_id = CAST(:parentBlockId AS uuid),
+                config = CAST(:config AS jsonb),
+                visual = CAST(:visual AS jsonb),
+                deleted_at = NULL,
+                updated_at = :updatedAt,
+                version = version + 1
+            WHERE id = :blockId AND workspace_id = :workspaceId
+            """, nativeQuery = true)
+    int applyState(@Param("workspaceId") UUID workspaceId,
+                   @Param("blockId") UUID blockId,
+                   @Param("name") String name,
+                   @Param("parentBlockId") UUID parentBlockId,
+                   @Param("config") String config,
+                   @Param("visual") String visual,
+                   @Param("updatedAt") java.time.OffsetDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE core_blocks
+            SET deleted_at = NULL, updated_at = :updatedAt, version = version + 1
+            WHERE workspace_id = :workspaceId AND id IN (:blockIds) AND deleted_at IS NOT NULL
+            """, nativeQuery = true)
+    int reviveByIds(@Param("workspaceId") UUID workspaceId,
+                    @Param("blockIds") List<UUID> blockIds,
+                    @Param("updatedAt") java.time.OffsetDateTime updatedAt);
+
+    /**
+     * @return how many of the given blocks now sit in a cycle or deeper than {@code maxDepth}
+     */
+    @Query(value = """
+            SELECT COUNT(*) FROM core_blocks
+            WHERE id IN (:blockIds) AND (id = ANY(path) OR cardinality(path) > :maxDepth)
+            """, nativeQuery = true)
+    long countInvalidHierarchy(@Param("blockIds") List<UUID> blockIds, @Param("maxDepth") int maxDepth);
+
+    /**
+     * Copies blocks, wires and invader usages into {@code targetWorkspaceId} in one call (see V34).
+     * {@code rootIds} is a JSON array of block ids whose subtrees are copied, or null for the whole
+     * workspace; copied roots are placed under {@code targetParentId} and shifted by the offset.
+     */
+    @Query(value = """
+            SELECT blocks AS "blocks", relations AS "relations", usages AS "usages", max_depth AS "maxDepth"
+            FROM clone_core_blocks(
+                :sourceWorkspaceId,
+                :targetWorkspaceId,
+                (SELECT array_agg(CAST(value AS uuid)) FROM jsonb_array_elements_text(CAST(:rootIds AS jsonb))),
+                CAST(:targetParentId AS uuid),
+                :actorId,
+                :offsetX,
+                :offsetY,
+                :clonedAt)
+            """, nativeQuery = true)
+    CloneCountsView cloneBlocks(@Param("sourceWorkspaceId") UUID sourceWorkspaceId,
+                                @Param("targetWorkspaceId") UUID targetWorkspaceId,
+                                @Param("rootIds") String rootIds,
+                                @Param("targetParentId") UUID targetParentId,
+                                @Param("actorId") UUID actorId,
+                                @Param("offsetX") double offsetX,
+                                @Param("offsetY") double offsetY,
+                                @Param("clonedAt") java.time.OffsetDateTime clonedAt);
+
+    /**
+     * Old-to-new id pairs of the last {@link #cloneBlocks} call; only valid inside its transaction.
+     */
+    @Query(value = "SELECT old_id AS \"oldId\", new_id AS \"newId\" FROM core_block_clone_map", nativeQuery = true)
+    List<CloneMappingView> findCloneMappings();
+
+    /**
+     * Stamps out a template's subgraph {@code copies} times (see V35); instance {@code i} is placed
+     * at the origin plus {@code i} steps.
+     */
+    @Query(value = """
+            SELECT blocks AS "blocks", relations AS "relations", max_depth AS "maxDepth"
+            FROM instantiate_block_template(
+                :templateId, :workspaceId, CAST(:parentId AS uuid), :actorId, :copies,
+                :originX, :originY, :stepX, :stepY, :createdAt)
+            """, nativeQuery = true)
+    InstantiationCountsView instantiateTemplate(@Param("templateId") UUID templateId,
+                                                @Param("workspaceId") UUID workspaceId,
+                                                @Param("parentId") UUID parentId,
+                                                @Param("actorId") UUID actorId,
+                                                @Param("copies") int copies,
+                                                @Param("originX") double originX,
+                                                @Param("originY") double originY,
+                                                @Param("stepX") double stepX,
+                                                @Param("stepY") double stepY,
+                                                @Param("createdAt") java.time.OffsetDateTime createdAt);
+
+    /**
+     * Key-to-id pairs of the last {@link #instantiateTemplate} call; only valid inside its transaction.
+     */
+    @Query(value = """
+            SELECT instance AS "instance", block_key AS "blockKey", new_id AS "newId"
+            FROM block_template_instance_map
+            ORDER BY instance
+            """, nativeQuery = true)
+    List<InstanceMappingView> findTemplateInstanceMappings();
+
+    interface ParentLinkView {
+        UUID getBlockId();
+
+        UUID getParentId();
+    }
+
+    interface CloneCountsView {
+        int getBlocks();
+
+        int getRelations();
+
+        int getUsages();
+
+        int getMaxDepth();
+    }
+
+    interface CloneMappingView {
+        UUID getOldId();
+
+        UUID getNewId();
+    }
+
+    interface InstantiationCountsView {
+        int getBlocks();
+
+        int getRelations();
+
+        int getMaxDepth();
+    }
+
+    interface InstanceMappingView {
+        int getInstance();
+
+        String getBlockKey();
+
+        UUID getNewId();
+    }
 }
@@ -1,14 +1,20 @@
 package com.nox.platform.module.engine.infrastructure;
 
+import com.nox.platform.module.engine.api.response.CoreRelationResponse;
 import com.nox.platform.module.engine.domain.CoreRelation;
+import com.nox.platform.module.engine.service.archive.ArchivedRelation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 
@@ -19,16 +25,136 @@ public interface CoreRelationRepository extends JpaRepository<CoreRelation, UUID
 
     List<CoreRelation> findByWorkspaceIdOrderByCreatedAtAsc(UUID workspaceId);
 
+    @Query("SELECT new com.nox.platform.module.engine.api.response.CoreRelationResponse(" +
+           "r.id, r.workspace.id, r.sourceBlock.id, r.targetBlock.id, r.type, " +
+           "cast(r.rules as String), cast(r.visual as String), r.deletedAt) FROM CoreRelation r " +
+           "WHERE r.workspace.id = :workspaceId " +
+           "ORDER BY r.createdAt ASC")
+    List<CoreRelationResponse> findRelationResponsesByWorkspaceId(@Param("workspaceId") UUID workspaceId);
+
+    @Query("SELECT new com.nox.platform.module.engine.service.archive.ArchivedRelation(" +
+           "r.sourceBlock.id, r.targetBlock.id, r.type, r.rules, r.visual) FROM CoreRelation r " +
+           "WHERE r.workspace.id = :workspaceId " +
+           "ORDER BY r.id ASC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<ArchivedRelation> streamArchivedRelations(@Param("workspaceId") UUID workspaceId);
+
     List<CoreRelation> findBySourceBlock_IdOrTargetBlock_Id(UUID sourceBlockId, UUID targetBlockId);
 
     List<CoreRelation> findBySourceBlock_IdAndTargetBlock_Id(UUID sourceBlockId, UUID targetBlockId);
 
+    /**
+     * Every live wire attached to one port of a block, as source or target, using the port indexes from V31.
+     */
+    @Query(value = """
+            SELECT * FROM core_relations
+            WHERE workspace_id = :workspaceId AND deleted_at IS NULL
+              AND ((source_block_id = :blockId AND source_handle = :handle)
+                OR (target_block_id = :blockId AND target_handle = :handle))
+            ORDER BY created_at ASC
+            """, nativeQuery = true)
+    List<CoreRelation> findByPort(@Param("workspaceId") UUID workspaceId,
+                                  @Param("blockId") UUID blockId,
+                                  @Param("handle") String handle);
+
     @Query("SELECT r FROM CoreRelation r WHERE (r.sourceBlock.id IN :blockIds OR r.targetBlock.id IN :blockIds) AND r.deletedAt IS NULL")
     List<CoreRelation> findByBlockIdsActive(@Param("blockIds") List<UUID> blockIds);
 
+    /**
+     * Native so tombstones are included; delta sync ships them so clients can drop removed wires.
+     */
+    @Query(value = """
+            SELECT * FROM core_relations
+            WHERE workspace_id = :workspaceId AND change_seq > :after AND change_seq <= :upTo
+            ORDER BY change_seq ASC
+            """, nativeQuery = true)
+    List<CoreRelation> findChangedIncludingDeleted(@Param("workspaceId") UUID workspaceId,
+                                                   @Param("after") long after,
+                                                   @Param("upTo") long upTo);
+
+    /**
+     * RFC 7396 merge patch of rules/visual applied in SQL; see {@code CoreBlockRepository#mergePatchContent}.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE core_relations
+            SET rules = CASE WHEN CAST(:rulesPatch AS jsonb) = '{}'::jsonb THEN rules
+                             ELSE jsonb_merge_patch(rules, CAST(:rulesPatch AS jsonb)) END,
+                visual = CASE WHEN CAST(:visualPatch AS jsonb) = '{}'::jsonb THEN visual
+                              ELSE jsonb_merge_patch(visual, CAST(:visualPatch AS jsonb)) END,
+                updated_at = :updatedAt,
+                version = version + 1
+            WHERE id = :relationId AND deleted_at IS NULL
+            """, nativeQuery = true)
+    int mergePatchContent(@Param("relationId") UUID relationId,
+                          @Param("rulesPatch") String rulesPatch,
+                          @Param("visualPatch") String visualPatch,
+                          @Param("updatedAt") java.time.OffsetDateTime updatedAt);
+
+    /**
+     * Last-writer-wins merge of rules/visual keys; see {@code CoreBlockRepository#mergeFields}.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE core_relations
+            SET rules = CASE WHEN CAST(:rulesPatch AS jsonb) = '{}'::jsonb THEN rules
+                             ELSE lww_merge(rules, field_clocks, 'rules', CAST(:rulesPatch AS jsonb), :stamp) END,
+                visual = CASE WHEN CAST(:visualPatch AS jsonb) = '{}'::jsonb THEN visual
+                              ELSE lww_merge(visual, field_clocks, 'visual', CAST(:visualPatch AS jsonb), :stamp) END,
+                field_clocks = lww_stamp(lww_stamp(field_clocks,
+                                   'rules', CAST(:rulesPatch AS jsonb), :stamp),
+                                   'visual', CAST(:visualPatch AS jsonb), :stamp),
+                updated_at = :updatedAt,
+                version = version + 1
+            WHERE id = :relationId AND deleted_at IS NULL
+            """, nativeQuery = true)
+    int mergeFields(@Param("relationId") UUID relationId,
+                    @Param("rulesPatch") String rulesPatch,
+                    @Param("visualPatch") String visualPatch,
+                    @Param("stamp") String stamp,
+                    @Param("updatedAt") java.time.OffsetDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE core_relations t
+            SET field_clocks = t.field_clocks || COALESCE((
+                    SELECT jsonb_object_agg(f, CAST(:stamp AS text))
+                    FROM jsonb_array_elements_text(e.fields) AS f
+                    WHERE lww_newer(t.field_clocks, f, :stamp)), '{}'::jsonb)
+            FROM jsonb_to_recordset(CAST(:entries AS jsonb)) AS e(id uuid, fields jsonb)
+            WHERE t.id = e.id
+            """, nativeQuery = true)
+    int stampFields(@Param("entries") String entries, @Param("stamp") String stamp);
+
+    @Query(value = "SELECT CAST(field_clocks AS text) FROM core_relations WHERE id = :relationId", nativeQuery = true)
+    Optional<String> findFieldClocks(@Param("relationId") UUID relationId);
+
+    /**
+     * Restores wires removed by the same cascade, skipping any whose other end is still deleted
+     * or whose port pair has been re-wired since.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE core_relations r
+            SET deleted_at = NULL, updated_at = :restoredAt
+            WHERE r.deleted_at = :deletedAt
+              AND (r.source_block_id IN (:blockIds) OR r.target_block_id IN (:blockIds))
+              AND NOT EXISTS (
+                  SELECT 1 FROM core_blocks b
+                  WHERE b.id IN (r.source_block_id, r.target_block_id) AND b.deleted_at IS NOT NULL)
+              AND NOT EXISTS (
+                  SELECT 1 FROM core_relations live
+                  WHERE live.deleted_at IS NULL
+                    AND live.source_block_id = r.source_block_id AND live.target_block_id = r.target_block_id
+                    AND live.source_handle = r.source_handle AND live.target_handle = r.target_handle)
+            """, nativeQuery = true)
+    int restoreRelationsByBlockIds(@Param("blockIds") List<UUID> blockIds,
+                                   @Param("deletedAt") java.time.OffsetDateTime deletedAt,
+                                   @Param("restoredAt") java.time.OffsetDateTime restoredAt);
+
     @Modifying
-    @Query("UPDATE CoreRelation r SET r.deletedAt = :deletedAt WHERE (r.sourceBlock.id IN :blockIds OR r.targetBlock.id IN :blockIds) AND r.deletedAt IS NULL")
-    void softDeleteRelationsByBlockIds(@Param("blockIds") List<UUID> blockIds, @Param("deletedAt") java.time.OffsetDateTime deletedAt);
+    @Query("UPDATE CoreRelation r SET r.deletedAt = :deletedAt, r.updatedAt = :deletedAt WHERE (r.sourceBlock.id IN :blockIds OR r.targetBlock.id IN :blockIds) AND r.deletedAt IS NULL")
+    int softDeleteRelationsByBlockIds(@Param("blockIds") List<UUID> blockIds, @Param("deletedAt") java.time.OffsetDateTime deletedAt);
 
     @Modifying
     @Query(value = """
@@ -41,4 +167,41 @@ public interface CoreRelationRepository extends JpaRepository<CoreRelation, UUID
             )
             """, nativeQuery = true)
     int deleteOldRelationsInBatch(@Param("threshold") java.time.OffsetDateTime threshold, @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM core_relations WHERE workspace_id = :workspaceId AND id IN (:relationIds)", nativeQuery = true)
+    List<CoreRelation> findAllByIdsIncludingDeleted(@Param("workspaceId") UUID workspaceId, @Param("relationIds") List<UUID> relationIds);
+
+    @Modifying
+    @Query("UPDATE CoreRelation r SET r.deletedAt = :deletedAt, r.updatedAt = :deletedAt WHERE r.id IN :relationIds AND r.deletedAt IS NULL")
+    int softDeleteByIds(@Param("relationIds") List<UUID> relationIds, @Param("deletedAt") java.time.OffsetDateTime deletedAt);
+
+    /**
+     * Overwrites rules and visual of a relation and revives it if it was deleted. Port handles
+     * follow from the generated columns, so the unique port index still applies.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE core_relations
+            SET rules = CAST(:rules AS jsonb),
+                visual = CAST(:visual AS jsonb),
+                deleted_at = NULL,
+                updated_at = :updatedAt,
+                version = version + 1
+            WHERE id = :relationId AND workspace_id = :workspaceId
+            """, nativeQuery = true)
+    int applyState(@Param("workspaceId") UUID workspaceId,
+                   @Param("relationId") UUID relationId,
+                   @Param("rules") String rules,
+                   @Param("visual") String visual,
+                   @Param("updatedAt") java.time.OffsetDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE core_relations
+            SET deleted_at = NULL, updated_at = :updatedAt, version = version + 1
+            WHERE workspace_id = :workspaceId AND id IN (:relationIds) AND deleted_at IS NOT NULL
+            """, nativeQuery = true)
+    int reviveByIds(@Param("workspaceId") UUID workspaceId,
+                    @Param("relationIds") List<UUID> relationIds,
+                    @Param("updatedAt") java.time.OffsetDateTime updatedAt);
 }
@@ -0,0 +1,112 @@
+package com.nox.platform.module.engine.infrastructure;
+
+import com.nox.platform.module.engine.domain.WorkspaceOperation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface WorkspaceOperationRepository extends JpaRepository<WorkspaceOperation, Long> {
+
+    boolean existsByIdAndWorkspaceId(Long id, UUID workspaceId);
+
+    List<WorkspaceOperation> findByWorkspaceIdAndIdGreaterThanOrderByIdAsc(UUID workspaceId, Long afterId, Pageable pageable);
+
+    /**
+     * Keyset page walking the log backwards, newest first, down to (excluding) {@code floorId}.
+     */
+    @Query("""
+            SELECT o FROM WorkspaceOperation o
+            WHERE o.workspaceId = :workspaceId AND o.id > :floorId AND o.id < :beforeId
+            ORDER BY o.id DESC
+            """)
+    List<WorkspaceOperation> findPageBackwards(@Param("workspaceId") UUID workspaceId,
+                                               @Param("floorId") long floorId,
+                                               @Param("beforeId") long beforeId,
+                                               Pageable pageable);
+
+    List<WorkspaceOperation> findByGroupIdOrderByIdAsc(UUID groupId);
+
+    /**
+     * Most recent groups of one user, newest first; enough to rebuild the undo and redo stacks.
+     */
+    @Query(value = """
+            SELECT group_id AS "groupId", kind AS "kind", reverts_group_id AS "revertsGroupId", MAX(id) AS "lastId"
+            FROM workspace_operations
+            WHERE workspace_id = :workspaceId AND actor_id = :actorId
+            GROUP BY group_id, kind, reverts_group_id
+            ORDER BY "lastId" DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<OperationGroupView> findRecentGroups(@Param("workspaceId") UUID workspaceId,
+                                              @Param("actorId") UUID actorId,
+                                              @Param("limit") int limit);
+
+    /**
+     * Serializes undo/redo of one user in one workspace until the transaction ends.
+     */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(:key)) l", nativeQuery = true)
+    Integer lockHistory(@Param("key") long key);
+
+    /**
+     * Collapses runs of drag frames on the same block within one group into their last row,
+     * which inherits the inverse of the first. A run is only collapsed when nothing else touched
+     * that block between its first and last row, so undoing the merged row can never skip over
+     * another group's change. Only rows older than {@code before} are touched.
+     */
+    @Modifying
+    @Query(value = """
+            WITH candidates AS (
+                SELECT workspace_id, group_id, entity_id, MIN(id) AS first_id, MAX(id) AS last_id
+                FROM workspace_operations
+                WHERE coalescible AND created_at < :before
+                GROUP BY workspace_id, group_id, entity_id
+                HAVING COUNT(*) > 1
+            ), runs AS (
+                SELECT c.group_id, c.entity_id, c.first_id, c.last_id
+                FROM candidates c
+                WHERE NOT EXISTS (
+                    SELECT 1 FROM workspace_operations x
+                    WHERE x.workspace_id = c.workspace_id AND x.entity_id = c.entity_id
+                      AND x.id > c.first_id AND x.id < c.last_id
+                      AND (x.group_id <> c.group_id OR NOT x.coalescible))
+                LIMIT :limit
+            ), merged AS (
+                UPDATE workspace_operations o
+                SET inverse = f.inverse
+                FROM runs r
+                JOIN workspace_operations f ON f.id = r.first_id
+                WHERE o.id = r.last_id
+                RETURNING o.id
+            )
+            DELETE FROM workspace_operations o
+            USING runs r
+            WHERE o.coalescible AND o.group_id = r.group_id AND o.entity_id = r.entity_id
+              AND o.id >= r.first_id AND o.id < r.last_id
+            """, nativeQuery = true)
+    int coalesceDragRuns(@Param("before") OffsetDateTime before, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM workspace_operations
+            WHERE id IN (SELECT id FROM workspace_operations WHERE created_at < :cutoff LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteOlderThan(@Param("cutoff") OffsetDateTime cutoff, @Param("limit") int limit);
+
+    interface OperationGroupView {
+        UUID getGroupId();
+
+        String getKind();
+
+        UUID getRevertsGroupId();
+
+        Long getLastId();
+    }
+}
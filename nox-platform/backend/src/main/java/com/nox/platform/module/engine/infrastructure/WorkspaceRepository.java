@@ -16,12 +16,56 @@ public interface WorkspaceRepository extends JpaRepository<Workspace, UUID> {
 
     List<Workspace> findByProjectId(UUID projectId);
 
+    /**
+     * Serializes engine writes to one workspace across instances until the transaction ends.
+     * The two-key form keeps these locks apart from the single-key history locks.
+     */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtext('workspace-writes'), hashtext(CAST(:workspaceId AS text)))) l", nativeQuery = true)
+    Integer lockWrites(@Param("workspaceId") UUID workspaceId);
+
+    /**
+     * Highest change sequence committed to the workspace's blocks and relations, read in one
+     * snapshot. Writers still in flight stamp above it, since they draw their numbers under the
+     * workspace write lock.
+     */
+    @Query(value = """
+            SELECT GREATEST(
+                (SELECT COALESCE(MAX(change_seq), 0) FROM core_blocks WHERE workspace_id = :workspaceId),
+                (SELECT COALESCE(MAX(change_seq), 0) FROM core_relations WHERE workspace_id = :workspaceId))
+            """, nativeQuery = true)
+    long findChangeHighWaterMark(@Param("workspaceId") UUID workspaceId);
+
     Optional<Workspace> findByIdAndProjectId(UUID id, UUID projectId);
 
     @Modifying
     @Query("UPDATE Workspace w SET w.deletedAt = :deletedAt WHERE w.project.id = :projectId")
     void softDeleteByProjectId(@Param("projectId") UUID projectId, @Param("deletedAt") java.time.OffsetDateTime deletedAt);
 
+    /**
+     * Staging of archive frames for {@link #finishImport} (see V36); each call inserts one JSON
+     * array of records into a transaction-local table and returns the number of rows staged.
+     */
+    @Query(value = "SELECT stage_workspace_import_blocks(CAST(:batch AS jsonb))", nativeQuery = true)
+    int stageImportBlocks(@Param("batch") String batch);
+
+    @Query(value = "SELECT stage_workspace_import_relations(CAST(:batch AS jsonb))", nativeQuery = true)
+    int stageImportRelations(@Param("batch") String batch);
+
+    @Query(value = "SELECT stage_workspace_import_usages(CAST(:batch AS jsonb))", nativeQuery = true)
+    int stageImportUsages(@Param("batch") String batch);
+
+    /**
+     * Inserts everything staged in this transaction into the workspace under fresh ids.
+     */
+    @Query(value = """
+            SELECT staged_blocks AS "stagedBlocks", blocks AS "blocks", relations AS "relations",
+                   usages AS "usages", max_depth AS "maxDepth"
+            FROM finish_workspace_import(:workspaceId, :actorId, :importedAt)
+            """, nativeQuery = true)
+    ImportCountsView finishImport(@Param("workspaceId") UUID workspaceId,
+                                  @Param("actorId") UUID actorId,
+                                  @Param("importedAt") java.time.OffsetDateTime importedAt);
+
     @Modifying
     @Query(value = """
             DELETE FROM workspaces 
@@ -32,4 +76,16 @@ public interface WorkspaceRepository extends JpaRepository<Workspace, UUID> {
             )
             """, nativeQuery = true)
     int deleteOldWorkspacesInBatch(@Param("threshold") java.time.OffsetDateTime threshold, @Param("limit") int limit);
+
+    interface ImportCountsView {
+        int getStagedBlocks();
+
+        int getBlocks();
+
+        int getRelations();
+
+        int getUsages();
+
+        int getMaxDepth();
+    }
 }
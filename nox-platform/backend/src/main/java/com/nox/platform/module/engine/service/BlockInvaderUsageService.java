@@ -1,11 +1,15 @@
 package com.nox.platform.module.engine.service;
 
 import com.nox.platform.module.engine.api.request.AttachInvaderRequest;
+import com.nox.platform.module.engine.api.request.BulkAttachInvaderRequest;
+import com.nox.platform.module.engine.api.request.BulkDetachInvaderRequest;
 import com.nox.platform.module.engine.api.response.BlockInvaderUsageResponse;
+import com.nox.platform.module.engine.api.response.InvaderDetachResponse;
 import com.nox.platform.module.engine.domain.BlockInvaderUsage;
-import com.nox.platform.module.engine.domain.CoreBlock;
 import com.nox.platform.module.engine.infrastructure.BlockInvaderUsageRepository;
 import com.nox.platform.module.engine.infrastructure.CoreBlockRepository;
+import com.nox.platform.module.engine.service.cache.WorkspaceGraphCache;
+import com.nox.platform.module.engine.service.writer.WorkspaceMutation;
 import com.nox.platform.module.warehouse.domain.InvaderDefinition;
 import com.nox.platform.module.warehouse.infrastructure.InvaderDefinitionRepository;
 import com.nox.platform.shared.abstraction.TimeProvider;
@@ -15,8 +19,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,13 +37,14 @@ public class BlockInvaderUsageService {
     private final InvaderDefinitionRepository invaderRepository;
     private final WorkspaceService workspaceService;
     private final TimeProvider timeProvider;
+    private final WorkspaceGraphCache graphCache;
 
     @Transactional
     public BlockInvaderUsageResponse attachInvader(UUID blockId, AttachInvaderRequest request) {
-        CoreBlock block = blockRepository.findById(blockId)
+        UUID workspaceId = blockRepository.findWorkspaceIdById(blockId)
                 .orElseThrow(() -> new DomainException("BLOCK_NOT_FOUND", "Block not found"));
 
-        workspaceService.getWorkspaceInternal(block.getWorkspace().getId());
+        workspaceService.checkWorkspaceAccess(workspaceId);
 
         InvaderDefinition invader = invaderRepository.findById(request.invaderAssetId())
                 .orElseThrow(() -> new DomainException("INVADER_NOT_FOUND", "Invader definition not found"));
@@ -45,7 +55,7 @@ public class BlockInvaderUsageService {
         }
 
         BlockInvaderUsage usage = BlockInvaderUsage.builder()
-                .block(block)
+                .block(blockRepository.getReferenceById(blockId))
                 .invaderAsset(invader)
                 .appliedVersion(request.appliedVersion())
                 .configSnapshot(request.configSnapshot())
@@ -53,39 +63,125 @@ public class BlockInvaderUsageService {
                 .build();
 
         usage = usageRepository.save(usage);
+        graphCache.touchAfterCommit(workspaceId);
         return mapToResponse(usage);
     }
 
     @Transactional
     public void detachInvader(UUID usageId) {
-        BlockInvaderUsage usage = usageRepository.findById(usageId)
+        BlockInvaderUsage usage = usageRepository.findWithBlockById(usageId)
                 .orElseThrow(() -> new DomainException("USAGE_NOT_FOUND", "Invader usage not found"));
 
-        workspaceService.getWorkspaceInternal(usage.getBlock().getWorkspace().getId());
+        UUID workspaceId = usage.getBlock().getWorkspace().getId();
+        workspaceService.checkWorkspaceAccess(workspaceId);
 
         usage.softDelete(timeProvider.now());
         usageRepository.save(usage);
+        graphCache.touchAfterCommit(workspaceId);
     }
 
+    /**
+     * Attaches one invader to every block of a selection with a single duplicate check. Blocks that
+     * already carry it are left untouched; usages detached earlier are revived, since the
+     * (block, invader) pair is unique even across soft-deleted rows.
+     */
     @Transactional
-    public void deleteUsagesForBlocks(List<UUID> blockIds, OffsetDateTime deletedAt) {
-        if (blockIds != null && !blockIds.isEmpty()) {
-            usageRepository.softDeleteUsagesByBlockIds(blockIds, deletedAt);
+    @WorkspaceMutation
+    public List<BlockInvaderUsageResponse> attachInvaderToBlocks(UUID workspaceId, BulkAttachInvaderRequest request) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        Set<UUID> blockIds = requireWorkspaceBlocks(workspaceId, request.blockIds());
+
+        InvaderDefinition invader = invaderRepository.findById(request.invaderAssetId())
+                .orElseThrow(() -> new DomainException("INVADER_NOT_FOUND", "Invader definition not found"));
+
+        Map<UUID, BlockInvaderUsage> existing = usageRepository
+                .findByBlock_IdInAndInvaderAsset_Id(blockIds, invader.getId()).stream()
+                .collect(Collectors.toMap(usage -> usage.getBlock().getId(), Function.identity()));
+
+        OffsetDateTime now = timeProvider.now();
+        List<BlockInvaderUsage> changed = new ArrayList<>();
+        for (UUID blockId : blockIds) {
+            BlockInvaderUsage usage = existing.get(blockId);
+            if (usage == null) {
+                changed.add(BlockInvaderUsage.builder()
+                        .block(blockRepository.getReferenceById(blockId))
+                        .invaderAsset(invader)
+                        .appliedVersion(request.appliedVersion())
+                        .configSnapshot(request.configSnapshot())
+                        .createdAt(now)
+                        .build());
+            } else if (usage.getDeletedAt() != null) {
+                usage.setDeletedAt(null);
+                usage.setAppliedVersion(request.appliedVersion());
+                usage.setConfigSnapshot(request.configSnapshot());
+                changed.add(usage);
+            }
+        }
+        if (changed.isEmpty()) {
+            return List.of();
         }
+
+        List<BlockInvaderUsage> saved = usageRepository.saveAll(changed);
+        graphCache.touchAfterCommit(workspaceId);
+        return saved.stream().map(this::mapToResponse).collect(Collectors.toList());
+    }
+
+    @Transactional
+    @WorkspaceMutation
+    public InvaderDetachResponse detachInvaderFromBlocks(UUID workspaceId, BulkDetachInvaderRequest request) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        Set<UUID> blockIds = requireWorkspaceBlocks(workspaceId, request.blockIds());
+
+        int detached = usageRepository.softDeleteUsagesOfInvader(
+                List.copyOf(blockIds), request.invaderAssetId(), timeProvider.now());
+        if (detached > 0) {
+            graphCache.touchAfterCommit(workspaceId);
+        }
+        return new InvaderDetachResponse(request.invaderAssetId(), detached);
+    }
+
+    @Transactional
+    public int deleteUsagesForBlocks(List<UUID> blockIds, OffsetDateTime deletedAt) {
+        if (blockIds == null || blockIds.isEmpty()) return 0;
+        return usageRepository.softDeleteUsagesByBlockIds(blockIds, deletedAt);
+    }
+
+    @Transactional
+    public int restoreUsagesForBlocks(List<UUID> blockIds, OffsetDateTime deletedAt) {
+        if (blockIds == null || blockIds.isEmpty()) return 0;
+        return usageRepository.restoreUsagesByBlockIds(blockIds, deletedAt);
+    }
+
+    /**
+     * Every live usage in the workspace in one query, so a canvas loads its invaders without a
+     * request per block.
+     */
+    @Transactional(readOnly = true)
+    public List<BlockInvaderUsageResponse> getWorkspaceInvaders(UUID workspaceId) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        return usageRepository.findUsageResponsesByWorkspaceId(workspaceId);
     }
 
     @Transactional(readOnly = true)
     public List<BlockInvaderUsageResponse> getBlockInvaders(UUID blockId) {
-        CoreBlock block = blockRepository.findById(blockId)
+        UUID workspaceId = blockRepository.findWorkspaceIdById(blockId)
                 .orElseThrow(() -> new DomainException("BLOCK_NOT_FOUND", "Block not found"));
 
-        workspaceService.getWorkspaceInternal(block.getWorkspace().getId());
+        workspaceService.checkWorkspaceAccess(workspaceId);
 
         return usageRepository.findByBlock_IdOrderByCreatedAtAsc(blockId).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    private Set<UUID> requireWorkspaceBlocks(UUID workspaceId, List<UUID> requested) {
+        Set<UUID> blockIds = new LinkedHashSet<>(requested);
+        if (blockRepository.countByIdInAndWorkspace_Id(blockIds, workspaceId) != blockIds.size()) {
+            throw new DomainException("BLOCK_NOT_FOUND", "One or more blocks were not found in this workspace");
+        }
+        return blockIds;
+    }
+
     private BlockInvaderUsageResponse mapToResponse(BlockInvaderUsage usage) {
         return new BlockInvaderUsageResponse(
                 usage.getId(),
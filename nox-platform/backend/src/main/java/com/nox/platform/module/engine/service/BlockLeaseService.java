@@ -0,0 +1,202 @@
+package com.nox.platform.module.engine.service;
+
+import com.nox.platform.module.engine.api.response.BlockLeaseEvent;
+import com.nox.platform.module.engine.api.response.BlockLeaseResponse;
+import com.nox.platform.module.engine.infrastructure.CoreBlockRepository;
+import com.nox.platform.shared.abstraction.TimeProvider;
+import com.nox.platform.shared.exception.DomainException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Short-lived edit leases on blocks, kept in Redis as TTL keys instead of columns on {@code core_blocks}.
+ * A lease is owned by one user, renewed by client heartbeats and simply expires when they stop.
+ * Multi-key operations run as Lua scripts so a multi-select acquire is all-or-nothing.
+ * Keys share a {workspaceId} hash tag so batch scripts stay on one cluster slot.
+ * Lease lookups made on behalf of edits fail open: while Redis is unreachable blocks count as
+ * unleased, so an outage costs lease protection rather than every edit and drag in the workspace.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BlockLeaseService {
+
+    private static final int MAX_BATCH_SIZE = 500;
+
+    // Returns the 1-based indexes of keys held by someone else; sets every key only when none are.
+    private static final RedisScript<List> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            local conflicts = {}
+            for i, key in ipairs(KEYS) do
+                local holder = redis.call('GET', key)
+                if holder and holder ~= ARGV[1] then
+                    table.insert(conflicts, i)
+                end
+            end
+            if #conflicts == 0 then
+                for _, key in ipairs(KEYS) do
+                    redis.call('SET', key, ARGV[1], 'PX', ARGV[2])
+                end
+            end
+            return conflicts
+            """, List.class);
+
+    // Extends only the keys still owned by the caller; returns their 1-based indexes.
+    private static final RedisScript<List> RENEW_SCRIPT = new DefaultRedisScript<>("""
+            local renewed = {}
+            for i, key in ipairs(KEYS) do
+                if redis.call('GET', key) == ARGV[1] then
+                    redis.call('PEXPIRE', key, ARGV[2])
+                    table.insert(renewed, i)
+                end
+            end
+            return renewed
+            """, List.class);
+
+    // Deletes only the keys owned by the caller; returns their 1-based indexes.
+    private static final RedisScript<List> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            local released = {}
+            for i, key in ipairs(KEYS) do
+                if redis.call('GET', key) == ARGV[1] then
+                    redis.call('DEL', key)
+                    table.insert(released, i)
+                end
+            end
+            return released
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final WorkspaceService workspaceService;
+    private final CoreBlockRepository coreBlockRepository;
+    private final TimeProvider timeProvider;
+
+    @Value("${engine.lease.ttl-seconds:120}")
+    private long ttlSeconds;
+
+    public BlockLeaseResponse acquire(UUID workspaceId, Collection<UUID> blockIds, UUID userId) {
+        List<UUID> ids = distinct(blockIds);
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        if (coreBlockRepository.countByIdInAndWorkspace_Id(ids, workspaceId) != ids.size()) {
+            throw new DomainException("BLOCK_NOT_FOUND", "One or more blocks were not found in this workspace");
+        }
+
+        List<UUID> conflicts = pick(ids, redisTemplate.execute(ACQUIRE_SCRIPT, keys(workspaceId, ids), userId.toString(), ttlMillis()));
+        if (!conflicts.isEmpty()) {
+            throw new DomainException("BLOCK_LOCKED", "Blocks are currently locked by another user: " + conflicts);
+        }
+
+        OffsetDateTime expiresAt = expiresAt();
+        broadcast(workspaceId, new BlockLeaseEvent(BlockLeaseEvent.Type.ACQUIRED, ids, userId, expiresAt));
+        return new BlockLeaseResponse(ids, userId, expiresAt);
+    }
+
+    /**
+     * Heartbeat: extends the caller's leases. Leases that already expired or were taken over
+     * are left out of the response so the client can tell which selections it lost.
+     */
+    public BlockLeaseResponse renew(UUID workspaceId, Collection<UUID> blockIds, UUID userId) {
+        List<UUID> ids = distinct(blockIds);
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        List<UUID> renewed = pick(ids, redisTemplate.execute(RENEW_SCRIPT, keys(workspaceId, ids), userId.toString(), ttlMillis()));
+        return new BlockLeaseResponse(renewed, userId, expiresAt());
+    }
+
+    public void release(UUID workspaceId, Collection<UUID> blockIds, UUID userId) {
+        List<UUID> ids = distinct(blockIds);
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        List<UUID> released = pick(ids, redisTemplate.execute(RELEASE_SCRIPT, keys(workspaceId, ids), userId.toString()));
+        if (!released.isEmpty()) {
+            broadcast(workspaceId, new BlockLeaseEvent(BlockLeaseEvent.Type.RELEASED, released, userId, null));
+        }
+    }
+
+    public boolean isLockedByOther(UUID workspaceId, UUID blockId, UUID userId) {
+        String holder;
+        try {
+            holder = redisTemplate.opsForValue().get(key(workspaceId, blockId));
+        } catch (DataAccessException e) {
+            log.warn("Could not read the lease of block {} in workspace {}, treating it as unleased", blockId, workspaceId, e);
+            return false;
+        }
+        return holder != null && (userId == null || !holder.equals(userId.toString()));
+    }
+
+    /**
+     * @return lease holder per block for the blocks that currently have one, in a single round trip
+     */
+    public Map<UUID, UUID> findHolders(UUID workspaceId, Collection<UUID> blockIds) {
+        Map<UUID, UUID> holders = new HashMap<>();
+        if (blockIds.isEmpty()) return holders;
+
+        List<UUID> ids = new ArrayList<>(blockIds);
+        List<String> values;
+        try {
+            values = redisTemplate.opsForValue().multiGet(keys(workspaceId, ids));
+        } catch (DataAccessException e) {
+            log.warn("Could not read the leases of {} blocks in workspace {}, treating them as unleased", ids.size(), workspaceId, e);
+            return holders;
+        }
+        for (int i = 0; values != null && i < ids.size(); i++) {
+            if (values.get(i) != null) {
+                holders.put(ids.get(i), UUID.fromString(values.get(i)));
+            }
+        }
+        return holders;
+    }
+
+    private void broadcast(UUID workspaceId, BlockLeaseEvent event) {
+        messagingTemplate.convertAndSend("/topic/workspace/" + workspaceId, event);
+    }
+
+    private List<UUID> distinct(Collection<UUID> blockIds) {
+        if (blockIds == null || blockIds.isEmpty()) {
+            throw new DomainException("INVALID_LEASE_REQUEST", "At least one block id is required");
+        }
+        if (blockIds.size() > MAX_BATCH_SIZE) {
+            throw new DomainException("INVALID_LEASE_REQUEST", "At most " + MAX_BATCH_SIZE + " blocks can be leased at once");
+        }
+        return new ArrayList<>(new LinkedHashSet<>(blockIds));
+    }
+
+    private List<UUID> pick(List<UUID> ids, List<?> oneBasedIndexes) {
+        List<UUID> picked = new ArrayList<>();
+        if (oneBasedIndexes != null) {
+            for (Object index : oneBasedIndexes) {
+                picked.add(ids.get(((Number) index).intValue() - 1));
+            }
+        }
+        return picked;
+    }
+
+    private List<String> keys(UUID workspaceId, List<UUID> blockIds) {
+        return blockIds.stream().map(id -> key(workspaceId, id)).toList();
+    }
+
+    private String key(UUID workspaceId, UUID blockId) {
+        return "lease:{" + workspaceId + "}:block:" + blockId;
+    }
+
+    private String ttlMillis() {
+        return Long.toString(ttlSeconds * 1000);
+    }
+
+    private OffsetDateTime expiresAt() {
+        return timeProvider.now().plusSeconds(ttlSeconds);
+    }
+}
@@ -0,0 +1,204 @@
+package com.nox.platform.module.engine.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nox.platform.module.engine.api.request.BlockMovePayload;
+import com.nox.platform.module.engine.api.response.CoreBlockResponse;
+import com.nox.platform.module.engine.infrastructure.CoreBlockRepository;
+import com.nox.platform.module.engine.service.cache.WorkspaceGraphCache;
+import com.nox.platform.module.engine.service.clock.HybridLogicalClock;
+import com.nox.platform.module.engine.service.oplog.WorkspaceOperationLog;
+import com.nox.platform.module.engine.service.writer.WorkspaceWriter;
+import com.nox.platform.shared.abstraction.TimeProvider;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for drag positions. Only the latest position per block is kept;
+ * pending positions are written per workspace in one UPDATE on a short interval or
+ * as soon as the drag ends, so a drag session costs a handful of writes instead of one per frame.
+ * Every flush is logged under one operation group per drag, so a whole drag undoes as one step.
+ * Flushes stamp the {@code visual.position} register with this node's clock, so positions and
+ * field merges settle by the same last-writer-wins rule.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BlockPositionBuffer {
+
+    private static final int READ_CHUNK_SIZE = 1000;
+
+    private final CoreBlockRepository coreBlockRepository;
+    private final BlockLeaseService blockLeaseService;
+    private final WorkspaceGraphCache graphCache;
+    private final TimeProvider timeProvider;
+    private final ObjectMapper objectMapper;
+    private final WorkspaceOperationLog operationLog;
+    private final TransactionTemplate transactionTemplate;
+    private final HybridLogicalClock hybridClock;
+    private final WorkspaceWriter workspaceWriter;
+
+    // Keyed by workspace as well, so a frame naming another workspace's block cannot displace its position
+    private final Map<BlockKey, PendingPosition> pending = new ConcurrentHashMap<>();
+    // Newest accepted position per block until it is written, so a failed write is only retried when nothing newer followed it
+    private final Map<BlockKey, PendingPosition> lastAccepted = new ConcurrentHashMap<>();
+    // Operation group of each user's drag in progress, keyed by workspace and user
+    private final Map<String, UUID> dragGroups = new ConcurrentHashMap<>();
+    // Serializes hand-offs to the writer, whose lanes are FIFO, so an older position can never
+    // commit after a newer one for the same block. Held only while queuing, never while writing.
+    private final Object flushLock = new Object();
+
+    record PendingPosition(UUID workspaceId, UUID blockId, double x, double y, UUID userId, UUID groupId) {
+
+        BlockKey key() {
+            return new BlockKey(workspaceId, blockId);
+        }
+    }
+
+    record BlockKey(UUID workspaceId, UUID blockId) {
+    }
+
+    /**
+     * Buffers the positions the user is allowed to move; blocks leased by someone else are dropped.
+     *
+     * @return the accepted positions, which are the ones to broadcast to peers
+     */
+    public List<BlockMovePayload.Position> submit(UUID workspaceId, UUID userId, List<BlockMovePayload.Position> positions, boolean dragEnd) {
+        if (positions == null || positions.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, UUID> holders = blockLeaseService.findHolders(workspaceId,
+                positions.stream().map(BlockMovePayload.Position::getBlockId).toList());
+
+        String dragKey = workspaceId + ":" + userId;
+        UUID groupId = dragGroups.computeIfAbsent(dragKey, k -> UUID.randomUUID());
+        List<BlockMovePayload.Position> accepted = new ArrayList<>(positions.size());
+        for (BlockMovePayload.Position position : positions) {
+            UUID holder = holders.get(position.getBlockId());
+            if (position.getBlockId() == null || (holder != null && !holder.equals(userId))) {
+                continue;
+            }
+            PendingPosition buffered = new PendingPosition(workspaceId, position.getBlockId(),
+                    position.getX(), position.getY(), userId, groupId);
+            pending.put(buffered.key(), buffered);
+            lastAccepted.put(buffered.key(), buffered);
+            accepted.add(position);
+        }
+        if (dragEnd) {
+            dragGroups.remove(dragKey);
+        }
+
+        if (dragEnd && !accepted.isEmpty()) {
+            flush(accepted.stream().map(p -> new BlockKey(workspaceId, p.getBlockId())).toList());
+        }
+        return accepted;
+    }
+
+    @Scheduled(fixedDelayString = "${engine.position-buffer.flush-interval-ms:250}")
+    public void flushPending() {
+        if (!pending.isEmpty()) {
+            flush(pending.keySet());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flushPending();
+    }
+
+    private void flush(Collection<BlockKey> keys) {
+        synchronized (flushLock) {
+            Map<UUID, List<PendingPosition>> byWorkspace = new HashMap<>();
+            for (BlockKey key : List.copyOf(keys)) {
+                PendingPosition position = pending.remove(key);
+                if (position != null) {
+                    byWorkspace.computeIfAbsent(position.workspaceId(), k -> new ArrayList<>()).add(position);
+                }
+            }
+            byWorkspace.forEach(this::write);
+        }
+    }
+
+    private void write(UUID workspaceId, List<PendingPosition> positions) {
+        OffsetDateTime now = timeProvider.now();
+        try {
+            String json = objectMapper.writeValueAsString(positions);
+            List<UUID> blockIds = positions.stream().map(PendingPosition::blockId).toList();
+            // Goes through the workspace writer like any other edit, so it cannot race a concurrent update
+            workspaceWriter.submit(workspaceId, () -> transactionTemplate.execute(status -> {
+                Map<UUID, CoreBlockResponse> before = readBlocks(workspaceId, blockIds);
+                coreBlockRepository.updatePositions(workspaceId, json, hybridClock.now().toString(), now);
+                Map<UUID, CoreBlockResponse> after = readBlocks(workspaceId, blockIds);
+                logMoves(workspaceId, positions, before, after);
+                // Rows whose position register held a newer stamp were left alone and come back unchanged
+                graphCache.afterCommit(workspaceId, graph -> after.values().forEach(graph::upsertBlock));
+                return null;
+            })).whenComplete((result, failure) -> {
+                if (failure != null) {
+                    retry(workspaceId, positions, failure);
+                } else {
+                    positions.forEach(p -> lastAccepted.remove(p.key(), p));
+                }
+            });
+        } catch (JsonProcessingException | RuntimeException e) {
+            retry(workspaceId, positions, e);
+        }
+    }
+
+    private void retry(UUID workspaceId, List<PendingPosition> positions, Throwable failure) {
+        log.warn("Failed to persist {} buffered positions for workspace {}, will retry", positions.size(), workspaceId, failure);
+        // Keep whatever newer position arrived meanwhile, even if it is already on its way to the writer
+        positions.forEach(p -> {
+            if (lastAccepted.get(p.key()) == p) {
+                pending.putIfAbsent(p.key(), p);
+            }
+        });
+    }
+
+    /**
+     * Only the dragged rows, by id and in bounded chunks; deleted blocks are absent.
+     */
+    private Map<UUID, CoreBlockResponse> readBlocks(UUID workspaceId, List<UUID> blockIds) {
+        Map<UUID, CoreBlockResponse> blocks = new HashMap<>();
+        for (int from = 0; from < blockIds.size(); from += READ_CHUNK_SIZE) {
+            List<UUID> chunk = blockIds.subList(from, Math.min(blockIds.size(), from + READ_CHUNK_SIZE));
+            coreBlockRepository.findBlockResponsesByIds(workspaceId, chunk).forEach(block -> blocks.put(block.id(), block));
+        }
+        return blocks;
+    }
+
+    private void logMoves(UUID workspaceId, List<PendingPosition> positions,
+                          Map<UUID, CoreBlockResponse> before, Map<UUID, CoreBlockResponse> after) {
+        Map<UUID, List<PendingPosition>> byGroup = new HashMap<>();
+        positions.forEach(p -> byGroup.computeIfAbsent(p.groupId(), k -> new ArrayList<>()).add(p));
+        byGroup.forEach((groupId, moves) -> {
+            List<CoreBlockResponse> from = new ArrayList<>(moves.size());
+            List<CoreBlockResponse> to = new ArrayList<>(moves.size());
+            for (PendingPosition move : moves) {
+                CoreBlockResponse old = before.get(move.blockId());
+                CoreBlockResponse current = after.get(move.blockId());
+                if (old != null && current != null && !old.equals(current)) {
+                    from.add(old);
+                    to.add(current);
+                }
+            }
+            if (!to.isEmpty()) {
+                operationLog.recordBlockMoves(workspaceId, moves.get(0).userId(), groupId, from, to);
+            }
+        });
+    }
+}
@@ -1,37 +1,85 @@
 package com.nox.platform.module.engine.service;
 
+import com.nox.platform.module.engine.api.request.BlockOperationRequest;
+import com.nox.platform.module.engine.api.request.BlockOperationType;
 import com.nox.platform.module.engine.api.request.CreateCoreBlockRequest;
+import com.nox.platform.module.engine.api.request.InstantiateTemplateRequest;
+import com.nox.platform.module.engine.api.request.MergeBlockFieldsRequest;
 import com.nox.platform.module.engine.api.request.UpdateCoreBlockRequest;
+import com.nox.platform.module.engine.api.response.BlockOperationResult;
+import com.nox.platform.module.engine.api.response.CoreBlockPageResponse;
 import com.nox.platform.module.engine.api.response.CoreBlockResponse;
+import com.nox.platform.module.engine.api.response.CoreRelationResponse;
+import com.nox.platform.module.engine.api.response.FieldMergeResponse;
+import com.nox.platform.module.engine.api.response.SubtreeRestoreResponse;
+import com.nox.platform.module.engine.api.response.TemplateInstantiationResponse;
+import com.nox.platform.module.engine.api.response.ViewportBlocksResponse;
 import com.nox.platform.module.engine.domain.CoreBlock;
 import com.nox.platform.module.engine.domain.Workspace;
 import com.nox.platform.module.engine.infrastructure.CoreBlockRepository;
+import com.nox.platform.module.engine.service.cache.WorkspaceGraphCache;
+import com.nox.platform.module.engine.service.clock.FieldClocks;
+import com.nox.platform.module.engine.service.clock.HlcTimestamp;
+import com.nox.platform.module.engine.service.clock.HybridLogicalClock;
+import com.nox.platform.module.engine.service.mapper.CoreBlockMapper;
+import com.nox.platform.module.engine.service.oplog.WorkspaceOperationLog;
+import com.nox.platform.module.engine.service.writer.WorkspaceMutation;
 import com.nox.platform.module.iam.domain.User;
 import com.nox.platform.module.iam.infrastructure.UserRepository;
 import com.nox.platform.module.warehouse.domain.BlockTemplate;
+import com.nox.platform.module.warehouse.domain.BlockTemplateSubgraph;
+import com.nox.platform.module.warehouse.domain.Warehouse;
 import com.nox.platform.module.warehouse.infrastructure.BlockTemplateRepository;
+import com.nox.platform.module.warehouse.service.WarehouseAccessValidator;
 import com.nox.platform.shared.exception.DomainException;
 import com.nox.platform.module.iam.infrastructure.security.CustomUserDetails;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.nox.platform.shared.abstraction.TimeProvider;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class CoreBlockService {
 
+    private static final int STREAM_FLUSH_INTERVAL = 256;
+    private static final int MAX_PAGE_SIZE = 2000;
+    private static final int MAX_VIEWPORT_BLOCKS = 5000;
+    private static final int MAX_PREFETCH_TILES_PER_AXIS = 16;
+    private static final int MAX_BLOCK_PATH_LENGTH = 11;
+
     private final CoreBlockRepository coreBlockRepository;
     private final WorkspaceService workspaceService;
     private final BlockTemplateRepository blockTemplateRepository;
+    private final WarehouseAccessValidator warehouseAccessValidator;
     private final UserRepository userRepository;
     
     @Lazy
@@ -39,10 +87,29 @@ public class CoreBlockService {
     @Lazy
     private final BlockInvaderUsageService blockInvaderUsageService;
     private final TimeProvider timeProvider;
+    private final CoreBlockMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final WorkspaceGraphCache graphCache;
+    private final BlockLeaseService blockLeaseService;
+    private final WorkspaceOperationLog operationLog;
+    private final HybridLogicalClock hybridClock;
+    private final FieldClocks fieldClocks;
+    private final EntityManager entityManager;
+
+    @Value("${engine.viewport.tile-size:2048}")
+    private double viewportTileSize;
+
+    // Bounded IN lists keep every cascade statement well under the driver's bind-parameter limit
+    @Value("${engine.cascade.chunk-size:1000}")
+    private int cascadeChunkSize;
+
+    @Value("${engine.template.max-instantiated-blocks:50000}")
+    private int maxInstantiatedBlocks;
 
     @Transactional
+    @WorkspaceMutation
     public CoreBlockResponse createBlock(UUID workspaceId, CreateCoreBlockRequest request, UUID currentUserId) {
-        Workspace workspace = workspaceService.getWorkspaceInternal(workspaceId);
+        Workspace workspace = workspaceService.getWorkspaceReference(workspaceId);
         User user = userRepository.getReferenceById(currentUserId);
 
         CoreBlock parentBlock = null;
@@ -51,6 +118,10 @@ public class CoreBlockService {
                     .orElseThrow(() -> new DomainException("BLOCK_NOT_FOUND", "Parent block not found in this workspace"));
         }
 
+        if (request.id() != null && !coreBlockRepository.findTakenIds(List.of(request.id())).isEmpty()) {
+            throw new DomainException("BLOCK_EXISTS", "A block with this id already exists");
+        }
+
         BlockTemplate originAsset = null;
         if (request.originAssetId() != null) {
             originAsset = blockTemplateRepository.findById(request.originAssetId())
@@ -72,18 +143,81 @@ public class CoreBlockService {
         block.initializeTimestamps(now);
 
         if (parentBlock != null) {
-            block.moveTo(parentBlock);
+            block.moveTo(parentBlock, coreBlockRepository.findAncestorIds(parentBlock.getId()));
+        }
+
+        // persist, not save: a client-chosen id must insert, never merge onto an existing row
+        entityManager.persist(block);
+        CoreBlockResponse response = mapper.toResponse(block);
+        operationLog.recordBlock(workspaceId, response.id(), null, response);
+        graphCache.afterCommit(workspaceId, graph -> graph.upsertBlock(response));
+        return response;
+    }
+
+    /**
+     * Expands a composite template into the workspace {@code count} times with one database call
+     * (see {@code CoreBlockRepository#instantiateTemplate}); every created block links back to the
+     * template as its origin asset. The whole placement undoes as one step.
+     */
+    @Transactional
+    @WorkspaceMutation
+    public TemplateInstantiationResponse instantiateTemplate(UUID workspaceId, InstantiateTemplateRequest request, UUID currentUserId) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        BlockTemplate template = blockTemplateRepository.findById(request.templateId())
+                .orElseThrow(() -> new DomainException("ASSET_NOT_FOUND", "Origin asset not found"));
+        Warehouse warehouse = template.getWarehouse();
+        warehouseAccessValidator.validateReadAccess(warehouse.getOwnerId(), warehouse.getOwnerType());
+        BlockTemplateSubgraph subgraph = template.getSubgraph();
+        if (subgraph == null || subgraph.blockCount() == 0) {
+            throw new DomainException("TEMPLATE_HAS_NO_SUBGRAPH", "This template does not define a subgraph");
+        }
+        int count = request.count() != null ? request.count() : 1;
+        if (count < 1 || (long) count * subgraph.blockCount() > maxInstantiatedBlocks) {
+            throw new DomainException("INVALID_INSTANTIATION",
+                    "Between 1 and " + maxInstantiatedBlocks + " blocks can be instantiated at once");
+        }
+        if (request.parentBlockId() != null
+                && coreBlockRepository.findByIdAndWorkspace_Id(request.parentBlockId(), workspaceId).isEmpty()) {
+            throw new DomainException("BLOCK_NOT_FOUND", "Parent block not found in this workspace");
+        }
+
+        double stepX = request.stepX() != null ? request.stepX() : (request.stepY() != null ? 0 : subgraph.footprintWidth());
+        double stepY = request.stepY() != null ? request.stepY() : 0;
+        CoreBlockRepository.InstantiationCountsView counts = coreBlockRepository.instantiateTemplate(
+                template.getId(), workspaceId, request.parentBlockId(), currentUserId, count,
+                request.originX() != null ? request.originX() : 0,
+                request.originY() != null ? request.originY() : 0,
+                stepX, stepY, timeProvider.now());
+        if (counts.getMaxDepth() > MAX_BLOCK_PATH_LENGTH) {
+            throw new DomainException("MAX_DEPTH_REACHED", "Maximum block depth (10) exceeded");
         }
 
-        block = coreBlockRepository.save(block);
-        return mapToResponse(block);
+        List<Map<String, UUID>> instances = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            instances.add(new HashMap<>());
+        }
+        List<UUID> blockIds = new ArrayList<>(counts.getBlocks());
+        for (CoreBlockRepository.InstanceMappingView mapping : coreBlockRepository.findTemplateInstanceMappings()) {
+            instances.get(mapping.getInstance()).put(mapping.getBlockKey(), mapping.getNewId());
+            blockIds.add(mapping.getNewId());
+        }
+        for (List<UUID> chunk : chunks(blockIds)) {
+            mapper.toResponseList(coreBlockRepository.findAllByIdsIncludingDeleted(workspaceId, chunk))
+                    .forEach(block -> operationLog.recordBlock(workspaceId, block.id(), null, block));
+            coreRelationService.getRelationsForBlocks(chunk)
+                    .forEach(relation -> operationLog.recordRelation(workspaceId, relation.id(), null, relation));
+        }
+        graphCache.invalidateAfterCommit(workspaceId);
+        return new TemplateInstantiationResponse(template.getId(), counts.getBlocks(), counts.getRelations(), instances);
     }
 
     @Transactional
+    @WorkspaceMutation
     public CoreBlockResponse updateBlock(UUID workspaceId, UUID blockId, UpdateCoreBlockRequest request) {
-        workspaceService.getWorkspaceInternal(workspaceId);
+        workspaceService.checkWorkspaceAccess(workspaceId);
         CoreBlock block = coreBlockRepository.findByIdAndWorkspace_Id(blockId, workspaceId)
                 .orElseThrow(() -> new DomainException("BLOCK_NOT_FOUND", "Block not found in this workspace"));
+        CoreBlockResponse before = mapper.toResponse(block);
 
         UUID currentUserId = null;
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
@@ -91,79 +225,566 @@ public class CoreBlockService {
             currentUserId = currentUser.getId();
         }
 
-        block.updateContent(request.name(), request.config(), request.visual(), currentUserId, timeProvider.now());
+        if (blockLeaseService.isLockedByOther(workspaceId, blockId, currentUserId)) {
+            throw new DomainException("BLOCK_LOCKED", "Cannot update content while block is locked by another user");
+        }
+        OffsetDateTime now = timeProvider.now();
+        boolean hasPatch = request.configPatch() != null || request.visualPatch() != null;
+        boolean patchOnly = hasPatch && request.name() == null && request.config() == null
+                && request.visual() == null && request.parentBlockId() == null;
+        if (!patchOnly) {
+            block.updateContent(request.name(), request.config(), request.visual(), now);
+        }
 
         if (request.parentBlockId() != null) {
             CoreBlock parentBlock = coreBlockRepository.findByIdAndWorkspace_Id(request.parentBlockId(), workspaceId)
                     .orElseThrow(() -> new DomainException("BLOCK_NOT_FOUND", "Parent block not found in this workspace"));
-            
-            block.moveTo(parentBlock);
+
+            CoreBlock target = block;
+            graphCache.findCachedHierarchy(workspaceId).ifPresentOrElse(
+                    hierarchy -> target.moveTo(parentBlock, hierarchy),
+                    () -> target.moveTo(parentBlock, coreBlockRepository.findAncestorIds(parentBlock.getId())));
         }
 
-        block = coreBlockRepository.save(block);
-        return mapToResponse(block);
+        if (hasPatch) {
+            // Pending entity changes are flushed first; the patch then merges in SQL on top of them.
+            coreBlockRepository.mergePatchContent(blockId, writePatch(request.configPatch()), writePatch(request.visualPatch()), now);
+        } else {
+            coreBlockRepository.save(block);
+        }
+        Set<String> written = writtenFields(before, request.name(), request.config(), request.visual());
+        written.addAll(FieldClocks.fields("config", request.configPatch()));
+        written.addAll(FieldClocks.fields("visual", request.visualPatch()));
+        stampFields(Map.of(blockId, written));
+        block = coreBlockRepository.findByIdAndWorkspace_Id(blockId, workspaceId)
+                .orElseThrow(() -> new DomainException("BLOCK_NOT_FOUND", "Block not found in this workspace"));
+        CoreBlockResponse response = mapper.toResponse(block);
+        operationLog.recordBlock(workspaceId, blockId, before, response);
+        graphCache.afterCommit(workspaceId, graph -> graph.upsertBlock(response));
+        return response;
     }
 
+    /**
+     * Lock-free counterpart of {@link #updateBlock}: fields merge as last-writer-wins registers
+     * ordered by hybrid logical clock, so concurrent editors never block or fail each other and
+     * edits may arrive in any order. Leases are advisory here; only the clocks decide.
+     */
     @Transactional
-    public void lockBlock(UUID workspaceId, UUID blockId, UUID userId) {
-        workspaceService.getWorkspaceInternal(workspaceId);
+    @WorkspaceMutation
+    public FieldMergeResponse<CoreBlockResponse> mergeBlock(UUID workspaceId, UUID blockId, MergeBlockFieldsRequest request) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
         CoreBlock block = coreBlockRepository.findByIdAndWorkspace_Id(blockId, workspaceId)
-                .orElseThrow(() -> new DomainException("BLOCK_NOT_FOUND", "Block not found"));
+                .orElseThrow(() -> new DomainException("BLOCK_NOT_FOUND", "Block not found in this workspace"));
+        CoreBlockResponse before = mapper.toResponse(block);
+
+        HlcTimestamp stamp = request.clock() != null ? HlcTimestamp.parse(request.clock()) : hybridClock.now();
+        HlcTimestamp clock = request.clock() != null ? hybridClock.receive(stamp) : stamp;
+
+        coreBlockRepository.mergeFields(blockId, request.name(), writePatch(request.config()), writePatch(request.visual()),
+                stamp.toString(), timeProvider.now());
+        Set<String> fields = new LinkedHashSet<>();
+        if (request.name() != null) fields.add("name");
+        fields.addAll(FieldClocks.fields("config", request.config()));
+        fields.addAll(FieldClocks.fields("visual", request.visual()));
+        List<String> stale = fieldClocks.stale(coreBlockRepository.findFieldClocks(blockId), fields, stamp);
 
-        block.lock(userId, timeProvider.now());
-        coreBlockRepository.save(block);
+        block = coreBlockRepository.findByIdAndWorkspace_Id(blockId, workspaceId)
+                .orElseThrow(() -> new DomainException("BLOCK_NOT_FOUND", "Block not found in this workspace"));
+        CoreBlockResponse response = mapper.toResponse(block);
+        operationLog.recordBlock(workspaceId, blockId, before, response);
+        graphCache.afterCommit(workspaceId, graph -> graph.upsertBlock(response));
+        return new FieldMergeResponse<>(response, clock.toString(), stale);
     }
 
-    @Transactional
-    public void unlockBlock(UUID workspaceId, UUID blockId, UUID userId) {
-        workspaceService.getWorkspaceInternal(workspaceId);
-        CoreBlock block = coreBlockRepository.findByIdAndWorkspace_Id(blockId, workspaceId)
-                .orElseThrow(() -> new DomainException("BLOCK_NOT_FOUND", "Block not found"));
+    /**
+     * Single-block shortcut over {@link BlockLeaseService}; the lease lives in Redis, not on the row.
+     */
+    public void lockBlock(UUID workspaceId, UUID blockId, UUID userId) {
+        blockLeaseService.acquire(workspaceId, List.of(blockId), userId);
+    }
 
-        block.unlock(userId, timeProvider.now());
-        coreBlockRepository.save(block);
+    public void unlockBlock(UUID workspaceId, UUID blockId, UUID userId) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        if (blockLeaseService.isLockedByOther(workspaceId, blockId, userId)) {
+            throw new DomainException("BLOCK_LOCKED", "You cannot unlock a block locked by someone else");
+        }
+        blockLeaseService.release(workspaceId, List.of(blockId), userId);
     }
 
     @Transactional
+    @WorkspaceMutation
     public void deleteBlock(UUID workspaceId, UUID blockId) {
-        workspaceService.getWorkspaceInternal(workspaceId);
+        workspaceService.checkWorkspaceAccess(workspaceId);
 
         coreBlockRepository.findByIdAndWorkspace_Id(blockId, workspaceId)
                 .orElseThrow(() -> new DomainException("BLOCK_NOT_FOUND", "Block not found in this workspace"));
 
         List<UUID> descendantBlockIds = coreBlockRepository.findDescendantBlockIdsByRootId(blockId);
+        cascadeSoftDelete(workspaceId, descendantBlockIds, timeProvider.now());
+    }
+
+    /**
+     * Brings back a deleted block together with everything its delete cascaded to.
+     * The cascade stamps every row with the same {@code deleted_at}, and no two deletes share a
+     * stamp, so the subtree is exactly the descendants carrying the root's stamp; blocks deleted
+     * on their own, earlier or by another delete of the same batch, stay deleted.
+     * Wires are only restored when both ends are live again and their ports are still free.
+     */
+    @Transactional
+    @WorkspaceMutation
+    public SubtreeRestoreResponse restoreBlock(UUID workspaceId, UUID blockId) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+
+        CoreBlock root = coreBlockRepository.findDeletedByIdAndWorkspaceId(blockId, workspaceId)
+                .orElseThrow(() -> new DomainException("DELETED_BLOCK_NOT_FOUND", "No deleted block with this id in this workspace"));
+        UUID parentId = root.getParentBlock() != null ? root.getParentBlock().getId() : null;
+        if (parentId != null && coreBlockRepository.findByIdAndWorkspace_Id(parentId, workspaceId).isEmpty()) {
+            throw new DomainException("PARENT_BLOCK_DELETED", "Restore the parent block first");
+        }
+
+        OffsetDateTime deletedAt = root.getDeletedAt();
+        OffsetDateTime now = timeProvider.now();
+        List<UUID> blockIds = coreBlockRepository.findSubtreeIdsDeletedAt(blockId, deletedAt);
 
-        if (descendantBlockIds != null && !descendantBlockIds.isEmpty()) {
-            OffsetDateTime now = timeProvider.now();
-            coreBlockRepository.softDeleteBlocksByIds(descendantBlockIds, now);
-            coreRelationService.deleteRelationsForBlocks(descendantBlockIds, now);
-            blockInvaderUsageService.deleteUsagesForBlocks(descendantBlockIds, now);
+        int blocks = 0;
+        int relations = 0;
+        int usages = 0;
+        // Blocks first across all chunks, so wires between chunks see both ends live
+        for (List<UUID> chunk : chunks(blockIds)) {
+            blocks += coreBlockRepository.restoreBlocksByIds(chunk, deletedAt, now);
+        }
+        for (List<UUID> chunk : chunks(blockIds)) {
+            relations += coreRelationService.restoreRelationsForBlocks(chunk, deletedAt, now);
+            usages += blockInvaderUsageService.restoreUsagesForBlocks(chunk, deletedAt);
         }
+        for (List<UUID> chunk : chunks(blockIds)) {
+            mapper.toResponseList(coreBlockRepository.findAllByIdsIncludingDeleted(workspaceId, chunk))
+                    .forEach(block -> operationLog.recordBlock(workspaceId, block.id(), null, block));
+            coreRelationService.getRelationsForBlocks(chunk)
+                    .forEach(relation -> operationLog.recordRelation(workspaceId, relation.id(), null, relation));
+        }
+        graphCache.invalidateAfterCommit(workspaceId);
+        return new SubtreeRestoreResponse(blockId, blocks, relations, usages);
+    }
+
+    /**
+     * Applies an ordered list of block operations in a single transaction.
+     * The workspace is authorized once, every referenced block is preloaded in one query,
+     * and inserts/updates are flushed together so Hibernate can JDBC-batch them.
+     * Blocks created earlier in the batch can be referenced by later operations, and a delete
+     * cascades at its own position, so later operations on anything it removed fail.
+     * Moves are validated against the materialized paths, overlaid with the batch's own moves.
+     * Any failing operation rolls back the whole batch.
+     */
+    @Transactional
+    @WorkspaceMutation
+    public List<BlockOperationResult> applyBatch(UUID workspaceId, List<BlockOperationRequest> operations, UUID currentUserId) {
+        Workspace workspace = workspaceService.getWorkspaceReference(workspaceId);
+        User user = userRepository.getReferenceById(currentUserId);
+        OffsetDateTime now = timeProvider.now();
+
+        Map<UUID, CoreBlock> blocks = preloadBatchBlocks(workspaceId, operations);
+        Map<UUID, UUID> parents = preloadBatchHierarchy(workspaceId, blocks.keySet());
+        Map<UUID, BlockTemplate> templates = preloadBatchTemplates(operations);
+        Set<UUID> takenIds = preloadTakenIds(operations);
+        Map<UUID, UUID> leaseHolders = blockLeaseService.findHolders(workspaceId, blocks.keySet());
+        Map<UUID, CoreBlockResponse> before = new HashMap<>();
+        blocks.forEach((id, block) -> before.put(id, mapper.toResponse(block)));
+
+        List<BlockOperationResult> results = new ArrayList<>(operations.size());
+        Map<UUID, CoreBlock> unlogged = new LinkedHashMap<>();
+        Set<UUID> removedIds = new HashSet<>();
+        Map<UUID, Set<String>> writtenFields = new HashMap<>();
+        int deletes = 0;
+
+        for (int i = 0; i < operations.size(); i++) {
+            BlockOperationRequest op = operations.get(i);
+            CoreBlock block = switch (op.op()) {
+                case CREATE -> {
+                    if (op.type() == null || op.type().isBlank() || op.name() == null || op.name().isBlank()) {
+                        throw batchError(i, "INVALID_OPERATION", "Type and name are required to create a block");
+                    }
+                    if (op.blockId() != null && (takenIds.contains(op.blockId()) || blocks.containsKey(op.blockId())
+                            || removedIds.contains(op.blockId()))) {
+                        throw batchError(i, "BLOCK_EXISTS", "A block with this id already exists");
+                    }
+                    BlockTemplate originAsset = null;
+                    if (op.originAssetId() != null) {
+                        originAsset = templates.get(op.originAssetId());
+                        if (originAsset == null) {
+                            throw batchError(i, "ASSET_NOT_FOUND", "Origin asset not found");
+                        }
+                    }
+                    CoreBlock created = CoreBlock.builder()
+                            .id(op.blockId())
+                            .workspace(workspace)
+                            .originAsset(originAsset)
+                            .type(op.type())
+                            .name(op.name())
+                            .config(op.config() != null ? op.config() : Map.of())
+                            .visual(op.visual() != null ? op.visual() : Map.of())
+                            .createdBy(user)
+                            .build();
+                    created.initializeTimestamps(now);
+                    if (op.parentBlockId() != null) {
+                        created.moveTo(resolveBatchBlock(blocks, op.parentBlockId(), i), parents::get);
+                    }
+                    entityManager.persist(created);
+                    blocks.put(created.getId(), created);
+                    parents.put(created.getId(), op.parentBlockId());
+                    yield created;
+                }
+                case UPDATE -> {
+                    CoreBlock existing = resolveBatchBlock(blocks, op.blockId(), i);
+                    if (isLeasedByOther(leaseHolders, existing.getId(), currentUserId)) {
+                        throw batchError(i, "BLOCK_LOCKED", "Cannot update a block locked by another user");
+                    }
+                    writtenFields.computeIfAbsent(existing.getId(), id -> new LinkedHashSet<>())
+                            .addAll(writtenFields(before.get(existing.getId()), op.name(), op.config(), op.visual()));
+                    existing.updateContent(op.name(), op.config(), op.visual(), now);
+                    if (op.parentBlockId() != null) {
+                        existing.moveTo(resolveBatchBlock(blocks, op.parentBlockId(), i), parents::get);
+                        parents.put(existing.getId(), op.parentBlockId());
+                    }
+                    yield existing;
+                }
+                case MOVE -> {
+                    CoreBlock existing = resolveBatchBlock(blocks, op.blockId(), i);
+                    if (isLeasedByOther(leaseHolders, existing.getId(), currentUserId)) {
+                        throw batchError(i, "BLOCK_LOCKED", "Cannot move a block locked by another user");
+                    }
+                    existing.moveTo(op.parentBlockId() != null ? resolveBatchBlock(blocks, op.parentBlockId(), i) : null,
+                            parents::get);
+                    parents.put(existing.getId(), op.parentBlockId());
+                    existing.updateTimestamp(now);
+                    yield existing;
+                }
+                case DELETE -> {
+                    CoreBlock root = resolveBatchBlock(blocks, op.blockId(), i);
+                    // Earlier operations must reach the rows (and their paths) before the subtree is read
+                    coreBlockRepository.flush();
+                    logBatchBlocks(workspaceId, unlogged, before);
+                    List<UUID> subtree = coreBlockRepository.findDescendantBlockIdsByRootId(root.getId());
+                    cascadeSoftDelete(workspaceId, subtree, deleteStamp(now, deletes++));
+                    for (UUID removedId : subtree) {
+                        blocks.remove(removedId);
+                        parents.remove(removedId);
+                    }
+                    removedIds.addAll(subtree);
+                    yield null;
+                }
+            };
+            if (block != null) {
+                unlogged.put(block.getId(), block);
+            }
+
+            results.add(new BlockOperationResult(
+                    i,
+                    op.op(),
+                    block != null ? block.getId() : op.blockId(),
+                    block != null ? mapper.toResponse(block) : null));
+        }
+
+        logBatchBlocks(workspaceId, unlogged, before);
+        writtenFields.keySet().removeAll(removedIds);
+        stampFields(writtenFields);
+
+        // Registered after every cascade of the batch, so only blocks that survived it are cached again
+        List<CoreBlockResponse> touched = results.stream()
+                .map(BlockOperationResult::block)
+                .filter(Objects::nonNull)
+                .filter(block -> !removedIds.contains(block.id()))
+                .toList();
+        graphCache.afterCommit(workspaceId, graph -> touched.forEach(graph::upsertBlock));
+        return results;
+    }
+
+    /**
+     * Restores match the exact {@code deleted_at}, so every delete of a batch gets its own stamp,
+     * one microsecond (the column's precision) after the previous one.
+     */
+    private static OffsetDateTime deleteStamp(OffsetDateTime now, int index) {
+        return now.truncatedTo(ChronoUnit.MICROS).plus(index, ChronoUnit.MICROS);
+    }
+
+    /**
+     * Logs the batch's changes made since the last call. The log keeps the first inverse of an
+     * entity, so the state from before the batch stays what undo returns to.
+     */
+    private void logBatchBlocks(UUID workspaceId, Map<UUID, CoreBlock> changed, Map<UUID, CoreBlockResponse> before) {
+        changed.forEach((id, block) -> operationLog.recordBlock(workspaceId, id, before.get(id), mapper.toResponse(block)));
+        changed.clear();
+    }
+
+    /**
+     * Writes the workspace blocks as NDJSON while the rows are still being read.
+     * Rows are projected straight into {@link CoreBlockResponse} through a server-side cursor,
+     * so no entities accumulate in the persistence context and memory stays flat.
+     */
+    @Transactional(readOnly = true)
+    public void streamWorkspaceBlocks(UUID workspaceId, OutputStream out) throws IOException {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+
+        try (Stream<CoreBlockResponse> rows = coreBlockRepository.streamBlockResponsesByWorkspaceId(workspaceId);
+             SequenceWriter writer = objectMapper.writer()
+                     .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                     .withRootValueSeparator("\n")
+                     .writeValues(out)) {
+            int written = 0;
+            for (Iterator<CoreBlockResponse> it = rows.iterator(); it.hasNext(); ) {
+                writer.write(it.next());
+                if (++written % STREAM_FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+            if (written > 0) {
+                out.write('\n');
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public CoreBlockPageResponse getWorkspaceBlockPage(UUID workspaceId, UUID after, int limit) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Pageable page = PageRequest.of(0, pageSize);
+        List<CoreBlockResponse> items = after == null
+                ? coreBlockRepository.findBlockResponsePage(workspaceId, page)
+                : coreBlockRepository.findBlockResponsePageAfter(workspaceId, after, page);
+
+        UUID nextCursor = items.size() == pageSize ? items.get(items.size() - 1).id() : null;
+        return new CoreBlockPageResponse(items, nextCursor);
+    }
+
+    /**
+     * Blocks of one hierarchy level (root level when {@code parentBlockId} is null) that intersect
+     * the viewport {@code minX,minY,maxX,maxY}, plus the ring of tiles around it as a prefetch hint.
+     */
+    @Transactional(readOnly = true)
+    public ViewportBlocksResponse getViewportBlocks(UUID workspaceId, String bbox, UUID parentBlockId) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        double[] box = parseBbox(bbox);
+
+        List<CoreBlock> blocks = coreBlockRepository.findInViewport(
+                workspaceId, parentBlockId, box[0], box[1], box[2], box[3], MAX_VIEWPORT_BLOCKS + 1);
+        boolean truncated = blocks.size() > MAX_VIEWPORT_BLOCKS;
+        List<CoreBlockResponse> items = mapper.toResponseList(truncated ? blocks.subList(0, MAX_VIEWPORT_BLOCKS) : blocks);
+        return new ViewportBlocksResponse(items, truncated, viewportTileSize, prefetchTiles(box));
     }
 
     @Transactional(readOnly = true)
     public List<CoreBlockResponse> getWorkspaceBlocks(UUID workspaceId) {
-        workspaceService.getWorkspaceInternal(workspaceId);
-
-        return coreBlockRepository.findBlocksWithDetailsByWorkspaceId(workspaceId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
-    }
-
-    private CoreBlockResponse mapToResponse(CoreBlock block) {
-        return new CoreBlockResponse(
-                block.getId(),
-                block.getWorkspace().getId(),
-                block.getParentBlock() != null ? block.getParentBlock().getId() : null,
-                block.getOriginAsset() != null ? block.getOriginAsset().getId() : null,
-                block.getType(),
-                block.getName(),
-                block.getConfig(),
-                block.getVisual(),
-                block.getCreatedBy() != null ? block.getCreatedBy().getId() : null,
-                block.getUpdatedAt(),
-                block.getDeletedAt()
-        );
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        return graphCache.getBlocks(workspaceId);
+    }
+
+    /**
+     * Soft-deletes blocks with their wires and invader usages using set-based UPDATEs over
+     * bounded, id-sorted chunks; no entities are loaded. Sorting keeps row-lock order stable
+     * across concurrent cascades. Every row shares the same {@code deleted_at}, which is what
+     * {@link #restoreBlock} keys on.
+     */
+    private void cascadeSoftDelete(UUID workspaceId, List<UUID> blockIds, OffsetDateTime now) {
+        if (blockIds != null && !blockIds.isEmpty()) {
+            List<UUID> sorted = blockIds.stream().distinct().sorted().toList();
+            logCascade(workspaceId, sorted);
+            for (List<UUID> chunk : chunks(sorted)) {
+                coreBlockRepository.softDeleteBlocksByIds(chunk, now);
+                coreRelationService.deleteRelationsForBlocks(chunk, now);
+                blockInvaderUsageService.deleteUsagesForBlocks(chunk, now);
+            }
+            graphCache.afterCommit(workspaceId, graph -> graph.removeBlocks(sorted));
+        }
+    }
+
+    /**
+     * Logs what a cascade removes, reading only the affected rows by id, chunk by chunk, before
+     * they are updated. Blocks created or changed earlier in the same transaction are already
+     * pending in the log, which keeps their original state as the inverse.
+     */
+    private void logCascade(UUID workspaceId, List<UUID> blockIds) {
+        for (List<UUID> chunk : chunks(blockIds)) {
+            Map<UUID, CoreBlockResponse> live = new HashMap<>();
+            coreBlockRepository.findBlockResponsesByIds(workspaceId, chunk).forEach(block -> live.put(block.id(), block));
+            for (UUID blockId : chunk) {
+                operationLog.recordBlock(workspaceId, blockId, live.get(blockId), null);
+            }
+            for (CoreRelationResponse relation : coreRelationService.getRelationsForBlocks(chunk)) {
+                operationLog.recordRelation(workspaceId, relation.id(), relation, null);
+            }
+        }
+    }
+
+    private List<List<UUID>> chunks(List<UUID> ids) {
+        int size = Math.max(1, cascadeChunkSize);
+        List<List<UUID>> chunks = new ArrayList<>((ids.size() + size - 1) / size);
+        for (int from = 0; from < ids.size(); from += size) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + size)));
+        }
+        return chunks;
+    }
+
+    private double[] parseBbox(String bbox) {
+        String[] parts = bbox != null ? bbox.split(",") : new String[0];
+        if (parts.length != 4) {
+            throw new DomainException("INVALID_BBOX", "bbox must be minX,minY,maxX,maxY");
+        }
+        double[] box = new double[4];
+        try {
+            for (int i = 0; i < 4; i++) {
+                box[i] = Double.parseDouble(parts[i].trim());
+                if (!Double.isFinite(box[i])) {
+                    throw new DomainException("INVALID_BBOX", "bbox coordinates must be finite numbers");
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new DomainException("INVALID_BBOX", "bbox coordinates must be numbers");
+        }
+        if (box[0] > box[2] || box[1] > box[3]) {
+            throw new DomainException("INVALID_BBOX", "bbox min corner must not exceed max corner");
+        }
+        return box;
+    }
+
+    private List<ViewportBlocksResponse.ViewportTile> prefetchTiles(double[] box) {
+        long minTileX = (long) Math.floor(box[0] / viewportTileSize);
+        long minTileY = (long) Math.floor(box[1] / viewportTileSize);
+        long maxTileX = (long) Math.floor(box[2] / viewportTileSize);
+        long maxTileY = (long) Math.floor(box[3] / viewportTileSize);
+        if (maxTileX - minTileX >= MAX_PREFETCH_TILES_PER_AXIS || maxTileY - minTileY >= MAX_PREFETCH_TILES_PER_AXIS) {
+            return List.of();
+        }
+
+        List<ViewportBlocksResponse.ViewportTile> tiles = new ArrayList<>();
+        for (long tileX = minTileX - 1; tileX <= maxTileX + 1; tileX++) {
+            for (long tileY = minTileY - 1; tileY <= maxTileY + 1; tileY++) {
+                boolean inView = tileX >= minTileX && tileX <= maxTileX && tileY >= minTileY && tileY <= maxTileY;
+                if (!inView) {
+                    double minX = tileX * viewportTileSize;
+                    double minY = tileY * viewportTileSize;
+                    tiles.add(new ViewportBlocksResponse.ViewportTile(tileX, tileY,
+                            minX + "," + minY + "," + (minX + viewportTileSize) + "," + (minY + viewportTileSize)));
+                }
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Registers overwritten by a whole-document write: every key of the old and the new document,
+     * so keys the write dropped are tombstoned too.
+     */
+    private Set<String> writtenFields(CoreBlockResponse before, String name,
+                                      Map<String, Object> config, Map<String, Object> visual) {
+        Set<String> fields = new LinkedHashSet<>();
+        if (name != null) fields.add("name");
+        if (config != null) fields.addAll(FieldClocks.fields("config", before != null ? before.config() : null, config));
+        if (visual != null) fields.addAll(FieldClocks.fields("visual", before != null ? before.visual() : null, visual));
+        return fields;
+    }
+
+    /**
+     * Moves the clocks of fields written outside {@link #mergeBlock} to now, so merges stamped
+     * before this write cannot resurrect what it replaced. Clears the persistence context.
+     */
+    private void stampFields(Map<UUID, Set<String>> fieldsById) {
+        Map<UUID, Set<String>> nonEmpty = new HashMap<>();
+        fieldsById.forEach((id, fields) -> {
+            if (!fields.isEmpty()) nonEmpty.put(id, fields);
+        });
+        if (!nonEmpty.isEmpty()) {
+            coreBlockRepository.stampFields(fieldClocks.writeEntries(nonEmpty), hybridClock.now().toString());
+        }
+    }
+
+    private String writePatch(Map<String, Object> patch) {
+        if (patch == null || patch.isEmpty()) return "{}";
+        try {
+            return objectMapper.writeValueAsString(patch);
+        } catch (JsonProcessingException e) {
+            throw new DomainException("INVALID_PATCH", "Merge patch could not be serialized");
+        }
+    }
+
+    private boolean isLeasedByOther(Map<UUID, UUID> leaseHolders, UUID blockId, UUID userId) {
+        UUID holder = leaseHolders.get(blockId);
+        return holder != null && !holder.equals(userId);
+    }
+
+    private Map<UUID, CoreBlock> preloadBatchBlocks(UUID workspaceId, List<BlockOperationRequest> operations) {
+        Set<UUID> referencedIds = new HashSet<>();
+        for (BlockOperationRequest op : operations) {
+            if (op.blockId() != null) referencedIds.add(op.blockId());
+            if (op.parentBlockId() != null) referencedIds.add(op.parentBlockId());
+        }
+
+        Map<UUID, CoreBlock> blocks = new HashMap<>();
+        if (!referencedIds.isEmpty()) {
+            for (CoreBlock block : coreBlockRepository.findByIdInAndWorkspace_Id(referencedIds, workspaceId)) {
+                blocks.put(block.getId(), block);
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * Parent of every preloaded block and of all their ancestors, read off the materialized paths.
+     */
+    private Map<UUID, UUID> preloadBatchHierarchy(UUID workspaceId, Set<UUID> blockIds) {
+        Map<UUID, UUID> parents = new HashMap<>();
+        if (!blockIds.isEmpty()) {
+            for (CoreBlockRepository.ParentLinkView link : coreBlockRepository.findParentLinksWithAncestors(workspaceId, blockIds)) {
+                parents.put(link.getBlockId(), link.getParentId());
+            }
+        }
+        return parents;
+    }
+
+    /**
+     * Client-chosen ids of the batch's creates that some block, in any workspace and even
+     * deleted, already has.
+     */
+    private Set<UUID> preloadTakenIds(List<BlockOperationRequest> operations) {
+        List<UUID> createIds = operations.stream()
+                .filter(op -> op.op() == BlockOperationType.CREATE && op.blockId() != null)
+                .map(BlockOperationRequest::blockId)
+                .distinct()
+                .toList();
+        Set<UUID> taken = new HashSet<>();
+        for (List<UUID> chunk : chunks(createIds)) {
+            taken.addAll(coreBlockRepository.findTakenIds(chunk));
+        }
+        return taken;
+    }
+
+    private Map<UUID, BlockTemplate> preloadBatchTemplates(List<BlockOperationRequest> operations) {
+        Set<UUID> templateIds = operations.stream()
+                .map(BlockOperationRequest::originAssetId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        if (templateIds.isEmpty()) {
+            return Map.of();
+        }
+        return blockTemplateRepository.findAllById(templateIds).stream()
+                .collect(Collectors.toMap(BlockTemplate::getId, t -> t));
+    }
+
+    private CoreBlock resolveBatchBlock(Map<UUID, CoreBlock> blocks, UUID blockId, int index) {
+        if (blockId == null) {
+            throw batchError(index, "INVALID_OPERATION", "Block ID is required");
+        }
+        CoreBlock block = blocks.get(blockId);
+        if (block == null) {
+            throw batchError(index, "BLOCK_NOT_FOUND", "Block " + blockId + " not found in this workspace");
+        }
+        return block;
+    }
+
+    private DomainException batchError(int index, String code, String message) {
+        return new DomainException(code, "Operation #" + index + ": " + message);
     }
 }
 
@@ -1,40 +1,59 @@
 package com.nox.platform.module.engine.service;
 
 import com.nox.platform.module.engine.api.request.CreateCoreRelationRequest;
+import com.nox.platform.module.engine.api.request.MergeRelationFieldsRequest;
 import com.nox.platform.module.engine.api.request.UpdateCoreRelationRequest;
 import com.nox.platform.module.engine.api.response.CoreRelationResponse;
+import com.nox.platform.module.engine.api.response.FieldMergeResponse;
 import com.nox.platform.module.engine.domain.CoreBlock;
 import com.nox.platform.module.engine.domain.CoreRelation;
 import com.nox.platform.module.engine.domain.Workspace;
 import com.nox.platform.module.engine.infrastructure.CoreBlockRepository;
 import com.nox.platform.module.engine.infrastructure.CoreRelationRepository;
+import com.nox.platform.module.engine.service.cache.WorkspaceGraphCache;
+import com.nox.platform.module.engine.service.clock.FieldClocks;
+import com.nox.platform.module.engine.service.clock.HlcTimestamp;
+import com.nox.platform.module.engine.service.clock.HybridLogicalClock;
 import com.nox.platform.module.engine.service.mapper.CoreRelationMapper;
+import com.nox.platform.module.engine.service.oplog.WorkspaceOperationLog;
+import com.nox.platform.module.engine.service.writer.WorkspaceMutation;
 import com.nox.platform.shared.abstraction.TimeProvider;
 import com.nox.platform.shared.exception.DomainException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.OffsetDateTime;
 
-import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CoreRelationService {
 
+    private static final String PORT_UNIQUE_INDEX = "uq_core_relations_port";
+
     private final CoreRelationRepository coreRelationRepository;
     private final CoreBlockRepository coreBlockRepository;
     private final WorkspaceService workspaceService;
     private final TimeProvider timeProvider;
     private final CoreRelationMapper mapper;
+    private final WorkspaceGraphCache graphCache;
+    private final ObjectMapper objectMapper;
+    private final WorkspaceOperationLog operationLog;
+    private final HybridLogicalClock hybridClock;
+    private final FieldClocks fieldClocks;
 
     @Transactional
+    @WorkspaceMutation
     public CoreRelationResponse createRelation(UUID workspaceId, CreateCoreRelationRequest request) {
-        Workspace workspace = workspaceService.getWorkspaceInternal(workspaceId);
+        Workspace workspace = workspaceService.getWorkspaceReference(workspaceId);
 
         CoreBlock sourceBlock = coreBlockRepository.findById(request.sourceBlockId())
                 .orElseThrow(() -> new DomainException("BLOCK_NOT_FOUND", "Source block not found"));
@@ -47,17 +66,12 @@ public class CoreRelationService {
             throw new DomainException("INVALID_WORKSPACE", "Both blocks must be in the same current workspace..");
         }
 
-        // Check if there's already a relation with EXACT same handles (Optimized for Multi-wire)
-        boolean duplicate = coreRelationRepository.findBySourceBlock_IdAndTargetBlock_Id(
-                request.sourceBlockId(), request.targetBlockId()).stream()
-                .anyMatch(r -> {
-                    String sH = (String) r.getVisual().get("sourceHandle");
-                    String tH = (String) r.getVisual().get("targetHandle");
-                    String newSH = (String) request.visual().get("sourceHandle");
-                    String newTH = (String) request.visual().get("targetHandle");
-                    return (sH == null ? "" : sH).equals(newSH == null ? "" : newSH) 
-                        && (tH == null ? "" : tH).equals(newTH == null ? "" : newTH);
-                });
+        // A hot workspace answers from memory; otherwise the unique port index decides on insert (no read-then-write race)
+        String newSH = handle(request.visual(), "sourceHandle");
+        String newTH = handle(request.visual(), "targetHandle");
+        boolean duplicate = graphCache.findCachedPortConnection(
+                        workspaceId, request.sourceBlockId(), newSH, request.targetBlockId(), newTH)
+                .orElse(false);
 
         if (duplicate) {
             throw new DomainException("RELATION_EXISTS", "This exact port connection already exists");
@@ -74,56 +88,163 @@ public class CoreRelationService {
                 .build();
         relation.initializeTimestamps(now);
 
-        relation = coreRelationRepository.save(relation);
-        return mapper.toResponse(relation);
+        try {
+            relation = coreRelationRepository.saveAndFlush(relation);
+        } catch (DataIntegrityViolationException e) {
+            throw translatePortConflict(e);
+        }
+        CoreRelationResponse response = mapper.toResponse(relation);
+        operationLog.recordRelation(workspaceId, response.id(), null, response);
+        graphCache.afterCommit(workspaceId, graph -> graph.upsertRelation(response));
+        return response;
     }
 
     @Transactional
+    @WorkspaceMutation
     public CoreRelationResponse updateRelation(UUID workspaceId, UUID relationId, UpdateCoreRelationRequest request) {
-        workspaceService.getWorkspaceInternal(workspaceId);
+        workspaceService.checkWorkspaceAccess(workspaceId);
 
         CoreRelation relation = coreRelationRepository.findByIdAndWorkspace_Id(relationId, workspaceId)
                 .orElseThrow(() -> new DomainException("RELATION_NOT_FOUND", "Relation not found in this workspace"));
+        CoreRelationResponse before = mapper.toResponse(relation);
 
+        OffsetDateTime now = timeProvider.now();
         relation.update(request.rules(), request.visual());
-        relation.updateTimestamp(timeProvider.now());
-        relation = coreRelationRepository.save(relation);
-        return mapper.toResponse(relation);
+
+        if (request.rulesPatch() != null || request.visualPatch() != null) {
+            // Pending entity changes are flushed first; the patch then merges in SQL on top of them.
+            try {
+                coreRelationRepository.mergePatchContent(relationId, writePatch(request.rulesPatch()), writePatch(request.visualPatch()), now);
+            } catch (DataIntegrityViolationException e) {
+                throw translatePortConflict(e);
+            }
+        } else {
+            relation.updateTimestamp(now);
+            try {
+                coreRelationRepository.saveAndFlush(relation);
+            } catch (DataIntegrityViolationException e) {
+                throw translatePortConflict(e);
+            }
+        }
+        // Whole-document writes cover the keys they dropped as well, so older merges cannot bring them back
+        Set<String> written = new LinkedHashSet<>();
+        if (request.rules() != null) written.addAll(FieldClocks.fields("rules", before.rules(), request.rules()));
+        if (request.visual() != null) written.addAll(FieldClocks.fields("visual", before.visual(), request.visual()));
+        written.addAll(FieldClocks.fields("rules", request.rulesPatch()));
+        written.addAll(FieldClocks.fields("visual", request.visualPatch()));
+        if (!written.isEmpty()) {
+            coreRelationRepository.stampFields(fieldClocks.writeEntries(Map.of(relationId, written)), hybridClock.now().toString());
+        }
+        relation = coreRelationRepository.findByIdAndWorkspace_Id(relationId, workspaceId)
+                .orElseThrow(() -> new DomainException("RELATION_NOT_FOUND", "Relation not found in this workspace"));
+        CoreRelationResponse response = mapper.toResponse(relation);
+        operationLog.recordRelation(workspaceId, relationId, before, response);
+        graphCache.afterCommit(workspaceId, graph -> graph.upsertRelation(response));
+        return response;
+    }
+
+    /**
+     * Lock-free counterpart of {@link #updateRelation}; see {@code CoreBlockService#mergeBlock}.
+     * Port handles live in {@code visual}, so a merge can still be refused when it would duplicate a wire.
+     */
+    @Transactional
+    @WorkspaceMutation
+    public FieldMergeResponse<CoreRelationResponse> mergeRelation(UUID workspaceId, UUID relationId, MergeRelationFieldsRequest request) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        CoreRelation relation = coreRelationRepository.findByIdAndWorkspace_Id(relationId, workspaceId)
+                .orElseThrow(() -> new DomainException("RELATION_NOT_FOUND", "Relation not found in this workspace"));
+        CoreRelationResponse before = mapper.toResponse(relation);
+
+        HlcTimestamp stamp = request.clock() != null ? HlcTimestamp.parse(request.clock()) : hybridClock.now();
+        HlcTimestamp clock = request.clock() != null ? hybridClock.receive(stamp) : stamp;
+
+        try {
+            coreRelationRepository.mergeFields(relationId, writePatch(request.rules()), writePatch(request.visual()),
+                    stamp.toString(), timeProvider.now());
+        } catch (DataIntegrityViolationException e) {
+            throw translatePortConflict(e);
+        }
+        Set<String> fields = new LinkedHashSet<>(FieldClocks.fields("rules", request.rules()));
+        fields.addAll(FieldClocks.fields("visual", request.visual()));
+        List<String> stale = fieldClocks.stale(coreRelationRepository.findFieldClocks(relationId), fields, stamp);
+
+        relation = coreRelationRepository.findByIdAndWorkspace_Id(relationId, workspaceId)
+                .orElseThrow(() -> new DomainException("RELATION_NOT_FOUND", "Relation not found in this workspace"));
+        CoreRelationResponse response = mapper.toResponse(relation);
+        operationLog.recordRelation(workspaceId, relationId, before, response);
+        graphCache.afterCommit(workspaceId, graph -> graph.upsertRelation(response));
+        return new FieldMergeResponse<>(response, clock.toString(), stale);
     }
 
     @Transactional
+    @WorkspaceMutation
     public void deleteRelation(UUID workspaceId, UUID relationId) {
-        workspaceService.getWorkspaceInternal(workspaceId);
+        workspaceService.checkWorkspaceAccess(workspaceId);
 
         CoreRelation relation = coreRelationRepository.findByIdAndWorkspace_Id(relationId, workspaceId)
                 .orElseThrow(() -> new DomainException("RELATION_NOT_FOUND", "Relation not found in this workspace"));
 
+        CoreRelationResponse before = mapper.toResponse(relation);
         OffsetDateTime now = timeProvider.now();
         relation.softDelete(now);
         relation.updateTimestamp(now);
         coreRelationRepository.save(relation);
+        operationLog.recordRelation(workspaceId, relationId, before, null);
+        graphCache.afterCommit(workspaceId, graph -> graph.removeRelation(relationId));
     }
 
+    /**
+     * Set-based: one UPDATE per call, no entities loaded. Callers pass bounded chunks.
+     */
     @Transactional
-    public void deleteRelationsForBlocks(List<UUID> blockIds, OffsetDateTime deletedAt) {
-        if (blockIds != null && !blockIds.isEmpty()) {
-            List<CoreRelation> relationsToSoftDelete = coreRelationRepository.findByBlockIdsActive(blockIds);
-            
-            relationsToSoftDelete.sort(Comparator.comparing(CoreRelation::getId));
-            
-            for (CoreRelation rel : relationsToSoftDelete) {
-                rel.softDelete(deletedAt);
-            }
-            coreRelationRepository.saveAll(relationsToSoftDelete);
-        }
+    public int deleteRelationsForBlocks(List<UUID> blockIds, OffsetDateTime deletedAt) {
+        if (blockIds == null || blockIds.isEmpty()) return 0;
+        return coreRelationRepository.softDeleteRelationsByBlockIds(blockIds, deletedAt);
+    }
+
+    @Transactional(readOnly = true)
+    public List<CoreRelationResponse> getRelationsForBlocks(List<UUID> blockIds) {
+        if (blockIds == null || blockIds.isEmpty()) return List.of();
+        return mapper.toResponseList(coreRelationRepository.findByBlockIdsActive(blockIds));
+    }
+
+    @Transactional
+    public int restoreRelationsForBlocks(List<UUID> blockIds, OffsetDateTime deletedAt, OffsetDateTime restoredAt) {
+        if (blockIds == null || blockIds.isEmpty()) return 0;
+        return coreRelationRepository.restoreRelationsByBlockIds(blockIds, deletedAt, restoredAt);
+    }
+
+    @Transactional(readOnly = true)
+    public List<CoreRelationResponse> getPortRelations(UUID workspaceId, UUID blockId, String handle) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        return mapper.toResponseList(coreRelationRepository.findByPort(workspaceId, blockId, handle != null ? handle : ""));
     }
 
     @Transactional(readOnly = true)
     public List<CoreRelationResponse> getWorkspaceRelations(UUID workspaceId) {
-        workspaceService.getWorkspaceInternal(workspaceId);
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        return graphCache.getRelations(workspaceId);
+    }
+
+    private static String handle(Map<String, Object> visual, String key) {
+        Object value = visual != null ? visual.get(key) : null;
+        return value != null ? value.toString() : "";
+    }
 
-        return coreRelationRepository.findByWorkspaceIdOrderByCreatedAtAsc(workspaceId).stream()
-                .map(mapper::toResponse)
-                .collect(Collectors.toList());
+    private RuntimeException translatePortConflict(DataIntegrityViolationException e) {
+        String cause = e.getMostSpecificCause().getMessage();
+        if (cause != null && cause.contains(PORT_UNIQUE_INDEX)) {
+            return new DomainException("RELATION_EXISTS", "This exact port connection already exists");
+        }
+        return e;
+    }
+
+    private String writePatch(Map<String, Object> patch) {
+        if (patch == null || patch.isEmpty()) return "{}";
+        try {
+            return objectMapper.writeValueAsString(patch);
+        } catch (JsonProcessingException e) {
+            throw new DomainException("INVALID_PATCH", "Merge patch could not be serialized");
+        }
     }
 }
@@ -10,6 +10,7 @@ import com.nox.platform.module.iam.infrastructure.UserRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.nox.platform.shared.abstraction.TimeProvider;
 import com.nox.platform.shared.exception.DomainException;
+import com.nox.platform.shared.infrastructure.etag.ContentVersions;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,6 +27,7 @@ public class EngineSnapshotService {
     private final ProjectService projectService;
     private final UserRepository userRepository;
     private final TimeProvider timeProvider;
+    private final ContentVersions contentVersions;
 
     @Transactional
     public SnapshotResponse saveDesignSnapshot(UUID projectId, CreateSnapshotRequest request, UUID currentUserId) {
@@ -37,9 +39,19 @@ public class EngineSnapshotService {
                 request.fullStateDump(), user, timeProvider.now());
 
         snapshot = snapshotRepository.save(snapshot);
+        contentVersions.bumpAfterCommit(versionScope(projectId));
         return mapToResponse(snapshot);
     }
 
+    /**
+     * Checks project access and returns the {@link ContentVersions} scope of its snapshot list,
+     * so conditional listings are answered before any snapshot is read.
+     */
+    public String getSnapshotListVersionScope(UUID projectId) {
+        projectService.findProjectInternal(projectId);
+        return versionScope(projectId);
+    }
+
     @Transactional(readOnly = true)
     public List<SnapshotResponse> getProjectSnapshots(UUID projectId) {
         projectService.findProjectInternal(projectId);
@@ -62,6 +74,10 @@ public class EngineSnapshotService {
         return snapshot.getFullStateDump();
     }
 
+    private static String versionScope(UUID projectId) {
+        return "project-snapshots:" + projectId;
+    }
+
     private SnapshotResponse mapToResponse(CoreSnapshot snapshot) {
         return new SnapshotResponse(
                 snapshot.getId(),
@@ -10,6 +10,7 @@ import com.nox.platform.module.engine.domain.WorkspaceType;
 import com.nox.platform.module.engine.infrastructure.CoreSnapshotRepository;
 import com.nox.platform.module.engine.infrastructure.ProjectRepository;
 import com.nox.platform.module.engine.infrastructure.WorkspaceRepository;
+import com.nox.platform.module.engine.service.cache.WorkspaceAccessCache;
 import com.nox.platform.module.iam.domain.User;
 import com.nox.platform.module.iam.infrastructure.UserRepository;
 import com.nox.platform.module.tenant.domain.Organization;
@@ -39,6 +40,7 @@ public class ProjectService {
     private final TimeProvider timeProvider;
     private final SecurityProvider securityProvider;
     private final SlugGenerator slugGenerator;
+    private final WorkspaceAccessCache workspaceAccessCache;
 
     @Transactional
     public ProjectResponse createProject(CreateProjectRequest request, UUID currentUserId) {
@@ -121,6 +123,7 @@ public class ProjectService {
 
         snapshotRepository.softDeleteByProjectId(project.getId(), now);
         workspaceRepository.softDeleteByProjectId(project.getId(), now);
+        workspaceAccessCache.evictProjectAfterCommit(project.getId());
 
         project.softDelete(now);
         project.updateTimestamp(now);
@@ -0,0 +1,169 @@
+package com.nox.platform.module.engine.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nox.platform.module.engine.api.response.WorkspaceImportResponse;
+import com.nox.platform.module.engine.domain.Project;
+import com.nox.platform.module.engine.domain.Workspace;
+import com.nox.platform.module.engine.infrastructure.BlockInvaderUsageRepository;
+import com.nox.platform.module.engine.infrastructure.CoreBlockRepository;
+import com.nox.platform.module.engine.infrastructure.CoreRelationRepository;
+import com.nox.platform.module.engine.infrastructure.WorkspaceRepository;
+import com.nox.platform.module.engine.service.archive.ArchiveCompression;
+import com.nox.platform.module.engine.service.archive.ArchivedBlock;
+import com.nox.platform.module.engine.service.archive.ArchivedInvaderUsage;
+import com.nox.platform.module.engine.service.archive.ArchivedRelation;
+import com.nox.platform.module.engine.service.archive.WorkspaceArchiveCodec;
+import com.nox.platform.module.engine.service.archive.WorkspaceArchiveHeader;
+import com.nox.platform.module.engine.service.archive.WorkspaceArchiveReader;
+import com.nox.platform.module.engine.service.archive.WorkspaceArchiveWriter;
+import com.nox.platform.module.iam.infrastructure.UserRepository;
+import com.nox.platform.shared.abstraction.TimeProvider;
+import com.nox.platform.shared.exception.DomainException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.OffsetDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Moves whole workspaces between environments as binary archives (see {@link WorkspaceArchiveCodec}).
+ * Both directions stream: export reads constructor projections straight into archive frames, and
+ * import stages each decoded frame in the database, so neither ever holds the graph in memory.
+ */
+@Service
+@RequiredArgsConstructor
+public class WorkspaceArchiveService {
+
+    // Mirrors the depth limit of CoreBlock#moveTo: a parent may have at most 10 ancestors
+    private static final int MAX_BLOCK_PATH_LENGTH = 11;
+
+    private final WorkspaceService workspaceService;
+    private final ProjectService projectService;
+    private final WorkspaceRepository workspaceRepository;
+    private final CoreBlockRepository coreBlockRepository;
+    private final CoreRelationRepository coreRelationRepository;
+    private final BlockInvaderUsageRepository blockInvaderUsageRepository;
+    private final UserRepository userRepository;
+    private final WorkspaceArchiveCodec codec;
+    private final TimeProvider timeProvider;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void exportWorkspace(UUID workspaceId, ArchiveCompression compression, OutputStream out) throws IOException {
+        Workspace workspace = workspaceService.getWorkspaceInternal(workspaceId);
+
+        WorkspaceArchiveWriter writer = codec.writer(out, compression);
+        writer.writeHeader(new WorkspaceArchiveHeader(
+                workspace.getId(), workspace.getName(), workspace.getType(), timeProvider.now()));
+        try (Stream<ArchivedBlock> blocks = coreBlockRepository.streamArchivedBlocks(workspaceId)) {
+            for (Iterator<ArchivedBlock> it = blocks.iterator(); it.hasNext(); ) {
+                writer.writeBlock(it.next());
+            }
+        }
+        try (Stream<ArchivedRelation> relations = coreRelationRepository.streamArchivedRelations(workspaceId)) {
+            for (Iterator<ArchivedRelation> it = relations.iterator(); it.hasNext(); ) {
+                writer.writeRelation(it.next());
+            }
+        }
+        try (Stream<ArchivedInvaderUsage> usages = blockInvaderUsageRepository.streamArchivedUsages(workspaceId)) {
+            for (Iterator<ArchivedInvaderUsage> it = usages.iterator(); it.hasNext(); ) {
+                writer.writeInvaderUsage(it.next());
+            }
+        }
+        writer.finish();
+    }
+
+    /**
+     * Creates a new workspace in the project from an archive. Blocks get fresh ids; warehouse
+     * references unknown to this environment, or outside the warehouses of the project's
+     * organization and the importing user, are dropped, and skipped invader usages are reported.
+     */
+    @Transactional
+    public WorkspaceImportResponse importWorkspace(UUID projectId, InputStream in, String name, UUID currentUserId) throws IOException {
+        Project project = projectService.findProjectInternal(projectId);
+
+        ImportStaging staging = new ImportStaging();
+        codec.reader(in).read(staging);
+
+        String workspaceName = name != null && !name.isBlank() ? name : staging.header.name();
+        if (workspaceName == null || workspaceName.isBlank() || staging.header.type() == null) {
+            throw new DomainException("INVALID_ARCHIVE", "Archive header is missing the workspace name or type");
+        }
+        OffsetDateTime now = timeProvider.now();
+        Workspace workspace = Workspace.builder()
+                .project(project)
+                .name(workspaceName.length() > 255 ? workspaceName.substring(0, 255) : workspaceName)
+                .type(staging.header.type())
+                .createdBy(userRepository.getReferenceById(currentUserId))
+                .build();
+        workspace.initializeTimestamps(now);
+        workspace = workspaceRepository.saveAndFlush(workspace);
+
+        WorkspaceRepository.ImportCountsView counts = workspaceRepository.finishImport(workspace.getId(), currentUserId, now);
+        if (counts.getBlocks() != counts.getStagedBlocks()) {
+            throw new DomainException("INVALID_ARCHIVE", "Archive contains blocks whose parent is missing or cyclic");
+        }
+        if (counts.getMaxDepth() > MAX_BLOCK_PATH_LENGTH) {
+            throw new DomainException("MAX_DEPTH_REACHED", "Maximum block depth (10) exceeded");
+        }
+        return new WorkspaceImportResponse(workspace.getId(), counts.getBlocks(), counts.getRelations(),
+                counts.getUsages(), staging.usages - counts.getUsages());
+    }
+
+    private class ImportStaging implements WorkspaceArchiveReader.Handler {
+
+        private WorkspaceArchiveHeader header;
+        private int usages;
+
+        @Override
+        public void header(WorkspaceArchiveHeader header) {
+            this.header = header;
+        }
+
+        @Override
+        public void blocks(List<ArchivedBlock> blocks) {
+            for (ArchivedBlock block : blocks) {
+                if (block.id() == null || block.type() == null || block.name() == null) {
+                    throw new DomainException("INVALID_ARCHIVE", "Archived block is missing its id, type or name");
+                }
+            }
+            workspaceRepository.stageImportBlocks(write(blocks));
+        }
+
+        @Override
+        public void relations(List<ArchivedRelation> relations) {
+            for (ArchivedRelation relation : relations) {
+                if (relation.sourceId() == null || relation.targetId() == null || relation.type() == null) {
+                    throw new DomainException("INVALID_ARCHIVE", "Archived relation is missing its ends or type");
+                }
+            }
+            workspaceRepository.stageImportRelations(write(relations));
+        }
+
+        @Override
+        public void invaderUsages(List<ArchivedInvaderUsage> usages) {
+            for (ArchivedInvaderUsage usage : usages) {
+                if (usage.blockId() == null || usage.invaderAssetId() == null) {
+                    throw new DomainException("INVALID_ARCHIVE", "Archived invader usage is missing its block or asset");
+                }
+            }
+            this.usages += workspaceRepository.stageImportUsages(write(usages));
+        }
+
+        private String write(List<?> records) {
+            try {
+                return objectMapper.writeValueAsString(records);
+            } catch (JsonProcessingException e) {
+                throw new DomainException("INVALID_ARCHIVE", "Archive frame could not be staged");
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.nox.platform.module.engine.service;
+
+import com.nox.platform.module.engine.api.response.BlockInvaderUsageResponse;
+import com.nox.platform.module.engine.api.response.WorkspaceSceneResponse;
+import com.nox.platform.module.engine.infrastructure.BlockInvaderUsageRepository;
+import com.nox.platform.module.engine.service.cache.WorkspaceGraphCache;
+import com.nox.platform.module.engine.service.cache.WorkspaceGraphSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Everything a canvas needs to render, in one response. The graph and the invader usages are
+ * read one after the other inside a single read-only transaction, so a scene request holds one
+ * pooled connection at most; the graph is usually served from the cache without touching it.
+ */
+@Service
+@RequiredArgsConstructor
+public class WorkspaceSceneService {
+
+    private final WorkspaceService workspaceService;
+    private final WorkspaceGraphCache graphCache;
+    private final BlockInvaderUsageRepository usageRepository;
+
+    @Transactional(readOnly = true)
+    public WorkspaceSceneResponse getScene(UUID workspaceId) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+
+        WorkspaceGraphSnapshot snapshot = graphCache.getSnapshot(workspaceId);
+        Map<UUID, List<BlockInvaderUsageResponse>> usagesByBlock = usageRepository.findUsageResponsesByWorkspaceId(workspaceId).stream()
+                .collect(Collectors.groupingBy(BlockInvaderUsageResponse::blockId, LinkedHashMap::new, Collectors.toList()));
+        return new WorkspaceSceneResponse(workspaceId, snapshot.blocks(), snapshot.relations(), usagesByBlock);
+    }
+}
@@ -1,21 +1,41 @@
 package com.nox.platform.module.engine.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nox.platform.module.engine.api.request.CloneBlocksRequest;
+import com.nox.platform.module.engine.api.request.CloneWorkspaceRequest;
 import com.nox.platform.module.engine.api.request.CreateWorkspaceRequest;
+import com.nox.platform.module.engine.api.response.BlockCloneResponse;
 import com.nox.platform.module.engine.api.response.WorkspaceResponse;
 import com.nox.platform.module.engine.domain.Project;
 import com.nox.platform.module.engine.domain.Workspace;
 import com.nox.platform.module.engine.domain.WorkspaceStatus;
+import com.nox.platform.module.engine.infrastructure.CoreBlockRepository;
+import com.nox.platform.module.engine.infrastructure.CoreRelationRepository;
 import com.nox.platform.module.engine.infrastructure.WorkspaceRepository;
+import com.nox.platform.module.engine.service.cache.WorkspaceAccessCache;
+import com.nox.platform.module.engine.service.cache.WorkspaceGraphCache;
+import com.nox.platform.module.engine.service.mapper.CoreBlockMapper;
+import com.nox.platform.module.engine.service.mapper.CoreRelationMapper;
+import com.nox.platform.module.engine.service.oplog.WorkspaceOperationLog;
+import com.nox.platform.module.engine.service.writer.WorkspaceWriter;
 import com.nox.platform.module.iam.domain.User;
 import com.nox.platform.module.iam.infrastructure.UserRepository;
+import com.nox.platform.shared.abstraction.SecurityProvider;
 import com.nox.platform.shared.abstraction.TimeProvider;
 import com.nox.platform.shared.exception.DomainException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -23,10 +43,25 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class WorkspaceService {
 
+    // Mirrors the depth limit of CoreBlock#moveTo: a parent may have at most 10 ancestors
+    private static final int MAX_BLOCK_PATH_LENGTH = 11;
+    private static final int LOG_CHUNK_SIZE = 1000;
+
     private final WorkspaceRepository workspaceRepository;
     private final ProjectService projectService;
     private final UserRepository userRepository;
     private final TimeProvider timeProvider;
+    private final WorkspaceGraphCache graphCache;
+    private final CoreBlockRepository coreBlockRepository;
+    private final CoreRelationRepository coreRelationRepository;
+    private final CoreBlockMapper blockMapper;
+    private final CoreRelationMapper relationMapper;
+    private final WorkspaceOperationLog operationLog;
+    private final ObjectMapper objectMapper;
+    private final SecurityProvider securityProvider;
+    private final WorkspaceAccessCache accessCache;
+    private final WorkspaceWriter workspaceWriter;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional
     public WorkspaceResponse createWorkspace(UUID projectId, CreateWorkspaceRequest request, UUID currentUserId) {
@@ -47,6 +82,78 @@ public class WorkspaceService {
         return mapToResponse(workspace);
     }
 
+    /**
+     * Duplicates a workspace with its whole graph. The copy is made by a single database call
+     * that remaps ids in a temporary table, so no block travels through the application.
+     * The new workspace starts with an empty history.
+     */
+    @Transactional
+    public BlockCloneResponse cloneWorkspace(UUID workspaceId, CloneWorkspaceRequest request, UUID currentUserId) {
+        Workspace source = getWorkspaceInternal(workspaceId);
+        User user = userRepository.getReferenceById(currentUserId);
+        OffsetDateTime now = timeProvider.now();
+
+        String name = request != null && request.name() != null && !request.name().isBlank()
+                ? request.name()
+                : source.getName() + " (copy)";
+        Workspace copy = Workspace.builder()
+                .project(source.getProject())
+                .name(name.length() > 255 ? name.substring(0, 255) : name)
+                .type(source.getType())
+                .createdBy(user)
+                .build();
+        copy.initializeTimestamps(now);
+        copy = workspaceRepository.saveAndFlush(copy);
+
+        CoreBlockRepository.CloneCountsView counts = coreBlockRepository.cloneBlocks(
+                workspaceId, copy.getId(), null, null, currentUserId, 0, 0, now);
+        return new BlockCloneResponse(copy.getId(), counts.getBlocks(), counts.getRelations(), counts.getUsages(), Map.of());
+    }
+
+    /**
+     * Copies the selected subtrees into the same or another workspace, keeping hierarchy and
+     * wiring between the copied blocks. The copies are logged, so a paste undoes as one step.
+     * Runs on the writer of the target workspace, the only one it writes to; the source blocks
+     * are read by the single cloning statement.
+     */
+    public BlockCloneResponse cloneBlocks(UUID workspaceId, CloneBlocksRequest request, UUID currentUserId) {
+        UUID targetWorkspaceId = request.targetWorkspaceId() != null ? request.targetWorkspaceId() : workspaceId;
+        return workspaceWriter.execute(targetWorkspaceId, () -> transactionTemplate.execute(status ->
+                cloneBlocksInto(workspaceId, targetWorkspaceId, request, currentUserId)));
+    }
+
+    private BlockCloneResponse cloneBlocksInto(UUID workspaceId, UUID targetWorkspaceId, CloneBlocksRequest request,
+                                               UUID currentUserId) {
+        getWorkspaceInternal(workspaceId);
+        if (!targetWorkspaceId.equals(workspaceId)) {
+            getWorkspaceInternal(targetWorkspaceId);
+        }
+
+        List<UUID> rootIds = new ArrayList<>(new LinkedHashSet<>(request.blockIds()));
+        if (coreBlockRepository.countByIdInAndWorkspace_Id(rootIds, workspaceId) != rootIds.size()) {
+            throw new DomainException("BLOCK_NOT_FOUND", "One or more blocks were not found in this workspace");
+        }
+        if (request.targetParentBlockId() != null
+                && coreBlockRepository.findByIdAndWorkspace_Id(request.targetParentBlockId(), targetWorkspaceId).isEmpty()) {
+            throw new DomainException("BLOCK_NOT_FOUND", "Parent block not found in the target workspace");
+        }
+
+        CoreBlockRepository.CloneCountsView counts = coreBlockRepository.cloneBlocks(
+                workspaceId, targetWorkspaceId, writeIds(rootIds), request.targetParentBlockId(), currentUserId,
+                request.offsetX() != null ? request.offsetX() : 0,
+                request.offsetY() != null ? request.offsetY() : 0,
+                timeProvider.now());
+        if (counts.getMaxDepth() > MAX_BLOCK_PATH_LENGTH) {
+            throw new DomainException("MAX_DEPTH_REACHED", "Maximum block depth (10) exceeded");
+        }
+
+        Map<UUID, UUID> blockIds = new LinkedHashMap<>();
+        coreBlockRepository.findCloneMappings().forEach(m -> blockIds.put(m.getOldId(), m.getNewId()));
+        logClonedBlocks(targetWorkspaceId, new ArrayList<>(blockIds.values()));
+        graphCache.invalidateAfterCommit(targetWorkspaceId);
+        return new BlockCloneResponse(targetWorkspaceId, counts.getBlocks(), counts.getRelations(), counts.getUsages(), blockIds);
+    }
+
     @Transactional(readOnly = true)
     public List<WorkspaceResponse> getWorkspacesByProject(UUID projectId) {
         projectService.findProjectInternal(projectId);
@@ -62,6 +169,8 @@ public class WorkspaceService {
         workspace.softDelete(now);
         workspace.updateTimestamp(now);
         workspaceRepository.save(workspace);
+        accessCache.evictWorkspaceAfterCommit(workspaceId);
+        graphCache.invalidateAfterCommit(workspaceId);
     }
 
     @Transactional
@@ -76,10 +185,51 @@ public class WorkspaceService {
     public Workspace getWorkspaceInternal(UUID workspaceId) {
         Workspace workspace = workspaceRepository.findById(workspaceId)
                 .orElseThrow(() -> new DomainException("WORKSPACE_NOT_FOUND", "Workspace missing or invalid bounds"));
-        projectService.findProjectInternal(workspace.getProject().getId());
+        Project project = projectService.findProjectInternal(workspace.getProject().getId());
+        securityProvider.getCurrentOrganizationId()
+                .ifPresent(orgId -> accessCache.grant(orgId, workspaceId, project.getId()));
         return workspace;
     }
 
+    /**
+     * Same check as {@link #getWorkspaceInternal} for callers that do not need the entity;
+     * a cached grant for the caller's organization answers it without touching the database.
+     */
+    public void checkWorkspaceAccess(UUID workspaceId) {
+        Optional<UUID> orgId = securityProvider.getCurrentOrganizationId();
+        if (orgId.isPresent() && accessCache.isGranted(orgId.get(), workspaceId)) {
+            return;
+        }
+        getWorkspaceInternal(workspaceId);
+    }
+
+    /**
+     * Checked, uninitialized reference for wiring new rows to the workspace without loading it.
+     */
+    public Workspace getWorkspaceReference(UUID workspaceId) {
+        checkWorkspaceAccess(workspaceId);
+        return workspaceRepository.getReferenceById(workspaceId);
+    }
+
+    private void logClonedBlocks(UUID workspaceId, List<UUID> newBlockIds) {
+        for (int from = 0; from < newBlockIds.size(); from += LOG_CHUNK_SIZE) {
+            List<UUID> chunk = newBlockIds.subList(from, Math.min(from + LOG_CHUNK_SIZE, newBlockIds.size()));
+            blockMapper.toResponseList(coreBlockRepository.findAllByIdsIncludingDeleted(workspaceId, chunk))
+                    .forEach(block -> operationLog.recordBlock(workspaceId, block.id(), null, block));
+            // A wire seen from both ends is logged once; the log merges repeated changes
+            relationMapper.toResponseList(coreRelationRepository.findByBlockIdsActive(chunk))
+                    .forEach(relation -> operationLog.recordRelation(workspaceId, relation.id(), null, relation));
+        }
+    }
+
+    private String writeIds(List<UUID> ids) {
+        try {
+            return objectMapper.writeValueAsString(ids);
+        } catch (JsonProcessingException e) {
+            throw new DomainException("INVALID_SELECTION", "Block selection could not be serialized");
+        }
+    }
+
     private WorkspaceResponse mapToResponse(Workspace workspace) {
         return new WorkspaceResponse(
                 workspace.getId(),
@@ -0,0 +1,58 @@
+package com.nox.platform.module.engine.service;
+
+import com.nox.platform.module.engine.api.response.CoreBlockResponse;
+import com.nox.platform.module.engine.api.response.CoreRelationResponse;
+import com.nox.platform.module.engine.api.response.WorkspaceChangesResponse;
+import com.nox.platform.module.engine.infrastructure.CoreBlockRepository;
+import com.nox.platform.module.engine.infrastructure.CoreRelationRepository;
+import com.nox.platform.module.engine.infrastructure.WorkspaceRepository;
+import com.nox.platform.module.engine.service.mapper.CoreBlockMapper;
+import com.nox.platform.module.engine.service.mapper.CoreRelationMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Serves incremental workspace state to reconnecting clients.
+ * <p>
+ * The cursor is the workspace's change sequence: every block and relation write draws a number
+ * while holding the workspace write lock, so within a workspace the sequence follows commit order
+ * and anything still in flight lands above the high-water mark read here. A client therefore
+ * never misses a row, and may at most receive one twice. Rows are full upserts (or tombstones
+ * when {@code deletedAt} is set), so replaying them is idempotent. A cursor the workspace has not
+ * reached, such as one issued before sequence cursors existed, gets a full snapshot.
+ */
+@Service
+@RequiredArgsConstructor
+public class WorkspaceSyncService {
+
+    private final WorkspaceService workspaceService;
+    private final WorkspaceRepository workspaceRepository;
+    private final CoreBlockRepository coreBlockRepository;
+    private final CoreRelationRepository coreRelationRepository;
+    private final CoreBlockMapper blockMapper;
+    private final CoreRelationMapper relationMapper;
+
+    @Transactional(readOnly = true)
+    public WorkspaceChangesResponse getChangesSince(UUID workspaceId, Long cursor) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+
+        long highWaterMark = workspaceRepository.findChangeHighWaterMark(workspaceId);
+        List<CoreBlockResponse> blocks;
+        List<CoreRelationResponse> relations;
+
+        if (cursor == null || cursor <= 0 || cursor > highWaterMark) {
+            blocks = blockMapper.toResponseList(coreBlockRepository.findBlocksWithDetailsByWorkspaceId(workspaceId));
+            relations = coreRelationRepository.findRelationResponsesByWorkspaceId(workspaceId);
+        } else {
+            blocks = blockMapper.toResponseList(
+                    coreBlockRepository.findChangedIncludingDeleted(workspaceId, cursor, highWaterMark));
+            relations = relationMapper.toResponseList(
+                    coreRelationRepository.findChangedIncludingDeleted(workspaceId, cursor, highWaterMark));
+        }
+        return new WorkspaceChangesResponse(highWaterMark, blocks, relations);
+    }
+}
@@ -0,0 +1,27 @@
+package com.nox.platform.module.engine.service.archive;
+
+import com.nox.platform.shared.exception.DomainException;
+
+public enum ArchiveCompression {
+    NONE(0),
+    GZIP(1);
+
+    private final int flag;
+
+    ArchiveCompression(int flag) {
+        this.flag = flag;
+    }
+
+    public int flag() {
+        return flag;
+    }
+
+    public static ArchiveCompression fromFlag(int flag) {
+        for (ArchiveCompression compression : values()) {
+            if (compression.flag == flag) {
+                return compression;
+            }
+        }
+        throw new DomainException("INVALID_ARCHIVE", "Unsupported archive compression " + flag);
+    }
+}
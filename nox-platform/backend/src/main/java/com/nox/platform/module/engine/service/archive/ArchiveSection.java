@@ -0,0 +1,33 @@
+package com.nox.platform.module.engine.service.archive;
+
+import com.nox.platform.shared.exception.DomainException;
+
+/**
+ * Frame kinds of a workspace archive, in the order they must appear.
+ */
+public enum ArchiveSection {
+    END(0),
+    HEADER(1),
+    BLOCKS(2),
+    RELATIONS(3),
+    INVADER_USAGES(4);
+
+    private final int tag;
+
+    ArchiveSection(int tag) {
+        this.tag = tag;
+    }
+
+    public int tag() {
+        return tag;
+    }
+
+    public static ArchiveSection fromTag(int tag) {
+        for (ArchiveSection section : values()) {
+            if (section.tag == tag) {
+                return section;
+            }
+        }
+        throw new DomainException("INVALID_ARCHIVE", "Unknown archive section " + tag);
+    }
+}
@@ -0,0 +1,17 @@
+package com.nox.platform.module.engine.service.archive;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Block entry of a workspace archive. Ids are the source workspace's; the importer remaps them.
+ */
+public record ArchivedBlock(
+        UUID id,
+        UUID parentId,
+        UUID originAssetId,
+        String type,
+        String name,
+        Map<String, Object> config,
+        Map<String, Object> visual) {
+}
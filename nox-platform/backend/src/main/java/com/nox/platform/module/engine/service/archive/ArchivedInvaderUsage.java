@@ -0,0 +1,11 @@
+package com.nox.platform.module.engine.service.archive;
+
+import java.util.Map;
+import java.util.UUID;
+
+public record ArchivedInvaderUsage(
+        UUID blockId,
+        UUID invaderAssetId,
+        String appliedVersion,
+        Map<String, Object> configSnapshot) {
+}
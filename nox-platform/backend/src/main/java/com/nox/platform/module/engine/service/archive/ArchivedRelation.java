@@ -0,0 +1,12 @@
+package com.nox.platform.module.engine.service.archive;
+
+import java.util.Map;
+import java.util.UUID;
+
+public record ArchivedRelation(
+        UUID sourceId,
+        UUID targetId,
+        String type,
+        Map<String, Object> rules,
+        Map<String, Object> visual) {
+}
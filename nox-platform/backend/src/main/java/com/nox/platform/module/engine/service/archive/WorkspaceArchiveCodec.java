@@ -0,0 +1,86 @@
+package com.nox.platform.module.engine.service.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.nox.platform.shared.exception.DomainException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Binary workspace archive format, version 1:
+ * <pre>
+ * "NOXW" | u16 format version | u8 compression
+ * then, compressed as a whole when requested, a sequence of frames
+ *   u8 section | u32 payload length | payload (Smile array of records; a single object for HEADER)
+ * closed by a lone END section byte.
+ * </pre>
+ * Sections appear in {@link ArchiveSection} order, each split into frames of bounded size, so
+ * neither side has to hold more than one frame in memory.
+ */
+@Component
+public class WorkspaceArchiveCodec {
+
+    public static final String MEDIA_TYPE = "application/vnd.nox.workspace";
+    public static final int FORMAT_VERSION = 1;
+    static final byte[] MAGIC = {'N', 'O', 'X', 'W'};
+
+    private final ObjectMapper smileMapper;
+
+    @Value("${engine.archive.frame-records:1000}")
+    private int frameRecords;
+
+    @Value("${engine.archive.max-frame-bytes:67108864}")
+    private int maxFrameBytes;
+
+    public WorkspaceArchiveCodec(ObjectMapper objectMapper) {
+        this.smileMapper = objectMapper.copyWith(new SmileFactory());
+    }
+
+    public WorkspaceArchiveWriter writer(OutputStream out, ArchiveCompression compression) throws IOException {
+        out.write(MAGIC);
+        DataOutputStream preamble = new DataOutputStream(out);
+        preamble.writeShort(FORMAT_VERSION);
+        preamble.writeByte(compression.flag());
+        preamble.flush();
+        if (compression == ArchiveCompression.GZIP) {
+            // Frames are small; sync flush would only cost ratio, so the stream is finished once at the end
+            GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+            return new WorkspaceArchiveWriter(smileMapper, new DataOutputStream(gzip), gzip, frameRecords);
+        }
+        return new WorkspaceArchiveWriter(smileMapper, new DataOutputStream(out), null, frameRecords);
+    }
+
+    public WorkspaceArchiveReader reader(InputStream in) throws IOException {
+        DataInputStream preamble = new DataInputStream(in);
+        byte[] magic = new byte[MAGIC.length];
+        int version;
+        int flag;
+        try {
+            preamble.readFully(magic);
+            version = preamble.readUnsignedShort();
+            flag = preamble.readUnsignedByte();
+        } catch (EOFException e) {
+            throw new DomainException("INVALID_ARCHIVE", "Archive is truncated");
+        }
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new DomainException("INVALID_ARCHIVE", "Not a workspace archive");
+        }
+        if (version != FORMAT_VERSION) {
+            throw new DomainException("INVALID_ARCHIVE", "Unsupported archive format version " + version);
+        }
+        InputStream body = ArchiveCompression.fromFlag(flag) == ArchiveCompression.GZIP
+                ? new GZIPInputStream(in, 64 * 1024)
+                : in;
+        return new WorkspaceArchiveReader(smileMapper, new DataInputStream(body), maxFrameBytes);
+    }
+}
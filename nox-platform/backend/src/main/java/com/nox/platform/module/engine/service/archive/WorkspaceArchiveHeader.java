@@ -0,0 +1,13 @@
+package com.nox.platform.module.engine.service.archive;
+
+import com.nox.platform.module.engine.domain.WorkspaceType;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record WorkspaceArchiveHeader(
+        UUID sourceWorkspaceId,
+        String name,
+        WorkspaceType type,
+        OffsetDateTime exportedAt) {
+}
@@ -0,0 +1,85 @@
+package com.nox.platform.module.engine.service.archive;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.nox.platform.shared.exception.DomainException;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Decodes an archive frame by frame and hands each decoded batch to a {@link Handler}, so memory
+ * is bounded by the frame size and not by the workspace.
+ */
+public class WorkspaceArchiveReader {
+
+    public interface Handler {
+        void header(WorkspaceArchiveHeader header);
+
+        void blocks(List<ArchivedBlock> blocks);
+
+        void relations(List<ArchivedRelation> relations);
+
+        void invaderUsages(List<ArchivedInvaderUsage> usages);
+    }
+
+    private final ObjectMapper smileMapper;
+    private final DataInputStream in;
+    private final int maxFrameBytes;
+
+    WorkspaceArchiveReader(ObjectMapper smileMapper, DataInputStream in, int maxFrameBytes) {
+        this.smileMapper = smileMapper;
+        this.in = in;
+        this.maxFrameBytes = maxFrameBytes;
+    }
+
+    public void read(Handler handler) throws IOException {
+        ObjectReader blockReader = smileMapper.readerForListOf(ArchivedBlock.class);
+        ObjectReader relationReader = smileMapper.readerForListOf(ArchivedRelation.class);
+        ObjectReader usageReader = smileMapper.readerForListOf(ArchivedInvaderUsage.class);
+
+        ArchiveSection previous = ArchiveSection.END;
+        try {
+            while (true) {
+                ArchiveSection section = ArchiveSection.fromTag(in.readUnsignedByte());
+                if (section == ArchiveSection.END) {
+                    if (previous == ArchiveSection.END) {
+                        throw new DomainException("INVALID_ARCHIVE", "Archive has no header");
+                    }
+                    return;
+                }
+                boolean misplacedHeader = (section == ArchiveSection.HEADER) != (previous == ArchiveSection.END);
+                if (misplacedHeader || section.tag() < previous.tag()) {
+                    throw new DomainException("INVALID_ARCHIVE", "Section " + section + " out of order");
+                }
+                previous = section;
+
+                byte[] payload = readPayload();
+                switch (section) {
+                    case HEADER -> handler.header(smileMapper.readValue(payload, WorkspaceArchiveHeader.class));
+                    case BLOCKS -> handler.blocks(blockReader.readValue(payload));
+                    case RELATIONS -> handler.relations(relationReader.readValue(payload));
+                    case INVADER_USAGES -> handler.invaderUsages(usageReader.readValue(payload));
+                    default -> throw new DomainException("INVALID_ARCHIVE", "Unexpected section " + section);
+                }
+            }
+        } catch (EOFException e) {
+            throw new DomainException("INVALID_ARCHIVE", "Archive is truncated");
+        } catch (JsonProcessingException e) {
+            throw new DomainException("INVALID_ARCHIVE", "Archive frame could not be decoded");
+        }
+    }
+
+    private byte[] readPayload() throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > maxFrameBytes) {
+            throw new DomainException("INVALID_ARCHIVE", "Archive frame of " + length + " bytes exceeds the limit");
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return payload;
+    }
+}
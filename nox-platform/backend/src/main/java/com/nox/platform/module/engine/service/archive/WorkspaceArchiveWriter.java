@@ -0,0 +1,91 @@
+package com.nox.platform.module.engine.service.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Buffers at most one frame of records; see {@link WorkspaceArchiveCodec} for the layout.
+ * The underlying stream is left open so servlet responses can be finished by the container.
+ */
+public class WorkspaceArchiveWriter {
+
+    private final ObjectMapper smileMapper;
+    private final DataOutputStream out;
+    private final GZIPOutputStream gzip;
+    private final int frameRecords;
+    private final List<Object> pending = new ArrayList<>();
+    private ArchiveSection section = ArchiveSection.END;
+
+    WorkspaceArchiveWriter(ObjectMapper smileMapper, DataOutputStream out, GZIPOutputStream gzip, int frameRecords) {
+        this.smileMapper = smileMapper;
+        this.out = out;
+        this.gzip = gzip;
+        this.frameRecords = Math.max(1, frameRecords);
+    }
+
+    public void writeHeader(WorkspaceArchiveHeader header) throws IOException {
+        enter(ArchiveSection.HEADER);
+        writeFrame(ArchiveSection.HEADER, smileMapper.writeValueAsBytes(header));
+    }
+
+    public void writeBlock(ArchivedBlock block) throws IOException {
+        append(ArchiveSection.BLOCKS, block);
+    }
+
+    public void writeRelation(ArchivedRelation relation) throws IOException {
+        append(ArchiveSection.RELATIONS, relation);
+    }
+
+    public void writeInvaderUsage(ArchivedInvaderUsage usage) throws IOException {
+        append(ArchiveSection.INVADER_USAGES, usage);
+    }
+
+    public void finish() throws IOException {
+        flushFrame();
+        out.writeByte(ArchiveSection.END.tag());
+        out.flush();
+        if (gzip != null) {
+            gzip.finish();
+        }
+    }
+
+    private void append(ArchiveSection target, Object record) throws IOException {
+        if (section != target) {
+            flushFrame();
+            enter(target);
+        }
+        pending.add(record);
+        if (pending.size() >= frameRecords) {
+            flushFrame();
+        }
+    }
+
+    private void enter(ArchiveSection target) {
+        if (target.tag() < section.tag() || (target == ArchiveSection.HEADER && section == ArchiveSection.HEADER)) {
+            throw new IllegalStateException("Section " + target + " cannot follow " + section);
+        }
+        if (target != ArchiveSection.HEADER && section == ArchiveSection.END) {
+            throw new IllegalStateException("Archive header must be written first");
+        }
+        section = target;
+    }
+
+    private void flushFrame() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        writeFrame(section, smileMapper.writeValueAsBytes(pending));
+        pending.clear();
+    }
+
+    private void writeFrame(ArchiveSection frameSection, byte[] payload) throws IOException {
+        out.writeByte(frameSection.tag());
+        out.writeInt(payload.length);
+        out.write(payload);
+    }
+}
@@ -0,0 +1,67 @@
+package com.nox.platform.module.engine.service.cache;
+
+import com.nox.platform.module.engine.api.response.CoreBlockResponse;
+import com.nox.platform.module.engine.api.response.CoreRelationResponse;
+import com.nox.platform.shared.model.RawJson;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Rough retained-size estimate used to weigh cache entries. It does not need to be exact,
+ * only proportional, so that large jsonb payloads count for more than small ones.
+ */
+final class WeightEstimator {
+
+    private static final int RECORD_OVERHEAD = 160;
+    private static final int MAX_DEPTH = 8;
+
+    private WeightEstimator() {
+    }
+
+    static long estimate(CoreBlockResponse block) {
+        return RECORD_OVERHEAD
+                + estimate(block.type(), 0)
+                + estimate(block.name(), 0)
+                + estimate(block.config(), 0)
+                + estimate(block.visual(), 0);
+    }
+
+    static long estimate(CoreRelationResponse relation) {
+        return RECORD_OVERHEAD
+                + estimate(relation.type(), 0)
+                + estimate(relation.rules(), 0)
+                + estimate(relation.visual(), 0)
+                + 96; // port-connection key
+    }
+
+    private static long estimate(Object value, int depth) {
+        if (value == null) {
+            return 0;
+        }
+        if (depth > MAX_DEPTH) {
+            return 64;
+        }
+        if (value instanceof String s) {
+            return 40L + 2L * s.length();
+        }
+        if (value instanceof RawJson json) {
+            return 56L + 2L * json.length();
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = 48;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += 32 + estimate(entry.getKey(), depth + 1) + estimate(entry.getValue(), depth + 1);
+            }
+            return size;
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = 24;
+            for (Object item : collection) {
+                size += 8 + estimate(item, depth + 1);
+            }
+            return size;
+        }
+        return 16;
+    }
+}
@@ -0,0 +1,105 @@
+package com.nox.platform.module.engine.service.cache;
+
+import com.nox.platform.shared.abstraction.TimeProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived record of successful workspace access checks (workspace live, project live and
+ * owned by the caller's organization), keyed by organization and workspace.
+ * <p>
+ * Engine services consult it before resolving workspace → project → organization again, so
+ * repeated checks within a request and across a client's burst of edits cost no queries.
+ * Local deletes evict immediately; on other instances a grant may outlive a delete by at most
+ * the TTL, after which the next check goes back to the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class WorkspaceAccessCache {
+
+    private final TimeProvider timeProvider;
+
+    @Value("${engine.access-cache.ttl-ms:30000}")
+    private long ttlMs;
+
+    @Value("${engine.access-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<Key, Grant> grants = new ConcurrentHashMap<>();
+
+    public boolean isGranted(UUID organizationId, UUID workspaceId) {
+        if (ttlMs <= 0) {
+            return false;
+        }
+        Key key = new Key(organizationId, workspaceId);
+        Grant grant = grants.get(key);
+        if (grant == null) {
+            return false;
+        }
+        if (grant.expiresAt() <= timeProvider.currentTimeMillis()) {
+            grants.remove(key, grant);
+            return false;
+        }
+        return true;
+    }
+
+    public void grant(UUID organizationId, UUID workspaceId, UUID projectId) {
+        if (ttlMs <= 0) {
+            return;
+        }
+        long now = timeProvider.currentTimeMillis();
+        if (grants.size() >= maxEntries) {
+            grants.values().removeIf(grant -> grant.expiresAt() <= now);
+            if (grants.size() >= maxEntries) {
+                grants.clear();
+            }
+        }
+        grants.put(new Key(organizationId, workspaceId), new Grant(projectId, now + ttlMs));
+    }
+
+    /**
+     * Drops grants now and again after commit, so a check racing with the deleting transaction
+     * cannot leave a grant behind for a workspace that is gone.
+     */
+    public void evictWorkspaceAfterCommit(UUID workspaceId) {
+        evictWorkspace(workspaceId);
+        afterCommit(() -> evictWorkspace(workspaceId));
+    }
+
+    public void evictProjectAfterCommit(UUID projectId) {
+        evictProject(projectId);
+        afterCommit(() -> evictProject(projectId));
+    }
+
+    private void evictWorkspace(UUID workspaceId) {
+        grants.keySet().removeIf(key -> key.workspaceId().equals(workspaceId));
+    }
+
+    private void evictProject(UUID projectId) {
+        grants.values().removeIf(grant -> grant.projectId().equals(projectId));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private record Key(UUID organizationId, UUID workspaceId) {
+    }
+
+    private record Grant(UUID projectId, long expiresAt) {
+    }
+}
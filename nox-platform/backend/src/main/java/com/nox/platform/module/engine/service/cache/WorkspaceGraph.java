@@ -0,0 +1,144 @@
+package com.nox.platform.module.engine.service.cache;
+
+import com.nox.platform.module.engine.api.response.CoreBlockResponse;
+import com.nox.platform.module.engine.api.response.CoreRelationResponse;
+import com.nox.platform.module.engine.service.graph.WorkspaceAdjacency;
+import com.nox.platform.shared.model.RawJson;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-memory copy of one workspace's live blocks and relations.
+ * Not thread-safe on its own; {@link WorkspaceGraphCache} guards every access with the graph's monitor.
+ */
+public class WorkspaceGraph {
+
+    private final Map<UUID, CoreBlockResponse> blocks = new LinkedHashMap<>();
+    private final Map<UUID, CoreRelationResponse> relations = new LinkedHashMap<>();
+    private final Set<String> portConnections = new HashSet<>();
+    private long weight;
+    // Built on first analytics query, dropped whenever the block set or the wiring changes
+    private WorkspaceAdjacency adjacency;
+
+    WorkspaceGraph(List<CoreBlockResponse> blocks, List<CoreRelationResponse> relations) {
+        blocks.forEach(this::upsertBlock);
+        relations.forEach(this::upsertRelation);
+    }
+
+    long weight() {
+        return weight;
+    }
+
+    WorkspaceAdjacency adjacency() {
+        if (adjacency == null) {
+            adjacency = WorkspaceAdjacency.build(blocks.keySet(), relations.values());
+        }
+        return adjacency;
+    }
+
+    List<CoreBlockResponse> blockSnapshot() {
+        return new ArrayList<>(blocks.values());
+    }
+
+    List<CoreRelationResponse> relationSnapshot() {
+        return new ArrayList<>(relations.values());
+    }
+
+    UUID parentOf(UUID blockId) {
+        CoreBlockResponse block = blocks.get(blockId);
+        return block != null ? block.parentBlockId() : null;
+    }
+
+    boolean hasPortConnection(UUID sourceBlockId, String sourceHandle, UUID targetBlockId, String targetHandle) {
+        return portConnections.contains(portKey(sourceBlockId, sourceHandle, targetBlockId, targetHandle));
+    }
+
+    public void upsertBlock(CoreBlockResponse block) {
+        if (block.deletedAt() != null) {
+            removeBlocks(List.of(block.id()));
+            return;
+        }
+        CoreBlockResponse previous = blocks.put(block.id(), block);
+        if (previous != null) {
+            weight -= WeightEstimator.estimate(previous);
+        } else {
+            adjacency = null;
+        }
+        weight += WeightEstimator.estimate(block);
+    }
+
+    public void removeBlocks(Collection<UUID> blockIds) {
+        Set<UUID> removed = new HashSet<>();
+        for (UUID blockId : blockIds) {
+            CoreBlockResponse previous = blocks.remove(blockId);
+            if (previous != null) {
+                weight -= WeightEstimator.estimate(previous);
+                removed.add(blockId);
+            }
+        }
+        if (removed.isEmpty()) {
+            return;
+        }
+        adjacency = null;
+        Iterator<CoreRelationResponse> it = relations.values().iterator();
+        while (it.hasNext()) {
+            CoreRelationResponse relation = it.next();
+            if (removed.contains(relation.sourceBlockId()) || removed.contains(relation.targetBlockId())) {
+                it.remove();
+                forgetRelation(relation);
+            }
+        }
+    }
+
+    public void upsertRelation(CoreRelationResponse relation) {
+        if (relation.deletedAt() != null) {
+            removeRelation(relation.id());
+            return;
+        }
+        CoreRelationResponse previous = relations.put(relation.id(), relation);
+        if (previous != null) {
+            forgetRelation(previous);
+        }
+        portConnections.add(portKey(relation));
+        adjacency = null;
+        weight += WeightEstimator.estimate(relation);
+    }
+
+    public void removeRelation(UUID relationId) {
+        CoreRelationResponse previous = relations.remove(relationId);
+        if (previous != null) {
+            forgetRelation(previous);
+        }
+    }
+
+    private void forgetRelation(CoreRelationResponse relation) {
+        adjacency = null;
+        portConnections.remove(portKey(relation));
+        weight -= WeightEstimator.estimate(relation);
+    }
+
+    private static String portKey(CoreRelationResponse relation) {
+        return portKey(
+                relation.sourceBlockId(),
+                handle(relation.visual(), "sourceHandle"),
+                relation.targetBlockId(),
+                handle(relation.visual(), "targetHandle"));
+    }
+
+    private static String handle(RawJson visual, String key) {
+        return visual != null ? visual.textField(key) : null;
+    }
+
+    private static String portKey(UUID sourceBlockId, String sourceHandle, UUID targetBlockId, String targetHandle) {
+        return sourceBlockId + "|" + (sourceHandle == null ? "" : sourceHandle)
+                + "|" + targetBlockId + "|" + (targetHandle == null ? "" : targetHandle);
+    }
+}
@@ -0,0 +1,340 @@
+package com.nox.platform.module.engine.service.cache;
+
+import com.nox.platform.module.engine.api.response.CoreBlockResponse;
+import com.nox.platform.module.engine.api.response.CoreRelationResponse;
+import com.nox.platform.module.engine.domain.BlockHierarchy;
+import com.nox.platform.module.engine.infrastructure.CoreBlockRepository;
+import com.nox.platform.module.engine.infrastructure.CoreRelationRepository;
+import com.nox.platform.module.engine.service.graph.WorkspaceAdjacency;
+import com.nox.platform.shared.abstraction.TimeProvider;
+import com.nox.platform.shared.infrastructure.etag.ContentVersions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Bounded, size-weighted LRU cache of workspace block/relation graphs.
+ * <p>
+ * Entries are loaded on first read and kept current by engine services, which push their
+ * changes through {@link #afterCommit}. That hook bumps the workspace's {@link ContentVersions}
+ * stamp, which is also what conditional reads of blocks, relations and the scene are validated
+ * against. Every entry remembers the stamp it reflects, and a read only trusts it while the
+ * stamp in Redis still matches, so a write committed on any instance retires the graph on all
+ * of them. While Redis is unreachable an entry is trusted for at most
+ * {@code engine.graph-cache.max-age-ms}. A per-workspace generation additionally keeps a local
+ * load that raced with a local write from installing a stale graph.
+ * <p>
+ * The map, the LRU order and the weight accounting are guarded by the cache's monitor; each
+ * graph is guarded by its own, so copying one workspace never blocks readers of another.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkspaceGraphCache {
+
+    private final CoreBlockRepository coreBlockRepository;
+    private final CoreRelationRepository coreRelationRepository;
+    private final ContentVersions contentVersions;
+    private final TimeProvider timeProvider;
+
+    @Value("${engine.graph-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${engine.graph-cache.max-weight-bytes:268435456}")
+    private long maxWeightBytes;
+
+    // Only consulted while stamps cannot be read from Redis
+    @Value("${engine.graph-cache.max-age-ms:5000}")
+    private long maxAgeMs;
+
+    private final LinkedHashMap<UUID, Entry> graphs = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<UUID, Long> generations = new HashMap<>();
+    private int loadsInFlight;
+    private long totalWeight;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public List<CoreBlockResponse> getBlocks(UUID workspaceId) {
+        if (!enabled) {
+            return coreBlockRepository.findBlockResponsesByWorkspaceId(workspaceId);
+        }
+        return read(workspaceId, WorkspaceGraph::blockSnapshot);
+    }
+
+    public List<CoreRelationResponse> getRelations(UUID workspaceId) {
+        if (!enabled) {
+            return coreRelationRepository.findRelationResponsesByWorkspaceId(workspaceId);
+        }
+        return read(workspaceId, WorkspaceGraph::relationSnapshot);
+    }
+
+    /**
+     * Blocks and relations copied from the same graph, so callers never pair wires with a
+     * different block set than the one they were loaded with.
+     */
+    public WorkspaceGraphSnapshot getSnapshot(UUID workspaceId) {
+        if (!enabled) {
+            return new WorkspaceGraphSnapshot(
+                    coreBlockRepository.findBlockResponsesByWorkspaceId(workspaceId),
+                    coreRelationRepository.findRelationResponsesByWorkspaceId(workspaceId));
+        }
+        return read(workspaceId, graph -> new WorkspaceGraphSnapshot(graph.blockSnapshot(), graph.relationSnapshot()));
+    }
+
+    /**
+     * CSR adjacency of the workspace relation graph. Cached graphs build it once and reuse it
+     * until the block set or the wiring changes.
+     */
+    public WorkspaceAdjacency getAdjacency(UUID workspaceId) {
+        if (!enabled) {
+            return WorkspaceAdjacency.build(
+                    coreBlockRepository.findBlockResponsesByWorkspaceId(workspaceId).stream().map(CoreBlockResponse::id).toList(),
+                    coreRelationRepository.findRelationResponsesByWorkspaceId(workspaceId));
+        }
+        return read(workspaceId, WorkspaceGraph::adjacency);
+    }
+
+    /**
+     * Returns a hierarchy view only if the workspace is already cached and current; loading a
+     * whole graph just to validate one move would cost more than reading the ancestor path.
+     */
+    public Optional<BlockHierarchy> findCachedHierarchy(UUID workspaceId) {
+        Entry entry = freshEntry(workspaceId);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(blockId -> {
+            synchronized (entry.graph) {
+                return entry.graph.parentOf(blockId);
+            }
+        });
+    }
+
+    public Optional<Boolean> findCachedPortConnection(UUID workspaceId, UUID sourceBlockId, String sourceHandle,
+                                                      UUID targetBlockId, String targetHandle) {
+        Entry entry = freshEntry(workspaceId);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        synchronized (entry.graph) {
+            return Optional.of(entry.graph.hasPortConnection(sourceBlockId, sourceHandle, targetBlockId, targetHandle));
+        }
+    }
+
+    /**
+     * Applies a graph mutation once the surrounding transaction commits.
+     * Rolled-back transactions leave the cache untouched.
+     */
+    public void afterCommit(UUID workspaceId, Consumer<WorkspaceGraph> mutation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(workspaceId, mutation);
+                }
+            });
+        } else {
+            publish(workspaceId, mutation);
+        }
+    }
+
+    public void invalidateAfterCommit(UUID workspaceId) {
+        afterCommit(workspaceId, null);
+    }
+
+    /**
+     * Moves the workspace's stamp along once the transaction commits, leaving the cached graph as
+     * it is. For changes outside the graph, such as invader usages, that conditional reads must
+     * still see.
+     */
+    public void touchAfterCommit(UUID workspaceId) {
+        afterCommit(workspaceId, graph -> { });
+    }
+
+    public static String versionScope(UUID workspaceId) {
+        return "workspace:" + workspaceId;
+    }
+
+    public synchronized WorkspaceGraphCacheStats stats() {
+        return new WorkspaceGraphCacheStats(hits.get(), misses.get(), evictions.get(), graphs.size(), totalWeight, maxWeightBytes);
+    }
+
+    private <T> T read(UUID workspaceId, Function<WorkspaceGraph, T> view) {
+        Entry entry = freshEntry(workspaceId);
+        if (entry == null) {
+            return load(workspaceId, view);
+        }
+        hits.incrementAndGet();
+        synchronized (entry.graph) {
+            return view.apply(entry.graph);
+        }
+    }
+
+    /**
+     * The cached entry if it still reflects the workspace's current stamp; a stale one is dropped.
+     */
+    private Entry freshEntry(UUID workspaceId) {
+        Entry entry;
+        synchronized (this) {
+            entry = graphs.get(workspaceId);
+        }
+        if (entry == null) {
+            return null;
+        }
+        String current = contentVersions.current(versionScope(workspaceId));
+        boolean fresh;
+        synchronized (entry.graph) {
+            fresh = !entry.discarded && (current != null
+                    ? current.equals(entry.version)
+                    : timeProvider.currentTimeMillis() - entry.loadedAt < maxAgeMs);
+        }
+        if (!fresh) {
+            remove(workspaceId, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    private <T> T load(UUID workspaceId, Function<WorkspaceGraph, T> view) {
+        long generation;
+        synchronized (this) {
+            misses.incrementAndGet();
+            loadsInFlight++;
+            generation = generations.getOrDefault(workspaceId, 0L);
+        }
+
+        Entry entry;
+        try {
+            // Read before the rows, so a write landing in between makes the entry look older, never newer
+            String version = contentVersions.current(versionScope(workspaceId));
+            WorkspaceGraph graph = new WorkspaceGraph(
+                    coreBlockRepository.findBlockResponsesByWorkspaceId(workspaceId),
+                    coreRelationRepository.findRelationResponsesByWorkspaceId(workspaceId));
+            entry = new Entry(graph, version, timeProvider.currentTimeMillis());
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                loadsInFlight--;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            loadsInFlight--;
+            if (generations.getOrDefault(workspaceId, 0L) == generation
+                    && !graphs.containsKey(workspaceId)
+                    && entry.graph.weight() <= maxWeightBytes) {
+                entry.weight = entry.graph.weight();
+                graphs.put(workspaceId, entry);
+                totalWeight += entry.weight;
+                evictIfNeeded();
+            }
+        }
+        synchronized (entry.graph) {
+            return view.apply(entry.graph);
+        }
+    }
+
+    private void publish(UUID workspaceId, Consumer<WorkspaceGraph> mutation) {
+        // Bumped first: the new stamp tells whether the cached graph has seen every write before this one
+        apply(workspaceId, mutation, contentVersions.bump(versionScope(workspaceId)));
+    }
+
+    private void apply(UUID workspaceId, Consumer<WorkspaceGraph> mutation, Long version) {
+        Entry entry;
+        synchronized (this) {
+            // Generations only matter to loads that are still running; drop them otherwise so the map stays small.
+            if (loadsInFlight == 0) {
+                generations.remove(workspaceId);
+            } else {
+                generations.merge(workspaceId, 1L, Long::sum);
+            }
+            entry = graphs.get(workspaceId);
+        }
+        if (entry == null) {
+            return;
+        }
+
+        long weight = 0;
+        synchronized (entry.graph) {
+            // A graph that is not exactly one stamp behind missed a write made elsewhere
+            if (mutation != null && version != null && String.valueOf(version - 1).equals(entry.version)) {
+                try {
+                    mutation.accept(entry.graph);
+                    entry.version = String.valueOf(version);
+                    weight = entry.graph.weight();
+                } catch (RuntimeException e) {
+                    log.warn("Dropping cached graph for workspace {} after failed update", workspaceId, e);
+                    entry.discarded = true;
+                }
+            } else {
+                entry.discarded = true;
+            }
+        }
+
+        synchronized (this) {
+            if (graphs.get(workspaceId) != entry) {
+                return;
+            }
+            if (entry.discarded) {
+                graphs.remove(workspaceId);
+                totalWeight -= entry.weight;
+                return;
+            }
+            totalWeight += weight - entry.weight;
+            entry.weight = weight;
+            evictIfNeeded();
+        }
+    }
+
+    private synchronized void remove(UUID workspaceId, Entry entry) {
+        if (graphs.remove(workspaceId, entry)) {
+            totalWeight -= entry.weight;
+        }
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<UUID, Entry>> it = graphs.entrySet().iterator();
+        while (totalWeight > maxWeightBytes && it.hasNext()) {
+            Map.Entry<UUID, Entry> eldest = it.next();
+            totalWeight -= eldest.getValue().weight;
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static final class Entry {
+        private final WorkspaceGraph graph;
+        private final long loadedAt;
+        // Guarded by graph
+        private String version;
+        private boolean discarded;
+        // Guarded by the cache: the weight counted into totalWeight
+        private long weight;
+
+        private Entry(WorkspaceGraph graph, String version, long loadedAt) {
+            this.graph = graph;
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
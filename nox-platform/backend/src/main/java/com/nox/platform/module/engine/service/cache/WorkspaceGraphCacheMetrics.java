@@ -0,0 +1,35 @@
+package com.nox.platform.module.engine.service.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class WorkspaceGraphCacheMetrics implements MeterBinder {
+
+    private final WorkspaceGraphCache cache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("nox.engine.graph_cache.requests", cache, c -> c.stats().hits())
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("nox.engine.graph_cache.requests", cache, c -> c.stats().misses())
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("nox.engine.graph_cache.evictions", cache, c -> c.stats().evictions())
+                .register(registry);
+        Gauge.builder("nox.engine.graph_cache.workspaces", cache, c -> c.stats().workspaces())
+                .register(registry);
+        Gauge.builder("nox.engine.graph_cache.weight", cache, c -> c.stats().weightBytes())
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("nox.engine.graph_cache.max_weight", cache, c -> c.stats().maxWeightBytes())
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
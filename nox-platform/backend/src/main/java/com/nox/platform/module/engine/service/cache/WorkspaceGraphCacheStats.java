@@ -0,0 +1,10 @@
+package com.nox.platform.module.engine.service.cache;
+
+public record WorkspaceGraphCacheStats(
+        long hits,
+        long misses,
+        long evictions,
+        int workspaces,
+        long weightBytes,
+        long maxWeightBytes) {
+}
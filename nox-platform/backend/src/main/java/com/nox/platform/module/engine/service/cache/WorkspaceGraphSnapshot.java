@@ -0,0 +1,9 @@
+package com.nox.platform.module.engine.service.cache;
+
+import com.nox.platform.module.engine.api.response.CoreBlockResponse;
+import com.nox.platform.module.engine.api.response.CoreRelationResponse;
+
+import java.util.List;
+
+public record WorkspaceGraphSnapshot(List<CoreBlockResponse> blocks, List<CoreRelationResponse> relations) {
+}
@@ -0,0 +1,103 @@
+package com.nox.platform.module.engine.service.clock;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nox.platform.shared.exception.DomainException;
+import com.nox.platform.shared.model.RawJson;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Field naming and bookkeeping for the last-writer-wins registers in {@code field_clocks}.
+ * A register covers one top-level key of a jsonb document ({@code config.<key>}) or a scalar
+ * column ({@code name}); nested values are replaced as a whole.
+ */
+@Component
+@RequiredArgsConstructor
+public class FieldClocks {
+
+    private static final TypeReference<Map<String, String>> CLOCKS_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Register names for the keys of the given documents, e.g. both the old and the new version
+     * of a document that is replaced wholesale.
+     */
+    @SafeVarargs
+    public static Set<String> fields(String prefix, Map<String, ?>... documents) {
+        Set<String> fields = new LinkedHashSet<>();
+        for (Map<String, ?> document : documents) {
+            if (document != null) {
+                document.keySet().forEach(key -> fields.add(prefix + "." + key));
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Register names for a stored document replaced wholesale by {@code replacement}.
+     */
+    public static Set<String> fields(String prefix, RawJson stored, Map<String, ?> replacement) {
+        Set<String> fields = new LinkedHashSet<>();
+        if (stored != null) {
+            stored.fieldNames().forEach(key -> fields.add(prefix + "." + key));
+        }
+        fields.addAll(fields(prefix, replacement));
+        return fields;
+    }
+
+    /**
+     * @return the requested fields whose register ended up with a different clock than
+     * {@code stamp}, i.e. the writes that lost against a newer one
+     */
+    public List<String> stale(Optional<String> clocksJson, Collection<String> fields, HlcTimestamp stamp) {
+        Map<String, String> clocks = clocksJson.map(this::readClocks).orElse(Map.of());
+        String expected = stamp.toString();
+        List<String> stale = new ArrayList<>();
+        for (String field : fields) {
+            if (!expected.equals(clocks.get(field))) {
+                stale.add(field);
+            }
+        }
+        return stale;
+    }
+
+    /**
+     * Serializes per-entity field sets as the {@code entries} argument of the {@code stampFields} queries.
+     */
+    public String writeEntries(Map<UUID, ? extends Collection<String>> fieldsById) {
+        List<Map<String, Object>> entries = new ArrayList<>(fieldsById.size());
+        fieldsById.forEach((id, fields) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", id);
+            entry.put("fields", fields);
+            entries.add(entry);
+        });
+        try {
+            return objectMapper.writeValueAsString(entries);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Field clock entries could not be serialized", e);
+        }
+    }
+
+    private Map<String, String> readClocks(String json) {
+        try {
+            return objectMapper.readValue(json, CLOCKS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new DomainException("INVALID_CLOCK", "Stored field clocks could not be read");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.nox.platform.module.engine.service.clock;
+
+import com.nox.platform.shared.exception.DomainException;
+
+import java.util.Comparator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hybrid logical clock reading: wall-clock milliseconds, a logical counter for events within the
+ * same millisecond, and the id of the node that issued it as tie-breaker.
+ * <p>
+ * The text form {@code <12 hex millis>-<4 hex counter>-<node>} is fixed width up to the node, so
+ * comparing two strings ordinally (PostgreSQL's "C" collation) gives the same order as
+ * {@link #compareTo}. That is what lets {@code field_clocks} be compared inside SQL.
+ */
+public record HlcTimestamp(long physical, int logical, String node) implements Comparable<HlcTimestamp> {
+
+    static final int MAX_LOGICAL = 0xffff;
+
+    private static final Pattern FORMAT = Pattern.compile("([0-9a-f]{12})-([0-9a-f]{4})-([A-Za-z0-9_-]{1,64})");
+
+    private static final Comparator<HlcTimestamp> ORDER = Comparator.comparingLong(HlcTimestamp::physical)
+            .thenComparingInt(HlcTimestamp::logical)
+            .thenComparing(HlcTimestamp::node);
+
+    public static HlcTimestamp parse(String value) {
+        Matcher matcher = value != null ? FORMAT.matcher(value) : null;
+        if (matcher == null || !matcher.matches()) {
+            throw new DomainException("INVALID_CLOCK", "Clock must look like <12 hex millis>-<4 hex counter>-<node id>");
+        }
+        return new HlcTimestamp(Long.parseLong(matcher.group(1), 16), Integer.parseInt(matcher.group(2), 16), matcher.group(3));
+    }
+
+    @Override
+    public int compareTo(HlcTimestamp other) {
+        return ORDER.compare(this, other);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%012x-%04x-%s", physical, logical, node);
+    }
+}
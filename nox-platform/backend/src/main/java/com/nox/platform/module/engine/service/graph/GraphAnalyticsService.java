@@ -0,0 +1,90 @@
+package com.nox.platform.module.engine.service.graph;
+
+import com.nox.platform.module.engine.api.request.GraphDirection;
+import com.nox.platform.module.engine.api.response.GraphCyclesResponse;
+import com.nox.platform.module.engine.api.response.GraphImpactResponse;
+import com.nox.platform.module.engine.api.response.GraphTopologyResponse;
+import com.nox.platform.module.engine.service.WorkspaceService;
+import com.nox.platform.module.engine.service.cache.WorkspaceGraphCache;
+import com.nox.platform.shared.exception.DomainException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Server-side answers to "what depends on this block" style questions, computed over the
+ * CSR adjacency of the workspace instead of shipping every relation to the browser.
+ */
+@Service
+@RequiredArgsConstructor
+public class GraphAnalyticsService {
+
+    private final WorkspaceService workspaceService;
+    private final WorkspaceGraphCache graphCache;
+
+    @Transactional(readOnly = true)
+    public GraphImpactResponse getImpact(UUID workspaceId, UUID blockId, GraphDirection direction, Integer maxDepth) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        WorkspaceAdjacency graph = graphCache.getAdjacency(workspaceId);
+
+        int start = graph.indexOf(blockId);
+        if (start < 0) {
+            throw new DomainException("BLOCK_NOT_FOUND", "Block not found in this workspace");
+        }
+
+        int[] depth = graph.reach(start, direction == GraphDirection.DOWNSTREAM, maxDepth != null ? maxDepth : -1);
+        List<GraphImpactResponse.ImpactedBlock> impacted = new ArrayList<>();
+        for (int node = 0; node < depth.length; node++) {
+            if (depth[node] > 0) {
+                impacted.add(new GraphImpactResponse.ImpactedBlock(graph.nodeId(node), depth[node]));
+            }
+        }
+        impacted.sort((a, b) -> Integer.compare(a.depth(), b.depth()));
+        return new GraphImpactResponse(blockId, direction, impacted);
+    }
+
+    @Transactional(readOnly = true)
+    public GraphCyclesResponse getCycles(UUID workspaceId) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        WorkspaceAdjacency graph = graphCache.getAdjacency(workspaceId);
+
+        List<List<UUID>> cycles = new ArrayList<>();
+        for (int[] members : graph.cycles()) {
+            cycles.add(toIds(graph, members, members.length));
+        }
+        return new GraphCyclesResponse(cycles.isEmpty(), cycles);
+    }
+
+    @Transactional(readOnly = true)
+    public GraphTopologyResponse getTopologicalOrder(UUID workspaceId) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        WorkspaceAdjacency graph = graphCache.getAdjacency(workspaceId);
+
+        int[] order = graph.topologicalOrder();
+        List<UUID> unordered = new ArrayList<>();
+        if (order.length < graph.nodeCount()) {
+            boolean[] placed = new boolean[graph.nodeCount()];
+            for (int node : order) {
+                placed[node] = true;
+            }
+            for (int node = 0; node < placed.length; node++) {
+                if (!placed[node]) {
+                    unordered.add(graph.nodeId(node));
+                }
+            }
+        }
+        return new GraphTopologyResponse(unordered.isEmpty(), toIds(graph, order, order.length), unordered);
+    }
+
+    private List<UUID> toIds(WorkspaceAdjacency graph, int[] nodes, int count) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(graph.nodeId(nodes[i]));
+        }
+        return ids;
+    }
+}
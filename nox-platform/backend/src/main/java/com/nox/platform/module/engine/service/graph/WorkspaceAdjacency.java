@@ -0,0 +1,282 @@
+package com.nox.platform.module.engine.service.graph;
+
+import com.nox.platform.module.engine.api.response.CoreRelationResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable compressed-sparse-row view of a workspace's relation graph.
+ * <p>
+ * Blocks are numbered 0..n-1; the outgoing neighbours of node {@code v} are
+ * {@code outTargets[outOffsets[v] .. outOffsets[v + 1])}, incoming ones are stored the same way
+ * in {@code inSources}. Traversals only touch primitive arrays, so a 100k-edge graph costs a few
+ * int arrays rather than a map of boxed lists. Parallel wires between two blocks are kept as
+ * separate edges; every algorithm here tolerates them.
+ */
+public final class WorkspaceAdjacency {
+
+    private final UUID[] nodeIds;
+    private final Map<UUID, Integer> nodeIndex;
+    private final int[] outOffsets;
+    private final int[] outTargets;
+    private final int[] inOffsets;
+    private final int[] inSources;
+
+    private WorkspaceAdjacency(UUID[] nodeIds, Map<UUID, Integer> nodeIndex,
+                               int[] outOffsets, int[] outTargets, int[] inOffsets, int[] inSources) {
+        this.nodeIds = nodeIds;
+        this.nodeIndex = nodeIndex;
+        this.outOffsets = outOffsets;
+        this.outTargets = outTargets;
+        this.inOffsets = inOffsets;
+        this.inSources = inSources;
+    }
+
+    /**
+     * Builds the CSR arrays in two passes (degree count, then fill). Relations pointing at
+     * blocks outside {@code blockIds} are ignored.
+     */
+    public static WorkspaceAdjacency build(Collection<UUID> blockIds, Collection<CoreRelationResponse> relations) {
+        int n = blockIds.size();
+        UUID[] nodeIds = blockIds.toArray(new UUID[0]);
+        Map<UUID, Integer> nodeIndex = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            nodeIndex.put(nodeIds[i], i);
+        }
+
+        int[] sources = new int[relations.size()];
+        int[] targets = new int[relations.size()];
+        int edgeCount = 0;
+        int[] outOffsets = new int[n + 1];
+        int[] inOffsets = new int[n + 1];
+        for (CoreRelationResponse relation : relations) {
+            Integer source = nodeIndex.get(relation.sourceBlockId());
+            Integer target = nodeIndex.get(relation.targetBlockId());
+            if (source == null || target == null) {
+                continue;
+            }
+            sources[edgeCount] = source;
+            targets[edgeCount] = target;
+            edgeCount++;
+            outOffsets[source + 1]++;
+            inOffsets[target + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            outOffsets[i + 1] += outOffsets[i];
+            inOffsets[i + 1] += inOffsets[i];
+        }
+
+        int[] outTargets = new int[edgeCount];
+        int[] inSources = new int[edgeCount];
+        int[] outCursor = Arrays.copyOf(outOffsets, n);
+        int[] inCursor = Arrays.copyOf(inOffsets, n);
+        for (int e = 0; e < edgeCount; e++) {
+            outTargets[outCursor[sources[e]]++] = targets[e];
+            inSources[inCursor[targets[e]]++] = sources[e];
+        }
+        return new WorkspaceAdjacency(nodeIds, nodeIndex, outOffsets, outTargets, inOffsets, inSources);
+    }
+
+    public int nodeCount() {
+        return nodeIds.length;
+    }
+
+    public int edgeCount() {
+        return outTargets.length;
+    }
+
+    public UUID nodeId(int node) {
+        return nodeIds[node];
+    }
+
+    /**
+     * @return the node number of the block, or -1 if it is not part of the graph
+     */
+    public int indexOf(UUID blockId) {
+        Integer index = nodeIndex.get(blockId);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Breadth-first walk from {@code start} along outgoing (downstream) or incoming (upstream) edges.
+     *
+     * @param maxDepth hop limit, or a negative value for no limit
+     * @return hop distance per node, -1 for unreachable; the start node itself has depth 0
+     */
+    public int[] reach(int start, boolean downstream, int maxDepth) {
+        int[] offsets = downstream ? outOffsets : inOffsets;
+        int[] neighbours = downstream ? outTargets : inSources;
+
+        int[] depth = new int[nodeIds.length];
+        Arrays.fill(depth, -1);
+        int[] queue = new int[nodeIds.length];
+        int head = 0;
+        int tail = 0;
+        depth[start] = 0;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int v = queue[head++];
+            if (maxDepth >= 0 && depth[v] >= maxDepth) {
+                continue;
+            }
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int w = neighbours[e];
+                if (depth[w] == -1) {
+                    depth[w] = depth[v] + 1;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Tarjan's algorithm with an explicit call stack, so deep chains cannot overflow the thread stack.
+     *
+     * @return component id per node; nodes share an id exactly when they are mutually reachable
+     */
+    public int[] stronglyConnectedComponents() {
+        int n = nodeIds.length;
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] component = new int[n];
+        int[] edgeCursor = new int[n];
+        int[] callStack = new int[n];
+        int[] sccStack = new int[n];
+        boolean[] onStack = new boolean[n];
+        Arrays.fill(index, -1);
+
+        int counter = 0;
+        int components = 0;
+        int sccTop = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] != -1) {
+                continue;
+            }
+            int callTop = 0;
+            index[root] = low[root] = counter++;
+            sccStack[sccTop++] = root;
+            onStack[root] = true;
+            edgeCursor[root] = outOffsets[root];
+            callStack[callTop++] = root;
+
+            while (callTop > 0) {
+                int v = callStack[callTop - 1];
+                if (edgeCursor[v] < outOffsets[v + 1]) {
+                    int w = outTargets[edgeCursor[v]++];
+                    if (index[w] == -1) {
+                        index[w] = low[w] = counter++;
+                        sccStack[sccTop++] = w;
+                        onStack[w] = true;
+                        edgeCursor[w] = outOffsets[w];
+                        callStack[callTop++] = w;
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+
+                callTop--;
+                if (callTop > 0) {
+                    int parent = callStack[callTop - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+                if (low[v] == index[v]) {
+                    int w;
+                    do {
+                        w = sccStack[--sccTop];
+                        onStack[w] = false;
+                        component[w] = components;
+                    } while (w != v);
+                    components++;
+                }
+            }
+        }
+        return component;
+    }
+
+    /**
+     * Node groups that form a cycle: components with more than one node, or a single node wired to itself.
+     */
+    public List<int[]> cycles() {
+        int n = nodeIds.length;
+        int[] component = stronglyConnectedComponents();
+        int componentCount = 0;
+        for (int c : component) {
+            componentCount = Math.max(componentCount, c + 1);
+        }
+
+        int[] sizes = new int[componentCount];
+        for (int v = 0; v < n; v++) {
+            sizes[component[v]]++;
+        }
+        boolean[] cyclic = new boolean[componentCount];
+        for (int v = 0; v < n; v++) {
+            if (sizes[component[v]] > 1) {
+                cyclic[component[v]] = true;
+                continue;
+            }
+            for (int e = outOffsets[v]; e < outOffsets[v + 1]; e++) {
+                if (outTargets[e] == v) {
+                    cyclic[component[v]] = true;
+                    break;
+                }
+            }
+        }
+
+        int[][] members = new int[componentCount][];
+        int[] filled = new int[componentCount];
+        List<int[]> cycles = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            int c = component[v];
+            if (!cyclic[c]) {
+                continue;
+            }
+            if (members[c] == null) {
+                members[c] = new int[sizes[c]];
+                cycles.add(members[c]);
+            }
+            members[c][filled[c]++] = v;
+        }
+        return cycles;
+    }
+
+    /**
+     * Kahn's algorithm. Nodes that sit on or behind a cycle never reach in-degree zero and are
+     * left out, so {@code result.length < nodeCount()} means the graph is not a DAG.
+     */
+    public int[] topologicalOrder() {
+        int n = nodeIds.length;
+        int[] inDegree = new int[n];
+        for (int v = 0; v < n; v++) {
+            inDegree[v] = inOffsets[v + 1] - inOffsets[v];
+        }
+
+        int[] order = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (inDegree[v] == 0) {
+                order[tail++] = v;
+            }
+        }
+        while (head < tail) {
+            int v = order[head++];
+            for (int e = outOffsets[v]; e < outOffsets[v + 1]; e++) {
+                int w = outTargets[e];
+                if (--inDegree[w] == 0) {
+                    order[tail++] = w;
+                }
+            }
+        }
+        return tail == n ? order : Arrays.copyOf(order, tail);
+    }
+}
@@ -0,0 +1,35 @@
+package com.nox.platform.module.engine.service.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nox.platform.module.engine.api.response.CoreBlockResponse;
+import com.nox.platform.module.engine.domain.CoreBlock;
+import com.nox.platform.shared.mapping.BaseMapper;
+import com.nox.platform.shared.model.RawJson;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CoreBlockMapper implements BaseMapper<CoreBlock, CoreBlockResponse> {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public CoreBlockResponse toResponse(CoreBlock block) {
+        if (block == null) return null;
+
+        return new CoreBlockResponse(
+                block.getId(),
+                block.getWorkspace().getId(),
+                block.getParentBlock() != null ? block.getParentBlock().getId() : null,
+                block.getOriginAsset() != null ? block.getOriginAsset().getId() : null,
+                block.getType(),
+                block.getName(),
+                RawJson.of(block.getConfig(), objectMapper),
+                RawJson.of(block.getVisual(), objectMapper),
+                block.getCreatedBy() != null ? block.getCreatedBy().getId() : null,
+                block.getUpdatedAt(),
+                block.getDeletedAt()
+        );
+    }
+}
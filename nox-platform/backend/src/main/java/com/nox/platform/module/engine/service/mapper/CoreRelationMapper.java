@@ -1,13 +1,19 @@
 package com.nox.platform.module.engine.service.mapper;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nox.platform.module.engine.api.response.CoreRelationResponse;
 import com.nox.platform.module.engine.domain.CoreRelation;
 import com.nox.platform.shared.mapping.BaseMapper;
+import com.nox.platform.shared.model.RawJson;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 @Component
+@RequiredArgsConstructor
 public class CoreRelationMapper implements BaseMapper<CoreRelation, CoreRelationResponse> {
 
+    private final ObjectMapper objectMapper;
+
     @Override
     public CoreRelationResponse toResponse(CoreRelation relation) {
         if (relation == null) return null;
@@ -18,8 +24,8 @@ public class CoreRelationMapper implements BaseMapper<CoreRelation, CoreRelation
                 relation.getSourceBlock().getId(),
                 relation.getTargetBlock().getId(),
                 relation.getType(),
-                relation.getRules(),
-                relation.getVisual(),
+                RawJson.of(relation.getRules(), objectMapper),
+                RawJson.of(relation.getVisual(), objectMapper),
                 relation.getDeletedAt());
     }
 }
@@ -0,0 +1,28 @@
+package com.nox.platform.module.engine.service.mapper;
+
+import com.nox.platform.module.engine.api.response.WorkspaceOperationResponse;
+import com.nox.platform.module.engine.domain.WorkspaceOperation;
+import com.nox.platform.shared.mapping.BaseMapper;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WorkspaceOperationMapper implements BaseMapper<WorkspaceOperation, WorkspaceOperationResponse> {
+
+    @Override
+    public WorkspaceOperationResponse toResponse(WorkspaceOperation operation) {
+        if (operation == null) return null;
+
+        return new WorkspaceOperationResponse(
+                operation.getId(),
+                operation.getGroupId(),
+                operation.getKind(),
+                operation.getRevertsGroupId(),
+                operation.getActorId(),
+                operation.getEntityType(),
+                operation.getEntityId(),
+                operation.getForward(),
+                operation.getInverse(),
+                operation.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,63 @@
+package com.nox.platform.module.engine.service.oplog;
+
+import com.nox.platform.module.engine.domain.OperationKind;
+import com.nox.platform.module.engine.infrastructure.WorkspaceOperationRepository.OperationGroupView;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Undo and redo stacks of one user, derived from the log instead of being stored: replaying
+ * the user's recent groups oldest first, a DO pushes onto the undo stack and clears redo,
+ * an UNDO moves its target to the redo stack and a REDO moves it back.
+ */
+final class HistoryStacks {
+
+    private final Deque<UUID> undo = new ArrayDeque<>();
+    private final Deque<UUID> redo = new ArrayDeque<>();
+
+    private HistoryStacks() {
+    }
+
+    /**
+     * @param newestFirst group headers as returned by {@code findRecentGroups}
+     */
+    static HistoryStacks replay(List<OperationGroupView> newestFirst) {
+        HistoryStacks stacks = new HistoryStacks();
+        for (int i = newestFirst.size() - 1; i >= 0; i--) {
+            OperationGroupView group = newestFirst.get(i);
+            switch (OperationKind.valueOf(group.getKind())) {
+                case DO -> {
+                    stacks.undo.push(group.getGroupId());
+                    stacks.redo.clear();
+                }
+                case UNDO -> {
+                    // The reverted group may predate the window; the undo still counts for redo
+                    stacks.undo.remove(group.getRevertsGroupId());
+                    stacks.redo.push(group.getRevertsGroupId());
+                }
+                case REDO -> {
+                    stacks.redo.remove(group.getRevertsGroupId());
+                    stacks.undo.push(group.getRevertsGroupId());
+                }
+            }
+        }
+        return stacks;
+    }
+
+    /**
+     * @return the DO group the next undo reverts, or null when there is nothing to undo
+     */
+    UUID nextUndo() {
+        return undo.peek();
+    }
+
+    /**
+     * @return the DO group the next redo re-applies, or null when there is nothing to redo
+     */
+    UUID nextRedo() {
+        return redo.peek();
+    }
+}
@@ -0,0 +1,455 @@
+package com.nox.platform.module.engine.service.oplog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.nox.platform.module.engine.api.response.CoreBlockResponse;
+import com.nox.platform.module.engine.api.response.CoreRelationResponse;
+import com.nox.platform.module.engine.api.response.HistoryStepResponse;
+import com.nox.platform.module.engine.api.response.WorkspaceOperationPageResponse;
+import com.nox.platform.module.engine.api.response.WorkspaceStateResponse;
+import com.nox.platform.module.engine.domain.CoreBlock;
+import com.nox.platform.module.engine.domain.CoreRelation;
+import com.nox.platform.module.engine.domain.OperationEntityType;
+import com.nox.platform.module.engine.domain.OperationKind;
+import com.nox.platform.module.engine.domain.WorkspaceOperation;
+import com.nox.platform.module.engine.infrastructure.CoreBlockRepository;
+import com.nox.platform.module.engine.infrastructure.CoreRelationRepository;
+import com.nox.platform.module.engine.infrastructure.WorkspaceOperationRepository;
+import com.nox.platform.module.engine.service.WorkspaceService;
+import com.nox.platform.module.engine.service.cache.WorkspaceGraphCache;
+import com.nox.platform.module.engine.service.mapper.CoreBlockMapper;
+import com.nox.platform.module.engine.service.mapper.CoreRelationMapper;
+import com.nox.platform.module.engine.service.mapper.WorkspaceOperationMapper;
+import com.nox.platform.module.engine.service.writer.WorkspaceMutation;
+import com.nox.platform.shared.abstraction.TimeProvider;
+import com.nox.platform.shared.exception.DomainException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Reads and replays the workspace operation log: the incremental feed for peers, per-user
+ * undo/redo and reconstruction of the workspace as it was right after a given operation.
+ * <p>
+ * Undo applies the inverse states of the user's latest group, redo its forward states again.
+ * Each entity must still look the way the group left it (or found it, for redo); if someone
+ * changed it since, the step is refused with {@code HISTORY_CONFLICT} rather than overwriting
+ * their work. The step itself is logged as a new UNDO/REDO group, so peers replay it like any edit.
+ */
+@Service
+@RequiredArgsConstructor
+public class WorkspaceHistoryService {
+
+    private static final int DEFAULT_PAGE_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int REWIND_PAGE_SIZE = 1000;
+    private static final int LOAD_CHUNK_SIZE = 1000;
+    private static final int MAX_BLOCK_DEPTH = 10;
+
+    private static final List<String> BLOCK_CONTENT = List.of("name", "parentBlockId", "config", "visual");
+    private static final List<String> RELATION_CONTENT = List.of("rules", "visual");
+
+    // jsonb may hand back 100 where the request carried 100.0; both are the same position
+    private static final Comparator<JsonNode> NUMERIC_TOLERANT = (a, b) -> {
+        if (a.isNumber() && b.isNumber()) {
+            return a.decimalValue().compareTo(b.decimalValue());
+        }
+        return a.equals(b) ? 0 : 1;
+    };
+
+    private final WorkspaceOperationRepository operationRepository;
+    private final CoreBlockRepository coreBlockRepository;
+    private final CoreRelationRepository coreRelationRepository;
+    private final WorkspaceService workspaceService;
+    private final WorkspaceOperationLog operationLog;
+    private final WorkspaceGraphCache graphCache;
+    private final CoreBlockMapper blockMapper;
+    private final CoreRelationMapper relationMapper;
+    private final WorkspaceOperationMapper operationMapper;
+    private final ObjectMapper objectMapper;
+    private final TimeProvider timeProvider;
+
+    @Value("${engine.oplog.undo-depth:100}")
+    private int undoDepth;
+
+    @Value("${engine.oplog.max-rewind-operations:200000}")
+    private int maxRewindOperations;
+
+    /**
+     * Operations after {@code after}, oldest first. Within a workspace ids follow commit order
+     * (see {@link WorkspaceOperationLog}), so once an id is visible no lower one can still be
+     * committing and the cursor simply advances to the last id returned.
+     */
+    @Transactional(readOnly = true)
+    public WorkspaceOperationPageResponse getOperations(UUID workspaceId, long after, Integer limit) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<WorkspaceOperation> operations = operationRepository.findByWorkspaceIdAndIdGreaterThanOrderByIdAsc(
+                workspaceId, after, PageRequest.of(0, size));
+
+        long cursor = operations.isEmpty() ? after : operations.get(operations.size() - 1).getId();
+        return new WorkspaceOperationPageResponse(cursor, operations.size() == size, operationMapper.toResponseList(operations));
+    }
+
+    @Transactional
+    @WorkspaceMutation
+    public HistoryStepResponse undo(UUID workspaceId, UUID actorId) {
+        return step(workspaceId, actorId, OperationKind.UNDO);
+    }
+
+    @Transactional
+    @WorkspaceMutation
+    public HistoryStepResponse redo(UUID workspaceId, UUID actorId) {
+        return step(workspaceId, actorId, OperationKind.REDO);
+    }
+
+    /**
+     * Rewinds the current workspace by applying the inverse of every later operation, newest
+     * first. Runs on one repeatable-read snapshot so the current state and the log agree.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public WorkspaceStateResponse getStateAt(UUID workspaceId, long at) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        if (!operationRepository.existsByIdAndWorkspaceId(at, workspaceId)) {
+            throw new DomainException("OPERATION_NOT_FOUND", "Operation not found in this workspace's retained history");
+        }
+
+        Map<UUID, JsonNode> blocks = new LinkedHashMap<>();
+        for (CoreBlockResponse block : coreBlockRepository.findBlockResponsesByWorkspaceId(workspaceId)) {
+            blocks.put(block.id(), operationLog.toTree(block));
+        }
+        Map<UUID, JsonNode> relations = new LinkedHashMap<>();
+        for (CoreRelationResponse relation : coreRelationRepository.findRelationResponsesByWorkspaceId(workspaceId)) {
+            relations.put(relation.id(), operationLog.toTree(relation));
+        }
+
+        long beforeId = Long.MAX_VALUE;
+        int rewound = 0;
+        while (true) {
+            List<WorkspaceOperation> page = operationRepository.findPageBackwards(
+                    workspaceId, at, beforeId, PageRequest.of(0, REWIND_PAGE_SIZE));
+            for (WorkspaceOperation operation : page) {
+                Map<UUID, JsonNode> states = operation.getEntityType() == OperationEntityType.BLOCK ? blocks : relations;
+                if (operation.getInverse() != null) {
+                    states.put(operation.getEntityId(), operation.getInverse());
+                } else {
+                    states.remove(operation.getEntityId());
+                }
+            }
+            rewound += page.size();
+            if (rewound > maxRewindOperations) {
+                throw new DomainException("HISTORY_RANGE_TOO_LARGE", "Too many operations since the requested point to rewind");
+            }
+            if (page.size() < REWIND_PAGE_SIZE) {
+                break;
+            }
+            beforeId = page.get(page.size() - 1).getId();
+        }
+
+        return new WorkspaceStateResponse(at,
+                blocks.values().stream().map(node -> objectMapper.convertValue(node, CoreBlockResponse.class)).toList(),
+                relations.values().stream().map(node -> objectMapper.convertValue(node, CoreRelationResponse.class)).toList());
+    }
+
+    private HistoryStepResponse step(UUID workspaceId, UUID actorId, OperationKind kind) {
+        workspaceService.checkWorkspaceAccess(workspaceId);
+        operationRepository.lockHistory(workspaceId.getMostSignificantBits() ^ actorId.getLeastSignificantBits());
+
+        boolean undo = kind == OperationKind.UNDO;
+        // Undo and redo steps are groups too, so twice the depth keeps undoDepth steps reachable
+        HistoryStacks stacks = HistoryStacks.replay(operationRepository.findRecentGroups(workspaceId, actorId, undoDepth * 2));
+        UUID targetGroupId = undo ? stacks.nextUndo() : stacks.nextRedo();
+        if (targetGroupId == null) {
+            throw new DomainException(undo ? "NOTHING_TO_UNDO" : "NOTHING_TO_REDO",
+                    undo ? "There is nothing to undo" : "There is nothing to redo");
+        }
+
+        List<WorkspaceOperation> operations = new ArrayList<>(operationRepository.findByGroupIdOrderByIdAsc(targetGroupId));
+        if (undo) {
+            Collections.reverse(operations);
+        }
+
+        Set<UUID> blockIds = new LinkedHashSet<>();
+        Set<UUID> relationIds = new LinkedHashSet<>();
+        for (WorkspaceOperation operation : operations) {
+            (operation.getEntityType() == OperationEntityType.BLOCK ? blockIds : relationIds).add(operation.getEntityId());
+        }
+        Map<UUID, JsonNode> storedBlocks = new HashMap<>();
+        Map<UUID, JsonNode> blockStart = new HashMap<>();
+        for (CoreBlock block : loadBlocks(workspaceId, blockIds)) {
+            JsonNode doc = operationLog.toTree(blockMapper.toResponse(block));
+            storedBlocks.put(block.getId(), doc);
+            blockStart.put(block.getId(), block.getDeletedAt() == null ? doc : null);
+        }
+        Map<UUID, JsonNode> storedRelations = new HashMap<>();
+        Map<UUID, JsonNode> relationStart = new HashMap<>();
+        for (CoreRelation relation : loadRelations(workspaceId, relationIds)) {
+            JsonNode doc = operationLog.toTree(relationMapper.toResponse(relation));
+            storedRelations.put(relation.getId(), doc);
+            relationStart.put(relation.getId(), relation.getDeletedAt() == null ? doc : null);
+        }
+
+        // Walk the group against the current states; every entry must find what it expects
+        Map<UUID, JsonNode> blockEnd = new LinkedHashMap<>();
+        Map<UUID, JsonNode> relationEnd = new LinkedHashMap<>();
+        blockIds.forEach(id -> blockEnd.put(id, blockStart.get(id)));
+        relationIds.forEach(id -> relationEnd.put(id, relationStart.get(id)));
+        for (WorkspaceOperation operation : operations) {
+            boolean isBlock = operation.getEntityType() == OperationEntityType.BLOCK;
+            Map<UUID, JsonNode> states = isBlock ? blockEnd : relationEnd;
+            JsonNode expected = undo ? operation.getForward() : operation.getInverse();
+            if (!sameContent(operation.getEntityType(), states.get(operation.getEntityId()), expected)) {
+                throw new DomainException("HISTORY_CONFLICT",
+                        (isBlock ? "Block " : "Relation ") + operation.getEntityId() + " was changed by someone else since");
+            }
+            states.put(operation.getEntityId(), undo ? operation.getInverse() : operation.getForward());
+        }
+
+        List<UUID> removedBlockIds = removedIds(blockStart, blockEnd);
+        for (List<UUID> chunk : chunks(removedBlockIds)) {
+            for (UUID descendantId : coreBlockRepository.findDescendantBlockIdsByRootIds(chunk)) {
+                if (!blockEnd.containsKey(descendantId)) {
+                    throw new DomainException("HISTORY_CONFLICT", "Block " + descendantId + " was added since inside a block this step removes");
+                }
+            }
+        }
+        // Wires attached to blocks this step removes go with them, exactly like a regular delete
+        for (List<UUID> chunk : chunks(removedBlockIds)) {
+            for (CoreRelation relation : coreRelationRepository.findByBlockIdsActive(chunk)) {
+                if (!relationEnd.containsKey(relation.getId())) {
+                    JsonNode doc = operationLog.toTree(relationMapper.toResponse(relation));
+                    relationStart.put(relation.getId(), doc);
+                    relationEnd.put(relation.getId(), null);
+                }
+            }
+        }
+        List<UUID> removedRelationIds = removedIds(relationStart, relationEnd);
+
+        Set<UUID> requiredLiveBlocks = new HashSet<>();
+        blockEnd.forEach((id, state) -> {
+            if (state != null && state.hasNonNull("parentBlockId")) {
+                requiredLiveBlocks.add(UUID.fromString(state.get("parentBlockId").asText()));
+            }
+        });
+        relationEnd.forEach((id, state) -> {
+            if (state != null) {
+                requiredLiveBlocks.add(UUID.fromString(state.get("sourceBlockId").asText()));
+                requiredLiveBlocks.add(UUID.fromString(state.get("targetBlockId").asText()));
+            }
+        });
+        requireLive(workspaceId, requiredLiveBlocks, blockEnd);
+
+        OffsetDateTime now = timeProvider.now();
+        UUID groupId = operationLog.beginGroup(workspaceId, kind, targetGroupId, actorId);
+
+        for (List<UUID> chunk : chunks(removedRelationIds)) {
+            coreRelationRepository.softDeleteByIds(chunk, now);
+        }
+        for (List<UUID> chunk : chunks(removedBlockIds)) {
+            coreBlockRepository.softDeleteBlocksByIds(chunk, now);
+        }
+
+        List<UUID> liveBlockIds = writeBlocks(workspaceId, storedBlocks, blockStart, blockEnd, now);
+        List<UUID> liveRelationIds;
+        try {
+            liveRelationIds = writeRelations(workspaceId, storedRelations, relationStart, relationEnd, now);
+        } catch (DataIntegrityViolationException e) {
+            throw new DomainException("HISTORY_CONFLICT", "A restored wire collides with a port connection made since");
+        }
+
+        List<CoreBlockResponse> blocks = blockMapper.toResponseList(loadBlocks(workspaceId, liveBlockIds));
+        List<CoreRelationResponse> relations = relationMapper.toResponseList(loadRelations(workspaceId, liveRelationIds));
+        Map<UUID, JsonNode> blockAfter = new HashMap<>();
+        blocks.forEach(block -> blockAfter.put(block.id(), operationLog.toTree(block)));
+        Map<UUID, JsonNode> relationAfter = new HashMap<>();
+        relations.forEach(relation -> relationAfter.put(relation.id(), operationLog.toTree(relation)));
+
+        blockEnd.keySet().forEach(id ->
+                operationLog.record(workspaceId, OperationEntityType.BLOCK, id, blockStart.get(id), blockAfter.get(id)));
+        relationEnd.keySet().forEach(id ->
+                operationLog.record(workspaceId, OperationEntityType.RELATION, id, relationStart.get(id), relationAfter.get(id)));
+
+        graphCache.invalidateAfterCommit(workspaceId);
+        return new HistoryStepResponse(groupId, kind, targetGroupId, blocks, relations, removedBlockIds, removedRelationIds);
+    }
+
+    /**
+     * Revives blocks whose stored row already holds the target content with one UPDATE per chunk;
+     * only blocks whose content differs are rewritten one by one.
+     *
+     * @return ids of the blocks that are live after the step
+     */
+    private List<UUID> writeBlocks(UUID workspaceId, Map<UUID, JsonNode> stored, Map<UUID, JsonNode> start,
+                                   Map<UUID, JsonNode> end, OffsetDateTime now) {
+        List<UUID> live = new ArrayList<>();
+        List<UUID> revive = new ArrayList<>();
+        List<UUID> moved = new ArrayList<>();
+        for (Map.Entry<UUID, JsonNode> entry : end.entrySet()) {
+            UUID id = entry.getKey();
+            JsonNode target = entry.getValue();
+            if (target == null) {
+                continue;
+            }
+            live.add(id);
+            if (sameContent(OperationEntityType.BLOCK, start.get(id), target)) {
+                continue;
+            }
+            JsonNode current = stored.get(id);
+            if (current == null) {
+                throw new DomainException("HISTORY_CONFLICT", "Block " + id + " no longer exists");
+            }
+            if (start.get(id) == null && sameContent(OperationEntityType.BLOCK, current, target)) {
+                revive.add(id);
+                continue;
+            }
+            UUID parentId = target.hasNonNull("parentBlockId") ? UUID.fromString(target.get("parentBlockId").asText()) : null;
+            if (!field(current, "parentBlockId").equals(field(target, "parentBlockId"))) {
+                moved.add(id);
+            }
+            coreBlockRepository.applyState(workspaceId, id, target.path("name").asText(null), parentId,
+                    json(target.path("config")), json(target.path("visual")), now);
+        }
+        for (List<UUID> chunk : chunks(revive)) {
+            coreBlockRepository.reviveByIds(workspaceId, chunk, now);
+        }
+        for (List<UUID> chunk : chunks(moved)) {
+            if (coreBlockRepository.countInvalidHierarchy(chunk, MAX_BLOCK_DEPTH) > 0) {
+                throw new DomainException("HISTORY_CONFLICT", "The hierarchy was changed since; this step would create a cycle or exceed the maximum depth");
+            }
+        }
+        return live;
+    }
+
+    private List<UUID> writeRelations(UUID workspaceId, Map<UUID, JsonNode> stored, Map<UUID, JsonNode> start,
+                                      Map<UUID, JsonNode> end, OffsetDateTime now) {
+        List<UUID> live = new ArrayList<>();
+        List<UUID> revive = new ArrayList<>();
+        for (Map.Entry<UUID, JsonNode> entry : end.entrySet()) {
+            UUID id = entry.getKey();
+            JsonNode target = entry.getValue();
+            if (target == null) {
+                continue;
+            }
+            live.add(id);
+            if (sameContent(OperationEntityType.RELATION, start.get(id), target)) {
+                continue;
+            }
+            JsonNode current = stored.get(id);
+            if (current == null) {
+                throw new DomainException("HISTORY_CONFLICT", "Relation " + id + " no longer exists");
+            }
+            if (start.get(id) == null && sameContent(OperationEntityType.RELATION, current, target)) {
+                revive.add(id);
+                continue;
+            }
+            coreRelationRepository.applyState(workspaceId, id, json(target.path("rules")), json(target.path("visual")), now);
+        }
+        for (List<UUID> chunk : chunks(revive)) {
+            coreRelationRepository.reviveByIds(workspaceId, chunk, now);
+        }
+        return live;
+    }
+
+    private void requireLive(UUID workspaceId, Set<UUID> blockIds, Map<UUID, JsonNode> blockEnd) {
+        List<UUID> outsideStep = new ArrayList<>();
+        for (UUID blockId : blockIds) {
+            if (blockEnd.containsKey(blockId)) {
+                if (blockEnd.get(blockId) == null) {
+                    throw new DomainException("HISTORY_CONFLICT", "Block " + blockId + " would be left referenced after removal");
+                }
+            } else {
+                outsideStep.add(blockId);
+            }
+        }
+        for (List<UUID> chunk : chunks(outsideStep)) {
+            if (coreBlockRepository.countByIdInAndWorkspace_Id(chunk, workspaceId) != chunk.size()) {
+                throw new DomainException("HISTORY_CONFLICT", "A block this step depends on has been deleted since");
+            }
+        }
+    }
+
+    private List<CoreBlock> loadBlocks(UUID workspaceId, Collection<UUID> blockIds) {
+        List<CoreBlock> blocks = new ArrayList<>(blockIds.size());
+        for (List<UUID> chunk : chunks(new ArrayList<>(blockIds))) {
+            blocks.addAll(coreBlockRepository.findAllByIdsIncludingDeleted(workspaceId, chunk));
+        }
+        return blocks;
+    }
+
+    private List<CoreRelation> loadRelations(UUID workspaceId, Collection<UUID> relationIds) {
+        List<CoreRelation> relations = new ArrayList<>(relationIds.size());
+        for (List<UUID> chunk : chunks(new ArrayList<>(relationIds))) {
+            relations.addAll(coreRelationRepository.findAllByIdsIncludingDeleted(workspaceId, chunk));
+        }
+        return relations;
+    }
+
+    /**
+     * @return ids that go from present to absent between the two state maps
+     */
+    private static List<UUID> removedIds(Map<UUID, JsonNode> start, Map<UUID, JsonNode> end) {
+        List<UUID> ids = new ArrayList<>();
+        end.forEach((id, state) -> {
+            if (state == null && start.get(id) != null) {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+
+    static boolean sameContent(OperationEntityType type, JsonNode current, JsonNode expected) {
+        if (current == null || expected == null) {
+            return current == expected;
+        }
+        for (String name : type == OperationEntityType.BLOCK ? BLOCK_CONTENT : RELATION_CONTENT) {
+            if (!field(current, name).equals(NUMERIC_TOLERANT, field(expected, name))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static JsonNode field(JsonNode node, String name) {
+        return node.hasNonNull(name) ? node.get(name) : NullNode.getInstance();
+    }
+
+    private String json(JsonNode node) {
+        if (node == null || node.isMissingNode() || node.isNull()) {
+            return "{}";
+        }
+        try {
+            return objectMapper.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize logged state", e);
+        }
+    }
+
+    private static List<List<UUID>> chunks(List<UUID> ids) {
+        List<List<UUID>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += LOAD_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + LOAD_CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,45 @@
+package com.nox.platform.module.engine.service.oplog;
+
+import com.nox.platform.module.engine.infrastructure.WorkspaceOperationRepository;
+import com.nox.platform.shared.abstraction.TimeProvider;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Keeps the operation log small. Once a drag has settled, its per-frame entries are folded into
+ * one entry per block (same net effect for replay, undo and time travel), and entries past the
+ * retention window are dropped. Both run in bounded batches.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WorkspaceOperationCompactor {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private final WorkspaceOperationRepository operationRepository;
+    private final TimeProvider timeProvider;
+
+    @Value("${engine.oplog.compact-after-seconds:300}")
+    private long compactAfterSeconds;
+
+    @Value("${engine.oplog.retention-days:30}")
+    private long retentionDays;
+
+    @Scheduled(fixedDelayString = "${engine.oplog.compaction-interval-ms:60000}")
+    @Transactional
+    public void compact() {
+        OffsetDateTime now = timeProvider.now();
+        int coalesced = operationRepository.coalesceDragRuns(now.minusSeconds(compactAfterSeconds), BATCH_SIZE);
+        int expired = operationRepository.deleteOlderThan(now.minusDays(retentionDays), BATCH_SIZE);
+        if (coalesced > 0 || expired > 0) {
+            log.debug("Operation log compaction removed {} drag frames and {} expired entries", coalesced, expired);
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.nox.platform.module.engine.service.oplog;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nox.platform.module.engine.api.response.CoreBlockResponse;
+import com.nox.platform.module.engine.api.response.CoreRelationResponse;
+import com.nox.platform.module.engine.api.response.WorkspaceOperationEvent;
+import com.nox.platform.module.engine.api.response.WorkspaceOperationResponse;
+import com.nox.platform.module.engine.domain.OperationEntityType;
+import com.nox.platform.module.engine.domain.OperationKind;
+import com.nox.platform.module.engine.domain.WorkspaceOperation;
+import com.nox.platform.module.engine.infrastructure.WorkspaceOperationRepository;
+import com.nox.platform.module.engine.infrastructure.WorkspaceRepository;
+import com.nox.platform.module.engine.service.mapper.WorkspaceOperationMapper;
+import com.nox.platform.module.iam.infrastructure.security.CustomUserDetails;
+import com.nox.platform.shared.abstraction.TimeProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Collects the block and relation changes of the current transaction and appends them to the
+ * workspace operation log just before it commits, so the log and the data never disagree.
+ * Repeated changes to one entity within a transaction collapse into a single entry holding the
+ * first inverse and the last forward state. After commit each group is pushed to
+ * {@code /topic/workspace/{id}/operations}, letting peers replay small ops instead of reloading.
+ * <p>
+ * Rows are inserted under the workspace's write lock, held until commit, and draw their ids
+ * there, so the ids of one workspace's log follow commit order and readers may walk it by id.
+ * Changes recorded outside a transaction are written immediately and do not get this guarantee.
+ */
+@Service
+@RequiredArgsConstructor
+public class WorkspaceOperationLog {
+
+    static final int MAX_BROADCAST_OPERATIONS = 500;
+
+    private final WorkspaceOperationRepository operationRepository;
+    private final WorkspaceRepository workspaceRepository;
+    private final WorkspaceOperationMapper mapper;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final TimeProvider timeProvider;
+
+    /**
+     * @param before state before the change, or null if the block did not exist
+     * @param after  state after the change, or null if the block was deleted
+     */
+    public void recordBlock(UUID workspaceId, UUID blockId, CoreBlockResponse before, CoreBlockResponse after) {
+        record(workspaceId, OperationEntityType.BLOCK, blockId, toTree(before), toTree(after));
+    }
+
+    public void recordRelation(UUID workspaceId, UUID relationId, CoreRelationResponse before, CoreRelationResponse after) {
+        record(workspaceId, OperationEntityType.RELATION, relationId, toTree(before), toTree(after));
+    }
+
+    /**
+     * Records drag frames under the drag's own group. Such entries are marked coalescible, so
+     * compaction may later fold a whole drag into one entry per block.
+     */
+    public void recordBlockMoves(UUID workspaceId, UUID actorId, UUID groupId,
+                                 List<CoreBlockResponse> before, List<CoreBlockResponse> after) {
+        Pending pending = pending();
+        Group group = pending.groups.computeIfAbsent(groupId,
+                id -> new Group(workspaceId, id, OperationKind.DO, null, actorId, true));
+        for (int i = 0; i < after.size(); i++) {
+            pending.record(group, OperationEntityType.BLOCK, after.get(i).id(), toTree(before.get(i)), toTree(after.get(i)));
+        }
+        pending.flushIfImmediate();
+    }
+
+    /**
+     * Makes the changes recorded for the workspace in this transaction an undo or redo of {@code revertsGroupId}.
+     *
+     * @return the id of the new group
+     */
+    public UUID beginGroup(UUID workspaceId, OperationKind kind, UUID revertsGroupId, UUID actorId) {
+        Pending pending = pending();
+        Group group = new Group(workspaceId, UUID.randomUUID(), kind, revertsGroupId, actorId, false);
+        pending.defaultGroups.put(workspaceId, group);
+        pending.groups.put(group.groupId, group);
+        return group.groupId;
+    }
+
+    /**
+     * Closes the groups this transaction has been recording into, so later changes start groups of
+     * their own under the then-current actor. Lets one transaction carry several independent edits.
+     */
+    public void sealGroups() {
+        Pending pending = currentPending();
+        if (pending != null) {
+            pending.defaultGroups.clear();
+        }
+    }
+
+    /**
+     * Marks the changes recorded in this transaction so far, so that {@link #rollbackToSavepoint()}
+     * can drop whatever is recorded after this point. Lets the workspace writer take one mutation
+     * of a group commit back out of the log together with its rows.
+     */
+    public void createSavepoint() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending().createSavepoint();
+        }
+    }
+
+    public void rollbackToSavepoint() {
+        Pending pending = currentPending();
+        if (pending != null) {
+            pending.rollbackToSavepoint();
+        }
+    }
+
+    public void releaseSavepoint() {
+        Pending pending = currentPending();
+        if (pending != null) {
+            pending.releaseSavepoint();
+        }
+    }
+
+    void record(UUID workspaceId, OperationEntityType type, UUID entityId, JsonNode before, JsonNode after) {
+        Pending pending = pending();
+        pending.record(pending.defaultGroup(workspaceId), type, entityId, before, after);
+        pending.flushIfImmediate();
+    }
+
+    JsonNode toTree(Object state) {
+        return state != null ? objectMapper.valueToTree(state) : null;
+    }
+
+    /**
+     * Per-transaction buffer, flushed in {@code beforeCommit}. Outside a transaction every call
+     * gets a fresh buffer that is written immediately after the change is recorded.
+     */
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new Pending(true);
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Pending created = new Pending(false);
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    created.flush();
+                }
+
+                @Override
+                public void afterCommit() {
+                    created.broadcast();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(WorkspaceOperationLog.this);
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    private Pending currentPending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        return (Pending) TransactionSynchronizationManager.getResource(this);
+    }
+
+    private static UUID currentActorId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+    private record EntityKey(OperationEntityType type, UUID id) {
+    }
+
+    private static final class Change {
+        private final JsonNode before;
+        private JsonNode after;
+
+        private Change(JsonNode before, JsonNode after) {
+            this.before = before;
+            this.after = after;
+        }
+    }
+
+    private final class Pending {
+        private final boolean immediate;
+        private final Map<UUID, Group> defaultGroups = new LinkedHashMap<>();
+        private final Map<UUID, Group> groups = new LinkedHashMap<>();
+        private final List<List<WorkspaceOperation>> written = new ArrayList<>();
+        // While a savepoint is open: the group maps as they were, and how to undo each change since
+        private Map<UUID, Group> savedGroups;
+        private Map<UUID, Group> savedDefaultGroups;
+        private List<Runnable> undo;
+
+        private Pending(boolean immediate) {
+            this.immediate = immediate;
+        }
+
+        private void record(Group group, OperationEntityType type, UUID entityId, JsonNode before, JsonNode after) {
+            EntityKey key = new EntityKey(type, entityId);
+            Change change = group.changes.get(key);
+            if (change == null) {
+                group.changes.put(key, new Change(before, after));
+                if (undo != null) {
+                    undo.add(() -> group.changes.remove(key));
+                }
+            } else {
+                JsonNode previous = change.after;
+                change.after = after;
+                if (undo != null) {
+                    undo.add(() -> change.after = previous);
+                }
+            }
+        }
+
+        private void createSavepoint() {
+            savedGroups = new LinkedHashMap<>(groups);
+            savedDefaultGroups = new LinkedHashMap<>(defaultGroups);
+            undo = new ArrayList<>();
+        }
+
+        private void rollbackToSavepoint() {
+            if (undo == null) {
+                return;
+            }
+            for (int i = undo.size() - 1; i >= 0; i--) {
+                undo.get(i).run();
+            }
+            groups.clear();
+            groups.putAll(savedGroups);
+            defaultGroups.clear();
+            defaultGroups.putAll(savedDefaultGroups);
+            releaseSavepoint();
+        }
+
+        private void releaseSavepoint() {
+            savedGroups = null;
+            savedDefaultGroups = null;
+            undo = null;
+        }
+
+        private Group defaultGroup(UUID workspaceId) {
+            return defaultGroups.computeIfAbsent(workspaceId, ws -> {
+                Group group = new Group(ws, UUID.randomUUID(), OperationKind.DO, null, currentActorId(), false);
+                groups.put(group.groupId, group);
+                return group;
+            });
+        }
+
+        private void flushIfImmediate() {
+            if (immediate) {
+                flush();
+                broadcast();
+            }
+        }
+
+        private void flush() {
+            if (!immediate) {
+                // Sorted, so transactions writing to several workspaces cannot deadlock on these locks
+                groups.values().stream().map(group -> group.workspaceId).distinct().sorted()
+                        .forEach(workspaceRepository::lockWrites);
+            }
+            OffsetDateTime now = timeProvider.now();
+            for (Group group : groups.values()) {
+                List<WorkspaceOperation> operations = group.toOperations(now);
+                if (!operations.isEmpty()) {
+                    written.add(operationRepository.saveAll(operations));
+                }
+            }
+            groups.clear();
+            defaultGroups.clear();
+        }
+
+        private void broadcast() {
+            for (List<WorkspaceOperation> operations : written) {
+                WorkspaceOperation first = operations.get(0);
+                WorkspaceOperation last = operations.get(operations.size() - 1);
+                boolean truncated = operations.size() > MAX_BROADCAST_OPERATIONS;
+                List<WorkspaceOperationResponse> payload = truncated ? List.of() : mapper.toResponseList(operations);
+                messagingTemplate.convertAndSend("/topic/workspace/" + first.getWorkspaceId() + "/operations",
+                        new WorkspaceOperationEvent(first.getGroupId(), first.getKind(), first.getRevertsGroupId(),
+                                first.getActorId(), first.getId(), last.getId(), truncated, payload));
+            }
+            written.clear();
+        }
+    }
+
+    private static final class Group {
+        private final UUID workspaceId;
+        private final UUID groupId;
+        private final OperationKind kind;
+        private final UUID revertsGroupId;
+        private final UUID actorId;
+        private final boolean coalescible;
+        private final Map<EntityKey, Change> changes = new LinkedHashMap<>();
+
+        private Group(UUID workspaceId, UUID groupId, OperationKind kind, UUID revertsGroupId, UUID actorId, boolean coalescible) {
+            this.workspaceId = workspaceId;
+            this.groupId = groupId;
+            this.kind = kind;
+            this.revertsGroupId = revertsGroupId;
+            this.actorId = actorId;
+            this.coalescible = coalescible;
+        }
+
+        private List<WorkspaceOperation> toOperations(OffsetDateTime now) {
+            List<WorkspaceOperation> operations = new ArrayList<>(changes.size());
+            changes.forEach((key, change) -> {
+                if (Objects.equals(change.before, change.after)) {
+                    return;
+                }
+                operations.add(WorkspaceOperation.builder()
+                        .workspaceId(workspaceId)
+                        .groupId(groupId)
+                        .kind(kind)
+                        .revertsGroupId(revertsGroupId)
+                        .actorId(actorId)
+                        .entityType(key.type())
+                        .entityId(key.id())
+                        .forward(change.after)
+                        .inverse(change.before)
+                        .coalescible(coalescible)
+                        .createdAt(now)
+                        .build());
+            });
+            return operations;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.nox.platform.module.engine.service.writer;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Routes an engine service method through the {@link WorkspaceWriter} of the workspace it edits.
+ * The method's first parameter must be the workspace id.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface WorkspaceMutation {
+}
@@ -0,0 +1,35 @@
+package com.nox.platform.module.engine.service.writer;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Hands {@link WorkspaceMutation} methods to the workspace writer. Ordered ahead of the
+ * transaction interceptor, so the method's {@code @Transactional} joins the writer's batch
+ * transaction instead of opening one on the caller's thread.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class WorkspaceMutationAspect {
+
+    private final WorkspaceWriter workspaceWriter;
+
+    @Around("@annotation(com.nox.platform.module.engine.service.writer.WorkspaceMutation)")
+    public Object serialize(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object[] args = joinPoint.getArgs();
+        if (args.length == 0 || !(args[0] instanceof UUID workspaceId)) {
+            throw new IllegalStateException("@WorkspaceMutation method must take the workspace id first: "
+                    + joinPoint.getSignature());
+        }
+        return workspaceWriter.execute(workspaceId, joinPoint::proceed);
+    }
+}
@@ -0,0 +1,406 @@
+package com.nox.platform.module.engine.service.writer;
+
+import com.nox.platform.module.engine.infrastructure.WorkspaceRepository;
+import com.nox.platform.module.engine.service.oplog.WorkspaceOperationLog;
+import com.nox.platform.shared.exception.DomainException;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single writer per workspace. Mutations of one workspace are queued and applied in arrival order
+ * by one virtual thread, which group-commits everything that queued up within a short window in a
+ * single transaction. Concurrent editors therefore never race on the same rows: no optimistic-lock
+ * failures on {@code version}, no lock-order deadlocks between cascades, and one commit per burst
+ * instead of one per edit.
+ * <p>
+ * Each mutation still behaves as if it ran alone: it runs under its caller's security context,
+ * the persistence context is flushed and cleared after it, and its operation-log entries form
+ * their own group. Callers get their result only once the batch has committed. Every mutation of a
+ * batch runs in a nested transaction (a savepoint): one that fails is rolled back to it, together
+ * with its log entries and after-commit callbacks, and the rest of the batch commits without it.
+ * The {@code @Transactional} service methods a mutation calls join that nested transaction; their
+ * failures do not doom the batch because participation failures are not global rollbacks (see
+ * {@code TransactionConfig}). Only when a failure leaves the transaction unusable (an error raised
+ * by the persistence provider) is the whole batch rolled back and replayed one transaction per
+ * mutation. Batches take a
+ * transaction-scoped advisory lock on the workspace, which keeps writers on other instances in
+ * line as well.
+ * <p>
+ * A writer thread only exists while its workspace has queued work. Calls made inside an existing
+ * transaction (including those from a writer itself) run inline.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkspaceWriter {
+
+    private static final int NEW = 0;
+    private static final int RUNNING = 1;
+    private static final int ABANDONED = 2;
+
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final WorkspaceRepository workspaceRepository;
+    private final WorkspaceOperationLog operationLog;
+
+    @Value("${engine.writer.enabled:true}")
+    private boolean enabled;
+
+    @Value("${engine.writer.group-commit-window-ms:2}")
+    private long groupCommitWindowMs;
+
+    @Value("${engine.writer.max-batch-size:64}")
+    private int maxBatchSize;
+
+    @Value("${engine.writer.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${engine.writer.submit-timeout-ms:30000}")
+    private long submitTimeoutMs;
+
+    private final Map<UUID, Lane> lanes = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    @FunctionalInterface
+    public interface Mutation<T> {
+        T apply() throws Throwable;
+    }
+
+    /**
+     * Applies the mutation on the workspace's writer and waits for its batch to commit.
+     *
+     * @return what the mutation returned
+     */
+    public <T> T execute(UUID workspaceId, Mutation<T> mutation) {
+        if (!enabled || closed || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return runInline(mutation);
+        }
+
+        Queued<T> queued = new Queued<>(mutation, SecurityContextHolder.getContext(),
+                RequestContextHolder.getRequestAttributes());
+        enqueue(workspaceId, queued);
+        return await(queued);
+    }
+
+    /**
+     * Queues the mutation on the workspace's writer without waiting for it. Mutations submitted
+     * for one workspace are applied in submission order.
+     *
+     * @return completes once the mutation's batch has committed, or with its failure
+     */
+    public <T> CompletableFuture<T> submit(UUID workspaceId, Mutation<T> mutation) {
+        if (!enabled || closed || TransactionSynchronizationManager.isActualTransactionActive()) {
+            try {
+                return CompletableFuture.completedFuture(mutation.apply());
+            } catch (Throwable e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        Queued<T> queued = new Queued<>(mutation, SecurityContextHolder.getContext(),
+                RequestContextHolder.getRequestAttributes());
+        enqueue(workspaceId, queued);
+        return queued.result.copy();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        closed = true;
+        // Let queued mutations commit before the data source goes away
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!lanes.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void enqueue(UUID workspaceId, Queued<?> queued) {
+        while (true) {
+            Lane lane = lanes.computeIfAbsent(workspaceId, id -> new Lane(id, queueCapacity));
+            switch (lane.offer(queued)) {
+                case STARTED -> {
+                    Thread.ofVirtual().name("workspace-writer-" + workspaceId).start(() -> drain(lane));
+                    return;
+                }
+                case QUEUED -> {
+                    return;
+                }
+                case FULL -> throw new DomainException("WORKSPACE_BUSY", "Too many pending edits on this workspace, try again");
+                case RETIRED -> lanes.remove(workspaceId, lane);
+            }
+        }
+    }
+
+    private <T> T await(Queued<T> queued) {
+        try {
+            return queued.result.get(submitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (queued.abandon()) {
+                throw new DomainException("WORKSPACE_BUSY", "Workspace is busy, try again");
+            }
+            // Already being applied; its outcome is the caller's outcome
+            try {
+                return queued.result.join();
+            } catch (CompletionException failure) {
+                throw rethrow(failure.getCause());
+            }
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private void drain(Lane lane) {
+        while (true) {
+            List<Queued<?>> batch = lane.nextBatch(maxBatchSize, TimeUnit.MILLISECONDS.toNanos(groupCommitWindowMs));
+            if (batch.isEmpty()) {
+                if (lane.retireIfIdle()) {
+                    lanes.remove(lane.workspaceId, lane);
+                    return;
+                }
+                continue;
+            }
+            commit(lane.workspaceId, batch);
+        }
+    }
+
+    private void commit(UUID workspaceId, List<Queued<?>> batch) {
+        List<Queued<?>> started = batch.stream().filter(Queued::start).toList();
+        if (started.size() > 1) {
+            TransactionTemplate nested = new TransactionTemplate(transactionTemplate.getTransactionManager());
+            nested.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    workspaceRepository.lockWrites(workspaceId);
+                    started.forEach(queued -> runIsolated(nested, status, queued));
+                });
+                started.forEach(Queued::publish);
+                return;
+            } catch (RuntimeException e) {
+                log.debug("Group commit of {} mutations failed for workspace {}, applying them one by one",
+                        started.size(), workspaceId, e);
+            }
+        }
+        started.forEach(queued -> commitAlone(workspaceId, queued));
+    }
+
+    /**
+     * Runs one mutation of a batch in a nested transaction. If it fails, its rows, log entries and
+     * after-commit callbacks are rolled back to the savepoint and its failure is kept for its caller.
+     * A failure that has marked the batch transaction rollback-only fails the whole batch instead.
+     */
+    private void runIsolated(TransactionTemplate nested, TransactionStatus batch, Queued<?> queued) {
+        // Before the snapshot, so the log's own commit callback is part of it
+        operationLog.createSavepoint();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.isSynchronizationActive()
+                ? TransactionSynchronizationManager.getSynchronizations() : null;
+        try {
+            nested.executeWithoutResult(status -> {
+                queued.run();
+                entityManager.flush();
+            });
+        } catch (RuntimeException e) {
+            entityManager.clear();
+            operationLog.rollbackToSavepoint();
+            if (synchronizations != null) {
+                TransactionSynchronizationManager.clearSynchronization();
+                TransactionSynchronizationManager.initSynchronization();
+                synchronizations.forEach(TransactionSynchronizationManager::registerSynchronization);
+            }
+            if (batch.isRollbackOnly()) {
+                throw e;
+            }
+            queued.failure = e instanceof MutationFailure failure ? failure.getCause() : e;
+            return;
+        }
+        if (batch.isRollbackOnly()) {
+            // A failure swallowed inside the mutation doomed the batch; its savepoint was rolled back silently
+            throw new IllegalStateException("Batch transaction was marked rollback-only");
+        }
+        // Each mutation reads fresh state and logs under its own groups, as if alone
+        entityManager.clear();
+        operationLog.releaseSavepoint();
+        operationLog.sealGroups();
+    }
+
+    private void commitAlone(UUID workspaceId, Queued<?> queued) {
+        queued.failure = null;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                workspaceRepository.lockWrites(workspaceId);
+                queued.run();
+            });
+            queued.publish();
+        } catch (MutationFailure e) {
+            queued.result.completeExceptionally(e.getCause());
+        } catch (RuntimeException | Error e) {
+            queued.result.completeExceptionally(e);
+        }
+    }
+
+    private static <T> T runInline(Mutation<T> mutation) {
+        try {
+            return mutation.apply();
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (e instanceof Error error) {
+            throw error;
+        }
+        throw new UndeclaredThrowableException(e);
+    }
+
+    private enum Offer {
+        STARTED, QUEUED, FULL, RETIRED
+    }
+
+    private static final class Lane {
+        private final UUID workspaceId;
+        private final BlockingQueue<Queued<?>> queue;
+        // Guarded by this
+        private boolean draining;
+        private boolean retired;
+
+        private Lane(UUID workspaceId, int capacity) {
+            this.workspaceId = workspaceId;
+            this.queue = new LinkedBlockingQueue<>(capacity);
+        }
+
+        private synchronized Offer offer(Queued<?> queued) {
+            if (retired) {
+                return Offer.RETIRED;
+            }
+            if (!queue.offer(queued)) {
+                return Offer.FULL;
+            }
+            if (draining) {
+                return Offer.QUEUED;
+            }
+            draining = true;
+            return Offer.STARTED;
+        }
+
+        private synchronized boolean retireIfIdle() {
+            if (!queue.isEmpty()) {
+                return false;
+            }
+            retired = true;
+            return true;
+        }
+
+        /**
+         * The next mutation plus whatever arrives within the window after it, up to the batch size.
+         */
+        private List<Queued<?>> nextBatch(int maxSize, long windowNanos) {
+            Queued<?> first = queue.poll();
+            if (first == null) {
+                return List.of();
+            }
+            List<Queued<?>> batch = new ArrayList<>(Math.min(maxSize, queue.size() + 1));
+            batch.add(first);
+            long deadline = System.nanoTime() + windowNanos;
+            try {
+                while (batch.size() < maxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Queued<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return batch;
+        }
+    }
+
+    private static final class Queued<T> {
+        private final Mutation<T> mutation;
+        private final SecurityContext securityContext;
+        private final RequestAttributes requestAttributes;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(NEW);
+        private T value;
+        private Throwable failure;
+
+        private Queued(Mutation<T> mutation, SecurityContext securityContext, RequestAttributes requestAttributes) {
+            this.mutation = mutation;
+            this.securityContext = securityContext;
+            this.requestAttributes = requestAttributes;
+        }
+
+        /**
+         * Claims the mutation for the writer; false when its caller has already given up on it.
+         */
+        private boolean start() {
+            return state.compareAndSet(NEW, RUNNING);
+        }
+
+        private boolean abandon() {
+            return state.compareAndSet(NEW, ABANDONED);
+        }
+
+        private void run() {
+            SecurityContextHolder.setContext(securityContext);
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            try {
+                value = mutation.apply();
+            } catch (Throwable e) {
+                throw new MutationFailure(e);
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+                SecurityContextHolder.clearContext();
+            }
+        }
+
+        private void publish() {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            } else {
+                result.complete(value);
+            }
+        }
+    }
+
+    private static final class MutationFailure extends RuntimeException {
+        private MutationFailure(Throwable cause) {
+            super(cause);
+        }
+    }
+}
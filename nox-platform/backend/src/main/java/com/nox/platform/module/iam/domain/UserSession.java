@@ -1,10 +1,9 @@
 package com.nox.platform.module.iam.domain;
 
+import com.nox.platform.shared.infrastructure.id.TimeOrderedUuid;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -30,7 +29,7 @@ import java.time.OffsetDateTime;
 public class UserSession {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private java.util.UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -3,14 +3,17 @@ package com.nox.platform.module.warehouse.api;
 import com.nox.platform.module.warehouse.api.dto.AssetCollectionResponse;
 import com.nox.platform.module.warehouse.domain.AssetCollection;
 import com.nox.platform.module.warehouse.service.AssetCollectionService;
+import com.nox.platform.module.warehouse.service.WarehouseService;
 import com.nox.platform.module.warehouse.service.command.CreateCollectionCommand;
 import com.nox.platform.shared.api.ApiResponse;
+import com.nox.platform.shared.infrastructure.etag.ContentVersions;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -22,6 +25,8 @@ import java.util.stream.Collectors;
 public class AssetCollectionController {
 
     private final AssetCollectionService collectionService;
+    private final WarehouseService warehouseService;
+    private final ContentVersions contentVersions;
 
     @PostMapping
     public ResponseEntity<ApiResponse<AssetCollectionResponse>> createCollection(
@@ -39,7 +44,11 @@ public class AssetCollectionController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<AssetCollectionResponse>>> getRootCollections(@PathVariable UUID warehouseId) {
+    public ResponseEntity<ApiResponse<List<AssetCollectionResponse>>> getRootCollections(@PathVariable UUID warehouseId, WebRequest webRequest) {
+        warehouseService.getWarehouseById(warehouseId);
+        if (contentVersions.checkNotModified(webRequest, WarehouseService.catalogVersionScope(warehouseId))) {
+            return null;
+        }
         List<AssetCollectionResponse> response = collectionService.getRootCollections(warehouseId).stream()
                 .map(AssetCollectionResponse::fromEntity)
                 .collect(Collectors.toList());
@@ -49,7 +58,12 @@ public class AssetCollectionController {
     @GetMapping("/{parentId}/children")
     public ResponseEntity<ApiResponse<List<AssetCollectionResponse>>> getChildCollections(
             @PathVariable UUID warehouseId,
-            @PathVariable UUID parentId) {
+            @PathVariable UUID parentId,
+            WebRequest webRequest) {
+        warehouseService.getWarehouseById(warehouseId);
+        if (contentVersions.checkNotModified(webRequest, WarehouseService.catalogVersionScope(warehouseId))) {
+            return null;
+        }
         List<AssetCollectionResponse> response = collectionService.getChildCollections(warehouseId, parentId).stream()
                 .map(AssetCollectionResponse::fromEntity)
                 .collect(Collectors.toList());
@@ -2,10 +2,13 @@ package com.nox.platform.module.warehouse.api;
 
 import com.nox.platform.module.warehouse.api.dto.BlockTemplateResponse;
 import com.nox.platform.module.warehouse.domain.BlockTemplate;
+import com.nox.platform.module.warehouse.domain.BlockTemplateSubgraph;
 import com.nox.platform.module.warehouse.service.BlockTemplateService;
+import com.nox.platform.module.warehouse.service.WarehouseService;
 import com.nox.platform.module.warehouse.service.command.CreateBlockTemplateCommand;
 import com.nox.platform.module.warehouse.service.command.UpdateBlockTemplateCommand;
 import com.nox.platform.shared.api.ApiResponse;
+import com.nox.platform.shared.infrastructure.etag.ContentVersions;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -13,6 +16,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -25,6 +29,8 @@ import java.util.stream.Collectors;
 public class BlockTemplateController {
 
     private final BlockTemplateService blockTemplateService;
+    private final WarehouseService warehouseService;
+    private final ContentVersions contentVersions;
 
     @PostMapping
     public ResponseEntity<ApiResponse<BlockTemplateResponse>> createBlockTemplate(
@@ -38,6 +44,7 @@ public class BlockTemplateController {
                 request.description(),
                 request.thumbnailUrl(),
                 request.structureData(),
+                request.subgraph(),
                 request.version()
         );
 
@@ -46,7 +53,11 @@ public class BlockTemplateController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<BlockTemplateResponse>>> getBlockTemplates(@PathVariable UUID warehouseId) {
+    public ResponseEntity<ApiResponse<List<BlockTemplateResponse>>> getBlockTemplates(@PathVariable UUID warehouseId, WebRequest webRequest) {
+        warehouseService.getWarehouseById(warehouseId);
+        if (contentVersions.checkNotModified(webRequest, WarehouseService.catalogVersionScope(warehouseId))) {
+            return null;
+        }
         List<BlockTemplateResponse> response = blockTemplateService.getBlockTemplatesByWarehouse(warehouseId).stream()
                 .map(BlockTemplateResponse::fromEntity)
                 .collect(Collectors.toList());
@@ -64,6 +75,7 @@ public class BlockTemplateController {
                 request.description(),
                 request.thumbnailUrl(),
                 request.structureData(),
+                request.subgraph(),
                 request.version()
         );
 
@@ -85,6 +97,7 @@ public class BlockTemplateController {
             String description,
             String thumbnailUrl,
             @NotNull Map<String, Object> structureData,
+            BlockTemplateSubgraph subgraph,
             String version) {
     }
 
@@ -93,6 +106,7 @@ public class BlockTemplateController {
             String description,
             String thumbnailUrl,
             Map<String, Object> structureData,
+            BlockTemplateSubgraph subgraph,
             String version) {
     }
 }
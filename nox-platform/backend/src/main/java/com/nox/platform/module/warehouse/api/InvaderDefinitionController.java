@@ -3,9 +3,11 @@ package com.nox.platform.module.warehouse.api;
 import com.nox.platform.module.warehouse.api.dto.InvaderDefinitionResponse;
 import com.nox.platform.module.warehouse.domain.InvaderDefinition;
 import com.nox.platform.module.warehouse.service.InvaderDefinitionService;
+import com.nox.platform.module.warehouse.service.WarehouseService;
 import com.nox.platform.module.warehouse.service.command.CreateInvaderDefinitionCommand;
 import com.nox.platform.module.warehouse.service.command.UpdateInvaderDefinitionCommand;
 import com.nox.platform.shared.api.ApiResponse;
+import com.nox.platform.shared.infrastructure.etag.ContentVersions;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -13,6 +15,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -25,6 +28,8 @@ import java.util.stream.Collectors;
 public class InvaderDefinitionController {
 
     private final InvaderDefinitionService invaderDefinitionService;
+    private final WarehouseService warehouseService;
+    private final ContentVersions contentVersions;
 
     @PostMapping
     public ResponseEntity<ApiResponse<InvaderDefinitionResponse>> createInvaderDefinition(
@@ -47,7 +52,11 @@ public class InvaderDefinitionController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<InvaderDefinitionResponse>>> getInvaderDefinitions(@PathVariable UUID warehouseId) {
+    public ResponseEntity<ApiResponse<List<InvaderDefinitionResponse>>> getInvaderDefinitions(@PathVariable UUID warehouseId, WebRequest webRequest) {
+        warehouseService.getWarehouseById(warehouseId);
+        if (contentVersions.checkNotModified(webRequest, WarehouseService.catalogVersionScope(warehouseId))) {
+            return null;
+        }
         List<InvaderDefinitionResponse> response = invaderDefinitionService.getInvaderDefinitionsByWarehouse(warehouseId).stream()
                 .map(InvaderDefinitionResponse::fromEntity)
                 .collect(Collectors.toList());
@@ -1,6 +1,7 @@
 package com.nox.platform.module.warehouse.api.dto;
 
 import com.nox.platform.module.warehouse.domain.BlockTemplate;
+import com.nox.platform.module.warehouse.domain.BlockTemplateSubgraph;
 import java.util.Map;
 import java.util.UUID;
 
@@ -12,6 +13,7 @@ public record BlockTemplateResponse(
     String description,
     String thumbnailUrl,
     Map<String, Object> structureData,
+    BlockTemplateSubgraph subgraph,
     String version
 ) {
     public static BlockTemplateResponse fromEntity(BlockTemplate template) {
@@ -23,6 +25,7 @@ public record BlockTemplateResponse(
             template.getDescription(),
             template.getThumbnailUrl(),
             template.getStructureData(),
+            template.getSubgraph(),
             template.getTemplateVersion()
         );
     }
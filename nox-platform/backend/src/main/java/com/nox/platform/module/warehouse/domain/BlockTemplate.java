@@ -51,6 +51,11 @@ public class BlockTemplate extends BaseEntity {
     @Setter(AccessLevel.PROTECTED)
     private Map<String, Object> structureData = Map.of();
 
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "subgraph", columnDefinition = "jsonb")
+    @Setter(AccessLevel.PROTECTED)
+    private BlockTemplateSubgraph subgraph;
+
     @Column(name = "version", length = 20)
     @Builder.Default
     @Setter(AccessLevel.PROTECTED)
@@ -70,8 +75,10 @@ public class BlockTemplate extends BaseEntity {
                 .description(command.description())
                 .thumbnailUrl(command.thumbnailUrl())
                 .structureData(command.structureData())
+                .subgraph(command.subgraph())
                 .templateVersion(command.version())
                 .build();
+        if (template.subgraph != null) template.subgraph.validate();
         template.initializeTimestamps(now);
         return template;
     }
@@ -81,6 +88,10 @@ public class BlockTemplate extends BaseEntity {
         if (command.description() != null) this.description = command.description();
         if (command.thumbnailUrl() != null) this.thumbnailUrl = command.thumbnailUrl();
         if (command.structureData() != null) this.structureData = command.structureData();
+        if (command.subgraph() != null) {
+            command.subgraph().validate();
+            this.subgraph = command.subgraph();
+        }
         if (command.version() != null) this.templateVersion = command.version();
     }
 
@@ -0,0 +1,116 @@
+package com.nox.platform.module.warehouse.domain;
+
+import com.nox.platform.shared.exception.DomainException;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Blocks and wires a composite template expands into. Blocks refer to each other by template-local
+ * {@code key}s, which are replaced by fresh ids on every instantiation. Positions of top-level
+ * blocks are relative to the instance origin; nested blocks keep theirs as is.
+ */
+public record BlockTemplateSubgraph(List<Block> blocks, List<Relation> relations) {
+
+    private static final int MAX_DEPTH = 10;
+    private static final double DEFAULT_WIDTH = 160;
+    private static final double INSTANCE_GAP = 80;
+
+    public record Block(String key, String parentKey, String type, String name,
+                        Map<String, Object> config, Map<String, Object> visual) {
+    }
+
+    public record Relation(String sourceKey, String targetKey, String type,
+                           Map<String, Object> rules, Map<String, Object> visual) {
+    }
+
+    /**
+     * Rejects definitions that could not be inserted as a whole: dangling or duplicate keys,
+     * parent cycles, nesting beyond the block depth limit and duplicate port connections.
+     */
+    public void validate() {
+        if (blocks == null || blocks.isEmpty()) {
+            throw invalid("A template subgraph needs at least one block");
+        }
+        Map<String, String> parents = new HashMap<>();
+        for (Block block : blocks) {
+            if (block == null || isBlank(block.key()) || isBlank(block.type()) || isBlank(block.name())) {
+                throw invalid("Every subgraph block needs a key, a type and a name");
+            }
+            if (parents.containsKey(block.key())) {
+                throw invalid("Duplicate subgraph block key: " + block.key());
+            }
+            parents.put(block.key(), block.parentKey());
+        }
+        for (Block block : blocks) {
+            String ancestor = block.parentKey();
+            int depth = 0;
+            while (ancestor != null) {
+                if (!parents.containsKey(ancestor)) {
+                    throw invalid("Unknown parent key: " + ancestor);
+                }
+                if (ancestor.equals(block.key()) || ++depth > MAX_DEPTH) {
+                    throw invalid("Subgraph blocks form a cycle or nest deeper than " + MAX_DEPTH + " levels");
+                }
+                ancestor = parents.get(ancestor);
+            }
+        }
+
+        Set<List<String>> ports = new HashSet<>();
+        for (Relation relation : relations != null ? relations : List.<Relation>of()) {
+            if (relation == null || !parents.containsKey(relation.sourceKey()) || !parents.containsKey(relation.targetKey())
+                    || isBlank(relation.type())) {
+                throw invalid("Every subgraph relation needs a type and must connect two subgraph blocks");
+            }
+            List<String> port = List.of(relation.sourceKey(), relation.targetKey(),
+                    handle(relation.visual(), "sourceHandle"), handle(relation.visual(), "targetHandle"));
+            if (!ports.add(port)) {
+                throw invalid("Duplicate port connection between " + relation.sourceKey() + " and " + relation.targetKey());
+            }
+        }
+    }
+
+    public int blockCount() {
+        return blocks != null ? blocks.size() : 0;
+    }
+
+    /**
+     * Horizontal extent of the top-level blocks plus a gap; the default distance between instances.
+     */
+    public double footprintWidth() {
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        for (Block block : blocks) {
+            if (block.parentKey() != null) continue;
+            double x = number(block.visual(), "position", "x", 0);
+            min = Math.min(min, x);
+            max = Math.max(max, x + number(block.visual(), "size", "width", DEFAULT_WIDTH));
+        }
+        return min <= max ? max - min + INSTANCE_GAP : DEFAULT_WIDTH + INSTANCE_GAP;
+    }
+
+    private static double number(Map<String, Object> visual, String group, String field, double fallback) {
+        if (visual != null && visual.get(group) instanceof Map<?, ?> values && values.get(field) instanceof Number n) {
+            return n.doubleValue();
+        }
+        return fallback;
+    }
+
+    // Mirrors the generated handle columns of core_relations: absent means ''
+    private static String handle(Map<String, Object> visual, String key) {
+        Object value = visual != null ? visual.get(key) : null;
+        return value != null ? Objects.toString(value) : "";
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static DomainException invalid(String message) {
+        return new DomainException("INVALID_TEMPLATE_SUBGRAPH", message);
+    }
+}
@@ -6,6 +6,7 @@ import com.nox.platform.module.warehouse.infrastructure.AssetCollectionRepositor
 import com.nox.platform.module.warehouse.infrastructure.WarehouseRepository;
 import com.nox.platform.module.warehouse.service.command.CreateCollectionCommand;
 import com.nox.platform.shared.exception.DomainException;
+import com.nox.platform.shared.infrastructure.etag.ContentVersions;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,6 +23,7 @@ public class AssetCollectionService {
     private final WarehouseRepository warehouseRepository;
     private final com.nox.platform.shared.abstraction.TimeProvider timeProvider;
     private final WarehouseAccessValidator accessValidator;
+    private final ContentVersions contentVersions;
 
     @Transactional
     public AssetCollection createCollection(CreateCollectionCommand command) {
@@ -38,6 +40,7 @@ public class AssetCollectionService {
         }
 
         AssetCollection collection = AssetCollection.create(warehouse, parent, command.name(), timeProvider.now());
+        contentVersions.bumpAfterCommit(WarehouseService.catalogVersionScope(command.warehouseId()));
         return collectionRepository.save(collection);
     }
 
@@ -79,6 +82,7 @@ public class AssetCollectionService {
         }
 
         collection.updateTimestamp(timeProvider.now());
+        contentVersions.bumpAfterCommit(WarehouseService.catalogVersionScope(warehouseId));
         return collectionRepository.save(collection);
     }
 
@@ -98,6 +102,7 @@ public class AssetCollectionService {
         collection.markAsDeleted(now);
         collection.updateTimestamp(now);
         collectionRepository.save(collection);
+        contentVersions.bumpAfterCommit(WarehouseService.catalogVersionScope(warehouseId));
     }
 
     @Transactional
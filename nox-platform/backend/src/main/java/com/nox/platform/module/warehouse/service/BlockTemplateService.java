@@ -8,6 +8,7 @@ import com.nox.platform.module.warehouse.infrastructure.WarehouseRepository;
 import com.nox.platform.module.warehouse.service.command.CreateBlockTemplateCommand;
 import com.nox.platform.module.warehouse.service.command.UpdateBlockTemplateCommand;
 import com.nox.platform.shared.exception.DomainException;
+import com.nox.platform.shared.infrastructure.etag.ContentVersions;
 import com.nox.platform.shared.abstraction.TimeProvider;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -26,6 +27,7 @@ public class BlockTemplateService {
     private final AssetCollectionService collectionService;
     private final TimeProvider timeProvider;
     private final WarehouseAccessValidator accessValidator;
+    private final ContentVersions contentVersions;
 
     @Transactional
     public BlockTemplate createBlockTemplate(CreateBlockTemplateCommand command) {
@@ -38,6 +40,7 @@ public class BlockTemplateService {
         }
 
         BlockTemplate template = BlockTemplate.create(warehouse, collection, command, timeProvider.now());
+        contentVersions.bumpAfterCommit(WarehouseService.catalogVersionScope(command.warehouseId()));
         return blockTemplateRepository.save(template);
     }
 
@@ -65,7 +68,7 @@ public class BlockTemplateService {
 
         template.update(command);
         template.updateTimestamp(timeProvider.now());
-        
+        contentVersions.bumpAfterCommit(WarehouseService.catalogVersionScope(warehouseId));
         return blockTemplateRepository.save(template);
     }
 
@@ -85,6 +88,7 @@ public class BlockTemplateService {
         template.markAsDeleted(now);
         template.updateTimestamp(now);
         blockTemplateRepository.save(template);
+        contentVersions.bumpAfterCommit(WarehouseService.catalogVersionScope(warehouseId));
     }
 
     private Warehouse getWarehouseAndValidateRead(UUID warehouseId) {
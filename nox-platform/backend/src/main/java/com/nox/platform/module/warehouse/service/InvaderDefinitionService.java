@@ -8,6 +8,7 @@ import com.nox.platform.module.warehouse.infrastructure.WarehouseRepository;
 import com.nox.platform.module.warehouse.service.command.CreateInvaderDefinitionCommand;
 import com.nox.platform.module.warehouse.service.command.UpdateInvaderDefinitionCommand;
 import com.nox.platform.shared.exception.DomainException;
+import com.nox.platform.shared.infrastructure.etag.ContentVersions;
 import com.nox.platform.shared.abstraction.TimeProvider;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -26,6 +27,7 @@ public class InvaderDefinitionService {
     private final AssetCollectionService collectionService;
     private final TimeProvider timeProvider;
     private final WarehouseAccessValidator accessValidator;
+    private final ContentVersions contentVersions;
 
     @Transactional
     public InvaderDefinition createInvaderDefinition(CreateInvaderDefinitionCommand command) {
@@ -42,6 +44,7 @@ public class InvaderDefinitionService {
         }
 
         InvaderDefinition definition = InvaderDefinition.create(warehouse, collection, command, timeProvider.now());
+        contentVersions.bumpAfterCommit(WarehouseService.catalogVersionScope(command.warehouseId()));
         return invaderDefinitionRepository.save(definition);
     }
 
@@ -69,7 +72,7 @@ public class InvaderDefinitionService {
 
         definition.update(command);
         definition.updateTimestamp(timeProvider.now());
-        
+        contentVersions.bumpAfterCommit(WarehouseService.catalogVersionScope(warehouseId));
         return invaderDefinitionRepository.save(definition);
     }
 
@@ -89,6 +92,7 @@ public class InvaderDefinitionService {
         definition.markAsDeleted(now);
         definition.updateTimestamp(now);
         invaderDefinitionRepository.save(definition);
+        contentVersions.bumpAfterCommit(WarehouseService.catalogVersionScope(warehouseId));
     }
 
     private Warehouse getWarehouseAndValidateRead(UUID warehouseId) {
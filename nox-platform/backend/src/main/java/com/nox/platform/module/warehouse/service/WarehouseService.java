@@ -45,6 +45,14 @@ public class WarehouseService {
         return warehouseRepository.save(warehouse);
     }
 
+    /**
+     * {@link com.nox.platform.shared.infrastructure.etag.ContentVersions} scope covering a warehouse's
+     * templates, invader definitions and collections; every catalog write bumps it.
+     */
+    public static String catalogVersionScope(UUID warehouseId) {
+        return "warehouse:" + warehouseId;
+    }
+
     public Warehouse getWarehouseForOwner(UUID ownerId, OwnerType ownerType) {
         return warehouseRepository.findByOwnerIdAndOwnerType(ownerId, ownerType)
                 .orElseThrow(() -> new DomainException("WAREHOUSE_NOT_FOUND", "Warehouse not found"));
@@ -1,5 +1,6 @@
 package com.nox.platform.module.warehouse.service.command;
 
+import com.nox.platform.module.warehouse.domain.BlockTemplateSubgraph;
 import java.util.Map;
 import java.util.UUID;
 
@@ -10,5 +11,6 @@ public record CreateBlockTemplateCommand(
     String description,
     String thumbnailUrl,
     Map<String, Object> structureData,
+    BlockTemplateSubgraph subgraph,
     String version
 ) {}
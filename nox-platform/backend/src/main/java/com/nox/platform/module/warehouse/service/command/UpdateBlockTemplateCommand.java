@@ -1,5 +1,6 @@
 package com.nox.platform.module.warehouse.service.command;
 
+import com.nox.platform.module.warehouse.domain.BlockTemplateSubgraph;
 import java.util.Map;
 
 public record UpdateBlockTemplateCommand(
@@ -7,5 +8,6 @@ public record UpdateBlockTemplateCommand(
     String description,
     String thumbnailUrl,
     Map<String, Object> structureData,
+    BlockTemplateSubgraph subgraph,
     String version
 ) {}
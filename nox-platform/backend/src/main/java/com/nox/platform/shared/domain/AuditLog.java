@@ -1,5 +1,6 @@
 package com.nox.platform.shared.domain;
 
+import com.nox.platform.shared.infrastructure.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.JdbcTypeCode;
@@ -19,7 +20,7 @@ import java.util.UUID;
 public class AuditLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(name = "org_id", nullable = false)
@@ -56,6 +56,14 @@ public class GlobalExceptionHandler {
         if (code.equals("BLOCK_LOCKED")) {
             return HttpStatus.LOCKED;
         }
+
+        if (code.equals("HISTORY_CONFLICT")) {
+            return HttpStatus.CONFLICT;
+        }
+
+        if (code.equals("WORKSPACE_BUSY")) {
+            return HttpStatus.SERVICE_UNAVAILABLE;
+        }
         
         return HttpStatus.BAD_REQUEST;
     }
@@ -0,0 +1,21 @@
+package com.nox.platform.shared.infrastructure.config;
+
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+
+@Configuration
+public class TransactionConfig {
+
+    /**
+     * A {@code @Transactional} method that fails inside a surrounding transaction no longer dooms
+     * it; whoever catches the exception decides. The workspace writer relies on this to roll one
+     * failed mutation of a group commit back to its savepoint and commit the others. Exceptions
+     * that reach the outer boundary still roll everything back, as before.
+     */
+    @Bean
+    public TransactionManagerCustomizer<AbstractPlatformTransactionManager> participationFailureCustomizer() {
+        return transactionManager -> transactionManager.setGlobalRollbackOnParticipationFailure(false);
+    }
+}
@@ -0,0 +1,135 @@
+package com.nox.platform.shared.infrastructure.etag;
+
+import com.nox.platform.shared.abstraction.TimeProvider;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Version stamps for read-mostly resources, kept in Redis so every instance serves the same ETag.
+ * <p>
+ * Writers bump a scope after their transaction commits; readers turn the current stamp into a
+ * strong ETag and answer {@code If-None-Match} before loading anything. A stamp is seeded from the
+ * wall clock when missing (first read, expiry, Redis flush), so a re-seeded scope never repeats a
+ * tag handed out earlier. When Redis is unavailable reads simply skip the conditional check.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContentVersions {
+
+    private static final String KEY_PREFIX = "etag:";
+
+    // Increments an existing stamp, or seeds a missing one from ARGV[1]; refreshes the TTL either way.
+    private static final RedisScript<Long> BUMP_SCRIPT = new DefaultRedisScript<>("""
+            local version
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                version = redis.call('INCR', KEYS[1])
+            else
+                version = tonumber(ARGV[1])
+                redis.call('SET', KEYS[1], version)
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return version
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final TimeProvider timeProvider;
+
+    @Value("${app.etag.ttl-ms:604800000}")
+    private long ttlMs;
+
+    /**
+     * Answers a conditional GET for the scope. Returns true when the client's copy is current and
+     * the caller should return without a body (the response has already been turned into a 304).
+     * The stamp must be read before the data it describes, so a write landing in between can only
+     * make the ETag older than the body, never newer.
+     */
+    public boolean checkNotModified(WebRequest request, String scope) {
+        String version = current(scope);
+        if (version == null) {
+            return false;
+        }
+        return request.checkNotModified("\"" + version + "-" + representation(request) + "\"");
+    }
+
+    public void bumpAfterCommit(String scope) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(scope);
+                }
+            });
+        } else {
+            bump(scope);
+        }
+    }
+
+    /**
+     * @return the new stamp, or null when Redis could not be reached
+     */
+    public Long bump(String scope) {
+        try {
+            return redisTemplate.execute(BUMP_SCRIPT, List.of(KEY_PREFIX + scope),
+                    String.valueOf(timeProvider.currentTimeMillis()), String.valueOf(ttlMs));
+        } catch (DataAccessException e) {
+            // Drop the stamp so no instance keeps validating the old one once Redis is back
+            log.warn("Could not bump content version {}", scope, e);
+            try {
+                redisTemplate.delete(KEY_PREFIX + scope);
+            } catch (DataAccessException ignored) {
+                // Redis is down entirely; readers skip conditional checks until it returns
+            }
+            return null;
+        }
+    }
+
+    /**
+     * The scope's current stamp, seeding it when missing; null when Redis could not be reached.
+     * Lets local caches tell whether a write on any instance has happened since they loaded.
+     */
+    public String current(String scope) {
+        String key = KEY_PREFIX + scope;
+        try {
+            String version = redisTemplate.opsForValue().get(key);
+            if (version != null) {
+                return version;
+            }
+            String seed = String.valueOf(timeProvider.currentTimeMillis());
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, seed, Duration.ofMillis(ttlMs)))) {
+                return seed;
+            }
+            return redisTemplate.opsForValue().get(key);
+        } catch (DataAccessException e) {
+            log.warn("Could not read content version {}", scope, e);
+            return null;
+        }
+    }
+
+    // Strong ETags promise identical bytes, so JSON, Smile and CBOR bodies get distinct tags.
+    private static String representation(WebRequest request) {
+        String accept = request.getHeader("Accept");
+        if (accept != null) {
+            if (accept.contains(MediaType.APPLICATION_CBOR_VALUE)) {
+                return "cbor";
+            }
+            if (accept.contains("application/x-jackson-smile")) {
+                return "smile";
+            }
+        }
+        return "json";
+    }
+}
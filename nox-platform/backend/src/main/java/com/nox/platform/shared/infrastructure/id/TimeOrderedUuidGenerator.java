@@ -0,0 +1,52 @@
+package com.nox.platform.shared.infrastructure.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+import java.util.UUID;
+
+/**
+ * Id generator behind {@link TimeOrderedUuid}. The UUID version is a Hibernate setting so a
+ * rollout can be reverted by configuration alone: both versions share the column type, and rows
+ * written under either setting stay valid under the other. An id assigned before the entity is
+ * persisted (a client-chosen block id, for instance) is kept.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    public static final String UUID_VERSION_SETTING = "nox.id.uuid-version";
+
+    private final boolean timeOrdered;
+
+    public TimeOrderedUuidGenerator(TimeOrderedUuid config, Member idMember, CustomIdGeneratorCreationContext context) {
+        ConfigurationService settings = context.getServiceRegistry().getService(ConfigurationService.class);
+        String version = settings != null
+                ? settings.getSetting(UUID_VERSION_SETTING, StandardConverters.STRING, "7")
+                : "7";
+        this.timeOrdered = !"4".equals(version.trim());
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        if (currentValue != null) {
+            return currentValue;
+        }
+        return timeOrdered ? UuidV7.next() : UUID.randomUUID();
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
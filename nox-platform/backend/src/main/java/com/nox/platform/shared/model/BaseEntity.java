@@ -1,5 +1,6 @@
 package com.nox.platform.shared.model;
 
+import com.nox.platform.shared.infrastructure.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
@@ -16,7 +17,7 @@ import java.util.UUID;
 public abstract class BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -0,0 +1,170 @@
+package com.nox.platform.shared.model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A JSON document kept as the text the database returned, for jsonb payloads the server passes
+ * through without inspecting. Serialization writes the text verbatim into JSON responses (binary
+ * formats get it re-encoded token by token), so reads never build the intermediate maps;
+ * {@link #asMap(ObjectMapper)} and {@link #textField(String)} parse on demand for the few callers
+ * that look inside. Data binding always goes through the caller's mapper; the streaming reads
+ * here only need a plain JSON factory.
+ */
+@JsonSerialize(using = RawJson.Serializer.class)
+@JsonDeserialize(using = RawJson.Deserializer.class)
+public final class RawJson {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    private final String json;
+
+    private RawJson(String json) {
+        this.json = json;
+    }
+
+    public static RawJson of(String json) {
+        return json != null ? new RawJson(json) : null;
+    }
+
+    public static RawJson of(Map<String, ?> document, ObjectMapper mapper) {
+        if (document == null) {
+            return null;
+        }
+        try {
+            return new RawJson(mapper.writeValueAsString(document));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Document is not serializable as JSON", e);
+        }
+    }
+
+    public String json() {
+        return json;
+    }
+
+    public int length() {
+        return json.length();
+    }
+
+    public Map<String, Object> asMap(ObjectMapper mapper) {
+        try {
+            return mapper.readValue(json, MAP_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored JSON is not an object", e);
+        }
+    }
+
+    /**
+     * Top-level field names in document order, read without building the values.
+     */
+    public Set<String> fieldNames() {
+        Set<String> names = new LinkedHashSet<>();
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return names;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                names.add(parser.currentName());
+                parser.nextToken();
+                parser.skipChildren();
+            }
+            return names;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Text of a scalar top-level field, read by streaming over the document; null when the field
+     * is missing, null or not a scalar.
+     */
+    public String textField(String name) {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                boolean match = name.equals(parser.currentName());
+                JsonToken value = parser.nextToken();
+                if (match) {
+                    return value.isScalarValue() && value != JsonToken.VALUE_NULL ? parser.getText() : null;
+                }
+                parser.skipChildren();
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof RawJson other && json.equals(other.json);
+    }
+
+    @Override
+    public int hashCode() {
+        return json.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return json;
+    }
+
+    public static final class Serializer extends StdSerializer<RawJson> {
+
+        public Serializer() {
+            super(RawJson.class);
+        }
+
+        @Override
+        public void serialize(RawJson value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (!gen.canWriteBinaryNatively()) {
+                gen.writeRawValue(value.json);
+                return;
+            }
+            // Smile, CBOR and token buffers cannot take raw text
+            try (JsonParser parser = JSON_FACTORY.createParser(value.json)) {
+                parser.nextToken();
+                gen.copyCurrentStructure(parser);
+            }
+        }
+    }
+
+    public static final class Deserializer extends StdDeserializer<RawJson> {
+
+        public Deserializer() {
+            super(RawJson.class);
+        }
+
+        @Override
+        public RawJson deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            StringWriter json = new StringWriter();
+            try (JsonGenerator gen = JSON_FACTORY.createGenerator(json)) {
+                gen.copyCurrentStructure(parser);
+            }
+            return new RawJson(json.toString());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+-- =========================================================================
+-- Migration: V26__add_change_tracking_indexes.sql
+-- Description: Supports incremental workspace sync by indexing change timestamps,
+--              including soft-deleted rows that are shipped as tombstones.
+-- =========================================================================
+
+CREATE INDEX IF NOT EXISTS idx_core_blocks_workspace_updated ON core_blocks (workspace_id, updated_at);
+CREATE INDEX IF NOT EXISTS idx_core_relations_workspace_updated ON core_relations (workspace_id, updated_at);
@@ -0,0 +1,8 @@
+-- =========================================================================
+-- Migration: V27__add_workspace_block_scan_indexes.sql
+-- Description: Index paths for streaming workspace loads (created_at order)
+--              and keyset pagination (id order) over live blocks.
+-- =========================================================================
+
+CREATE INDEX IF NOT EXISTS idx_core_blocks_workspace_created ON core_blocks (workspace_id, created_at) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_core_blocks_workspace_id_keyset ON core_blocks (workspace_id, id) WHERE deleted_at IS NULL;
@@ -0,0 +1,68 @@
+-- =========================================================================
+-- Migration: V28__add_core_block_materialized_path.sql
+-- Description: Maintains the ancestor chain of every block (root first,
+--              excluding the block itself) so subtree, cycle and depth
+--              lookups become a single GIN-indexed query instead of a
+--              recursive CTE or a lazy parent walk.
+-- =========================================================================
+
+ALTER TABLE core_blocks ADD COLUMN IF NOT EXISTS path UUID[] NOT NULL DEFAULT '{}';
+
+-- PART 1: Backfill existing hierarchies
+WITH RECURSIVE block_paths AS (
+    SELECT id, ARRAY[]::UUID[] AS path
+    FROM core_blocks
+    WHERE parent_block_id IS NULL
+    UNION ALL
+    SELECT cb.id, bp.path || cb.parent_block_id
+    FROM core_blocks cb
+    INNER JOIN block_paths bp ON cb.parent_block_id = bp.id
+)
+UPDATE core_blocks cb
+SET path = bp.path
+FROM block_paths bp
+WHERE cb.id = bp.id;
+
+CREATE INDEX IF NOT EXISTS idx_core_blocks_path ON core_blocks USING GIN (path);
+
+-- PART 2: Keep the path in sync on insert and re-parenting.
+-- Any writer (JPA, bulk INSERT ... SELECT, manual fixes) gets the same guarantees.
+CREATE OR REPLACE FUNCTION core_blocks_assign_path() RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.parent_block_id IS NULL THEN
+        NEW.path := ARRAY[]::UUID[];
+    ELSE
+        SELECT p.path || p.id INTO NEW.path FROM core_blocks p WHERE p.id = NEW.parent_block_id;
+        NEW.path := COALESCE(NEW.path, ARRAY[]::UUID[]);
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION core_blocks_rewrite_descendant_paths() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE core_blocks
+    SET path = NEW.path || path[array_position(path, NEW.id):]
+    WHERE path @> ARRAY[NEW.id];
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_core_blocks_path_insert ON core_blocks;
+CREATE TRIGGER trg_core_blocks_path_insert
+    BEFORE INSERT ON core_blocks
+    FOR EACH ROW EXECUTE FUNCTION core_blocks_assign_path();
+
+DROP TRIGGER IF EXISTS trg_core_blocks_path_reparent ON core_blocks;
+CREATE TRIGGER trg_core_blocks_path_reparent
+    BEFORE UPDATE OF parent_block_id ON core_blocks
+    FOR EACH ROW
+    WHEN (OLD.parent_block_id IS DISTINCT FROM NEW.parent_block_id)
+    EXECUTE FUNCTION core_blocks_assign_path();
+
+DROP TRIGGER IF EXISTS trg_core_blocks_path_cascade ON core_blocks;
+CREATE TRIGGER trg_core_blocks_path_cascade
+    AFTER UPDATE OF parent_block_id ON core_blocks
+    FOR EACH ROW
+    WHEN (OLD.parent_block_id IS DISTINCT FROM NEW.parent_block_id)
+    EXECUTE FUNCTION core_blocks_rewrite_descendant_paths();
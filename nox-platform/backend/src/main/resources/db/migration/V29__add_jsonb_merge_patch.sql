@@ -0,0 +1,37 @@
+-- =========================================================================
+-- Migration: V29__add_jsonb_merge_patch.sql
+-- Description: RFC 7396 JSON Merge Patch for jsonb columns. Objects merge
+--              recursively, null removes a key, anything else replaces.
+--              Lets the engine patch config/visual/rules in place instead
+--              of rewriting the whole document from the application.
+-- =========================================================================
+
+CREATE OR REPLACE FUNCTION jsonb_merge_patch(target JSONB, patch JSONB) RETURNS JSONB AS $$
+DECLARE
+    result JSONB;
+    patch_key TEXT;
+    patch_value JSONB;
+BEGIN
+    IF patch IS NULL OR jsonb_typeof(patch) <> 'object' THEN
+        RETURN patch;
+    END IF;
+
+    IF target IS NULL OR jsonb_typeof(target) <> 'object' THEN
+        result := '{}'::JSONB;
+    ELSE
+        result := target;
+    END IF;
+
+    FOR patch_key, patch_value IN SELECT key, value FROM jsonb_each(patch) LOOP
+        IF jsonb_typeof(patch_value) = 'null' THEN
+            result := result - patch_key;
+        ELSIF jsonb_typeof(patch_value) = 'object' THEN
+            result := result || jsonb_build_object(patch_key, jsonb_merge_patch(result -> patch_key, patch_value));
+        ELSE
+            result := jsonb_set(result, ARRAY[patch_key], patch_value, true);
+        END IF;
+    END LOOP;
+
+    RETURN result;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
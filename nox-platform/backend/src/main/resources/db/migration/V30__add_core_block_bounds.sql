@@ -0,0 +1,26 @@
+-- =========================================================================
+-- Migration: V30__add_core_block_bounds.sql
+-- Description: Promotes the canvas rectangle of each block out of the
+--              visual jsonb into a stored generated BOX column with a GiST
+--              index, so viewport (bbox) queries no longer need the whole
+--              canvas. Being generated, it stays in sync with every writer
+--              of visual (entity updates, merge patches, position flushes).
+--              Defaults mirror the studio: position (100, 100), 160 x 80.
+-- =========================================================================
+
+CREATE OR REPLACE FUNCTION core_block_bounds(visual JSONB) RETURNS BOX AS $$
+    SELECT box(
+        point(x, y),
+        point(x + GREATEST(width, 0), y + GREATEST(height, 0)))
+    FROM (
+        SELECT
+            CASE WHEN jsonb_typeof(visual #> '{position,x}') = 'number' THEN (visual #>> '{position,x}')::FLOAT8 ELSE 100 END AS x,
+            CASE WHEN jsonb_typeof(visual #> '{position,y}') = 'number' THEN (visual #>> '{position,y}')::FLOAT8 ELSE 100 END AS y,
+            CASE WHEN jsonb_typeof(visual #> '{size,width}') = 'number' THEN (visual #>> '{size,width}')::FLOAT8 ELSE 160 END AS width,
+            CASE WHEN jsonb_typeof(visual #> '{size,height}') = 'number' THEN (visual #>> '{size,height}')::FLOAT8 ELSE 80 END AS height
+    ) dims
+$$ LANGUAGE sql IMMUTABLE;
+
+ALTER TABLE core_blocks ADD COLUMN IF NOT EXISTS bounds BOX GENERATED ALWAYS AS (core_block_bounds(visual)) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_core_blocks_bounds ON core_blocks USING GIST (bounds) WHERE deleted_at IS NULL;
@@ -0,0 +1,34 @@
+-- =========================================================================
+-- Migration: V31__promote_relation_port_handles.sql
+-- Description: Promotes relation port handles out of the visual jsonb into
+--              stored generated columns ('' when absent) and enforces one
+--              live wire per exact port pair with a plain unique index.
+--              Replaces the expression index from V21, which let NULL
+--              handles through as distinct values.
+-- =========================================================================
+
+ALTER TABLE core_relations ADD COLUMN IF NOT EXISTS source_handle TEXT GENERATED ALWAYS AS (COALESCE(visual ->> 'sourceHandle', '')) STORED;
+ALTER TABLE core_relations ADD COLUMN IF NOT EXISTS target_handle TEXT GENERATED ALWAYS AS (COALESCE(visual ->> 'targetHandle', '')) STORED;
+
+-- PART 1: Retire duplicates that the old index could not catch (handle-less wires), keeping the oldest
+WITH ranked AS (
+    SELECT id, ROW_NUMBER() OVER (
+        PARTITION BY source_block_id, target_block_id, source_handle, target_handle
+        ORDER BY created_at, id) AS rn
+    FROM core_relations
+    WHERE deleted_at IS NULL
+)
+UPDATE core_relations cr
+SET deleted_at = NOW(), updated_at = NOW()
+FROM ranked
+WHERE cr.id = ranked.id AND ranked.rn > 1;
+
+-- PART 2: Port-level constraint and lookups
+DROP INDEX IF EXISTS idx_core_relations_multi_wire;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_core_relations_port
+ON core_relations (source_block_id, target_block_id, source_handle, target_handle)
+WHERE deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_core_relations_source_port ON core_relations (source_block_id, source_handle) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_core_relations_target_port ON core_relations (target_block_id, target_handle) WHERE deleted_at IS NULL;
@@ -0,0 +1,37 @@
+-- =========================================================================
+-- Migration: V32__add_workspace_operation_log.sql
+-- Description: Append-only log of every block and relation mutation per
+--              workspace. Each row carries the entity state after (forward)
+--              and before (inverse) the change, NULL meaning "absent", so a
+--              row can be replayed, reverted or rewound without knowing which
+--              endpoint produced it. Rows of one transaction share a group,
+--              which is the unit of undo/redo.
+-- =========================================================================
+
+CREATE SEQUENCE IF NOT EXISTS workspace_operations_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS workspace_operations (
+    id BIGINT PRIMARY KEY DEFAULT nextval('workspace_operations_id_seq'),
+    workspace_id UUID NOT NULL REFERENCES workspaces(id) ON DELETE CASCADE,
+    group_id UUID NOT NULL,
+    kind VARCHAR(8) NOT NULL,
+    reverts_group_id UUID,
+    actor_id UUID REFERENCES users(id) ON DELETE SET NULL,
+    entity_type VARCHAR(16) NOT NULL,
+    entity_id UUID NOT NULL,
+    forward JSONB,
+    inverse JSONB,
+    coalescible BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+ALTER SEQUENCE workspace_operations_id_seq OWNED BY workspace_operations.id;
+
+-- Incremental feed and time travel walk a workspace by id
+CREATE INDEX IF NOT EXISTS idx_workspace_operations_workspace ON workspace_operations (workspace_id, id);
+-- Undo/redo stack of one user
+CREATE INDEX IF NOT EXISTS idx_workspace_operations_actor ON workspace_operations (workspace_id, actor_id, id);
+CREATE INDEX IF NOT EXISTS idx_workspace_operations_group ON workspace_operations (group_id);
+-- Compaction: drag runs still to be coalesced, and the retention cut-off
+CREATE INDEX IF NOT EXISTS idx_workspace_operations_coalescible ON workspace_operations (created_at) WHERE coalescible;
+CREATE INDEX IF NOT EXISTS idx_workspace_operations_created ON workspace_operations (created_at);
@@ -0,0 +1,67 @@
+-- =========================================================================
+-- Migration: V33__add_lww_field_clocks.sql
+-- Description: Per-field last-writer-wins registers for block and relation
+--              content. field_clocks maps a field ('name', 'config.<key>',
+--              'visual.<key>', 'rules.<key>') to the hybrid logical clock
+--              of its last accepted write, encoded so that text order under
+--              the "C" collation is clock order. A write only lands on the
+--              fields it is newer for, so concurrent edits merge in any
+--              arrival order without locks or version retries. Removed keys
+--              keep their clock as a tombstone.
+-- =========================================================================
+
+ALTER TABLE core_blocks ADD COLUMN IF NOT EXISTS field_clocks JSONB NOT NULL DEFAULT '{}'::JSONB;
+ALTER TABLE core_relations ADD COLUMN IF NOT EXISTS field_clocks JSONB NOT NULL DEFAULT '{}'::JSONB;
+
+CREATE OR REPLACE FUNCTION lww_field(prefix TEXT, field_key TEXT) RETURNS TEXT AS $$
+    SELECT CASE WHEN prefix = '' THEN field_key ELSE prefix || '.' || field_key END;
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION lww_newer(clocks JSONB, field TEXT, stamp TEXT) RETURNS BOOLEAN AS $$
+    SELECT COALESCE(clocks ->> field, '') COLLATE "C" < stamp COLLATE "C";
+$$ LANGUAGE sql IMMUTABLE;
+
+-- Applies the top-level keys of patch that are newer than their register; null removes the key.
+CREATE OR REPLACE FUNCTION lww_merge(doc JSONB, clocks JSONB, prefix TEXT, patch JSONB, stamp TEXT) RETURNS JSONB AS $$
+DECLARE
+    result JSONB := COALESCE(doc, '{}'::JSONB);
+    patch_key TEXT;
+    patch_value JSONB;
+BEGIN
+    IF patch IS NULL OR jsonb_typeof(patch) <> 'object' THEN
+        RETURN result;
+    END IF;
+
+    FOR patch_key, patch_value IN SELECT key, value FROM jsonb_each(patch) LOOP
+        IF lww_newer(clocks, lww_field(prefix, patch_key), stamp) THEN
+            IF jsonb_typeof(patch_value) = 'null' THEN
+                result := result - patch_key;
+            ELSE
+                result := jsonb_set(result, ARRAY[patch_key], patch_value, true);
+            END IF;
+        END IF;
+    END LOOP;
+
+    RETURN result;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+-- Advances the registers of the keys lww_merge applied for the same arguments.
+CREATE OR REPLACE FUNCTION lww_stamp(clocks JSONB, prefix TEXT, patch JSONB, stamp TEXT) RETURNS JSONB AS $$
+DECLARE
+    result JSONB := COALESCE(clocks, '{}'::JSONB);
+    patch_key TEXT;
+BEGIN
+    IF patch IS NULL OR jsonb_typeof(patch) <> 'object' THEN
+        RETURN result;
+    END IF;
+
+    FOR patch_key IN SELECT key FROM jsonb_each(patch) LOOP
+        IF lww_newer(clocks, lww_field(prefix, patch_key), stamp) THEN
+            result := jsonb_set(result, ARRAY[lww_field(prefix, patch_key)], to_jsonb(stamp), true);
+        END IF;
+    END LOOP;
+
+    RETURN result;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
@@ -0,0 +1,101 @@
+-- =========================================================================
+-- Migration: V34__add_clone_core_blocks.sql
+-- Description: Server-side copy of a workspace graph, or of selected
+--              subtrees, in one call. Old ids are remapped through a
+--              transaction-local table, so hierarchy, wires and invader
+--              usages are rewired inside the database without streaming
+--              rows through the application. Blocks are inserted one depth
+--              level at a time so the path trigger (V28) always finds the
+--              copied parent.
+-- =========================================================================
+
+CREATE OR REPLACE FUNCTION clone_core_blocks(
+    source_workspace UUID,
+    target_workspace UUID,
+    root_ids UUID[],
+    target_parent UUID,
+    actor UUID,
+    offset_x FLOAT8,
+    offset_y FLOAT8,
+    cloned_at TIMESTAMPTZ)
+RETURNS TABLE (blocks INT, relations INT, usages INT, max_depth INT) AS $$
+DECLARE
+    level INT;
+    inserted INT;
+BEGIN
+    CREATE TEMP TABLE IF NOT EXISTS core_block_clone_map (
+        old_id UUID PRIMARY KEY,
+        new_id UUID NOT NULL,
+        depth INT NOT NULL,
+        is_root BOOLEAN NOT NULL
+    ) ON COMMIT DELETE ROWS;
+    TRUNCATE core_block_clone_map;
+
+    -- NULL root_ids copies the whole workspace, otherwise each root with its live descendants
+    INSERT INTO core_block_clone_map (old_id, new_id, depth, is_root)
+    SELECT b.id, gen_random_uuid(), cardinality(b.path), FALSE
+    FROM core_blocks b
+    WHERE b.workspace_id = source_workspace
+      AND b.deleted_at IS NULL
+      AND (root_ids IS NULL OR b.id = ANY(root_ids) OR b.path && root_ids);
+
+    -- Blocks whose parent is not copied along become children of target_parent (or top level)
+    UPDATE core_block_clone_map m
+    SET is_root = TRUE
+    FROM core_blocks b
+    WHERE b.id = m.old_id
+      AND (b.parent_block_id IS NULL
+           OR NOT EXISTS (SELECT 1 FROM core_block_clone_map p WHERE p.old_id = b.parent_block_id));
+
+    blocks := 0;
+    FOR level IN SELECT DISTINCT depth FROM core_block_clone_map ORDER BY depth LOOP
+        INSERT INTO core_blocks (id, workspace_id, parent_block_id, origin_asset_id, type, name, config, visual,
+                                 created_by_id, created_at, updated_at, version)
+        SELECT m.new_id,
+               target_workspace,
+               CASE WHEN m.is_root THEN target_parent ELSE p.new_id END,
+               b.origin_asset_id,
+               b.type,
+               b.name,
+               b.config,
+               CASE WHEN m.is_root AND (offset_x <> 0 OR offset_y <> 0) AND jsonb_typeof(b.visual #> '{position,x}') = 'number'
+                                   AND jsonb_typeof(b.visual #> '{position,y}') = 'number'
+                    THEN jsonb_merge_patch(b.visual, jsonb_build_object('position', jsonb_build_object(
+                            'x', (b.visual #>> '{position,x}')::FLOAT8 + offset_x,
+                            'y', (b.visual #>> '{position,y}')::FLOAT8 + offset_y)))
+                    ELSE b.visual END,
+               actor,
+               cloned_at,
+               cloned_at,
+               0
+        FROM core_block_clone_map m
+        JOIN core_blocks b ON b.id = m.old_id
+        LEFT JOIN core_block_clone_map p ON p.old_id = b.parent_block_id
+        WHERE m.depth = level;
+        GET DIAGNOSTICS inserted = ROW_COUNT;
+        blocks := blocks + inserted;
+    END LOOP;
+
+    INSERT INTO core_relations (id, workspace_id, source_block_id, target_block_id, type, rules, visual,
+                                created_at, updated_at, version)
+    SELECT gen_random_uuid(), target_workspace, s.new_id, t.new_id, r.type, r.rules, r.visual, cloned_at, cloned_at, 0
+    FROM core_relations r
+    JOIN core_block_clone_map s ON s.old_id = r.source_block_id
+    JOIN core_block_clone_map t ON t.old_id = r.target_block_id
+    WHERE r.deleted_at IS NULL;
+    GET DIAGNOSTICS relations = ROW_COUNT;
+
+    INSERT INTO block_invader_usages (id, block_id, invader_asset_id, applied_version, config_snapshot, created_at)
+    SELECT gen_random_uuid(), m.new_id, u.invader_asset_id, u.applied_version, u.config_snapshot, cloned_at
+    FROM block_invader_usages u
+    JOIN core_block_clone_map m ON m.old_id = u.block_id
+    WHERE u.deleted_at IS NULL;
+    GET DIAGNOSTICS usages = ROW_COUNT;
+
+    SELECT COALESCE(MAX(cardinality(b.path)), 0) INTO max_depth
+    FROM core_blocks b
+    JOIN core_block_clone_map m ON m.new_id = b.id;
+
+    RETURN NEXT;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,108 @@
+-- =========================================================================
+-- Migration: V35__add_block_template_subgraph.sql
+-- Description: Composite block templates. A template may carry a subgraph
+--              (blocks addressed by template-local keys, plus wires between
+--              them) that instantiate_block_template() stamps out N times
+--              into a workspace in one call: keys are remapped to fresh ids
+--              per instance and top-level blocks are shifted per instance.
+--              Blocks go in one depth level at a time, as in V34.
+-- =========================================================================
+
+ALTER TABLE assets_block_templates ADD COLUMN IF NOT EXISTS subgraph JSONB;
+
+CREATE OR REPLACE FUNCTION instantiate_block_template(
+    template_id UUID,
+    target_workspace UUID,
+    target_parent UUID,
+    actor UUID,
+    copies INT,
+    origin_x FLOAT8,
+    origin_y FLOAT8,
+    step_x FLOAT8,
+    step_y FLOAT8,
+    created TIMESTAMPTZ)
+RETURNS TABLE (blocks INT, relations INT, max_depth INT) AS $$
+DECLARE
+    graph JSONB;
+    level INT;
+    inserted INT;
+BEGIN
+    SELECT t.subgraph INTO graph
+    FROM assets_block_templates t
+    WHERE t.id = template_id AND t.deleted_at IS NULL;
+
+    CREATE TEMP TABLE IF NOT EXISTS block_template_instance_map (
+        instance INT NOT NULL,
+        block_key TEXT NOT NULL,
+        new_id UUID NOT NULL,
+        depth INT NOT NULL,
+        PRIMARY KEY (instance, block_key)
+    ) ON COMMIT DELETE ROWS;
+    TRUNCATE block_template_instance_map;
+
+    -- Depth is bounded so a malformed definition cannot recurse forever
+    INSERT INTO block_template_instance_map (instance, block_key, new_id, depth)
+    WITH RECURSIVE nodes AS (
+        SELECT n."key", n."parentKey"
+        FROM jsonb_to_recordset(COALESCE(graph -> 'blocks', '[]'::JSONB)) AS n("key" TEXT, "parentKey" TEXT)
+    ), levels AS (
+        SELECT "key", 0 AS depth FROM nodes WHERE "parentKey" IS NULL
+        UNION ALL
+        SELECT n."key", l.depth + 1
+        FROM nodes n
+        JOIN levels l ON n."parentKey" = l."key"
+        WHERE l.depth < 10
+    )
+    SELECT i, l."key", gen_random_uuid(), l.depth
+    FROM levels l
+    CROSS JOIN generate_series(0, copies - 1) AS i;
+
+    blocks := 0;
+    FOR level IN SELECT DISTINCT depth FROM block_template_instance_map ORDER BY depth LOOP
+        INSERT INTO core_blocks (id, workspace_id, parent_block_id, origin_asset_id, type, name, config, visual,
+                                 created_by_id, created_at, updated_at, version)
+        SELECT m.new_id,
+               target_workspace,
+               CASE WHEN n."parentKey" IS NULL THEN target_parent ELSE p.new_id END,
+               template_id,
+               n.type,
+               n.name,
+               COALESCE(n.config, '{}'::JSONB),
+               CASE WHEN n."parentKey" IS NULL
+                    THEN jsonb_merge_patch(COALESCE(n.visual, '{}'::JSONB), jsonb_build_object('position', jsonb_build_object(
+                            'x', COALESCE(CASE WHEN jsonb_typeof(n.visual #> '{position,x}') = 'number'
+                                               THEN (n.visual #>> '{position,x}')::FLOAT8 END, 0) + origin_x + m.instance * step_x,
+                            'y', COALESCE(CASE WHEN jsonb_typeof(n.visual #> '{position,y}') = 'number'
+                                               THEN (n.visual #>> '{position,y}')::FLOAT8 END, 0) + origin_y + m.instance * step_y)))
+                    ELSE COALESCE(n.visual, '{}'::JSONB) END,
+               actor,
+               created,
+               created,
+               0
+        FROM block_template_instance_map m
+        JOIN jsonb_to_recordset(graph -> 'blocks')
+             AS n("key" TEXT, "parentKey" TEXT, type TEXT, name TEXT, config JSONB, visual JSONB)
+             ON n."key" = m.block_key
+        LEFT JOIN block_template_instance_map p ON p.instance = m.instance AND p.block_key = n."parentKey"
+        WHERE m.depth = level;
+        GET DIAGNOSTICS inserted = ROW_COUNT;
+        blocks := blocks + inserted;
+    END LOOP;
+
+    INSERT INTO core_relations (id, workspace_id, source_block_id, target_block_id, type, rules, visual,
+                                created_at, updated_at, version)
+    SELECT gen_random_uuid(), target_workspace, s.new_id, d.new_id, e.type,
+           COALESCE(e.rules, '{}'::JSONB), COALESCE(e.visual, '{}'::JSONB), created, created, 0
+    FROM jsonb_to_recordset(COALESCE(graph -> 'relations', '[]'::JSONB))
+         AS e("sourceKey" TEXT, "targetKey" TEXT, type TEXT, rules JSONB, visual JSONB)
+    JOIN block_template_instance_map s ON s.block_key = e."sourceKey"
+    JOIN block_template_instance_map d ON d.block_key = e."targetKey" AND d.instance = s.instance;
+    GET DIAGNOSTICS relations = ROW_COUNT;
+
+    SELECT COALESCE(MAX(cardinality(b.path)), 0) INTO max_depth
+    FROM core_blocks b
+    JOIN block_template_instance_map m ON m.new_id = b.id;
+
+    RETURN NEXT;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,157 @@
+-- =========================================================================
+-- Migration: V36__add_workspace_archive_import.sql
+-- Description: Bulk import of workspace archives. The importer streams
+--              archive frames into transaction-local staging tables, one
+--              set-based INSERT per frame, then a single call remaps ids
+--              and inserts blocks level by level (the path trigger of V28
+--              needs each parent first), wires and invader usages.
+--              References to warehouse assets that do not exist in this
+--              environment are dropped instead of failing the import.
+-- =========================================================================
+
+CREATE OR REPLACE FUNCTION workspace_import_staging()
+RETURNS VOID AS $$
+BEGIN
+    CREATE TEMP TABLE IF NOT EXISTS workspace_import_blocks (
+        old_id UUID PRIMARY KEY,
+        parent_id UUID,
+        origin_asset_id UUID,
+        type VARCHAR(100) NOT NULL,
+        name VARCHAR(255) NOT NULL,
+        config JSONB NOT NULL,
+        visual JSONB NOT NULL
+    ) ON COMMIT DROP;
+
+    CREATE TEMP TABLE IF NOT EXISTS workspace_import_relations (
+        source_id UUID NOT NULL,
+        target_id UUID NOT NULL,
+        type VARCHAR(50) NOT NULL,
+        rules JSONB NOT NULL,
+        visual JSONB NOT NULL
+    ) ON COMMIT DROP;
+
+    CREATE TEMP TABLE IF NOT EXISTS workspace_import_usages (
+        block_id UUID NOT NULL,
+        invader_asset_id UUID NOT NULL,
+        applied_version VARCHAR(20),
+        config_snapshot JSONB
+    ) ON COMMIT DROP;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION stage_workspace_import_blocks(batch JSONB)
+RETURNS INT AS $$
+DECLARE
+    staged INT;
+BEGIN
+    PERFORM workspace_import_staging();
+    INSERT INTO workspace_import_blocks (old_id, parent_id, origin_asset_id, type, name, config, visual)
+    SELECT r.id, r."parentId", r."originAssetId", r.type, r.name,
+           COALESCE(r.config, '{}'::jsonb), COALESCE(r.visual, '{}'::jsonb)
+    FROM jsonb_to_recordset(batch) AS r(id UUID, "parentId" UUID, "originAssetId" UUID, type TEXT, name TEXT,
+                                       config JSONB, visual JSONB)
+    ON CONFLICT (old_id) DO NOTHING;
+    GET DIAGNOSTICS staged = ROW_COUNT;
+    RETURN staged;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION stage_workspace_import_relations(batch JSONB)
+RETURNS INT AS $$
+DECLARE
+    staged INT;
+BEGIN
+    PERFORM workspace_import_staging();
+    INSERT INTO workspace_import_relations (source_id, target_id, type, rules, visual)
+    SELECT r."sourceId", r."targetId", r.type, COALESCE(r.rules, '{}'::jsonb), COALESCE(r.visual, '{}'::jsonb)
+    FROM jsonb_to_recordset(batch) AS r("sourceId" UUID, "targetId" UUID, type TEXT, rules JSONB, visual JSONB);
+    GET DIAGNOSTICS staged = ROW_COUNT;
+    RETURN staged;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION stage_workspace_import_usages(batch JSONB)
+RETURNS INT AS $$
+DECLARE
+    staged INT;
+BEGIN
+    PERFORM workspace_import_staging();
+    INSERT INTO workspace_import_usages (block_id, invader_asset_id, applied_version, config_snapshot)
+    SELECT r."blockId", r."invaderAssetId", r."appliedVersion", r."configSnapshot"
+    FROM jsonb_to_recordset(batch) AS r("blockId" UUID, "invaderAssetId" UUID, "appliedVersion" TEXT,
+                                       "configSnapshot" JSONB);
+    GET DIAGNOSTICS staged = ROW_COUNT;
+    RETURN staged;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION finish_workspace_import(
+    target_workspace UUID,
+    actor UUID,
+    imported_at TIMESTAMPTZ)
+RETURNS TABLE (staged_blocks INT, blocks INT, relations INT, usages INT, max_depth INT) AS $$
+DECLARE
+    level INT;
+    inserted INT;
+BEGIN
+    PERFORM workspace_import_staging();
+
+    CREATE TEMP TABLE IF NOT EXISTS workspace_import_map (
+        old_id UUID PRIMARY KEY,
+        new_id UUID NOT NULL,
+        depth INT NOT NULL
+    ) ON COMMIT DROP;
+    TRUNCATE workspace_import_map;
+
+    SELECT COUNT(*) INTO staged_blocks FROM workspace_import_blocks;
+
+    -- Depth from the archive's own hierarchy; blocks caught in a parent cycle are never reached
+    INSERT INTO workspace_import_map (old_id, new_id, depth)
+    WITH RECURSIVE levels AS (
+        SELECT s.old_id, 0 AS depth
+        FROM workspace_import_blocks s
+        WHERE s.parent_id IS NULL
+        UNION ALL
+        SELECT c.old_id, l.depth + 1
+        FROM workspace_import_blocks c
+        JOIN levels l ON c.parent_id = l.old_id
+        WHERE l.depth < 64
+    )
+    SELECT old_id, gen_random_uuid(), MIN(depth) FROM levels GROUP BY old_id;
+
+    blocks := 0;
+    FOR level IN SELECT DISTINCT depth FROM workspace_import_map ORDER BY depth LOOP
+        INSERT INTO core_blocks (id, workspace_id, parent_block_id, origin_asset_id, type, name, config, visual,
+                                 created_by_id, created_at, updated_at, version)
+        SELECT m.new_id, target_workspace, p.new_id, t.id, s.type, s.name, s.config, s.visual,
+               actor, imported_at, imported_at, 0
+        FROM workspace_import_map m
+        JOIN workspace_import_blocks s ON s.old_id = m.old_id
+        LEFT JOIN workspace_import_map p ON p.old_id = s.parent_id
+        LEFT JOIN assets_block_templates t ON t.id = s.origin_asset_id
+        WHERE m.depth = level;
+        GET DIAGNOSTICS inserted = ROW_COUNT;
+        blocks := blocks + inserted;
+    END LOOP;
+
+    INSERT INTO core_relations (id, workspace_id, source_block_id, target_block_id, type, rules, visual,
+                                created_at, updated_at, version)
+    SELECT gen_random_uuid(), target_workspace, src.new_id, tgt.new_id, r.type, r.rules, r.visual,
+           imported_at, imported_at, 0
+    FROM workspace_import_relations r
+    JOIN workspace_import_map src ON src.old_id = r.source_id
+    JOIN workspace_import_map tgt ON tgt.old_id = r.target_id;
+    GET DIAGNOSTICS relations = ROW_COUNT;
+
+    INSERT INTO block_invader_usages (id, block_id, invader_asset_id, applied_version, config_snapshot, created_at)
+    SELECT gen_random_uuid(), m.new_id, u.invader_asset_id, u.applied_version, u.config_snapshot, imported_at
+    FROM workspace_import_usages u
+    JOIN workspace_import_map m ON m.old_id = u.block_id
+    JOIN assets_invader_definitions d ON d.id = u.invader_asset_id;
+    GET DIAGNOSTICS usages = ROW_COUNT;
+
+    SELECT COALESCE(MAX(depth), 0) INTO max_depth FROM workspace_import_map;
+
+    RETURN NEXT;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,290 @@
+-- =========================================================================
+-- Migration: V37__add_uuid_v7_keys.sql
+-- Description: Time-ordered (RFC 9562 version 7) primary keys for the
+--              tables with the highest insert rates. Random v4 keys land
+--              on random B-tree pages; v7 keys start with a millisecond
+--              timestamp, so inserts append to the right edge of the index.
+--              Only column defaults and the bulk-copy functions change:
+--              existing v4 rows stay valid, both versions share the UUID
+--              type, and the application-side generator can be switched
+--              back (nox.id.uuid-version=4) without another migration.
+-- =========================================================================
+
+-- Timestamp over the first 48 bits of a v4, then the version nibble 0100 -> 0111
+CREATE OR REPLACE FUNCTION uuid_generate_v7()
+RETURNS UUID AS $$
+    SELECT encode(
+        set_bit(set_bit(
+            overlay(uuid_send(gen_random_uuid())
+                    PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::BIGINT) FROM 3)
+                    FROM 1 FOR 6),
+            52, 1), 53, 1),
+        'hex')::UUID;
+$$ LANGUAGE sql VOLATILE;
+
+ALTER TABLE core_blocks ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE core_relations ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE block_invader_usages ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE audit_logs ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE user_sessions ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+
+-- Bulk copies (clone, template instantiation, archive import) write thousands of
+-- rows per call; recreate them unchanged apart from the key generator.
+CREATE OR REPLACE FUNCTION clone_core_blocks(
+    source_workspace UUID,
+    target_workspace UUID,
+    root_ids UUID[],
+    target_parent UUID,
+    actor UUID,
+    offset_x FLOAT8,
+    offset_y FLOAT8,
+    cloned_at TIMESTAMPTZ)
+RETURNS TABLE (blocks INT, relations INT, usages INT, max_depth INT) AS $$
+DECLARE
+    level INT;
+    inserted INT;
+BEGIN
+    CREATE TEMP TABLE IF NOT EXISTS core_block_clone_map (
+        old_id UUID PRIMARY KEY,
+        new_id UUID NOT NULL,
+        depth INT NOT NULL,
+        is_root BOOLEAN NOT NULL
+    ) ON COMMIT DELETE ROWS;
+    TRUNCATE core_block_clone_map;
+
+    -- NULL root_ids copies the whole workspace, otherwise each root with its live descendants
+    INSERT INTO core_block_clone_map (old_id, new_id, depth, is_root)
+    SELECT b.id, uuid_generate_v7(), cardinality(b.path), FALSE
+    FROM core_blocks b
+    WHERE b.workspace_id = source_workspace
+      AND b.deleted_at IS NULL
+      AND (root_ids IS NULL OR b.id = ANY(root_ids) OR b.path && root_ids);
+
+    -- Blocks whose parent is not copied along become children of target_parent (or top level)
+    UPDATE core_block_clone_map m
+    SET is_root = TRUE
+    FROM core_blocks b
+    WHERE b.id = m.old_id
+      AND (b.parent_block_id IS NULL
+           OR NOT EXISTS (SELECT 1 FROM core_block_clone_map p WHERE p.old_id = b.parent_block_id));
+
+    blocks := 0;
+    FOR level IN SELECT DISTINCT depth FROM core_block_clone_map ORDER BY depth LOOP
+        INSERT INTO core_blocks (id, workspace_id, parent_block_id, origin_asset_id, type, name, config, visual,
+                                 created_by_id, created_at, updated_at, version)
+        SELECT m.new_id,
+               target_workspace,
+               CASE WHEN m.is_root THEN target_parent ELSE p.new_id END,
+               b.origin_asset_id,
+               b.type,
+               b.name,
+               b.config,
+               CASE WHEN m.is_root AND (offset_x <> 0 OR offset_y <> 0) AND jsonb_typeof(b.visual #> '{position,x}') = 'number'
+                                   AND jsonb_typeof(b.visual #> '{position,y}') = 'number'
+                    THEN jsonb_merge_patch(b.visual, jsonb_build_object('position', jsonb_build_object(
+                            'x', (b.visual #>> '{position,x}')::FLOAT8 + offset_x,
+                            'y', (b.visual #>> '{position,y}')::FLOAT8 + offset_y)))
+                    ELSE b.visual END,
+               actor,
+               cloned_at,
+               cloned_at,
+               0
+        FROM core_block_clone_map m
+        JOIN core_blocks b ON b.id = m.old_id
+        LEFT JOIN core_block_clone_map p ON p.old_id = b.parent_block_id
+        WHERE m.depth = level;
+        GET DIAGNOSTICS inserted = ROW_COUNT;
+        blocks := blocks + inserted;
+    END LOOP;
+
+    INSERT INTO core_relations (id, workspace_id, source_block_id, target_block_id, type, rules, visual,
+                                created_at, updated_at, version)
+    SELECT uuid_generate_v7(), target_workspace, s.new_id, t.new_id, r.type, r.rules, r.visual, cloned_at, cloned_at, 0
+    FROM core_relations r
+    JOIN core_block_clone_map s ON s.old_id = r.source_block_id
+    JOIN core_block_clone_map t ON t.old_id = r.target_block_id
+    WHERE r.deleted_at IS NULL;
+    GET DIAGNOSTICS relations = ROW_COUNT;
+
+    INSERT INTO block_invader_usages (id, block_id, invader_asset_id, applied_version, config_snapshot, created_at)
+    SELECT uuid_generate_v7(), m.new_id, u.invader_asset_id, u.applied_version, u.config_snapshot, cloned_at
+    FROM block_invader_usages u
+    JOIN core_block_clone_map m ON m.old_id = u.block_id
+    WHERE u.deleted_at IS NULL;
+    GET DIAGNOSTICS usages = ROW_COUNT;
+
+    SELECT COALESCE(MAX(cardinality(b.path)), 0) INTO max_depth
+    FROM core_blocks b
+    JOIN core_block_clone_map m ON m.new_id = b.id;
+
+    RETURN NEXT;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION instantiate_block_template(
+    template_id UUID,
+    target_workspace UUID,
+    target_parent UUID,
+    actor UUID,
+    copies INT,
+    origin_x FLOAT8,
+    origin_y FLOAT8,
+    step_x FLOAT8,
+    step_y FLOAT8,
+    created TIMESTAMPTZ)
+RETURNS TABLE (blocks INT, relations INT, max_depth INT) AS $$
+DECLARE
+    graph JSONB;
+    level INT;
+    inserted INT;
+BEGIN
+    SELECT t.subgraph INTO graph
+    FROM assets_block_templates t
+    WHERE t.id = template_id AND t.deleted_at IS NULL;
+
+    CREATE TEMP TABLE IF NOT EXISTS block_template_instance_map (
+        instance INT NOT NULL,
+        block_key TEXT NOT NULL,
+        new_id UUID NOT NULL,
+        depth INT NOT NULL,
+        PRIMARY KEY (instance, block_key)
+    ) ON COMMIT DELETE ROWS;
+    TRUNCATE block_template_instance_map;
+
+    -- Depth is bounded so a malformed definition cannot recurse forever
+    INSERT INTO block_template_instance_map (instance, block_key, new_id, depth)
+    WITH RECURSIVE nodes AS (
+        SELECT n."key", n."parentKey"
+        FROM jsonb_to_recordset(COALESCE(graph -> 'blocks', '[]'::JSONB)) AS n("key" TEXT, "parentKey" TEXT)
+    ), levels AS (
+        SELECT "key", 0 AS depth FROM nodes WHERE "parentKey" IS NULL
+        UNION ALL
+        SELECT n."key", l.depth + 1
+        FROM nodes n
+        JOIN levels l ON n."parentKey" = l."key"
+        WHERE l.depth < 10
+    )
+    SELECT i, l."key", uuid_generate_v7(), l.depth
+    FROM levels l
+    CROSS JOIN generate_series(0, copies - 1) AS i;
+
+    blocks := 0;
+    FOR level IN SELECT DISTINCT depth FROM block_template_instance_map ORDER BY depth LOOP
+        INSERT INTO core_blocks (id, workspace_id, parent_block_id, origin_asset_id, type, name, config, visual,
+                                 created_by_id, created_at, updated_at, version)
+        SELECT m.new_id,
+               target_workspace,
+               CASE WHEN n."parentKey" IS NULL THEN target_parent ELSE p.new_id END,
+               template_id,
+               n.type,
+               n.name,
+               COALESCE(n.config, '{}'::JSONB),
+               CASE WHEN n."parentKey" IS NULL
+                    THEN jsonb_merge_patch(COALESCE(n.visual, '{}'::JSONB), jsonb_build_object('position', jsonb_build_object(
+                            'x', COALESCE(CASE WHEN jsonb_typeof(n.visual #> '{position,x}') = 'number'
+                                               THEN (n.visual #>> '{position,x}')::FLOAT8 END, 0) + origin_x + m.instance * step_x,
+                            'y', COALESCE(CASE WHEN jsonb_typeof(n.visual #> '{position,y}') = 'number'
+                                               THEN (n.visual #>> '{position,y}')::FLOAT8 END, 0) + origin_y + m.instance * step_y)))
+                    ELSE COALESCE(n.visual, '{}'::JSONB) END,
+               actor,
+               created,
+               created,
+               0
+        FROM block_template_instance_map m
+        JOIN jsonb_to_recordset(graph -> 'blocks')
+             AS n("key" TEXT, "parentKey" TEXT, type TEXT, name TEXT, config JSONB, visual JSONB)
+             ON n."key" = m.block_key
+        LEFT JOIN block_template_instance_map p ON p.instance = m.instance AND p.block_key = n."parentKey"
+        WHERE m.depth = level;
+        GET DIAGNOSTICS inserted = ROW_COUNT;
+        blocks := blocks + inserted;
+    END LOOP;
+
+    INSERT INTO core_relations (id, workspace_id, source_block_id, target_block_id, type, rules, visual,
+                                created_at, updated_at, version)
+    SELECT uuid_generate_v7(), target_workspace, s.new_id, d.new_id, e.type,
+           COALESCE(e.rules, '{}'::JSONB), COALESCE(e.visual, '{}'::JSONB), created, created, 0
+    FROM jsonb_to_recordset(COALESCE(graph -> 'relations', '[]'::JSONB))
+         AS e("sourceKey" TEXT, "targetKey" TEXT, type TEXT, rules JSONB, visual JSONB)
+    JOIN block_template_instance_map s ON s.block_key = e."sourceKey"
+    JOIN block_template_instance_map d ON d.block_key = e."targetKey" AND d.instance = s.instance;
+    GET DIAGNOSTICS relations = ROW_COUNT;
+
+    SELECT COALESCE(MAX(cardinality(b.path)), 0) INTO max_depth
+    FROM core_blocks b
+    JOIN block_template_instance_map m ON m.new_id = b.id;
+
+    RETURN NEXT;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION finish_workspace_import(
+    target_workspace UUID,
+    actor UUID,
+    imported_at TIMESTAMPTZ)
+RETURNS TABLE (staged_blocks INT, blocks INT, relations INT, usages INT, max_depth INT) AS $$
+DECLARE
+    level INT;
+    inserted INT;
+BEGIN
+    PERFORM workspace_import_staging();
+
+    CREATE TEMP TABLE IF NOT EXISTS workspace_import_map (
+        old_id UUID PRIMARY KEY,
+        new_id UUID NOT NULL,
+        depth INT NOT NULL
+    ) ON COMMIT DROP;
+    TRUNCATE workspace_import_map;
+
+    SELECT COUNT(*) INTO staged_blocks FROM workspace_import_blocks;
+
+    -- Depth from the archive's own hierarchy; blocks caught in a parent cycle are never reached
+    INSERT INTO workspace_import_map (old_id, new_id, depth)
+    WITH RECURSIVE levels AS (
+        SELECT s.old_id, 0 AS depth
+        FROM workspace_import_blocks s
+        WHERE s.parent_id IS NULL
+        UNION ALL
+        SELECT c.old_id, l.depth + 1
+        FROM workspace_import_blocks c
+        JOIN levels l ON c.parent_id = l.old_id
+        WHERE l.depth < 64
+    )
+    SELECT old_id, uuid_generate_v7(), MIN(depth) FROM levels GROUP BY old_id;
+
+    blocks := 0;
+    FOR level IN SELECT DISTINCT depth FROM workspace_import_map ORDER BY depth LOOP
+        INSERT INTO core_blocks (id, workspace_id, parent_block_id, origin_asset_id, type, name, config, visual,
+                                 created_by_id, created_at, updated_at, version)
+        SELECT m.new_id, target_workspace, p.new_id, t.id, s.type, s.name, s.config, s.visual,
+               actor, imported_at, imported_at, 0
+        FROM workspace_import_map m
+        JOIN workspace_import_blocks s ON s.old_id = m.old_id
+        LEFT JOIN workspace_import_map p ON p.old_id = s.parent_id
+        LEFT JOIN assets_block_templates t ON t.id = s.origin_asset_id
+        WHERE m.depth = level;
+        GET DIAGNOSTICS inserted = ROW_COUNT;
+        blocks := blocks + inserted;
+    END LOOP;
+
+    INSERT INTO core_relations (id, workspace_id, source_block_id, target_block_id, type, rules, visual,
+                                created_at, updated_at, version)
+    SELECT uuid_generate_v7(), target_workspace, src.new_id, tgt.new_id, r.type, r.rules, r.visual,
+           imported_at, imported_at, 0
+    FROM workspace_import_relations r
+    JOIN workspace_import_map src ON src.old_id = r.source_id
+    JOIN workspace_import_map tgt ON tgt.old_id = r.target_id;
+    GET DIAGNOSTICS relations = ROW_COUNT;
+
+    INSERT INTO block_invader_usages (id, block_id, invader_asset_id, applied_version, config_snapshot, created_at)
+    SELECT uuid_generate_v7(), m.new_id, u.invader_asset_id, u.applied_version, u.config_snapshot, imported_at
+    FROM workspace_import_usages u
+    JOIN workspace_import_map m ON m.old_id = u.block_id
+    JOIN assets_invader_definitions d ON d.id = u.invader_asset_id;
+    GET DIAGNOSTICS usages = ROW_COUNT;
+
+    SELECT COALESCE(MAX(depth), 0) INTO max_depth FROM workspace_import_map;
+
+    RETURN NEXT;
+END;
+$$ LANGUAGE plpgsql;
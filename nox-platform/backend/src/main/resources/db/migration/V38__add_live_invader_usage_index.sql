@@ -0,0 +1,9 @@
+-- =========================================================================
+-- Migration: V38__add_live_invader_usage_index.sql
+-- Description: Index path for loading a workspace's live invader usages in
+--              one query: live blocks come from the workspace keyset index
+--              of V27, their live usages from this partial index in
+--              creation order.
+-- =========================================================================
+
+CREATE INDEX IF NOT EXISTS idx_block_invader_usages_live_block ON block_invader_usages (block_id, created_at) WHERE deleted_at IS NULL;
@@ -0,0 +1,12 @@
+-- =========================================================================
+-- Migration: V39__order_workspace_operation_ids_by_commit.sql
+-- Description: Operation ids were handed out in blocks of 50 per instance,
+--              so a higher id could commit before a lower one and the
+--              incremental feed and undo stacks, which walk the log by id,
+--              saw rows out of commit order. Ids are now drawn one at a
+--              time while the workspace's write lock is held (see
+--              WorkspaceOperationLog), which makes the id order of each
+--              workspace's log its commit order.
+-- =========================================================================
+
+ALTER SEQUENCE workspace_operations_id_seq INCREMENT BY 1;
@@ -0,0 +1,8 @@
+-- =========================================================================
+-- Migration: V40__index_workspace_operations_by_entity.sql
+-- Description: Drag-run compaction only merges a run when no other entry
+--              touched the same entity between its first and last row.
+--              This index answers that check per workspace and entity.
+-- =========================================================================
+
+CREATE INDEX IF NOT EXISTS idx_workspace_operations_entity ON workspace_operations (workspace_id, entity_id, id);
@@ -0,0 +1,47 @@
+-- =========================================================================
+-- Migration: V41__add_workspace_change_sequence.sql
+-- Description: Incremental sync used updated_at as its cursor, but that is
+--              the application's clock at write time, not commit time, so a
+--              slow transaction could commit rows below a cursor a client
+--              had already been handed. Every insert or update of a block
+--              or relation now draws a change sequence number while holding
+--              its workspace's write lock (the same advisory lock the
+--              workspace writer takes, held until commit). Within a
+--              workspace, sequence order is therefore commit order, and any
+--              writer still in flight stamps above everything committed.
+-- =========================================================================
+
+CREATE SEQUENCE IF NOT EXISTS workspace_change_seq;
+
+ALTER TABLE core_blocks ADD COLUMN IF NOT EXISTS change_seq BIGINT;
+ALTER TABLE core_relations ADD COLUMN IF NOT EXISTS change_seq BIGINT;
+
+-- PART 1: Backfill; existing rows all predate any sequence-based cursor
+UPDATE core_blocks SET change_seq = nextval('workspace_change_seq') WHERE change_seq IS NULL;
+UPDATE core_relations SET change_seq = nextval('workspace_change_seq') WHERE change_seq IS NULL;
+
+ALTER TABLE core_blocks ALTER COLUMN change_seq SET NOT NULL;
+ALTER TABLE core_relations ALTER COLUMN change_seq SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_core_blocks_change_seq ON core_blocks (workspace_id, change_seq);
+CREATE INDEX IF NOT EXISTS idx_core_relations_change_seq ON core_relations (workspace_id, change_seq);
+
+-- PART 2: Stamp every write, whichever path it takes (JPA, bulk SQL, triggers)
+CREATE OR REPLACE FUNCTION stamp_workspace_change() RETURNS TRIGGER AS $$
+BEGIN
+    -- Reentrant, so writers that already hold the lock are not held up by it
+    PERFORM pg_advisory_xact_lock(hashtext('workspace-writes'), hashtext(NEW.workspace_id::text));
+    NEW.change_seq := nextval('workspace_change_seq');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_core_blocks_change_seq ON core_blocks;
+CREATE TRIGGER trg_core_blocks_change_seq
+    BEFORE INSERT OR UPDATE ON core_blocks
+    FOR EACH ROW EXECUTE FUNCTION stamp_workspace_change();
+
+DROP TRIGGER IF EXISTS trg_core_relations_change_seq ON core_relations;
+CREATE TRIGGER trg_core_relations_change_seq
+    BEFORE INSERT OR UPDATE ON core_relations
+    FOR EACH ROW EXECUTE FUNCTION stamp_workspace_change();
@@ -0,0 +1,8 @@
+-- =========================================================================
+-- Migration: V42__drop_core_block_lock_columns.sql
+-- Description: Drops the unused pessimistic lock columns added in V18.
+-- Edit exclusivity is enforced by the Redis-backed block leases.
+-- =========================================================================
+
+ALTER TABLE core_blocks DROP COLUMN IF EXISTS locked_by;
+ALTER TABLE core_blocks DROP COLUMN IF EXISTS locked_at;
@@ -0,0 +1,17 @@
+-- =========================================================================
+-- Migration: V43__scope_core_block_bounds_index_by_workspace.sql
+-- Description: Replaces the bounds-only GiST index from V30 with one keyed
+--              on (workspace_id, bounds). Viewport queries always filter by
+--              workspace; with bounds alone the index returned every
+--              intersecting block of every workspace and the workspace
+--              filter ran on the heap. btree_gist provides the GiST
+--              operator class for the uuid column.
+-- =========================================================================
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+CREATE INDEX IF NOT EXISTS idx_core_blocks_workspace_bounds
+    ON core_blocks USING GIST (workspace_id, bounds)
+    WHERE deleted_at IS NULL;
+
+DROP INDEX IF EXISTS idx_core_blocks_bounds;
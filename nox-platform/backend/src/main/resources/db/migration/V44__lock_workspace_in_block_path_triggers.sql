@@ -0,0 +1,39 @@
+-- =========================================================================
+-- Migration: V44__lock_workspace_in_block_path_triggers.sql
+-- Description: The V28 path triggers copy the new parent's path and then
+--              rewrite every descendant from it. Two concurrent re-parents
+--              in one workspace (a writer bypassing the workspace writer,
+--              bulk SQL, manual fixes) could each read a path the other was
+--              about to change and leave stale descendant paths behind.
+--              Both functions now take the workspace write lock before they
+--              read anything, so path maintenance is serialized per
+--              workspace whichever path the write takes. The lock is
+--              reentrant and already held by the workspace writer and the
+--              V41 change-sequence trigger, so serialized writers pay
+--              nothing extra. Each statement below runs with a fresh
+--              snapshot taken after the lock is granted, so it sees the
+--              paths committed by the previous holder.
+-- =========================================================================
+
+CREATE OR REPLACE FUNCTION core_blocks_assign_path() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('workspace-writes'), hashtext(NEW.workspace_id::text));
+    IF NEW.parent_block_id IS NULL THEN
+        NEW.path := ARRAY[]::UUID[];
+    ELSE
+        SELECT p.path || p.id INTO NEW.path FROM core_blocks p WHERE p.id = NEW.parent_block_id;
+        NEW.path := COALESCE(NEW.path, ARRAY[]::UUID[]);
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION core_blocks_rewrite_descendant_paths() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('workspace-writes'), hashtext(NEW.workspace_id::text));
+    UPDATE core_blocks
+    SET path = NEW.path || path[array_position(path, NEW.id):]
+    WHERE path @> ARRAY[NEW.id];
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,102 @@
+-- =========================================================================
+-- Migration: V45__scope_workspace_import_assets.sql
+-- Description: finish_workspace_import (V36, V37) linked imported blocks to
+--              any block template and invader definition whose id the
+--              archive named, so a crafted archive could attach assets from
+--              another organization's private warehouse. Asset references
+--              now only resolve in live warehouses the importer can read:
+--              the one owned by the target project's organization and the
+--              importing user's personal one. Other references are dropped
+--              like references to assets missing from this environment.
+-- =========================================================================
+
+CREATE OR REPLACE FUNCTION finish_workspace_import(
+    target_workspace UUID,
+    actor UUID,
+    imported_at TIMESTAMPTZ)
+RETURNS TABLE (staged_blocks INT, blocks INT, relations INT, usages INT, max_depth INT) AS $$
+DECLARE
+    level INT;
+    inserted INT;
+    importing_org UUID;
+BEGIN
+    PERFORM workspace_import_staging();
+
+    SELECT p.org_id INTO importing_org
+    FROM workspaces w
+    JOIN projects p ON p.id = w.project_id
+    WHERE w.id = target_workspace;
+
+    -- Warehouses the import may link to: the project's organization and the importing user's own
+    CREATE TEMP TABLE IF NOT EXISTS workspace_import_warehouses (
+        id UUID PRIMARY KEY
+    ) ON COMMIT DROP;
+    TRUNCATE workspace_import_warehouses;
+    INSERT INTO workspace_import_warehouses (id)
+    SELECT wh.id
+    FROM warehouses wh
+    WHERE wh.deleted_at IS NULL
+      AND ((wh.owner_type = 'ORG' AND wh.owner_id = importing_org)
+        OR (wh.owner_type = 'USER' AND wh.owner_id = actor));
+
+    CREATE TEMP TABLE IF NOT EXISTS workspace_import_map (
+        old_id UUID PRIMARY KEY,
+        new_id UUID NOT NULL,
+        depth INT NOT NULL
+    ) ON COMMIT DROP;
+    TRUNCATE workspace_import_map;
+
+    SELECT COUNT(*) INTO staged_blocks FROM workspace_import_blocks;
+
+    -- Depth from the archive's own hierarchy; blocks caught in a parent cycle are never reached
+    INSERT INTO workspace_import_map (old_id, new_id, depth)
+    WITH RECURSIVE levels AS (
+        SELECT s.old_id, 0 AS depth
+        FROM workspace_import_blocks s
+        WHERE s.parent_id IS NULL
+        UNION ALL
+        SELECT c.old_id, l.depth + 1
+        FROM workspace_import_blocks c
+        JOIN levels l ON c.parent_id = l.old_id
+        WHERE l.depth < 64
+    )
+    SELECT old_id, uuid_generate_v7(), MIN(depth) FROM levels GROUP BY old_id;
+
+    blocks := 0;
+    FOR level IN SELECT DISTINCT depth FROM workspace_import_map ORDER BY depth LOOP
+        INSERT INTO core_blocks (id, workspace_id, parent_block_id, origin_asset_id, type, name, config, visual,
+                                 created_by_id, created_at, updated_at, version)
+        SELECT m.new_id, target_workspace, p.new_id, t.id, s.type, s.name, s.config, s.visual,
+               actor, imported_at, imported_at, 0
+        FROM workspace_import_map m
+        JOIN workspace_import_blocks s ON s.old_id = m.old_id
+        LEFT JOIN workspace_import_map p ON p.old_id = s.parent_id
+        LEFT JOIN (assets_block_templates t
+                   JOIN workspace_import_warehouses tw ON tw.id = t.warehouse_id) ON t.id = s.origin_asset_id
+        WHERE m.depth = level;
+        GET DIAGNOSTICS inserted = ROW_COUNT;
+        blocks := blocks + inserted;
+    END LOOP;
+
+    INSERT INTO core_relations (id, workspace_id, source_block_id, target_block_id, type, rules, visual,
+                                created_at, updated_at, version)
+    SELECT uuid_generate_v7(), target_workspace, src.new_id, tgt.new_id, r.type, r.rules, r.visual,
+           imported_at, imported_at, 0
+    FROM workspace_import_relations r
+    JOIN workspace_import_map src ON src.old_id = r.source_id
+    JOIN workspace_import_map tgt ON tgt.old_id = r.target_id;
+    GET DIAGNOSTICS relations = ROW_COUNT;
+
+    INSERT INTO block_invader_usages (id, block_id, invader_asset_id, applied_version, config_snapshot, created_at)
+    SELECT uuid_generate_v7(), m.new_id, u.invader_asset_id, u.applied_version, u.config_snapshot, imported_at
+    FROM workspace_import_usages u
+    JOIN workspace_import_map m ON m.old_id = u.block_id
+    JOIN assets_invader_definitions d ON d.id = u.invader_asset_id
+    JOIN workspace_import_warehouses dw ON dw.id = d.warehouse_id;
+    GET DIAGNOSTICS usages = ROW_COUNT;
+
+    SELECT COALESCE(MAX(depth), 0) INTO max_depth FROM workspace_import_map;
+
+    RETURN NEXT;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,134 @@
+package com.nox.platform.module.engine.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.nox.platform.module.engine.api.response.CoreBlockResponse;
+import com.nox.platform.module.engine.api.response.CoreRelationResponse;
+import com.nox.platform.shared.api.ApiResponse;
+import com.nox.platform.shared.model.RawJson;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Payload size and (de)serialization time of the Studio block and relation listings in JSON,
+ * Smile and CBOR. Excluded from {@code test}; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Studio Payload Format Benchmark")
+class PayloadFormatBenchmark {
+
+    private static final int BLOCKS = 5_000;
+    private static final int RELATIONS = 8_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    @Test
+    @DisplayName("Should shrink realistic workspace listings with binary formats")
+    void compareFormats() throws IOException {
+        // Given: a workspace shaped like production data
+        ObjectMapper json = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        Workspace workspace = workspace(new Random(42), json);
+        Map<String, ObjectMapper> formats = new LinkedHashMap<>();
+        formats.put("json", json);
+        formats.put("smile", json.copyWith(new SmileFactory()));
+        formats.put("cbor", json.copyWith(new CBORFactory()));
+
+        // When
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        System.out.printf("%-6s %12s %12s %12s%n", "format", "bytes", "write ms", "read ms");
+        for (Map.Entry<String, ObjectMapper> format : formats.entrySet()) {
+            ObjectMapper mapper = format.getValue();
+            Object blocks = ApiResponse.ok(workspace.blocks());
+            Object relations = workspace.relations();
+
+            byte[] blockBytes = mapper.writeValueAsBytes(blocks);
+            byte[] relationBytes = mapper.writeValueAsBytes(relations);
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                mapper.writeValueAsBytes(blocks);
+                mapper.writeValueAsBytes(relations);
+                mapper.readTree(blockBytes);
+                mapper.readTree(relationBytes);
+            }
+
+            long writeNanos = 0;
+            long readNanos = 0;
+            long sink = 0;
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                long start = System.nanoTime();
+                sink += mapper.writeValueAsBytes(blocks).length + mapper.writeValueAsBytes(relations).length;
+                long written = System.nanoTime();
+                JsonNode blockTree = mapper.readTree(blockBytes);
+                JsonNode relationTree = mapper.readTree(relationBytes);
+                readNanos += System.nanoTime() - written;
+                writeNanos += written - start;
+                sink += blockTree.size() + relationTree.size();
+            }
+
+            int size = blockBytes.length + relationBytes.length;
+            sizes.put(format.getKey(), size);
+            System.out.printf("%-6s %12d %12.2f %12.2f%n", format.getKey(), size,
+                    writeNanos / 1e6 / MEASURED_ROUNDS, readNanos / 1e6 / MEASURED_ROUNDS);
+            assertThat(sink).isPositive();
+        }
+
+        // Then
+        assertThat(sizes.get("smile")).isLessThan(sizes.get("json"));
+        assertThat(sizes.get("cbor")).isLessThan(sizes.get("json"));
+    }
+
+    private record Workspace(List<CoreBlockResponse> blocks, List<CoreRelationResponse> relations) {
+    }
+
+    private static Workspace workspace(Random random, ObjectMapper json) {
+        UUID workspaceId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        OffsetDateTime updatedAt = OffsetDateTime.of(2026, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        String[] types = {"service", "database", "queue", "gateway", "function", "group"};
+
+        List<CoreBlockResponse> blocks = new ArrayList<>(BLOCKS);
+        for (int i = 0; i < BLOCKS; i++) {
+            UUID parentId = i > 10 && random.nextInt(3) > 0 ? blocks.get(random.nextInt(10)).id() : null;
+            Map<String, Object> config = new LinkedHashMap<>();
+            config.put("runtime", random.nextBoolean() ? "java21" : "node20");
+            config.put("replicas", 1 + random.nextInt(8));
+            config.put("memoryMb", 256 * (1 + random.nextInt(8)));
+            config.put("env", Map.of("LOG_LEVEL", "info", "REGION", "eu-west-1", "FEATURE_FLAGS", "a,b,c"));
+            config.put("ports", List.of(Map.of("name", "http", "port", 8080), Map.of("name", "metrics", "port", 9090)));
+            config.put("description", "Handles " + types[i % types.length] + " traffic for tenant " + (i % 50));
+            Map<String, Object> visual = new LinkedHashMap<>();
+            visual.put("position", Map.of("x", random.nextDouble() * 20_000, "y", random.nextDouble() * 20_000));
+            visual.put("size", Map.of("width", 180 + random.nextInt(120), "height", 60 + random.nextInt(80)));
+            visual.put("style", Map.of("color", "#3b82f6", "border", "solid", "collapsed", random.nextBoolean()));
+            blocks.add(new CoreBlockResponse(UUID.randomUUID(), workspaceId, parentId, null,
+                    types[i % types.length], "Block " + i, RawJson.of(config, json), RawJson.of(visual, json), userId, updatedAt, null));
+        }
+
+        List<CoreRelationResponse> relations = new ArrayList<>(RELATIONS);
+        for (int i = 0; i < RELATIONS; i++) {
+            Map<String, Object> rules = Map.of("protocol", "http", "timeoutMs", 500 + random.nextInt(2000), "retries", random.nextInt(4));
+            Map<String, Object> visual = Map.of("sourceHandle", "out-" + random.nextInt(4), "targetHandle", "in-" + random.nextInt(4),
+                    "animated", random.nextBoolean(), "label", "calls");
+            relations.add(new CoreRelationResponse(UUID.randomUUID(), workspaceId,
+                    blocks.get(random.nextInt(BLOCKS)).id(), blocks.get(random.nextInt(BLOCKS)).id(),
+                    "calls", RawJson.of(rules, json), RawJson.of(visual, json), null));
+        }
+        return new Workspace(blocks, relations);
+    }
+}
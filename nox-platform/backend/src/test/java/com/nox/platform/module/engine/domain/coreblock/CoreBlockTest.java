@@ -9,8 +9,11 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -37,90 +40,18 @@ class CoreBlockTest {
                 .build();
     }
 
-    @Nested
-    @DisplayName("Locking Logic Tests")
-    class LockingTests {
-
-        @Test
-        @DisplayName("Should successfully lock an unlocked block")
-        void shouldLockUnlockedBlock() {
-            // When
-            block.lock(userId, now);
-
-            // Then
-            assertThat(block.getLockedBy()).isEqualTo(userId);
-            assertThat(block.getLockedAt()).isEqualTo(now);
-        }
-
-        @Test
-        @DisplayName("Should allow locking if the lock is expired (older than 2 minutes)")
-        void shouldLockIfPreviousLockExpired() {
-            // Given
-            UUID otherUserId = UUID.randomUUID();
-            OffsetDateTime oldTime = now.minusMinutes(3);
-            block.lock(otherUserId, oldTime);
-
-            // When
-            block.lock(userId, now);
-
-            // Then
-            assertThat(block.getLockedBy()).isEqualTo(userId);
-        }
-
-        @Test
-        @DisplayName("Should throw exception when locking a block currently locked by another user")
-        void shouldThrowExceptionWhenLockedByOther() {
-            // Given
-            UUID otherUserId = UUID.randomUUID();
-            OffsetDateTime recentTime = now.minusMinutes(1);
-            block.lock(otherUserId, recentTime);
-
-            // When & Then
-            assertThatThrownBy(() -> block.lock(userId, now))
-                    .isInstanceOf(DomainException.class)
-                    .hasFieldOrPropertyWithValue("code", "BLOCK_LOCKED");
-        }
-
-        @Test
-        @DisplayName("Should successfully unlock a block locked by the same user")
-        void shouldUnlockBySameUser() {
-            // Given
-            block.lock(userId, now);
-
-            // When
-            block.unlock(userId, now.plusSeconds(30));
-
-            // Then
-            assertThat(block.getLockedBy()).isNull();
-            assertThat(block.getLockedAt()).isNull();
-        }
-
-        @Test
-        @DisplayName("Should throw exception when unlocking a block locked by someone else")
-        void shouldThrowExceptionWhenUnlockingOthersLock() {
-            // Given
-            UUID otherUserId = UUID.randomUUID();
-            block.lock(otherUserId, now);
-
-            // When & Then
-            assertThatThrownBy(() -> block.unlock(userId, now.plusSeconds(10)))
-                    .isInstanceOf(DomainException.class)
-                    .hasFieldOrPropertyWithValue("code", "BLOCK_LOCKED");
-        }
-    }
-
     @Nested
     @DisplayName("Content Update Tests")
     class ContentUpdateTests {
 
         @Test
-        @DisplayName("Should update content when not locked")
-        void shouldUpdateContentWhenNotLocked() {
+        @DisplayName("Should update the provided content fields")
+        void shouldUpdateContent() {
             // Given
             Map<String, Object> newConfig = Map.of("key", "value");
 
             // When
-            block.updateContent("New Name", newConfig, null, userId, now);
+            block.updateContent("New Name", newConfig, null, now);
 
             // Then
             assertThat(block.getName()).isEqualTo("New Name");
@@ -128,31 +59,18 @@ class CoreBlockTest {
         }
 
         @Test
-        @DisplayName("Should update content when locked by the same user")
-        void shouldUpdateContentWhenLockedBySameUser() {
+        @DisplayName("Should leave fields that are not provided unchanged")
+        void shouldKeepFieldsNotProvided() {
             // Given
-            block.lock(userId, now.minusSeconds(10));
             Map<String, Object> newVisual = Map.of("color", "red");
 
             // When
-            block.updateContent(null, null, newVisual, userId, now);
+            block.updateContent(null, null, newVisual, now);
 
             // Then
+            assertThat(block.getName()).isEqualTo("Test Block");
             assertThat(block.getVisual()).isEqualTo(newVisual);
         }
-
-        @Test
-        @DisplayName("Should throw exception when updating content locked by another user")
-        void shouldThrowWhenUpdatingLockedByOther() {
-            // Given
-            UUID otherUserId = UUID.randomUUID();
-            block.lock(otherUserId, now.minusSeconds(10));
-
-            // When & Then
-            assertThatThrownBy(() -> block.updateContent("New Name", null, null, userId, now))
-                    .isInstanceOf(DomainException.class)
-                    .hasFieldOrPropertyWithValue("code", "BLOCK_LOCKED");
-        }
     }
 
     @Nested
@@ -233,5 +151,66 @@ class CoreBlockTest {
                     .isInstanceOf(DomainException.class)
                     .hasFieldOrPropertyWithValue("code", "MAX_DEPTH_REACHED");
         }
+
+        @Test
+        @DisplayName("Should detect circular dependency through an id-based hierarchy view")
+        void shouldDetectCircularDependencyWithHierarchyView() {
+            // Given: parent1 -> block (block is parent1's parent in the cached view)
+            CoreBlock parent1 = CoreBlock.builder().id(UUID.randomUUID()).build();
+            Map<UUID, UUID> parents = Map.of(parent1.getId(), block.getId());
+
+            // When & Then
+            assertThatThrownBy(() -> block.moveTo(parent1, parents::get))
+                    .isInstanceOf(DomainException.class)
+                    .hasFieldOrPropertyWithValue("code", "CIRCULAR_DEPENDENCY");
+        }
+
+        @Test
+        @DisplayName("Should validate moves against a materialized ancestor path")
+        void shouldValidateMoveAgainstAncestorPath() {
+            // Given
+            CoreBlock parent = CoreBlock.builder().id(UUID.randomUUID()).build();
+
+            // When & Then: the moving block appears in the parent's ancestor path
+            assertThatThrownBy(() -> block.moveTo(parent, List.of(UUID.randomUUID(), block.getId())))
+                    .isInstanceOf(DomainException.class)
+                    .hasFieldOrPropertyWithValue("code", "CIRCULAR_DEPENDENCY");
+
+            // When & Then: the parent already sits 11 levels deep
+            List<UUID> deepPath = Stream.generate(UUID::randomUUID).limit(11).toList();
+            assertThatThrownBy(() -> block.moveTo(parent, deepPath))
+                    .isInstanceOf(DomainException.class)
+                    .hasFieldOrPropertyWithValue("code", "MAX_DEPTH_REACHED");
+
+            // When: a valid path
+            block.moveTo(parent, List.of(UUID.randomUUID()));
+
+            // Then
+            assertThat(block.getParentBlock()).isEqualTo(parent);
+        }
+
+        @Test
+        @DisplayName("Should enforce maximum depth through an id-based hierarchy view")
+        void shouldEnforceMaxDepthWithHierarchyView() {
+            // Given: a chain of 12 ids where each points to the previous one
+            Map<UUID, UUID> parents = new HashMap<>();
+            UUID previous = UUID.randomUUID();
+            for (int i = 0; i < 11; i++) {
+                UUID next = UUID.randomUUID();
+                parents.put(next, previous);
+                previous = next;
+            }
+            CoreBlock deepestParent = CoreBlock.builder().id(previous).build();
+
+            // When & Then
+            assertThatThrownBy(() -> block.moveTo(deepestParent, parents::get))
+                    .isInstanceOf(DomainException.class)
+                    .hasFieldOrPropertyWithValue("code", "MAX_DEPTH_REACHED");
+
+            // A shallow move through the same view succeeds without touching entity parents
+            CoreBlock shallowParent = CoreBlock.builder().id(UUID.randomUUID()).build();
+            block.moveTo(shallowParent, parents::get);
+            assertThat(block.getParentBlock()).isEqualTo(shallowParent);
+        }
     }
 }
@@ -13,7 +13,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -96,6 +98,120 @@ class CoreBlockRepositoryIntegrationTest extends BaseIntegrationTest {
         assertThat(descendantIds).doesNotContain(unrelated.getId());
     }
 
+    @Test
+    @DisplayName("Should rewrite materialized paths of the whole subtree when a block is moved")
+    void shouldRewriteDescendantPathsOnMove() {
+        // Given: Parent -> Child -> Grandchild, and a separate root
+        CoreBlock parent = createBlock("Parent", null);
+        CoreBlock child = createBlock("Child", parent);
+        CoreBlock grandchild = createBlock("Grandchild", child);
+        CoreBlock newRoot = createBlock("New Root", null);
+
+        // When: Child is moved under New Root
+        child.moveTo(newRoot);
+        coreBlockRepository.saveAndFlush(child);
+
+        // Then
+        assertThat(coreBlockRepository.findAncestorIds(grandchild.getId()))
+                .containsExactly(newRoot.getId(), child.getId());
+        assertThat(coreBlockRepository.findDescendantBlockIdsByRootId(newRoot.getId()))
+                .containsExactlyInAnyOrder(newRoot.getId(), child.getId(), grandchild.getId());
+        assertThat(coreBlockRepository.findDescendantBlockIdsByRootId(parent.getId()))
+                .containsExactly(parent.getId());
+    }
+
+    @Test
+    @DisplayName("Should apply RFC 7396 merge patches to block config in SQL")
+    void shouldMergePatchConfig() {
+        // Given
+        CoreBlock block = CoreBlock.builder()
+                .workspace(workspace)
+                .name("Patched")
+                .type("logic")
+                .config(Map.of("a", 1, "drop", true, "nested", Map.of("x", 1, "y", 2)))
+                .createdBy(user)
+                .build();
+        block.initializeTimestamps(OffsetDateTime.now());
+        block = coreBlockRepository.save(block);
+
+        // When: remove a top-level and a nested key, add new ones, leave visual untouched
+        int updated = coreBlockRepository.mergePatchContent(block.getId(),
+                "{\"drop\": null, \"b\": \"new\", \"nested\": {\"y\": null, \"z\": 3}}",
+                "{}",
+                OffsetDateTime.now());
+
+        // Then
+        assertThat(updated).isEqualTo(1);
+        CoreBlock reloaded = coreBlockRepository.findById(block.getId()).orElseThrow();
+        assertThat(reloaded.getConfig()).isEqualTo(Map.of("a", 1, "b", "new", "nested", Map.of("x", 1, "z", 3)));
+        assertThat(reloaded.getVisual()).isEmpty();
+        assertThat(reloaded.getVersion()).isEqualTo(block.getVersion() + 1);
+    }
+
+    @Test
+    @DisplayName("Should return only same-level blocks whose bounds intersect the viewport")
+    void shouldFindBlocksInViewport() {
+        // Given: two root blocks far apart and one child of the visible block
+        CoreBlock visible = createBlockAt("Visible", null, 100, 100);
+        createBlockAt("Far Away", null, 5000, 5000);
+        createBlockAt("Nested", visible, 120, 120);
+
+        // When
+        List<CoreBlock> inView = coreBlockRepository.findInViewport(workspace.getId(), null, 0, 0, 1000, 1000, 100);
+
+        // Then
+        assertThat(inView).extracting(CoreBlock::getName).containsExactly("Visible");
+    }
+
+    @Test
+    @DisplayName("Should restore only the blocks removed by the same cascade as the root")
+    void shouldRestoreSubtreeDeletedTogether() {
+        // Given: Parent -> Child -> Grandchild, where Grandchild was deleted on its own earlier
+        CoreBlock parent = createBlock("Parent", null);
+        CoreBlock child = createBlock("Child", parent);
+        CoreBlock grandchild = createBlock("Grandchild", child);
+        OffsetDateTime earlier = OffsetDateTime.now().minusHours(1).truncatedTo(ChronoUnit.MICROS);
+        OffsetDateTime cascadeAt = OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        coreBlockRepository.softDeleteBlocksByIds(List.of(grandchild.getId()), earlier);
+        coreBlockRepository.softDeleteBlocksByIds(List.of(parent.getId(), child.getId()), cascadeAt);
+
+        // When
+        List<UUID> subtree = coreBlockRepository.findSubtreeIdsDeletedAt(parent.getId(), cascadeAt);
+        int restored = coreBlockRepository.restoreBlocksByIds(subtree, cascadeAt, OffsetDateTime.now());
+
+        // Then
+        assertThat(subtree).containsExactlyInAnyOrder(parent.getId(), child.getId());
+        assertThat(restored).isEqualTo(2);
+        assertThat(coreBlockRepository.findDescendantBlockIdsByRootId(parent.getId()))
+                .containsExactlyInAnyOrder(parent.getId(), child.getId());
+    }
+
+    @Test
+    @DisplayName("Should clone a selected subtree with remapped ids, hierarchy and offset")
+    void shouldCloneSubtreeWithRemappedIds() {
+        // Given: Parent -> Child, plus an unselected root
+        CoreBlock parent = createBlockAt("Parent", null, 100, 100);
+        CoreBlock child = createBlockAt("Child", parent, 10, 10);
+        createBlock("Unselected", null);
+        coreBlockRepository.flush();
+
+        // When
+        CoreBlockRepository.CloneCountsView counts = coreBlockRepository.cloneBlocks(workspace.getId(), workspace.getId(),
+                "[\"" + parent.getId() + "\"]", null, user.getId(), 50, 0, OffsetDateTime.now());
+        Map<UUID, UUID> ids = new java.util.HashMap<>();
+        coreBlockRepository.findCloneMappings().forEach(m -> ids.put(m.getOldId(), m.getNewId()));
+
+        // Then: the copied child hangs under the copied parent; only the copied root is shifted
+        assertThat(counts.getBlocks()).isEqualTo(2);
+        assertThat(counts.getMaxDepth()).isEqualTo(1);
+        assertThat(ids).containsOnlyKeys(parent.getId(), child.getId());
+        assertThat(coreBlockRepository.findAncestorIds(ids.get(child.getId()))).containsExactly(ids.get(parent.getId()));
+        CoreBlock parentCopy = coreBlockRepository.findById(ids.get(parent.getId())).orElseThrow();
+        CoreBlock childCopy = coreBlockRepository.findById(ids.get(child.getId())).orElseThrow();
+        assertThat(positionX(parentCopy)).isEqualTo(150.0);
+        assertThat(positionX(childCopy)).isEqualTo(10.0);
+    }
+
     @Test
     @DisplayName("Should correctly filter blocks by Workspace ID")
     void shouldFilterByWorkspace() {
@@ -129,6 +245,24 @@ class CoreBlockRepositoryIntegrationTest extends BaseIntegrationTest {
         assertThat(blocks.get(0).getName()).isEqualTo("W1 Block");
     }
 
+    private double positionX(CoreBlock block) {
+        Map<?, ?> position = (Map<?, ?>) block.getVisual().get("position");
+        return ((Number) position.get("x")).doubleValue();
+    }
+
+    private CoreBlock createBlockAt(String name, CoreBlock parent, double x, double y) {
+        CoreBlock block = CoreBlock.builder()
+                .workspace(workspace)
+                .parentBlock(parent)
+                .name(name)
+                .type("logic")
+                .visual(Map.of("position", Map.of("x", x, "y", y)))
+                .createdBy(user)
+                .build();
+        block.initializeTimestamps(OffsetDateTime.now());
+        return coreBlockRepository.save(block);
+    }
+
     private CoreBlock createBlock(String name, CoreBlock parent) {
         CoreBlock block = CoreBlock.builder()
                 .workspace(workspace)
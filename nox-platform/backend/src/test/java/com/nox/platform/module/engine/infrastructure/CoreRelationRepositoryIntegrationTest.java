@@ -0,0 +1,241 @@
+package com.nox.platform.module.engine.infrastructure;
+
+import com.nox.platform.BaseIntegrationTest;
+import com.nox.platform.module.engine.api.request.CreateCoreRelationRequest;
+import com.nox.platform.module.engine.api.request.UpdateCoreRelationRequest;
+import com.nox.platform.module.engine.domain.CoreBlock;
+import com.nox.platform.module.engine.domain.CoreRelation;
+import com.nox.platform.module.engine.domain.Project;
+import com.nox.platform.module.engine.domain.Workspace;
+import com.nox.platform.module.engine.domain.WorkspaceStatus;
+import com.nox.platform.module.engine.domain.WorkspaceType;
+import com.nox.platform.module.engine.service.CoreRelationService;
+import com.nox.platform.module.iam.domain.User;
+import com.nox.platform.module.iam.infrastructure.UserRepository;
+import com.nox.platform.module.iam.infrastructure.security.CustomUserDetails;
+import com.nox.platform.module.tenant.domain.Organization;
+import com.nox.platform.module.tenant.infrastructure.OrganizationRepository;
+import com.nox.platform.shared.exception.DomainException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Port uniqueness of relations: the partial unique index from V31, the duplicates it retires, and
+ * how the service reports a rejected wire. The service runs inline in the test transaction.
+ */
+@Transactional
+@DisplayName("CoreRelationRepository Integration Tests (PostgreSQL)")
+class CoreRelationRepositoryIntegrationTest extends BaseIntegrationTest {
+
+    private static final String PORT_MIGRATION = "db/migration/V31__promote_relation_port_handles.sql";
+
+    @Autowired
+    private CoreRelationRepository coreRelationRepository;
+
+    @Autowired
+    private CoreRelationService coreRelationService;
+
+    @Autowired
+    private CoreBlockRepository coreBlockRepository;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Workspace workspace;
+    private User user;
+    private CoreBlock source;
+    private CoreBlock target;
+
+    @BeforeEach
+    void setUp() {
+        Organization organization = Organization.builder()
+                .name("Relation Test Org")
+                .slug("relation-org-" + UUID.randomUUID())
+                .build();
+        organization.initializeTimestamps(OffsetDateTime.now());
+        organization = organizationRepository.save(organization);
+
+        user = User.builder()
+                .email("relation-" + UUID.randomUUID() + "@example.com")
+                .fullName("Relation User")
+                .build();
+        user.initializeTimestamps(OffsetDateTime.now());
+        user = userRepository.save(user);
+
+        Project project = Project.builder()
+                .organization(organization)
+                .createdBy(user)
+                .name("Relation Project")
+                .slug("relation-project-" + UUID.randomUUID())
+                .build();
+        project.initializeTimestamps(OffsetDateTime.now());
+        project = projectRepository.save(project);
+
+        workspace = Workspace.builder()
+                .project(project)
+                .createdBy(user)
+                .name("Relation Workspace")
+                .type(WorkspaceType.CANVAS)
+                .status(WorkspaceStatus.DRAFT)
+                .build();
+        workspace.initializeTimestamps(OffsetDateTime.now());
+        workspace = workspaceRepository.save(workspace);
+
+        source = createBlock("Source");
+        target = createBlock("Target");
+
+        CustomUserDetails principal = new CustomUserDetails(user.getId(), organization.getId(), user.getEmail(), "", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should reject a second live wire between the same ports, handle-less ones included")
+    void shouldRejectDuplicateLivePortConnection() {
+        // Given: a wire without handles, which the pre-V31 expression index let through twice
+        createRelation(Map.of(), OffsetDateTime.now());
+
+        // When / Then
+        assertThatThrownBy(() -> createRelation(Map.of(), OffsetDateTime.now()))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("uq_core_relations_port");
+    }
+
+    @Test
+    @DisplayName("Should allow wiring the same ports again once the earlier wire is soft-deleted, or on other ports")
+    void shouldAllowSoftDeletedDuplicateAndOtherPorts() {
+        // Given
+        CoreRelation deleted = createRelation(handles("out", "in"), OffsetDateTime.now());
+        deleted.softDelete(OffsetDateTime.now());
+        coreRelationRepository.saveAndFlush(deleted);
+
+        // When
+        createRelation(handles("out", "in"), OffsetDateTime.now());
+        createRelation(handles("out", "other"), OffsetDateTime.now());
+
+        // Then
+        assertThat(liveRelationIds()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should soft-delete all but the oldest of duplicate live wires when V31 runs")
+    void shouldRetireDuplicatesOnMigration() throws IOException {
+        // Given: duplicates written while only the old index existed (dropped here, restored by the script)
+        jdbcTemplate.execute("DROP INDEX uq_core_relations_port");
+        OffsetDateTime now = OffsetDateTime.now();
+        CoreRelation oldest = createRelation(Map.of(), now.minusMinutes(3));
+        createRelation(Map.of(), now.minusMinutes(2));
+        createRelation(Map.of(), now.minusMinutes(1));
+        CoreRelation otherPort = createRelation(handles("out", "in"), now);
+
+        // When
+        jdbcTemplate.execute(new ClassPathResource(PORT_MIGRATION).getContentAsString(StandardCharsets.UTF_8));
+
+        // Then
+        assertThat(liveRelationIds()).containsExactlyInAnyOrder(oldest.getId(), otherPort.getId());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM core_relations WHERE source_block_id = ? AND deleted_at IS NOT NULL",
+                Integer.class, source.getId())).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_indexes WHERE indexname = 'uq_core_relations_port'",
+                Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should report a wire rejected by the port index on create as RELATION_EXISTS")
+    void shouldTranslatePortConflictOnCreate() {
+        // Given: the graph is not cached, so only the unique index can catch the duplicate
+        createRelation(handles("out", "in"), OffsetDateTime.now());
+
+        // When / Then
+        assertThatThrownBy(() -> coreRelationService.createRelation(workspace.getId(), new CreateCoreRelationRequest(
+                source.getId(), target.getId(), "flow", null, handles("out", "in"))))
+                .isInstanceOf(DomainException.class)
+                .extracting(e -> ((DomainException) e).getCode())
+                .isEqualTo("RELATION_EXISTS");
+    }
+
+    @Test
+    @DisplayName("Should report an update that moves a wire onto taken ports as RELATION_EXISTS")
+    void shouldTranslatePortConflictOnUpdate() {
+        // Given
+        createRelation(handles("out", "in"), OffsetDateTime.now());
+        CoreRelation other = createRelation(handles("out", "other"), OffsetDateTime.now());
+
+        // When / Then
+        assertThatThrownBy(() -> coreRelationService.updateRelation(workspace.getId(), other.getId(),
+                new UpdateCoreRelationRequest(null, handles("out", "in"), null, null)))
+                .isInstanceOf(DomainException.class)
+                .extracting(e -> ((DomainException) e).getCode())
+                .isEqualTo("RELATION_EXISTS");
+    }
+
+    private List<UUID> liveRelationIds() {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM core_relations WHERE source_block_id = ? AND deleted_at IS NULL",
+                UUID.class, source.getId());
+    }
+
+    private static Map<String, Object> handles(String sourceHandle, String targetHandle) {
+        return Map.of("sourceHandle", sourceHandle, "targetHandle", targetHandle);
+    }
+
+    private CoreRelation createRelation(Map<String, Object> visual, OffsetDateTime createdAt) {
+        CoreRelation relation = CoreRelation.builder()
+                .workspace(workspace)
+                .sourceBlock(source)
+                .targetBlock(target)
+                .type("flow")
+                .visual(visual)
+                .build();
+        relation.initializeTimestamps(createdAt);
+        return coreRelationRepository.saveAndFlush(relation);
+    }
+
+    private CoreBlock createBlock(String name) {
+        CoreBlock block = CoreBlock.builder()
+                .workspace(workspace)
+                .name(name)
+                .type("logic")
+                .createdBy(user)
+                .build();
+        block.initializeTimestamps(OffsetDateTime.now());
+        return coreBlockRepository.save(block);
+    }
+}
@@ -0,0 +1,227 @@
+package com.nox.platform.module.engine.infrastructure;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nox.platform.BaseIntegrationTest;
+import com.nox.platform.module.engine.domain.Project;
+import com.nox.platform.module.engine.domain.Workspace;
+import com.nox.platform.module.engine.domain.WorkspaceStatus;
+import com.nox.platform.module.engine.domain.WorkspaceType;
+import com.nox.platform.module.iam.domain.User;
+import com.nox.platform.module.iam.infrastructure.UserRepository;
+import com.nox.platform.module.tenant.domain.Organization;
+import com.nox.platform.module.tenant.infrastructure.OrganizationRepository;
+import com.nox.platform.module.warehouse.domain.BlockTemplate;
+import com.nox.platform.module.warehouse.domain.BlockTemplateSubgraph;
+import com.nox.platform.module.warehouse.domain.InvaderDefinition;
+import com.nox.platform.module.warehouse.domain.OwnerType;
+import com.nox.platform.module.warehouse.domain.Warehouse;
+import com.nox.platform.module.warehouse.infrastructure.BlockTemplateRepository;
+import com.nox.platform.module.warehouse.infrastructure.InvaderDefinitionRepository;
+import com.nox.platform.module.warehouse.infrastructure.WarehouseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The archive import functions (V36, V37, V45) called the way the importer calls them: staged
+ * frames and the final remap in one transaction, whose temp tables the test transaction keeps.
+ */
+@Transactional
+@DisplayName("Workspace Import Integration Tests (PostgreSQL)")
+class WorkspaceImportIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private BlockTemplateRepository blockTemplateRepository;
+
+    @Autowired
+    private InvaderDefinitionRepository invaderDefinitionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Organization organization;
+    private Workspace workspace;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        organization = createOrganization("import-org-");
+
+        user = User.builder()
+                .email("import-" + UUID.randomUUID() + "@example.com")
+                .fullName("Import User")
+                .build();
+        user.initializeTimestamps(OffsetDateTime.now());
+        user = userRepository.save(user);
+
+        Project project = Project.builder()
+                .organization(organization)
+                .createdBy(user)
+                .name("Import Project")
+                .slug("import-project-" + UUID.randomUUID())
+                .build();
+        project.initializeTimestamps(OffsetDateTime.now());
+        project = projectRepository.save(project);
+
+        workspace = Workspace.builder()
+                .project(project)
+                .createdBy(user)
+                .name("Import Workspace")
+                .type(WorkspaceType.CANVAS)
+                .status(WorkspaceStatus.DRAFT)
+                .build();
+        workspace.initializeTimestamps(OffsetDateTime.now());
+        workspace = workspaceRepository.save(workspace);
+    }
+
+    @Test
+    @DisplayName("Should remap the archive's hierarchy, wires and usages under fresh ids")
+    void shouldImportHierarchyUnderFreshIds() throws JsonProcessingException {
+        // Given
+        UUID rootId = UUID.randomUUID();
+        UUID childId = UUID.randomUUID();
+        Warehouse orgWarehouse = createWarehouse(organization.getId(), OwnerType.ORG);
+        InvaderDefinition invader = createInvader(orgWarehouse);
+        workspaceRepository.stageImportBlocks(json(List.of(
+                Map.of("id", rootId, "type", "logic", "name", "Root"),
+                Map.of("id", childId, "parentId", rootId, "type", "logic", "name", "Child"))));
+        workspaceRepository.stageImportRelations(json(List.of(
+                Map.of("sourceId", rootId, "targetId", childId, "type", "flow"))));
+        workspaceRepository.stageImportUsages(json(List.of(
+                Map.of("blockId", childId, "invaderAssetId", invader.getId(), "appliedVersion", "1.0.0"))));
+
+        // When
+        WorkspaceRepository.ImportCountsView counts = workspaceRepository.finishImport(workspace.getId(), user.getId(), OffsetDateTime.now());
+
+        // Then
+        assertThat(counts.getStagedBlocks()).isEqualTo(2);
+        assertThat(counts.getBlocks()).isEqualTo(2);
+        assertThat(counts.getRelations()).isEqualTo(1);
+        assertThat(counts.getUsages()).isEqualTo(1);
+        assertThat(counts.getMaxDepth()).isEqualTo(1);
+
+        UUID newRootId = importedId("Root");
+        UUID newChildId = importedId("Child");
+        assertThat(List.of(newRootId, newChildId)).doesNotContain(rootId, childId);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT parent_block_id FROM core_blocks WHERE id = ?", UUID.class, newChildId)).isEqualTo(newRootId);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM core_relations WHERE source_block_id = ? AND target_block_id = ?",
+                Integer.class, newRootId, newChildId)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should only link assets from the project's organization or the importer's own warehouse")
+    void shouldDropAssetsFromUnreadableWarehouses() throws JsonProcessingException {
+        // Given: templates and invaders in readable warehouses and in another organization's one
+        Organization foreignOrganization = createOrganization("foreign-org-");
+        Warehouse orgWarehouse = createWarehouse(organization.getId(), OwnerType.ORG);
+        Warehouse personalWarehouse = createWarehouse(user.getId(), OwnerType.USER);
+        Warehouse foreignWarehouse = createWarehouse(foreignOrganization.getId(), OwnerType.ORG);
+        BlockTemplate orgTemplate = createTemplate(orgWarehouse);
+        BlockTemplate personalTemplate = createTemplate(personalWarehouse);
+        BlockTemplate foreignTemplate = createTemplate(foreignWarehouse);
+        InvaderDefinition orgInvader = createInvader(orgWarehouse);
+        InvaderDefinition foreignInvader = createInvader(foreignWarehouse);
+
+        UUID orgBlockId = UUID.randomUUID();
+        UUID foreignBlockId = UUID.randomUUID();
+        workspaceRepository.stageImportBlocks(json(List.of(
+                Map.of("id", orgBlockId, "originAssetId", orgTemplate.getId(), "type", "logic", "name", "Org"),
+                Map.of("id", UUID.randomUUID(), "originAssetId", personalTemplate.getId(), "type", "logic", "name", "Personal"),
+                Map.of("id", foreignBlockId, "originAssetId", foreignTemplate.getId(), "type", "logic", "name", "Foreign"))));
+        workspaceRepository.stageImportUsages(json(List.of(
+                Map.of("blockId", orgBlockId, "invaderAssetId", orgInvader.getId()),
+                Map.of("blockId", foreignBlockId, "invaderAssetId", foreignInvader.getId()))));
+
+        // When
+        WorkspaceRepository.ImportCountsView counts = workspaceRepository.finishImport(workspace.getId(), user.getId(), OffsetDateTime.now());
+
+        // Then: every block is imported, but foreign references are dropped
+        assertThat(counts.getBlocks()).isEqualTo(3);
+        assertThat(counts.getUsages()).isEqualTo(1);
+        assertThat(originAssetId("Org")).isEqualTo(orgTemplate.getId());
+        assertThat(originAssetId("Personal")).isEqualTo(personalTemplate.getId());
+        assertThat(originAssetId("Foreign")).isNull();
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT u.invader_asset_id FROM block_invader_usages u JOIN core_blocks b ON b.id = u.block_id WHERE b.workspace_id = ?",
+                UUID.class, workspace.getId())).containsExactly(orgInvader.getId());
+    }
+
+    private UUID importedId(String name) {
+        return jdbcTemplate.queryForObject(
+                "SELECT id FROM core_blocks WHERE workspace_id = ? AND name = ?", UUID.class, workspace.getId(), name);
+    }
+
+    private UUID originAssetId(String name) {
+        return jdbcTemplate.queryForObject(
+                "SELECT origin_asset_id FROM core_blocks WHERE workspace_id = ? AND name = ?", UUID.class, workspace.getId(), name);
+    }
+
+    private String json(List<?> records) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(records);
+    }
+
+    private Organization createOrganization(String slugPrefix) {
+        Organization created = Organization.builder()
+                .name("Import Test Org")
+                .slug(slugPrefix + UUID.randomUUID())
+                .build();
+        created.initializeTimestamps(OffsetDateTime.now());
+        return organizationRepository.save(created);
+    }
+
+    private Warehouse createWarehouse(UUID ownerId, OwnerType ownerType) {
+        return warehouseRepository.save(Warehouse.create(ownerId, ownerType, "Import Warehouse", false, OffsetDateTime.now()));
+    }
+
+    private BlockTemplate createTemplate(Warehouse warehouse) {
+        BlockTemplate template = BlockTemplate.builder()
+                .warehouse(warehouse)
+                .name("Template")
+                .subgraph(new BlockTemplateSubgraph(List.of(), List.of()))
+                .build();
+        template.initializeTimestamps(OffsetDateTime.now());
+        return blockTemplateRepository.saveAndFlush(template);
+    }
+
+    private InvaderDefinition createInvader(Warehouse warehouse) {
+        InvaderDefinition invader = InvaderDefinition.builder()
+                .warehouse(warehouse)
+                .code("invader-" + UUID.randomUUID())
+                .name("Invader")
+                .category("logic")
+                .build();
+        invader.initializeTimestamps(OffsetDateTime.now());
+        return invaderDefinitionRepository.saveAndFlush(invader);
+    }
+}
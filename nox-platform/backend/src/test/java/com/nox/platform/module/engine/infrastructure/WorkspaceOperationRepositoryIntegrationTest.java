@@ -0,0 +1,141 @@
+package com.nox.platform.module.engine.infrastructure;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.nox.platform.BaseIntegrationTest;
+import com.nox.platform.module.engine.domain.OperationEntityType;
+import com.nox.platform.module.engine.domain.OperationKind;
+import com.nox.platform.module.engine.domain.Project;
+import com.nox.platform.module.engine.domain.Workspace;
+import com.nox.platform.module.engine.domain.WorkspaceOperation;
+import com.nox.platform.module.engine.domain.WorkspaceStatus;
+import com.nox.platform.module.engine.domain.WorkspaceType;
+import com.nox.platform.module.iam.domain.User;
+import com.nox.platform.module.iam.infrastructure.UserRepository;
+import com.nox.platform.module.tenant.domain.Organization;
+import com.nox.platform.module.tenant.infrastructure.OrganizationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@DisplayName("WorkspaceOperationRepository Integration Tests (PostgreSQL)")
+class WorkspaceOperationRepositoryIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private WorkspaceOperationRepository operationRepository;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    private Workspace workspace;
+    private final OffsetDateTime createdAt = OffsetDateTime.now().minusHours(1);
+
+    @BeforeEach
+    void setUp() {
+        Organization organization = Organization.builder()
+                .name("Operation Log Org")
+                .slug("oplog-org-" + UUID.randomUUID())
+                .build();
+        organization.initializeTimestamps(OffsetDateTime.now());
+        organization = organizationRepository.save(organization);
+
+        User user = User.builder()
+                .email("oplog-" + UUID.randomUUID() + "@example.com")
+                .fullName("Operation Log User")
+                .build();
+        user.initializeTimestamps(OffsetDateTime.now());
+        user = userRepository.save(user);
+
+        Project project = Project.builder()
+                .organization(organization)
+                .createdBy(user)
+                .name("Operation Log Project")
+                .slug("oplog-project-" + UUID.randomUUID())
+                .build();
+        project.initializeTimestamps(OffsetDateTime.now());
+        project = projectRepository.save(project);
+
+        workspace = Workspace.builder()
+                .project(project)
+                .createdBy(user)
+                .name("Operation Log Workspace")
+                .type(WorkspaceType.CANVAS)
+                .status(WorkspaceStatus.DRAFT)
+                .build();
+        workspace.initializeTimestamps(OffsetDateTime.now());
+        workspace = workspaceRepository.save(workspace);
+    }
+
+    @Test
+    @DisplayName("Should collapse a drag run into its last row carrying the first row's inverse")
+    void shouldCoalesceUninterruptedDragRun() {
+        // Given: three frames of one drag on the same block
+        UUID blockId = UUID.randomUUID();
+        UUID dragGroup = UUID.randomUUID();
+        append(dragGroup, blockId, 0, 1, true);
+        append(dragGroup, blockId, 1, 2, true);
+        WorkspaceOperation last = append(dragGroup, blockId, 2, 3, true);
+
+        // When
+        operationRepository.coalesceDragRuns(OffsetDateTime.now(), 100);
+
+        // Then
+        List<WorkspaceOperation> remaining = operationRepository.findAll().stream()
+                .filter(op -> op.getWorkspaceId().equals(workspace.getId()))
+                .toList();
+        assertThat(remaining).extracting(WorkspaceOperation::getId).containsExactly(last.getId());
+        assertThat(remaining.get(0).getInverse().get("x").asInt()).isZero();
+        assertThat(remaining.get(0).getForward().get("x").asInt()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should leave a drag run alone when another group changed the block in between")
+    void shouldNotCoalesceAcrossOtherGroups() {
+        // Given: a drag, an edit of the same block by another group, then the drag continues
+        UUID blockId = UUID.randomUUID();
+        UUID dragGroup = UUID.randomUUID();
+        append(dragGroup, blockId, 0, 1, true);
+        append(UUID.randomUUID(), blockId, 1, 5, false);
+        append(dragGroup, blockId, 5, 6, true);
+
+        // When
+        int removed = operationRepository.coalesceDragRuns(OffsetDateTime.now(), 100);
+
+        // Then
+        assertThat(removed).isZero();
+        assertThat(operationRepository.findAll().stream()
+                .filter(op -> op.getWorkspaceId().equals(workspace.getId())))
+                .hasSize(3);
+    }
+
+    private WorkspaceOperation append(UUID groupId, UUID blockId, int fromX, int toX, boolean coalescible) {
+        return operationRepository.saveAndFlush(WorkspaceOperation.builder()
+                .workspaceId(workspace.getId())
+                .groupId(groupId)
+                .kind(OperationKind.DO)
+                .entityType(OperationEntityType.BLOCK)
+                .entityId(blockId)
+                .forward(JsonNodeFactory.instance.objectNode().put("x", toX))
+                .inverse(JsonNodeFactory.instance.objectNode().put("x", fromX))
+                .coalescible(coalescible)
+                .createdAt(createdAt)
+                .build());
+    }
+}
@@ -0,0 +1,314 @@
+package com.nox.platform.module.engine.service;
+
+import com.nox.platform.BaseIntegrationTest;
+import com.nox.platform.module.engine.api.request.BlockOperationRequest;
+import com.nox.platform.module.engine.api.request.BlockOperationType;
+import com.nox.platform.module.engine.api.response.BlockOperationResult;
+import com.nox.platform.module.engine.api.response.CoreBlockResponse;
+import com.nox.platform.module.engine.api.response.SubtreeRestoreResponse;
+import com.nox.platform.module.engine.domain.CoreBlock;
+import com.nox.platform.module.engine.domain.Project;
+import com.nox.platform.module.engine.domain.Workspace;
+import com.nox.platform.module.engine.domain.WorkspaceStatus;
+import com.nox.platform.module.engine.domain.WorkspaceType;
+import com.nox.platform.module.engine.infrastructure.CoreBlockRepository;
+import com.nox.platform.module.engine.infrastructure.ProjectRepository;
+import com.nox.platform.module.engine.infrastructure.WorkspaceRepository;
+import com.nox.platform.module.engine.service.cache.WorkspaceGraphCache;
+import com.nox.platform.module.iam.domain.User;
+import com.nox.platform.module.iam.infrastructure.UserRepository;
+import com.nox.platform.module.iam.infrastructure.security.CustomUserDetails;
+import com.nox.platform.module.tenant.domain.Organization;
+import com.nox.platform.module.tenant.infrastructure.OrganizationRepository;
+import com.nox.platform.shared.exception.DomainException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs batches through the workspace writer without a surrounding test transaction, so they
+ * really commit and their after-commit cache updates are observable.
+ */
+@DisplayName("CoreBlockService Batch Integration Tests (PostgreSQL)")
+class CoreBlockServiceBatchIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private CoreBlockService coreBlockService;
+
+    @Autowired
+    private CoreBlockRepository coreBlockRepository;
+
+    @Autowired
+    private WorkspaceGraphCache graphCache;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    private Project project;
+    private Workspace workspace;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        Organization organization = Organization.builder()
+                .name("Batch Test Org")
+                .slug("batch-org-" + UUID.randomUUID())
+                .build();
+        organization.initializeTimestamps(OffsetDateTime.now());
+        organization = organizationRepository.save(organization);
+
+        user = User.builder()
+                .email("batch-" + UUID.randomUUID() + "@example.com")
+                .fullName("Batch User")
+                .build();
+        user.initializeTimestamps(OffsetDateTime.now());
+        user = userRepository.save(user);
+
+        project = Project.builder()
+                .organization(organization)
+                .createdBy(user)
+                .name("Batch Project")
+                .slug("batch-project-" + UUID.randomUUID())
+                .build();
+        project.initializeTimestamps(OffsetDateTime.now());
+        project = projectRepository.save(project);
+
+        workspace = Workspace.builder()
+                .project(project)
+                .createdBy(user)
+                .name("Batch Workspace")
+                .type(WorkspaceType.CANVAS)
+                .status(WorkspaceStatus.DRAFT)
+                .build();
+        workspace.initializeTimestamps(OffsetDateTime.now());
+        workspace = workspaceRepository.save(workspace);
+
+        CustomUserDetails principal = new CustomUserDetails(user.getId(), organization.getId(), user.getEmail(), "", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should fail operations on blocks removed by an earlier delete of the same batch")
+    void shouldRejectOperationsOnBlocksDeletedEarlierInBatch() {
+        // Given
+        CoreBlock parent = createBlock("Parent", null);
+        CoreBlock other = createBlock("Other", null);
+
+        // When / Then: creating under a parent deleted earlier in the batch
+        assertThatThrownBy(() -> coreBlockService.applyBatch(workspace.getId(), List.of(
+                op(BlockOperationType.DELETE, parent.getId(), null),
+                create(UUID.randomUUID(), parent.getId())), user.getId()))
+                .isInstanceOf(DomainException.class)
+                .hasMessageStartingWith("Operation #1:")
+                .extracting(e -> ((DomainException) e).getCode())
+                .isEqualTo("BLOCK_NOT_FOUND");
+
+        // When / Then: updating a block deleted earlier in the batch
+        assertThatThrownBy(() -> coreBlockService.applyBatch(workspace.getId(), List.of(
+                op(BlockOperationType.DELETE, other.getId(), null),
+                new BlockOperationRequest(BlockOperationType.UPDATE, other.getId(), null, null, null, "Renamed", null, null)),
+                user.getId()))
+                .isInstanceOf(DomainException.class)
+                .hasMessageStartingWith("Operation #1:")
+                .extracting(e -> ((DomainException) e).getCode())
+                .isEqualTo("BLOCK_NOT_FOUND");
+
+        // Then: both batches rolled back as a whole
+        assertThat(coreBlockRepository.findByIdInAndWorkspace_Id(List.of(parent.getId(), other.getId()), workspace.getId()))
+                .hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should not put blocks back into the graph cache that a later delete of the batch removed")
+    void shouldKeepDeletedBlocksOutOfCache() {
+        // Given: the graph is cached before the batch runs
+        CoreBlock updatedThenDeleted = createBlock("Updated", null);
+        CoreBlock parent = createBlock("Parent", null);
+        CoreBlock survivor = createBlock("Survivor", null);
+        UUID createdChildId = UUID.randomUUID();
+        assertThat(graphCache.getBlocks(workspace.getId())).hasSize(3);
+
+        // When
+        List<BlockOperationResult> results = coreBlockService.applyBatch(workspace.getId(), List.of(
+                new BlockOperationRequest(BlockOperationType.UPDATE, updatedThenDeleted.getId(), null, null, null, "Renamed", null, null),
+                create(createdChildId, parent.getId()),
+                new BlockOperationRequest(BlockOperationType.UPDATE, survivor.getId(), null, null, null, "Kept", null, null),
+                op(BlockOperationType.DELETE, updatedThenDeleted.getId(), null),
+                op(BlockOperationType.DELETE, parent.getId(), null)), user.getId());
+
+        // Then
+        assertThat(results).hasSize(5);
+        assertThat(coreBlockRepository.findAllByIdsIncludingDeleted(workspace.getId(),
+                List.of(updatedThenDeleted.getId(), parent.getId(), createdChildId)))
+                .hasSize(3)
+                .allSatisfy(block -> assertThat(block.getDeletedAt()).isNotNull());
+        assertThat(graphCache.getBlocks(workspace.getId()))
+                .extracting(CoreBlockResponse::id, CoreBlockResponse::name)
+                .containsExactly(tuple(survivor.getId(), "Kept"));
+    }
+
+    @Test
+    @DisplayName("Should detect cycles formed by moves earlier in the same batch")
+    void shouldRejectCycleAcrossBatchMoves() {
+        // Given
+        CoreBlock a = createBlock("A", null);
+        CoreBlock b = createBlock("B", null);
+
+        // When / Then: B under A, then A under B
+        assertThatThrownBy(() -> coreBlockService.applyBatch(workspace.getId(), List.of(
+                op(BlockOperationType.MOVE, b.getId(), a.getId()),
+                op(BlockOperationType.MOVE, a.getId(), b.getId())), user.getId()))
+                .isInstanceOf(DomainException.class)
+                .extracting(e -> ((DomainException) e).getCode())
+                .isEqualTo("CIRCULAR_DEPENDENCY");
+    }
+
+    @Test
+    @DisplayName("Should enforce the depth limit on chains built inside the batch on top of stored paths")
+    void shouldRejectTooDeepChain() {
+        // Given: a stored chain of three blocks
+        CoreBlock root = createBlock("Root", null);
+        CoreBlock middle = createBlock("Middle", root);
+        CoreBlock leaf = createBlock("Leaf", middle);
+
+        // When: the batch extends it to depth 12 (leaf has 2 ancestors, each create adds one)
+        List<BlockOperationRequest> operations = new ArrayList<>();
+        UUID parentId = leaf.getId();
+        for (int i = 0; i < 10; i++) {
+            UUID id = UUID.randomUUID();
+            operations.add(create(id, parentId));
+            parentId = id;
+        }
+
+        // Then: the tenth create would give its parent 11 ancestors
+        assertThatThrownBy(() -> coreBlockService.applyBatch(workspace.getId(), operations, user.getId()))
+                .isInstanceOf(DomainException.class)
+                .extracting(e -> ((DomainException) e).getCode())
+                .isEqualTo("MAX_DEPTH_REACHED");
+        assertThat(coreBlockService.applyBatch(workspace.getId(), operations.subList(0, 9), user.getId())).hasSize(9);
+    }
+
+    @Test
+    @DisplayName("Should keep client-chosen ids and refuse ids another workspace already uses")
+    void shouldKeepClientIdsAndRejectTakenOnes() {
+        // Given: a block of another workspace, still at version 0
+        Workspace other = Workspace.builder()
+                .project(project)
+                .createdBy(user)
+                .name("Other Workspace")
+                .type(WorkspaceType.CANVAS)
+                .status(WorkspaceStatus.DRAFT)
+                .build();
+        other.initializeTimestamps(OffsetDateTime.now());
+        other = workspaceRepository.save(other);
+        CoreBlock foreign = CoreBlock.builder()
+                .workspace(other)
+                .name("Foreign")
+                .type("logic")
+                .createdBy(user)
+                .build();
+        foreign.initializeTimestamps(OffsetDateTime.now());
+        foreign = coreBlockRepository.save(foreign);
+
+        // When / Then: the taken id is refused and the foreign row left alone
+        UUID takenId = foreign.getId();
+        assertThatThrownBy(() -> coreBlockService.applyBatch(workspace.getId(), List.of(create(takenId, null)), user.getId()))
+                .isInstanceOf(DomainException.class)
+                .extracting(e -> ((DomainException) e).getCode())
+                .isEqualTo("BLOCK_EXISTS");
+        assertThat(coreBlockRepository.findByIdAndWorkspace_Id(takenId, other.getId()))
+                .get()
+                .extracting(CoreBlock::getName)
+                .isEqualTo("Foreign");
+
+        // When: a fresh id is created and referenced later in the same batch
+        UUID chosenId = UUID.randomUUID();
+        List<BlockOperationResult> results = coreBlockService.applyBatch(workspace.getId(), List.of(
+                create(chosenId, null),
+                new BlockOperationRequest(BlockOperationType.UPDATE, chosenId, null, null, null, "Renamed", null, null)),
+                user.getId());
+
+        // Then
+        assertThat(results).extracting(BlockOperationResult::blockId).containsExactly(chosenId, chosenId);
+        assertThat(coreBlockRepository.findByIdAndWorkspace_Id(chosenId, workspace.getId()))
+                .get()
+                .extracting(CoreBlock::getName)
+                .isEqualTo("Renamed");
+    }
+
+    @Test
+    @DisplayName("Should not revive a child deleted on its own when restoring a parent deleted in the same batch")
+    void shouldRestoreOnlyTheParentsOwnCascade() {
+        // Given: the child and then its parent deleted by separate operations of one batch
+        CoreBlock parent = createBlock("Parent", null);
+        CoreBlock child = createBlock("Child", parent);
+        CoreBlock grandchild = createBlock("Grandchild", child);
+        CoreBlock sibling = createBlock("Sibling", parent);
+        coreBlockService.applyBatch(workspace.getId(), List.of(
+                op(BlockOperationType.DELETE, child.getId(), null),
+                op(BlockOperationType.DELETE, parent.getId(), null)), user.getId());
+
+        // When
+        SubtreeRestoreResponse restored = coreBlockService.restoreBlock(workspace.getId(), parent.getId());
+
+        // Then: only the parent's own cascade comes back
+        assertThat(restored.restoredBlocks()).isEqualTo(2);
+        assertThat(coreBlockRepository.findByIdInAndWorkspace_Id(
+                List.of(parent.getId(), child.getId(), grandchild.getId(), sibling.getId()), workspace.getId()))
+                .extracting(CoreBlock::getId)
+                .containsExactlyInAnyOrder(parent.getId(), sibling.getId());
+
+        // When: the child is restored in turn, its own cascade follows
+        assertThat(coreBlockService.restoreBlock(workspace.getId(), child.getId()).restoredBlocks()).isEqualTo(2);
+    }
+
+    private static BlockOperationRequest op(BlockOperationType type, UUID blockId, UUID parentBlockId) {
+        return new BlockOperationRequest(type, blockId, parentBlockId, null, null, null, null, null);
+    }
+
+    private static BlockOperationRequest create(UUID blockId, UUID parentBlockId) {
+        return new BlockOperationRequest(BlockOperationType.CREATE, blockId, parentBlockId, null,
+                "logic", "Created", Map.of(), Map.of());
+    }
+
+    private CoreBlock createBlock(String name, CoreBlock parent) {
+        CoreBlock block = CoreBlock.builder()
+                .workspace(workspace)
+                .parentBlock(parent)
+                .name(name)
+                .type("logic")
+                .createdBy(user)
+                .build();
+        block.initializeTimestamps(OffsetDateTime.now());
+        return coreBlockRepository.save(block);
+    }
+}
@@ -0,0 +1,244 @@
+package com.nox.platform.module.engine.service;
+
+import com.nox.platform.BaseIntegrationTest;
+import com.nox.platform.module.engine.api.request.InstantiateTemplateRequest;
+import com.nox.platform.module.engine.api.response.TemplateInstantiationResponse;
+import com.nox.platform.module.engine.domain.CoreBlock;
+import com.nox.platform.module.engine.domain.CoreRelation;
+import com.nox.platform.module.engine.domain.Project;
+import com.nox.platform.module.engine.domain.Workspace;
+import com.nox.platform.module.engine.domain.WorkspaceStatus;
+import com.nox.platform.module.engine.domain.WorkspaceType;
+import com.nox.platform.module.engine.infrastructure.CoreBlockRepository;
+import com.nox.platform.module.engine.infrastructure.CoreRelationRepository;
+import com.nox.platform.module.engine.infrastructure.ProjectRepository;
+import com.nox.platform.module.engine.infrastructure.WorkspaceRepository;
+import com.nox.platform.module.iam.domain.User;
+import com.nox.platform.module.iam.infrastructure.UserRepository;
+import com.nox.platform.module.iam.infrastructure.security.CustomUserDetails;
+import com.nox.platform.module.tenant.domain.Organization;
+import com.nox.platform.module.tenant.infrastructure.OrganizationRepository;
+import com.nox.platform.module.warehouse.domain.BlockTemplate;
+import com.nox.platform.module.warehouse.domain.BlockTemplateSubgraph;
+import com.nox.platform.module.warehouse.domain.OwnerType;
+import com.nox.platform.module.warehouse.domain.Warehouse;
+import com.nox.platform.module.warehouse.infrastructure.BlockTemplateRepository;
+import com.nox.platform.module.warehouse.infrastructure.WarehouseRepository;
+import com.nox.platform.shared.exception.DomainException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Template instantiation through {@code instantiate_block_template} (V35, V37). The service runs
+ * inline in the test transaction, so the function's temp mapping table stays readable.
+ */
+@Transactional
+@DisplayName("CoreBlockService Template Instantiation Integration Tests (PostgreSQL)")
+class CoreBlockServiceTemplateIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private CoreBlockService coreBlockService;
+
+    @Autowired
+    private CoreBlockRepository coreBlockRepository;
+
+    @Autowired
+    private CoreRelationRepository coreRelationRepository;
+
+    @Autowired
+    private BlockTemplateRepository blockTemplateRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    private Workspace workspace;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        Organization organization = Organization.builder()
+                .name("Template Test Org")
+                .slug("template-org-" + UUID.randomUUID())
+                .build();
+        organization.initializeTimestamps(OffsetDateTime.now());
+        organization = organizationRepository.save(organization);
+
+        user = createUser("template");
+
+        Project project = Project.builder()
+                .organization(organization)
+                .createdBy(user)
+                .name("Template Project")
+                .slug("template-project-" + UUID.randomUUID())
+                .build();
+        project.initializeTimestamps(OffsetDateTime.now());
+        project = projectRepository.save(project);
+
+        workspace = Workspace.builder()
+                .project(project)
+                .createdBy(user)
+                .name("Template Workspace")
+                .type(WorkspaceType.CANVAS)
+                .status(WorkspaceStatus.DRAFT)
+                .build();
+        workspace.initializeTimestamps(OffsetDateTime.now());
+        workspace = workspaceRepository.save(workspace);
+
+        CustomUserDetails principal = new CustomUserDetails(user.getId(), organization.getId(), user.getEmail(), "", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should place N instances with fresh ids, each shifted by its own offset and wired internally")
+    void shouldInstantiateRemappedInstances() {
+        // Given: a group with one nested block, wired group -> child
+        BlockTemplate template = createTemplate(user.getId(), new BlockTemplateSubgraph(
+                List.of(block("group", null, Map.of("position", Map.of("x", 10, "y", 20))),
+                        block("child", "group", Map.of("position", Map.of("x", 5, "y", 5)))),
+                List.of(new BlockTemplateSubgraph.Relation("group", "child", "flow", null, null))));
+
+        // When
+        TemplateInstantiationResponse response = coreBlockService.instantiateTemplate(workspace.getId(),
+                new InstantiateTemplateRequest(template.getId(), 3, null, 100.0, 50.0, 400.0, null), user.getId());
+
+        // Then: every instance maps both keys to ids of its own
+        assertThat(response.createdBlocks()).isEqualTo(6);
+        assertThat(response.createdRelations()).isEqualTo(3);
+        assertThat(response.instances()).hasSize(3).allSatisfy(keys -> assertThat(keys).containsOnlyKeys("group", "child"));
+        Set<UUID> ids = new HashSet<>();
+        response.instances().forEach(keys -> ids.addAll(keys.values()));
+        assertThat(ids).hasSize(6);
+
+        for (int i = 0; i < 3; i++) {
+            Map<String, UUID> keys = response.instances().get(i);
+            CoreBlock group = coreBlockRepository.findById(keys.get("group")).orElseThrow();
+            CoreBlock child = coreBlockRepository.findById(keys.get("child")).orElseThrow();
+
+            // Only top-level blocks move by origin + i * step; nested ones keep their position
+            assertThat(position(group)).containsExactly(10 + 100 + i * 400.0, 20 + 50.0);
+            assertThat(position(child)).containsExactly(5.0, 5.0);
+            assertThat(group.getParentBlock()).isNull();
+            assertThat(child.getParentBlock().getId()).isEqualTo(group.getId());
+            assertThat(group.getOriginAsset().getId()).isEqualTo(template.getId());
+
+            List<CoreRelation> wires = coreRelationRepository.findByBlockIdsActive(List.of(group.getId()));
+            assertThat(wires).singleElement().satisfies(wire -> {
+                assertThat(wire.getSourceBlock().getId()).isEqualTo(group.getId());
+                assertThat(wire.getTargetBlock().getId()).isEqualTo(child.getId());
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject an instantiation whose nested blocks would exceed the depth limit")
+    void shouldRejectTooDeepInstantiation() {
+        // Given: a stored chain of 11 blocks, so the template root gets 11 ancestors and its child 12
+        CoreBlock parent = null;
+        for (int i = 0; i < 11; i++) {
+            parent = createBlock("Level " + i, parent);
+        }
+        BlockTemplate template = createTemplate(user.getId(), new BlockTemplateSubgraph(
+                List.of(block("group", null, null), block("child", "group", null)), List.of()));
+
+        // When / Then
+        UUID parentId = parent.getId();
+        assertThatThrownBy(() -> coreBlockService.instantiateTemplate(workspace.getId(),
+                new InstantiateTemplateRequest(template.getId(), 1, parentId, null, null, null, null), user.getId()))
+                .isInstanceOf(DomainException.class)
+                .extracting(e -> ((DomainException) e).getCode())
+                .isEqualTo("MAX_DEPTH_REACHED");
+    }
+
+    @Test
+    @DisplayName("Should refuse to instantiate a template from a warehouse the caller cannot read")
+    void shouldRejectTemplateFromForeignWarehouse() {
+        // Given: a template in another user's private warehouse
+        User stranger = createUser("stranger");
+        BlockTemplate template = createTemplate(stranger.getId(), new BlockTemplateSubgraph(
+                List.of(block("secret", null, null)), List.of()));
+
+        // When / Then
+        assertThatThrownBy(() -> coreBlockService.instantiateTemplate(workspace.getId(),
+                new InstantiateTemplateRequest(template.getId(), 1, null, null, null, null, null), user.getId()))
+                .isInstanceOf(DomainException.class)
+                .extracting(e -> ((DomainException) e).getCode())
+                .isEqualTo("FORBIDDEN");
+        assertThat(coreBlockRepository.findByWorkspaceId(workspace.getId())).isEmpty();
+    }
+
+    private static BlockTemplateSubgraph.Block block(String key, String parentKey, Map<String, Object> visual) {
+        return new BlockTemplateSubgraph.Block(key, parentKey, "logic", key, Map.of(), visual);
+    }
+
+    private static List<Double> position(CoreBlock block) {
+        Map<?, ?> position = (Map<?, ?>) block.getVisual().get("position");
+        return List.of(((Number) position.get("x")).doubleValue(), ((Number) position.get("y")).doubleValue());
+    }
+
+    private BlockTemplate createTemplate(UUID ownerId, BlockTemplateSubgraph subgraph) {
+        Warehouse warehouse = warehouseRepository.save(
+                Warehouse.create(ownerId, OwnerType.USER, "Personal Warehouse", false, OffsetDateTime.now()));
+        BlockTemplate template = BlockTemplate.builder()
+                .warehouse(warehouse)
+                .name("Composite")
+                .subgraph(subgraph)
+                .build();
+        template.initializeTimestamps(OffsetDateTime.now());
+        return blockTemplateRepository.saveAndFlush(template);
+    }
+
+    private User createUser(String prefix) {
+        User created = User.builder()
+                .email(prefix + "-" + UUID.randomUUID() + "@example.com")
+                .fullName("Template User")
+                .build();
+        created.initializeTimestamps(OffsetDateTime.now());
+        return userRepository.save(created);
+    }
+
+    private CoreBlock createBlock(String name, CoreBlock parent) {
+        CoreBlock block = CoreBlock.builder()
+                .workspace(workspace)
+                .parentBlock(parent)
+                .name(name)
+                .type("logic")
+                .createdBy(user)
+                .build();
+        block.initializeTimestamps(OffsetDateTime.now());
+        return coreBlockRepository.saveAndFlush(block);
+    }
+}
@@ -0,0 +1,218 @@
+package com.nox.platform.module.engine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nox.platform.BaseIntegrationTest;
+import com.nox.platform.module.engine.api.request.MergeBlockFieldsRequest;
+import com.nox.platform.module.engine.api.request.MergeRelationFieldsRequest;
+import com.nox.platform.module.engine.api.response.CoreBlockResponse;
+import com.nox.platform.module.engine.api.response.CoreRelationResponse;
+import com.nox.platform.module.engine.api.response.FieldMergeResponse;
+import com.nox.platform.module.engine.domain.CoreBlock;
+import com.nox.platform.module.engine.domain.CoreRelation;
+import com.nox.platform.module.engine.domain.Project;
+import com.nox.platform.module.engine.domain.Workspace;
+import com.nox.platform.module.engine.domain.WorkspaceStatus;
+import com.nox.platform.module.engine.domain.WorkspaceType;
+import com.nox.platform.module.engine.infrastructure.CoreBlockRepository;
+import com.nox.platform.module.engine.infrastructure.CoreRelationRepository;
+import com.nox.platform.module.engine.infrastructure.ProjectRepository;
+import com.nox.platform.module.engine.infrastructure.WorkspaceRepository;
+import com.nox.platform.module.engine.service.clock.HlcTimestamp;
+import com.nox.platform.module.iam.domain.User;
+import com.nox.platform.module.iam.infrastructure.UserRepository;
+import com.nox.platform.module.iam.infrastructure.security.CustomUserDetails;
+import com.nox.platform.module.tenant.domain.Organization;
+import com.nox.platform.module.tenant.infrastructure.OrganizationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Field-level last-writer-wins merges through the V33 {@code lww_merge}/{@code lww_stamp}
+ * functions. The services run inline in the test transaction.
+ */
+@Transactional
+@DisplayName("Field Merge Integration Tests (PostgreSQL)")
+class FieldMergeIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private CoreBlockService coreBlockService;
+
+    @Autowired
+    private CoreRelationService coreRelationService;
+
+    @Autowired
+    private CoreBlockRepository coreBlockRepository;
+
+    @Autowired
+    private CoreRelationRepository coreRelationRepository;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Workspace workspace;
+    private User user;
+
+    // Both in the past, well inside the allowed clock drift
+    private final long earlier = System.currentTimeMillis() - 20_000;
+    private final long later = System.currentTimeMillis() - 10_000;
+
+    @BeforeEach
+    void setUp() {
+        Organization organization = Organization.builder()
+                .name("Merge Test Org")
+                .slug("merge-org-" + UUID.randomUUID())
+                .build();
+        organization.initializeTimestamps(OffsetDateTime.now());
+        organization = organizationRepository.save(organization);
+
+        user = User.builder()
+                .email("merge-" + UUID.randomUUID() + "@example.com")
+                .fullName("Merge User")
+                .build();
+        user.initializeTimestamps(OffsetDateTime.now());
+        user = userRepository.save(user);
+
+        Project project = Project.builder()
+                .organization(organization)
+                .createdBy(user)
+                .name("Merge Project")
+                .slug("merge-project-" + UUID.randomUUID())
+                .build();
+        project.initializeTimestamps(OffsetDateTime.now());
+        project = projectRepository.save(project);
+
+        workspace = Workspace.builder()
+                .project(project)
+                .createdBy(user)
+                .name("Merge Workspace")
+                .type(WorkspaceType.CANVAS)
+                .status(WorkspaceStatus.DRAFT)
+                .build();
+        workspace.initializeTimestamps(OffsetDateTime.now());
+        workspace = workspaceRepository.save(workspace);
+
+        CustomUserDetails principal = new CustomUserDetails(user.getId(), organization.getId(), user.getEmail(), "", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should converge on the same block state whichever order two merges arrive in")
+    void shouldConvergeRegardlessOfArrivalOrder() {
+        // Given: two concurrent edits, the older one also touching a key the newer one leaves alone
+        MergeBlockFieldsRequest older = new MergeBlockFieldsRequest(clock(earlier, "client-a"), "Early",
+                Map.of("color", "blue", "size", 3), null);
+        MergeBlockFieldsRequest newer = new MergeBlockFieldsRequest(clock(later, "client-b"), "Late",
+                Map.of("color", "red"), Map.of("hidden", true));
+        CoreBlock inOrder = createBlock("In order");
+        CoreBlock outOfOrder = createBlock("Out of order");
+
+        // When
+        coreBlockService.mergeBlock(workspace.getId(), inOrder.getId(), older);
+        CoreBlockResponse first = coreBlockService.mergeBlock(workspace.getId(), inOrder.getId(), newer).entity();
+        coreBlockService.mergeBlock(workspace.getId(), outOfOrder.getId(), newer);
+        CoreBlockResponse second = coreBlockService.mergeBlock(workspace.getId(), outOfOrder.getId(), older).entity();
+
+        // Then
+        for (CoreBlockResponse block : List.of(first, second)) {
+            assertThat(block.name()).isEqualTo("Late");
+            assertThat(block.config().asMap(objectMapper)).containsEntry("color", "red").containsEntry("size", 3);
+            assertThat(block.visual().asMap(objectMapper)).containsEntry("hidden", true);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the newer value of a field and report the older write's fields as stale")
+    void shouldRejectOlderFieldClockAndReportIt() {
+        // Given: the name and a config key were last written at the later clock
+        CoreBlock block = createBlock("Original");
+        coreBlockService.mergeBlock(workspace.getId(), block.getId(),
+                new MergeBlockFieldsRequest(clock(later, "client-b"), "Newer", Map.of("color", "red"), null));
+
+        // When: an older write of the same fields plus an untouched key arrives
+        FieldMergeResponse<CoreBlockResponse> response = coreBlockService.mergeBlock(workspace.getId(), block.getId(),
+                new MergeBlockFieldsRequest(clock(earlier, "client-a"), "Older", Map.of("color", "blue", "size", 3), null));
+
+        // Then: only the untouched key is applied, the others come back as stale
+        assertThat(response.entity().name()).isEqualTo("Newer");
+        assertThat(response.entity().config().asMap(objectMapper)).containsEntry("color", "red").containsEntry("size", 3);
+        assertThat(response.staleFields()).containsExactly("name", "config.color");
+        assertThat(HlcTimestamp.parse(response.clock())).isGreaterThan(HlcTimestamp.parse(clock(later, "client-b")));
+    }
+
+    @Test
+    @DisplayName("Should merge relation rules per key through the same registers")
+    void shouldMergeRelationFields() {
+        // Given
+        CoreRelation relation = createRelation();
+        MergeRelationFieldsRequest older = new MergeRelationFieldsRequest(clock(earlier, "client-a"),
+                Map.of("retries", 1, "timeout", 30), null);
+        MergeRelationFieldsRequest newer = new MergeRelationFieldsRequest(clock(later, "client-b"),
+                Map.of("retries", 5), Map.of("color", "green"));
+
+        // When: the newer merge arrives first
+        coreRelationService.mergeRelation(workspace.getId(), relation.getId(), newer);
+        FieldMergeResponse<CoreRelationResponse> response = coreRelationService.mergeRelation(workspace.getId(), relation.getId(), older);
+
+        // Then
+        assertThat(response.entity().rules().asMap(objectMapper)).containsEntry("retries", 5).containsEntry("timeout", 30);
+        assertThat(response.entity().visual().asMap(objectMapper)).containsEntry("color", "green");
+        assertThat(response.staleFields()).containsExactly("rules.retries");
+    }
+
+    private static String clock(long physical, String node) {
+        return new HlcTimestamp(physical, 0, node).toString();
+    }
+
+    private CoreBlock createBlock(String name) {
+        CoreBlock block = CoreBlock.builder()
+                .workspace(workspace)
+                .name(name)
+                .type("logic")
+                .createdBy(user)
+                .build();
+        block.initializeTimestamps(OffsetDateTime.now());
+        return coreBlockRepository.save(block);
+    }
+
+    private CoreRelation createRelation() {
+        CoreRelation relation = CoreRelation.builder()
+                .workspace(workspace)
+                .sourceBlock(createBlock("Source"))
+                .targetBlock(createBlock("Target"))
+                .type("flow")
+                .build();
+        relation.initializeTimestamps(OffsetDateTime.now());
+        return coreRelationRepository.saveAndFlush(relation);
+    }
+}
@@ -0,0 +1,137 @@
+package com.nox.platform.module.engine.service.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nox.platform.module.engine.domain.WorkspaceType;
+import com.nox.platform.shared.exception.DomainException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("WorkspaceArchiveCodec Unit Tests")
+class WorkspaceArchiveCodecTest {
+
+    private WorkspaceArchiveCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        codec = new WorkspaceArchiveCodec(new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(codec, "frameRecords", 2);
+        ReflectionTestUtils.setField(codec, "maxFrameBytes", 1024 * 1024);
+    }
+
+    @Test
+    @DisplayName("Should read back every section across multiple compressed frames")
+    void shouldRoundTripCompressedArchive() throws IOException {
+        // Given: five blocks, so the block section spans three frames
+        WorkspaceArchiveHeader header = new WorkspaceArchiveHeader(UUID.randomUUID(), "Main flow",
+                WorkspaceType.BACKEND, OffsetDateTime.of(2026, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC));
+        List<ArchivedBlock> blocks = new ArrayList<>();
+        UUID root = UUID.randomUUID();
+        blocks.add(new ArchivedBlock(root, null, null, "service", "Root", Map.of("replicas", 3), Map.of()));
+        for (int i = 0; i < 4; i++) {
+            blocks.add(new ArchivedBlock(UUID.randomUUID(), root, null, "worker", "Worker " + i, Map.of(),
+                    Map.of("position", Map.of("x", i * 10, "y", 0))));
+        }
+        ArchivedRelation relation = new ArchivedRelation(root, blocks.get(1).id(), "calls", Map.of(), Map.of());
+        ArchivedInvaderUsage usage = new ArchivedInvaderUsage(root, UUID.randomUUID(), "1.0.0", Map.of("mode", "strict"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        WorkspaceArchiveWriter writer = codec.writer(out, ArchiveCompression.GZIP);
+        writer.writeHeader(header);
+        for (ArchivedBlock block : blocks) {
+            writer.writeBlock(block);
+        }
+        writer.writeRelation(relation);
+        writer.writeInvaderUsage(usage);
+        writer.finish();
+
+        // When
+        Collector collector = new Collector();
+        codec.reader(new ByteArrayInputStream(out.toByteArray())).read(collector);
+
+        // Then
+        assertThat(collector.header).isEqualTo(header);
+        assertThat(collector.blocks).isEqualTo(blocks);
+        assertThat(collector.blockFrames).isEqualTo(3);
+        assertThat(collector.relations).containsExactly(relation);
+        assertThat(collector.usages).containsExactly(usage);
+    }
+
+    @Test
+    @DisplayName("Should reject sections written out of order")
+    void shouldRejectSectionsOutOfOrder() throws IOException {
+        // Given
+        WorkspaceArchiveWriter writer = codec.writer(new ByteArrayOutputStream(), ArchiveCompression.NONE);
+        writer.writeHeader(new WorkspaceArchiveHeader(UUID.randomUUID(), "Flow", WorkspaceType.BACKEND, null));
+        writer.writeRelation(new ArchivedRelation(UUID.randomUUID(), UUID.randomUUID(), "calls", Map.of(), Map.of()));
+
+        // When / Then
+        assertThatThrownBy(() -> writer.writeBlock(new ArchivedBlock(UUID.randomUUID(), null, null, "service", "Late", Map.of(), Map.of())))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject truncated archives and foreign payloads")
+    void shouldRejectInvalidArchives() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        WorkspaceArchiveWriter writer = codec.writer(out, ArchiveCompression.NONE);
+        writer.writeHeader(new WorkspaceArchiveHeader(UUID.randomUUID(), "Flow", WorkspaceType.BACKEND, null));
+        writer.writeBlock(new ArchivedBlock(UUID.randomUUID(), null, null, "service", "Root", Map.of(), Map.of()));
+        writer.finish();
+        byte[] archive = out.toByteArray();
+        byte[] truncated = Arrays.copyOf(archive, archive.length - 4);
+
+        // When / Then
+        assertThatThrownBy(() -> codec.reader(new ByteArrayInputStream(truncated)).read(new Collector()))
+                .isInstanceOf(DomainException.class)
+                .hasFieldOrPropertyWithValue("code", "INVALID_ARCHIVE");
+        assertThatThrownBy(() -> codec.reader(new ByteArrayInputStream("{\"blocks\":[]}".getBytes())))
+                .isInstanceOf(DomainException.class)
+                .hasFieldOrPropertyWithValue("code", "INVALID_ARCHIVE");
+    }
+
+    private static class Collector implements WorkspaceArchiveReader.Handler {
+        private WorkspaceArchiveHeader header;
+        private final List<ArchivedBlock> blocks = new ArrayList<>();
+        private final List<ArchivedRelation> relations = new ArrayList<>();
+        private final List<ArchivedInvaderUsage> usages = new ArrayList<>();
+        private int blockFrames;
+
+        @Override
+        public void header(WorkspaceArchiveHeader header) {
+            this.header = header;
+        }
+
+        @Override
+        public void blocks(List<ArchivedBlock> blocks) {
+            this.blocks.addAll(blocks);
+            blockFrames++;
+        }
+
+        @Override
+        public void relations(List<ArchivedRelation> relations) {
+            this.relations.addAll(relations);
+        }
+
+        @Override
+        public void invaderUsages(List<ArchivedInvaderUsage> usages) {
+            this.usages.addAll(usages);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.nox.platform.module.engine.service.cache;
+
+import com.nox.platform.shared.abstraction.TimeProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WorkspaceAccessCache Unit Tests")
+class WorkspaceAccessCacheTest {
+
+    @Mock
+    private TimeProvider timeProvider;
+
+    private WorkspaceAccessCache cache;
+
+    private final UUID organizationId = UUID.randomUUID();
+    private final UUID projectId = UUID.randomUUID();
+    private final UUID workspaceId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        cache = new WorkspaceAccessCache(timeProvider);
+        ReflectionTestUtils.setField(cache, "ttlMs", 30_000L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+    }
+
+    @Test
+    @DisplayName("Should answer from a grant until its TTL runs out")
+    void shouldExpireGrants() {
+        // Given
+        when(timeProvider.currentTimeMillis()).thenReturn(1_000L, 30_999L, 31_000L);
+        cache.grant(organizationId, workspaceId, projectId);
+
+        // When / Then
+        assertThat(cache.isGranted(organizationId, workspaceId)).isTrue();
+        assertThat(cache.isGranted(organizationId, workspaceId)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep grants per organization")
+    void shouldScopeGrantsToOrganization() {
+        // Given
+        when(timeProvider.currentTimeMillis()).thenReturn(1_000L);
+        cache.grant(organizationId, workspaceId, projectId);
+
+        // When / Then
+        assertThat(cache.isGranted(UUID.randomUUID(), workspaceId)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should drop grants of deleted workspaces and projects")
+    void shouldEvictOnDelete() {
+        // Given
+        UUID otherWorkspaceId = UUID.randomUUID();
+        UUID thirdWorkspaceId = UUID.randomUUID();
+        when(timeProvider.currentTimeMillis()).thenReturn(1_000L);
+        cache.grant(organizationId, workspaceId, projectId);
+        cache.grant(organizationId, otherWorkspaceId, projectId);
+        cache.grant(organizationId, thirdWorkspaceId, UUID.randomUUID());
+
+        // When
+        cache.evictWorkspaceAfterCommit(workspaceId);
+        boolean workspaceGranted = cache.isGranted(organizationId, workspaceId);
+        boolean siblingGranted = cache.isGranted(organizationId, otherWorkspaceId);
+        cache.evictProjectAfterCommit(projectId);
+
+        // Then
+        assertThat(workspaceGranted).isFalse();
+        assertThat(siblingGranted).isTrue();
+        assertThat(cache.isGranted(organizationId, otherWorkspaceId)).isFalse();
+        assertThat(cache.isGranted(organizationId, thirdWorkspaceId)).isTrue();
+    }
+}
@@ -0,0 +1,158 @@
+package com.nox.platform.module.engine.service.cache;
+
+import com.nox.platform.module.engine.api.response.CoreBlockResponse;
+import com.nox.platform.module.engine.infrastructure.CoreBlockRepository;
+import com.nox.platform.module.engine.infrastructure.CoreRelationRepository;
+import com.nox.platform.shared.abstraction.TimeProvider;
+import com.nox.platform.shared.infrastructure.etag.ContentVersions;
+import com.nox.platform.shared.model.RawJson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WorkspaceGraphCache Unit Tests")
+class WorkspaceGraphCacheTest {
+
+    @Mock
+    private CoreBlockRepository coreBlockRepository;
+    @Mock
+    private CoreRelationRepository coreRelationRepository;
+    @Mock
+    private ContentVersions contentVersions;
+    @Mock
+    private TimeProvider timeProvider;
+
+    private WorkspaceGraphCache cache;
+
+    private final UUID workspaceId = UUID.randomUUID();
+    private final String scope = WorkspaceGraphCache.versionScope(workspaceId);
+
+    @BeforeEach
+    void setUp() {
+        cache = new WorkspaceGraphCache(coreBlockRepository, coreRelationRepository, contentVersions, timeProvider);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxWeightBytes", 1_000_000L);
+        ReflectionTestUtils.setField(cache, "maxAgeMs", 5_000L);
+    }
+
+    @Test
+    @DisplayName("Should serve the cached graph while the workspace stamp is unchanged")
+    void shouldReuseGraphWhileStampMatches() {
+        // Given
+        CoreBlockResponse block = block("Original");
+        when(contentVersions.current(scope)).thenReturn("5");
+        when(coreBlockRepository.findBlockResponsesByWorkspaceId(workspaceId)).thenReturn(List.of(block));
+
+        // When
+        List<CoreBlockResponse> first = cache.getBlocks(workspaceId);
+        List<CoreBlockResponse> second = cache.getBlocks(workspaceId);
+
+        // Then
+        assertThat(first).containsExactly(block);
+        assertThat(second).containsExactly(block);
+        verify(coreBlockRepository, times(1)).findBlockResponsesByWorkspaceId(workspaceId);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reload once another instance has bumped the workspace stamp")
+    void shouldReloadAfterRemoteWrite() {
+        // Given
+        CoreBlockResponse original = block("Original");
+        CoreBlockResponse renamed = new CoreBlockResponse(original.id(), workspaceId, null, null, "logic", "Renamed",
+                RawJson.of("{}"), RawJson.of("{}"), null, OffsetDateTime.now(), null);
+        when(contentVersions.current(scope)).thenReturn("5", "6");
+        when(coreBlockRepository.findBlockResponsesByWorkspaceId(workspaceId))
+                .thenReturn(List.of(original), List.of(renamed));
+
+        // When
+        cache.getBlocks(workspaceId);
+        List<CoreBlockResponse> afterRemoteWrite = cache.getBlocks(workspaceId);
+
+        // Then
+        assertThat(afterRemoteWrite).containsExactly(renamed);
+        verify(coreBlockRepository, times(2)).findBlockResponsesByWorkspaceId(workspaceId);
+    }
+
+    @Test
+    @DisplayName("Should apply a local write in place only when the graph is exactly one stamp behind it")
+    void shouldApplyLocalWriteOnlyOnMatchingStamp() {
+        // Given
+        CoreBlockResponse added = block("Added");
+        CoreBlockResponse missed = block("Missed");
+        when(coreBlockRepository.findBlockResponsesByWorkspaceId(workspaceId))
+                .thenReturn(List.of(), List.of(added, missed));
+        when(contentVersions.current(scope)).thenReturn("5", "6", "8", "8");
+        cache.getBlocks(workspaceId);
+
+        // When: a local write moves the stamp 5 -> 6 and is applied to the cached graph
+        when(contentVersions.bump(scope)).thenReturn(6L, 8L);
+        cache.afterCommit(workspaceId, graph -> graph.upsertBlock(added));
+        List<CoreBlockResponse> afterLocalWrite = cache.getBlocks(workspaceId);
+
+        // When: the next local write lands after one made elsewhere (7), so the graph is dropped
+        cache.afterCommit(workspaceId, graph -> graph.upsertBlock(block("Ignored")));
+        List<CoreBlockResponse> afterMissedWrite = cache.getBlocks(workspaceId);
+
+        // Then
+        assertThat(afterLocalWrite).containsExactly(added);
+        assertThat(afterMissedWrite).containsExactly(added, missed);
+        verify(coreBlockRepository, times(2)).findBlockResponsesByWorkspaceId(workspaceId);
+    }
+
+    @Test
+    @DisplayName("Should trust a graph for at most the max age while Redis is unreachable")
+    void shouldFallBackToMaxAgeWithoutRedis() {
+        // Given
+        when(contentVersions.current(scope)).thenReturn(null);
+        when(timeProvider.currentTimeMillis()).thenReturn(1_000L, 3_000L, 7_000L, 7_000L);
+        when(coreBlockRepository.findBlockResponsesByWorkspaceId(workspaceId)).thenReturn(List.of(block("Block")));
+
+        // When: loaded at 1s, read at 3s, read again at 7s
+        cache.getBlocks(workspaceId);
+        cache.getBlocks(workspaceId);
+        cache.getBlocks(workspaceId);
+
+        // Then
+        verify(coreBlockRepository, times(2)).findBlockResponsesByWorkspaceId(workspaceId);
+    }
+
+    @Test
+    @DisplayName("Should move the stamp along for changes outside the graph and keep serving it")
+    void shouldTouchStampWithoutReload() {
+        // Given
+        CoreBlockResponse block = block("Block");
+        when(contentVersions.current(scope)).thenReturn("5", "6");
+        when(coreBlockRepository.findBlockResponsesByWorkspaceId(workspaceId)).thenReturn(List.of(block));
+        cache.getBlocks(workspaceId);
+
+        // When
+        when(contentVersions.bump(scope)).thenReturn(6L);
+        cache.touchAfterCommit(workspaceId);
+        List<CoreBlockResponse> afterTouch = cache.getBlocks(workspaceId);
+
+        // Then
+        assertThat(afterTouch).containsExactly(block);
+        verify(contentVersions).bump(scope);
+        verify(coreBlockRepository, times(1)).findBlockResponsesByWorkspaceId(workspaceId);
+    }
+
+    private CoreBlockResponse block(String name) {
+        return new CoreBlockResponse(UUID.randomUUID(), workspaceId, null, null, "logic", name,
+                RawJson.of("{}"), RawJson.of("{}"), null, OffsetDateTime.now(), null);
+    }
+}
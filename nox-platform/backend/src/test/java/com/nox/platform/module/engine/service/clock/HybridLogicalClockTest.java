@@ -0,0 +1,100 @@
+package com.nox.platform.module.engine.service.clock;
+
+import com.nox.platform.shared.abstraction.TimeProvider;
+import com.nox.platform.shared.exception.DomainException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HybridLogicalClock Unit Tests")
+class HybridLogicalClockTest {
+
+    @Mock
+    private TimeProvider timeProvider;
+
+    private HybridLogicalClock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = new HybridLogicalClock(timeProvider);
+        ReflectionTestUtils.setField(clock, "nodeId", "srv-1");
+        ReflectionTestUtils.setField(clock, "maxDriftMs", 60_000L);
+    }
+
+    @Test
+    @DisplayName("Should keep increasing while the wall clock stalls or steps back")
+    void shouldBeMonotonic() {
+        // Given: a wall clock that stalls and then jumps backwards
+        when(timeProvider.currentTimeMillis()).thenReturn(1_000L, 1_000L, 900L);
+
+        // When
+        HlcTimestamp first = clock.now();
+        HlcTimestamp second = clock.now();
+        HlcTimestamp third = clock.now();
+
+        // Then
+        assertThat(first).isEqualTo(new HlcTimestamp(1_000L, 0, "srv-1"));
+        assertThat(second).isEqualTo(new HlcTimestamp(1_000L, 1, "srv-1"));
+        assertThat(third).isEqualTo(new HlcTimestamp(1_000L, 2, "srv-1"));
+    }
+
+    @Test
+    @DisplayName("Should move ahead of a received clock that runs slightly fast")
+    void shouldOvertakeReceivedClock() {
+        // Given
+        when(timeProvider.currentTimeMillis()).thenReturn(1_000L, 1_000L);
+        HlcTimestamp remote = new HlcTimestamp(5_000L, 3, "client-a");
+
+        // When
+        HlcTimestamp merged = clock.receive(remote);
+        HlcTimestamp next = clock.now();
+
+        // Then: later local events order after the remote one
+        assertThat(merged).isEqualTo(new HlcTimestamp(5_000L, 4, "srv-1"));
+        assertThat(next).isGreaterThan(remote);
+    }
+
+    @Test
+    @DisplayName("Should reject clocks too far ahead of the server")
+    void shouldRejectDriftingClock() {
+        // Given
+        when(timeProvider.currentTimeMillis()).thenReturn(1_000L);
+
+        // When & Then
+        assertThatThrownBy(() -> clock.receive(new HlcTimestamp(1_000L + 60_001L, 0, "client-a")))
+                .isInstanceOf(DomainException.class)
+                .hasFieldOrPropertyWithValue("code", "CLOCK_DRIFT");
+    }
+
+    @Test
+    @DisplayName("Should order the text form the same way as the timestamps")
+    void shouldOrderTextLikeTimestamps() {
+        // Given
+        List<HlcTimestamp> timestamps = new ArrayList<>(List.of(
+                new HlcTimestamp(0x10L, 0, "b"),
+                new HlcTimestamp(0x9L, 0xffff, "z"),
+                new HlcTimestamp(0x10L, 0, "a"),
+                new HlcTimestamp(0x10L, 1, "a")));
+
+        // When
+        List<String> byText = timestamps.stream().map(HlcTimestamp::toString).sorted().toList();
+        List<String> byClock = timestamps.stream().sorted(Comparator.naturalOrder()).map(HlcTimestamp::toString).toList();
+
+        // Then
+        assertThat(byText).isEqualTo(byClock);
+        assertThat(HlcTimestamp.parse(byText.get(0))).isEqualTo(new HlcTimestamp(0x9L, 0xffff, "z"));
+    }
+}
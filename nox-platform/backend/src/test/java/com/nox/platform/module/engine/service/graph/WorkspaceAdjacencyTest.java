@@ -0,0 +1,111 @@
+package com.nox.platform.module.engine.service.graph;
+
+import com.nox.platform.module.engine.api.response.CoreRelationResponse;
+import com.nox.platform.shared.model.RawJson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("WorkspaceAdjacency Unit Tests")
+class WorkspaceAdjacencyTest {
+
+    private List<UUID> blocks;
+
+    @BeforeEach
+    void setUp() {
+        blocks = IntStream.range(0, 6).mapToObj(i -> UUID.randomUUID()).toList();
+    }
+
+    @Test
+    @DisplayName("Should report downstream and upstream impact with hop depths")
+    void shouldTraverseImpact() {
+        // Given: 0 -> 1 -> 2 -> 3, plus a parallel wire 0 -> 1
+        WorkspaceAdjacency graph = WorkspaceAdjacency.build(blocks, List.of(
+                wire(0, 1), wire(0, 1), wire(1, 2), wire(2, 3)));
+
+        // When
+        int[] downstream = graph.reach(graph.indexOf(blocks.get(0)), true, -1);
+        int[] upstream = graph.reach(graph.indexOf(blocks.get(3)), false, 2);
+
+        // Then
+        assertThat(graph.edgeCount()).isEqualTo(4);
+        assertThat(downstream).containsExactly(0, 1, 2, 3, -1, -1);
+        assertThat(upstream).containsExactly(-1, 2, 1, 0, -1, -1);
+    }
+
+    @Test
+    @DisplayName("Should detect multi-node cycles and self-loops as strongly connected groups")
+    void shouldDetectCycles() {
+        // Given: 0 -> 1 -> 2 -> 0, 3 -> 3, 4 -> 5
+        WorkspaceAdjacency graph = WorkspaceAdjacency.build(blocks, List.of(
+                wire(0, 1), wire(1, 2), wire(2, 0), wire(3, 3), wire(4, 5)));
+
+        // When
+        List<int[]> cycles = graph.cycles();
+
+        // Then
+        assertThat(cycles).hasSize(2);
+        assertThat(cycles).anySatisfy(c -> assertThat(c).containsExactlyInAnyOrder(0, 1, 2));
+        assertThat(cycles).anySatisfy(c -> assertThat(c).containsExactly(3));
+    }
+
+    @Test
+    @DisplayName("Should order a DAG topologically and leave cyclic blocks out")
+    void shouldOrderTopologically() {
+        // Given: 5 -> 4 -> 0 and 1 <-> 2
+        WorkspaceAdjacency dag = WorkspaceAdjacency.build(blocks, List.of(wire(5, 4), wire(4, 0)));
+        WorkspaceAdjacency cyclic = WorkspaceAdjacency.build(blocks, List.of(wire(5, 4), wire(1, 2), wire(2, 1)));
+
+        // When
+        int[] order = dag.topologicalOrder();
+        int[] partial = cyclic.topologicalOrder();
+
+        // Then
+        assertThat(order).hasSize(6);
+        assertThat(positionOf(order, 5)).isLessThan(positionOf(order, 4));
+        assertThat(positionOf(order, 4)).isLessThan(positionOf(order, 0));
+        assertThat(partial).hasSize(4).doesNotContain(1, 2);
+    }
+
+    @Test
+    @DisplayName("Should handle a 100k-edge chain without recursion")
+    void shouldHandleDeepChains() {
+        // Given: a single 100k-node chain
+        List<UUID> nodes = IntStream.range(0, 100_000).mapToObj(i -> UUID.randomUUID()).toList();
+        List<CoreRelationResponse> relations = new ArrayList<>(nodes.size());
+        for (int i = 0; i + 1 < nodes.size(); i++) {
+            relations.add(relation(nodes.get(i), nodes.get(i + 1)));
+        }
+        relations.add(relation(nodes.get(nodes.size() - 1), nodes.get(0)));
+
+        // When
+        WorkspaceAdjacency graph = WorkspaceAdjacency.build(nodes, relations);
+
+        // Then: one giant cycle, found without a StackOverflowError
+        assertThat(graph.cycles()).singleElement().satisfies(c -> assertThat(c).hasSize(100_000));
+        assertThat(Arrays.stream(graph.reach(0, true, -1)).max().orElseThrow()).isEqualTo(99_999);
+    }
+
+    private CoreRelationResponse wire(int source, int target) {
+        return relation(blocks.get(source), blocks.get(target));
+    }
+
+    private CoreRelationResponse relation(UUID source, UUID target) {
+        return new CoreRelationResponse(UUID.randomUUID(), null, source, target, "flow", RawJson.of("{}"), RawJson.of("{}"), null);
+    }
+
+    private int positionOf(int[] order, int node) {
+        for (int i = 0; i < order.length; i++) {
+            if (order[i] == node) return i;
+        }
+        return -1;
+    }
+}
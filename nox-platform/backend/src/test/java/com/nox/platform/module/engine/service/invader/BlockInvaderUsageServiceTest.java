@@ -0,0 +1,146 @@
+package com.nox.platform.module.engine.service.invader;
+
+import com.nox.platform.module.engine.api.request.BulkAttachInvaderRequest;
+import com.nox.platform.module.engine.api.request.BulkDetachInvaderRequest;
+import com.nox.platform.module.engine.api.response.BlockInvaderUsageResponse;
+import com.nox.platform.module.engine.api.response.InvaderDetachResponse;
+import com.nox.platform.module.engine.domain.BlockInvaderUsage;
+import com.nox.platform.module.engine.domain.CoreBlock;
+import com.nox.platform.module.engine.infrastructure.BlockInvaderUsageRepository;
+import com.nox.platform.module.engine.infrastructure.CoreBlockRepository;
+import com.nox.platform.module.engine.service.BlockInvaderUsageService;
+import com.nox.platform.module.engine.service.WorkspaceService;
+import com.nox.platform.module.engine.service.cache.WorkspaceGraphCache;
+import com.nox.platform.module.warehouse.domain.InvaderDefinition;
+import com.nox.platform.module.warehouse.infrastructure.InvaderDefinitionRepository;
+import com.nox.platform.shared.abstraction.TimeProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BlockInvaderUsageService Unit Tests")
+class BlockInvaderUsageServiceTest {
+
+    @Mock
+    private BlockInvaderUsageRepository usageRepository;
+    @Mock
+    private CoreBlockRepository blockRepository;
+    @Mock
+    private InvaderDefinitionRepository invaderRepository;
+    @Mock
+    private WorkspaceService workspaceService;
+    @Mock
+    private TimeProvider timeProvider;
+    @Mock
+    private WorkspaceGraphCache graphCache;
+
+    @InjectMocks
+    private BlockInvaderUsageService usageService;
+
+    private final UUID workspaceId = UUID.randomUUID();
+    private final UUID attachedBlockId = UUID.randomUUID();
+    private final UUID detachedBlockId = UUID.randomUUID();
+    private final UUID freshBlockId = UUID.randomUUID();
+    private final OffsetDateTime now = OffsetDateTime.now();
+    private InvaderDefinition invader;
+
+    @BeforeEach
+    void setUp() {
+        invader = InvaderDefinition.builder().id(UUID.randomUUID()).code("logger").name("Logger").category("logic").build();
+        lenient().when(timeProvider.now()).thenReturn(now);
+        lenient().when(blockRepository.countByIdInAndWorkspace_Id(anyCollection(), eq(workspaceId)))
+                .thenAnswer(invocation -> (long) invocation.<Collection<?>>getArgument(0).size());
+        lenient().when(invaderRepository.findById(invader.getId())).thenReturn(Optional.of(invader));
+        lenient().when(usageRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("Should skip blocks that already carry the invader, revive detached usages and create the rest")
+    void shouldSkipDuplicatesAndReviveDetachedUsages() {
+        // Given: one live usage, one soft-deleted usage and one block without any
+        BlockInvaderUsage live = usage(attachedBlockId, null);
+        BlockInvaderUsage detached = usage(detachedBlockId, now.minusDays(1));
+        when(usageRepository.findByBlock_IdInAndInvaderAsset_Id(anyCollection(), eq(invader.getId())))
+                .thenReturn(List.of(live, detached));
+        when(blockRepository.getReferenceById(freshBlockId)).thenReturn(CoreBlock.builder().id(freshBlockId).build());
+
+        // When
+        List<BlockInvaderUsageResponse> attached = usageService.attachInvaderToBlocks(workspaceId, new BulkAttachInvaderRequest(
+                List.of(attachedBlockId, detachedBlockId, freshBlockId), invader.getId(), "2.0.0", Map.of("level", "debug")));
+
+        // Then: the live usage is untouched, the detached one revived with the new settings
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BlockInvaderUsage>> saved = ArgumentCaptor.forClass(List.class);
+        verify(usageRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).hasSize(2).first().isSameAs(detached);
+        assertThat(detached.getDeletedAt()).isNull();
+        assertThat(detached.getAppliedVersion()).isEqualTo("2.0.0");
+        assertThat(live.getAppliedVersion()).isEqualTo("1.0.0");
+        assertThat(attached).extracting(BlockInvaderUsageResponse::blockId).containsExactly(detachedBlockId, freshBlockId);
+        verify(graphCache).touchAfterCommit(workspaceId);
+    }
+
+    @Test
+    @DisplayName("Should write nothing and keep the stamp when every block already carries the invader")
+    void shouldSkipWhenAllAttached() {
+        // Given
+        when(usageRepository.findByBlock_IdInAndInvaderAsset_Id(anyCollection(), eq(invader.getId())))
+                .thenReturn(List.of(usage(attachedBlockId, null)));
+
+        // When
+        List<BlockInvaderUsageResponse> attached = usageService.attachInvaderToBlocks(workspaceId,
+                new BulkAttachInvaderRequest(List.of(attachedBlockId), invader.getId(), null, null));
+
+        // Then
+        assertThat(attached).isEmpty();
+        verify(usageRepository, never()).saveAll(anyList());
+        verifyNoInteractions(graphCache);
+    }
+
+    @Test
+    @DisplayName("Should return how many usages a bulk detach removed and only touch the stamp when it removed any")
+    void shouldReturnDetachCount() {
+        // Given
+        when(usageRepository.softDeleteUsagesOfInvader(anyList(), eq(invader.getId()), eq(now))).thenReturn(2, 0);
+        BulkDetachInvaderRequest request = new BulkDetachInvaderRequest(
+                List.of(attachedBlockId, detachedBlockId, freshBlockId), invader.getId());
+
+        // When
+        InvaderDetachResponse first = usageService.detachInvaderFromBlocks(workspaceId, request);
+        InvaderDetachResponse second = usageService.detachInvaderFromBlocks(workspaceId, request);
+
+        // Then
+        assertThat(first.invaderAssetId()).isEqualTo(invader.getId());
+        assertThat(first.detachedUsages()).isEqualTo(2);
+        assertThat(second.detachedUsages()).isZero();
+        verify(graphCache, times(1)).touchAfterCommit(workspaceId);
+    }
+
+    private BlockInvaderUsage usage(UUID blockId, OffsetDateTime deletedAt) {
+        return BlockInvaderUsage.builder()
+                .id(UUID.randomUUID())
+                .block(CoreBlock.builder().id(blockId).build())
+                .invaderAsset(invader)
+                .appliedVersion("1.0.0")
+                .createdAt(now.minusDays(2))
+                .deletedAt(deletedAt)
+                .build();
+    }
+}
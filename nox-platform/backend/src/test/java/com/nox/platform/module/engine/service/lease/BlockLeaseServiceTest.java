@@ -0,0 +1,143 @@
+package com.nox.platform.module.engine.service.lease;
+
+import com.nox.platform.module.engine.api.response.BlockLeaseEvent;
+import com.nox.platform.module.engine.api.response.BlockLeaseResponse;
+import com.nox.platform.module.engine.infrastructure.CoreBlockRepository;
+import com.nox.platform.module.engine.service.BlockLeaseService;
+import com.nox.platform.module.engine.service.WorkspaceService;
+import com.nox.platform.shared.abstraction.TimeProvider;
+import com.nox.platform.shared.exception.DomainException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BlockLeaseService Unit Tests")
+class BlockLeaseServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+    @Mock
+    private WorkspaceService workspaceService;
+    @Mock
+    private CoreBlockRepository coreBlockRepository;
+    @Mock
+    private TimeProvider timeProvider;
+
+    @InjectMocks
+    private BlockLeaseService blockLeaseService;
+
+    private final UUID workspaceId = UUID.randomUUID();
+    private final UUID userId = UUID.randomUUID();
+    private final UUID blockA = UUID.randomUUID();
+    private final UUID blockB = UUID.randomUUID();
+    private final OffsetDateTime now = OffsetDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(blockLeaseService, "ttlSeconds", 120L);
+        lenient().when(timeProvider.now()).thenReturn(now);
+        lenient().when(coreBlockRepository.countByIdInAndWorkspace_Id(anyCollection(), eq(workspaceId))).thenReturn(2L);
+    }
+
+    @Test
+    @DisplayName("Should acquire all leases of a multi-select and broadcast the change")
+    void shouldAcquireBatchAndBroadcast() {
+        // Given: no conflicting holders
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(List.of());
+
+        // When
+        BlockLeaseResponse response = blockLeaseService.acquire(workspaceId, List.of(blockA, blockB), userId);
+
+        // Then
+        assertThat(response.blockIds()).containsExactly(blockA, blockB);
+        assertThat(response.expiresAt()).isEqualTo(now.plusSeconds(120));
+
+        ArgumentCaptor<BlockLeaseEvent> event = ArgumentCaptor.forClass(BlockLeaseEvent.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/workspace/" + workspaceId), event.capture());
+        assertThat(event.getValue().type()).isEqualTo(BlockLeaseEvent.Type.ACQUIRED);
+        assertThat(event.getValue().holderId()).isEqualTo(userId);
+    }
+
+    @Test
+    @DisplayName("Should reject the whole batch when any block is held by another user")
+    void shouldRejectBatchOnConflict() {
+        // Given: the second key (1-based index 2) is held by someone else
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(List.of(2L));
+
+        // When & Then
+        assertThatThrownBy(() -> blockLeaseService.acquire(workspaceId, List.of(blockA, blockB), userId))
+                .isInstanceOf(DomainException.class)
+                .hasFieldOrPropertyWithValue("code", "BLOCK_LOCKED")
+                .hasMessageContaining(blockB.toString());
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    @DisplayName("Should report only the leases still owned on heartbeat")
+    void shouldRenewOnlyOwnedLeases() {
+        // Given: only the first lease is still owned
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(List.of(1L));
+
+        // When
+        BlockLeaseResponse response = blockLeaseService.renew(workspaceId, List.of(blockA, blockB), userId);
+
+        // Then
+        assertThat(response.blockIds()).containsExactly(blockA);
+        verify(workspaceService).checkWorkspaceAccess(workspaceId);
+        verifyNoInteractions(messagingTemplate, coreBlockRepository);
+    }
+
+    @Test
+    @DisplayName("Should refuse to renew or release leases in a workspace the caller cannot access")
+    void shouldCheckAccessOnRenewAndRelease() {
+        // Given
+        doThrow(new DomainException("WORKSPACE_NOT_FOUND", "Workspace not found"))
+                .when(workspaceService).checkWorkspaceAccess(workspaceId);
+
+        // When & Then
+        assertThatThrownBy(() -> blockLeaseService.renew(workspaceId, List.of(blockA), userId))
+                .isInstanceOf(DomainException.class)
+                .hasFieldOrPropertyWithValue("code", "WORKSPACE_NOT_FOUND");
+        assertThatThrownBy(() -> blockLeaseService.release(workspaceId, List.of(blockA), userId))
+                .isInstanceOf(DomainException.class)
+                .hasFieldOrPropertyWithValue("code", "WORKSPACE_NOT_FOUND");
+        verifyNoInteractions(redisTemplate, messagingTemplate);
+    }
+
+    @Test
+    @DisplayName("Should treat blocks as unleased when Redis cannot be reached")
+    void shouldFailOpenWhenRedisIsDown() {
+        // Given
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenThrow(new RedisConnectionFailureException("Connection refused"));
+        when(valueOperations.multiGet(anyCollection())).thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+        // When & Then
+        assertThat(blockLeaseService.isLockedByOther(workspaceId, blockA, userId)).isFalse();
+        assertThat(blockLeaseService.findHolders(workspaceId, List.of(blockA, blockB))).isEmpty();
+    }
+}
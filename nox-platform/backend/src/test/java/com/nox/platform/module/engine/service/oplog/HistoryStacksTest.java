@@ -0,0 +1,116 @@
+package com.nox.platform.module.engine.service.oplog;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nox.platform.module.engine.domain.OperationEntityType;
+import com.nox.platform.module.engine.domain.OperationKind;
+import com.nox.platform.module.engine.infrastructure.WorkspaceOperationRepository.OperationGroupView;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Operation Log History Unit Tests")
+class HistoryStacksTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should undo the latest group and offer nothing to redo")
+    void shouldUndoLatestGroup() {
+        // Given
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        // When
+        HistoryStacks stacks = HistoryStacks.replay(newestFirst(done(first), done(second)));
+
+        // Then
+        assertThat(stacks.nextUndo()).isEqualTo(second);
+        assertThat(stacks.nextRedo()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should move groups between undo and redo stacks as steps are logged")
+    void shouldTrackUndoAndRedo() {
+        // Given
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        // When: second is undone
+        HistoryStacks afterUndo = HistoryStacks.replay(newestFirst(done(first), done(second), step(OperationKind.UNDO, second)));
+        // When: and redone again
+        HistoryStacks afterRedo = HistoryStacks.replay(newestFirst(done(first), done(second),
+                step(OperationKind.UNDO, second), step(OperationKind.REDO, second)));
+
+        // Then
+        assertThat(afterUndo.nextUndo()).isEqualTo(first);
+        assertThat(afterUndo.nextRedo()).isEqualTo(second);
+        assertThat(afterRedo.nextUndo()).isEqualTo(second);
+        assertThat(afterRedo.nextRedo()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should discard the redo stack when a new edit follows an undo")
+    void shouldClearRedoOnNewEdit() {
+        // Given
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+
+        // When
+        HistoryStacks stacks = HistoryStacks.replay(newestFirst(done(first), done(second),
+                step(OperationKind.UNDO, second), done(third)));
+
+        // Then
+        assertThat(stacks.nextUndo()).isEqualTo(third);
+        assertThat(stacks.nextRedo()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should compare only editable content and treat equal numbers as equal")
+    void shouldCompareContentOnly() throws Exception {
+        // Given: same position written as integer and as double, different timestamps
+        JsonNode stored = objectMapper.readTree("""
+                {"name": "A", "parentBlockId": null, "config": {}, "visual": {"position": {"x": 100, "y": 20}}, "updatedAt": "2026-01-01T00:00:00Z"}
+                """);
+        JsonNode logged = objectMapper.readTree("""
+                {"name": "A", "config": {}, "visual": {"position": {"x": 100.0, "y": 20.0}}, "updatedAt": "2026-02-01T00:00:00Z"}
+                """);
+        JsonNode renamed = objectMapper.readTree("""
+                {"name": "B", "config": {}, "visual": {"position": {"x": 100, "y": 20}}}
+                """);
+
+        // Then
+        assertThat(WorkspaceHistoryService.sameContent(OperationEntityType.BLOCK, stored, logged)).isTrue();
+        assertThat(WorkspaceHistoryService.sameContent(OperationEntityType.BLOCK, stored, renamed)).isFalse();
+        assertThat(WorkspaceHistoryService.sameContent(OperationEntityType.BLOCK, stored, null)).isFalse();
+        assertThat(WorkspaceHistoryService.sameContent(OperationEntityType.BLOCK, null, null)).isTrue();
+    }
+
+    private static List<OperationGroupView> newestFirst(OperationGroupView... oldestFirst) {
+        List<OperationGroupView> groups = new ArrayList<>(List.of(oldestFirst));
+        Collections.reverse(groups);
+        return groups;
+    }
+
+    private static OperationGroupView done(UUID groupId) {
+        return new Group(groupId, OperationKind.DO.name(), null);
+    }
+
+    private static OperationGroupView step(OperationKind kind, UUID revertsGroupId) {
+        return new Group(UUID.randomUUID(), kind.name(), revertsGroupId);
+    }
+
+    private record Group(UUID getGroupId, String getKind, UUID getRevertsGroupId) implements OperationGroupView {
+        @Override
+        public Long getLastId() {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.nox.platform.module.engine.service.oplog;
+
+import com.nox.platform.BaseIntegrationTest;
+import com.nox.platform.module.engine.api.request.BlockOperationRequest;
+import com.nox.platform.module.engine.api.request.BlockOperationType;
+import com.nox.platform.module.engine.api.request.CreateCoreBlockRequest;
+import com.nox.platform.module.engine.api.request.CreateCoreRelationRequest;
+import com.nox.platform.module.engine.api.request.UpdateCoreBlockRequest;
+import com.nox.platform.module.engine.api.response.BlockOperationResult;
+import com.nox.platform.module.engine.api.response.CoreBlockResponse;
+import com.nox.platform.module.engine.api.response.CoreRelationResponse;
+import com.nox.platform.module.engine.api.response.HistoryStepResponse;
+import com.nox.platform.module.engine.api.response.WorkspaceStateResponse;
+import com.nox.platform.module.engine.domain.CoreBlock;
+import com.nox.platform.module.engine.domain.OperationKind;
+import com.nox.platform.module.engine.domain.Project;
+import com.nox.platform.module.engine.domain.Workspace;
+import com.nox.platform.module.engine.domain.WorkspaceStatus;
+import com.nox.platform.module.engine.domain.WorkspaceType;
+import com.nox.platform.module.engine.infrastructure.CoreBlockRepository;
+import com.nox.platform.module.engine.infrastructure.ProjectRepository;
+import com.nox.platform.module.engine.infrastructure.WorkspaceRepository;
+import com.nox.platform.module.engine.service.CoreBlockService;
+import com.nox.platform.module.engine.service.CoreRelationService;
+import com.nox.platform.module.iam.domain.User;
+import com.nox.platform.module.iam.infrastructure.UserRepository;
+import com.nox.platform.module.iam.infrastructure.security.CustomUserDetails;
+import com.nox.platform.module.tenant.domain.Organization;
+import com.nox.platform.module.tenant.infrastructure.OrganizationRepository;
+import com.nox.platform.shared.exception.DomainException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Undo, redo and rewinding against the real operation log. Not transactional: the log is only
+ * written when a mutation commits, so every call below goes through the workspace writer.
+ */
+@DisplayName("WorkspaceHistoryService Integration Tests (PostgreSQL)")
+class WorkspaceHistoryServiceIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private WorkspaceHistoryService historyService;
+
+    @Autowired
+    private CoreBlockService coreBlockService;
+
+    @Autowired
+    private CoreRelationService coreRelationService;
+
+    @Autowired
+    private CoreBlockRepository coreBlockRepository;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Organization organization;
+    private Workspace workspace;
+    private User user;
+    private User peer;
+    private SecurityContext userContext;
+    private SecurityContext peerContext;
+
+    @BeforeEach
+    void setUp() {
+        organization = Organization.builder()
+                .name("History Test Org")
+                .slug("history-org-" + UUID.randomUUID())
+                .build();
+        organization.initializeTimestamps(OffsetDateTime.now());
+        organization = organizationRepository.save(organization);
+
+        user = createUser("history");
+        peer = createUser("peer");
+
+        Project project = Project.builder()
+                .organization(organization)
+                .createdBy(user)
+                .name("History Project")
+                .slug("history-project-" + UUID.randomUUID())
+                .build();
+        project.initializeTimestamps(OffsetDateTime.now());
+        project = projectRepository.save(project);
+
+        workspace = Workspace.builder()
+                .project(project)
+                .createdBy(user)
+                .name("History Workspace")
+                .type(WorkspaceType.CANVAS)
+                .status(WorkspaceStatus.DRAFT)
+                .build();
+        workspace.initializeTimestamps(OffsetDateTime.now());
+        workspace = workspaceRepository.save(workspace);
+
+        userContext = contextOf(user);
+        peerContext = contextOf(peer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should undo a whole batch as one step and redo it again")
+    void shouldUndoAndRedoBatchGroup() {
+        // Given: one batch creating a block and renaming an existing one
+        CoreBlock existing = createBlock("Original");
+        List<BlockOperationResult> results = as(userContext, () -> coreBlockService.applyBatch(workspace.getId(), List.of(
+                new BlockOperationRequest(BlockOperationType.CREATE, null, null, null, "logic", "Created", null, null),
+                new BlockOperationRequest(BlockOperationType.UPDATE, existing.getId(), null, null, null, "Renamed", null, null)),
+                user.getId()));
+        UUID createdId = results.get(0).blockId();
+
+        // When
+        HistoryStepResponse undo = as(userContext, () -> historyService.undo(workspace.getId(), user.getId()));
+
+        // Then: both operations are reverted together
+        assertThat(undo.kind()).isEqualTo(OperationKind.UNDO);
+        assertThat(undo.removedBlockIds()).containsExactly(createdId);
+        assertThat(undo.blocks()).extracting(CoreBlockResponse::name).containsExactly("Original");
+        assertThat(coreBlockRepository.findByIdAndWorkspace_Id(createdId, workspace.getId())).isEmpty();
+        assertThat(liveName(existing.getId())).isEqualTo("Original");
+
+        // When
+        HistoryStepResponse redo = as(userContext, () -> historyService.redo(workspace.getId(), user.getId()));
+
+        // Then: the same group is applied again, reviving the created block
+        assertThat(redo.kind()).isEqualTo(OperationKind.REDO);
+        assertThat(redo.revertedGroupId()).isEqualTo(undo.revertedGroupId());
+        assertThat(redo.blocks()).extracting(CoreBlockResponse::id).containsExactlyInAnyOrder(createdId, existing.getId());
+        assertThat(liveName(createdId)).isEqualTo("Created");
+        assertThat(liveName(existing.getId())).isEqualTo("Renamed");
+    }
+
+    @Test
+    @DisplayName("Should refuse to undo an edit another user has changed since")
+    void shouldRejectUndoOverPeerEdit() {
+        // Given
+        CoreBlock block = createBlock("Original");
+        as(userContext, () -> rename(block.getId(), "Mine"));
+        as(peerContext, () -> rename(block.getId(), "Theirs"));
+
+        // When / Then
+        assertThatThrownBy(() -> as(userContext, () -> historyService.undo(workspace.getId(), user.getId())))
+                .isInstanceOf(DomainException.class)
+                .extracting(e -> ((DomainException) e).getCode())
+                .isEqualTo("HISTORY_CONFLICT");
+        assertThat(liveName(block.getId())).isEqualTo("Theirs");
+    }
+
+    @Test
+    @DisplayName("Should remove the wires attached to a block when its creation is undone")
+    void shouldRemoveWiresWhenUndoingCreate() {
+        // Given: a block the user created, which a peer then wired up
+        CoreBlock target = createBlock("Target");
+        CoreBlockResponse created = as(userContext, () -> coreBlockService.createBlock(workspace.getId(),
+                new CreateCoreBlockRequest(null, null, null, "logic", "Source", null, null), user.getId()));
+        CoreRelationResponse wire = as(peerContext, () -> coreRelationService.createRelation(workspace.getId(),
+                new CreateCoreRelationRequest(created.id(), target.getId(), "flow", null, null)));
+
+        // When
+        HistoryStepResponse undo = as(userContext, () -> historyService.undo(workspace.getId(), user.getId()));
+
+        // Then
+        assertThat(undo.removedBlockIds()).containsExactly(created.id());
+        assertThat(undo.removedRelationIds()).containsExactly(wire.id());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT deleted_at IS NOT NULL FROM core_relations WHERE id = ?", Boolean.class, wire.id())).isTrue();
+        assertThat(liveName(target.getId())).isEqualTo("Target");
+    }
+
+    @Test
+    @DisplayName("Should reconstruct the workspace as it was before a later delete")
+    void shouldReconstructStateBeforeDelete() {
+        // Given: a wired block, then its delete
+        CoreBlock target = createBlock("Target");
+        CoreBlockResponse doomed = as(userContext, () -> coreBlockService.createBlock(workspace.getId(),
+                new CreateCoreBlockRequest(null, null, null, "logic", "Doomed", null, null), user.getId()));
+        CoreRelationResponse wire = as(userContext, () -> coreRelationService.createRelation(workspace.getId(),
+                new CreateCoreRelationRequest(doomed.id(), target.getId(), "flow", null, null)));
+        long at = jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM workspace_operations WHERE workspace_id = ?", Long.class, workspace.getId());
+        as(userContext, () -> {
+            coreBlockService.deleteBlock(workspace.getId(), doomed.id());
+            return null;
+        });
+
+        // When
+        WorkspaceStateResponse state = as(userContext, () -> historyService.getStateAt(workspace.getId(), at));
+
+        // Then: the deleted block and its wire are back in the rewound state only
+        assertThat(state.at()).isEqualTo(at);
+        assertThat(state.blocks()).extracting(CoreBlockResponse::id).containsExactlyInAnyOrder(doomed.id(), target.getId());
+        assertThat(state.blocks()).filteredOn(block -> block.id().equals(doomed.id()))
+                .singleElement().extracting(CoreBlockResponse::name).isEqualTo("Doomed");
+        assertThat(state.relations()).extracting(CoreRelationResponse::id).containsExactly(wire.id());
+        assertThat(coreBlockRepository.findByIdAndWorkspace_Id(doomed.id(), workspace.getId())).isEmpty();
+    }
+
+    private CoreBlockResponse rename(UUID blockId, String name) {
+        return coreBlockService.updateBlock(workspace.getId(), blockId,
+                new UpdateCoreBlockRequest(name, null, null, null, null, null));
+    }
+
+    private String liveName(UUID blockId) {
+        return coreBlockRepository.findByIdAndWorkspace_Id(blockId, workspace.getId()).orElseThrow().getName();
+    }
+
+    private static <T> T as(SecurityContext context, Supplier<T> call) {
+        SecurityContextHolder.setContext(context);
+        try {
+            return call.get();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private SecurityContext contextOf(User member) {
+        CustomUserDetails principal = new CustomUserDetails(member.getId(), organization.getId(), member.getEmail(), "", List.of());
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        return context;
+    }
+
+    private User createUser(String prefix) {
+        User created = User.builder()
+                .email(prefix + "-" + UUID.randomUUID() + "@example.com")
+                .fullName("History User")
+                .build();
+        created.initializeTimestamps(OffsetDateTime.now());
+        return userRepository.save(created);
+    }
+
+    private CoreBlock createBlock(String name) {
+        CoreBlock block = CoreBlock.builder()
+                .workspace(workspace)
+                .name(name)
+                .type("logic")
+                .createdBy(user)
+                .build();
+        block.initializeTimestamps(OffsetDateTime.now());
+        return coreBlockRepository.save(block);
+    }
+}
@@ -0,0 +1,190 @@
+package com.nox.platform.module.engine.service.position;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nox.platform.module.engine.api.request.BlockMovePayload;
+import com.nox.platform.module.engine.api.response.CoreBlockResponse;
+import com.nox.platform.module.engine.infrastructure.CoreBlockRepository;
+import com.nox.platform.module.engine.service.BlockLeaseService;
+import com.nox.platform.module.engine.service.BlockPositionBuffer;
+import com.nox.platform.module.engine.service.cache.WorkspaceGraphCache;
+import com.nox.platform.module.engine.service.clock.HlcTimestamp;
+import com.nox.platform.module.engine.service.clock.HybridLogicalClock;
+import com.nox.platform.module.engine.service.oplog.WorkspaceOperationLog;
+import com.nox.platform.module.engine.service.writer.WorkspaceWriter;
+import com.nox.platform.shared.abstraction.TimeProvider;
+import com.nox.platform.shared.model.RawJson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BlockPositionBuffer Unit Tests")
+class BlockPositionBufferTest {
+
+    @Mock
+    private CoreBlockRepository coreBlockRepository;
+    @Mock
+    private BlockLeaseService blockLeaseService;
+    @Mock
+    private WorkspaceGraphCache graphCache;
+    @Mock
+    private TimeProvider timeProvider;
+    @Mock
+    private WorkspaceOperationLog operationLog;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private HybridLogicalClock hybridClock;
+    @Mock
+    private WorkspaceWriter workspaceWriter;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private BlockPositionBuffer buffer;
+
+    private final UUID workspaceId = UUID.randomUUID();
+    private final UUID userId = UUID.randomUUID();
+    private final UUID blockId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        buffer = new BlockPositionBuffer(coreBlockRepository, blockLeaseService, graphCache, timeProvider, objectMapper,
+                operationLog, new TransactionTemplate(transactionManager), hybridClock, workspaceWriter);
+        lenient().when(workspaceWriter.submit(eq(workspaceId), any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(
+                        invocation.<WorkspaceWriter.Mutation<?>>getArgument(1).apply()));
+        lenient().when(timeProvider.now()).thenReturn(OffsetDateTime.now());
+        lenient().when(hybridClock.now()).thenReturn(new HlcTimestamp(1L, 0, "test"));
+        lenient().when(blockLeaseService.findHolders(eq(workspaceId), anyCollection())).thenReturn(Map.of());
+    }
+
+    @Test
+    @DisplayName("Should coalesce intermediate drag frames into a single write of the latest position")
+    void shouldCoalesceFrames() {
+        // Given: three frames for the same block
+        buffer.submit(workspaceId, userId, List.of(position(blockId, 1, 1)), false);
+        buffer.submit(workspaceId, userId, List.of(position(blockId, 2, 2)), false);
+        buffer.submit(workspaceId, userId, List.of(position(blockId, 3, 4)), false);
+        verifyNoInteractions(coreBlockRepository);
+
+        // When
+        buffer.flushPending();
+        buffer.flushPending();
+
+        // Then: one statement carrying only the last frame
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        verify(coreBlockRepository, times(1)).updatePositions(eq(workspaceId), json.capture(), any(), any());
+        assertThat(json.getValue()).contains("\"x\":3.0").contains("\"y\":4.0").doesNotContain("\"x\":1.0");
+    }
+
+    @Test
+    @DisplayName("Should flush immediately on drag end and drop blocks leased by another user")
+    void shouldFlushOnDragEndAndSkipLeasedBlocks() {
+        // Given
+        UUID leasedBlockId = UUID.randomUUID();
+        when(blockLeaseService.findHolders(eq(workspaceId), anyCollection())).thenReturn(Map.of(leasedBlockId, UUID.randomUUID()));
+
+        // When
+        List<BlockMovePayload.Position> accepted = buffer.submit(workspaceId, userId,
+                List.of(position(blockId, 5, 5), position(leasedBlockId, 9, 9)), true);
+
+        // Then
+        assertThat(accepted).extracting(BlockMovePayload.Position::getBlockId).containsExactly(blockId);
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        verify(coreBlockRepository).updatePositions(eq(workspaceId), json.capture(), any(), any());
+        assertThat(json.getValue()).contains(blockId.toString()).doesNotContain(leasedBlockId.toString());
+    }
+
+    @Test
+    @DisplayName("Should log the dragged rows as read before and after the update, skipping rows the update left alone")
+    void shouldLogWrittenRows() {
+        // Given: the second block's position register holds a newer stamp, so the update skips it
+        UUID skippedBlockId = UUID.randomUUID();
+        CoreBlockResponse before = block(blockId, 0, 0, OffsetDateTime.now().minusMinutes(1));
+        CoreBlockResponse after = block(blockId, 5, 5, OffsetDateTime.now());
+        CoreBlockResponse skipped = block(skippedBlockId, 1, 1, OffsetDateTime.now().minusMinutes(1));
+        when(coreBlockRepository.findBlockResponsesByIds(eq(workspaceId), anyList()))
+                .thenReturn(List.of(before, skipped), List.of(after, skipped));
+
+        // When
+        buffer.submit(workspaceId, userId, List.of(position(blockId, 5, 5), position(skippedBlockId, 7, 7)), true);
+
+        // Then
+        verify(operationLog).recordBlockMoves(eq(workspaceId), eq(userId), any(), eq(List.of(before)), eq(List.of(after)));
+        verify(graphCache).afterCommit(eq(workspaceId), any());
+    }
+
+    @Test
+    @DisplayName("Should retry a failed write only when no newer position for the block was accepted since")
+    void shouldRetryFailedWriteUnlessSuperseded() {
+        // Given: two drags of the same block handed to the writer, neither committed yet
+        CompletableFuture<Object> older = new CompletableFuture<>();
+        CompletableFuture<Object> newer = new CompletableFuture<>();
+        when(workspaceWriter.submit(eq(workspaceId), any())).thenReturn(older, newer, new CompletableFuture<>());
+        buffer.submit(workspaceId, userId, List.of(position(blockId, 1, 1)), true);
+        buffer.submit(workspaceId, userId, List.of(position(blockId, 2, 2)), true);
+
+        // When: the older write fails, it is superseded and dropped
+        older.completeExceptionally(new IllegalStateException("connection reset"));
+        buffer.flushPending();
+
+        // Then
+        verify(workspaceWriter, times(2)).submit(eq(workspaceId), any());
+
+        // When: the newer write fails, it is buffered again and retried on the next flush
+        newer.completeExceptionally(new IllegalStateException("connection reset"));
+        buffer.flushPending();
+
+        // Then
+        verify(workspaceWriter, times(3)).submit(eq(workspaceId), any());
+    }
+
+    @Test
+    @DisplayName("Should buffer the same block id separately per workspace")
+    void shouldKeepWorkspacesApart() {
+        // Given: a frame from another workspace naming this workspace's block id
+        UUID otherWorkspaceId = UUID.randomUUID();
+        when(blockLeaseService.findHolders(eq(otherWorkspaceId), anyCollection())).thenReturn(Map.of());
+        when(workspaceWriter.submit(eq(otherWorkspaceId), any())).thenReturn(new CompletableFuture<>());
+        buffer.submit(workspaceId, userId, List.of(position(blockId, 1, 1)), false);
+        buffer.submit(otherWorkspaceId, userId, List.of(position(blockId, 9, 9)), false);
+
+        // When
+        buffer.flushPending();
+
+        // Then: this workspace still writes its own position
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        verify(coreBlockRepository).updatePositions(eq(workspaceId), json.capture(), any(), any());
+        assertThat(json.getValue()).contains("\"x\":1.0").doesNotContain("\"x\":9.0");
+        verify(workspaceWriter).submit(eq(otherWorkspaceId), any());
+    }
+
+    private BlockMovePayload.Position position(UUID id, double x, double y) {
+        BlockMovePayload.Position position = new BlockMovePayload.Position();
+        position.setBlockId(id);
+        position.setX(x);
+        position.setY(y);
+        return position;
+    }
+
+    private CoreBlockResponse block(UUID id, double x, double y, OffsetDateTime updatedAt) {
+        return new CoreBlockResponse(id, workspaceId, null, null, "logic", "Block", RawJson.of("{}"),
+                RawJson.of(Map.of("position", Map.of("x", x, "y", y)), objectMapper), userId, updatedAt, null);
+    }
+}
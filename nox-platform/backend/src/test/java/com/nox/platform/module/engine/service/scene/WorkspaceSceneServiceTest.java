@@ -0,0 +1,102 @@
+package com.nox.platform.module.engine.service.scene;
+
+import com.nox.platform.module.engine.api.response.BlockInvaderUsageResponse;
+import com.nox.platform.module.engine.api.response.WorkspaceSceneResponse;
+import com.nox.platform.module.engine.infrastructure.BlockInvaderUsageRepository;
+import com.nox.platform.module.engine.service.WorkspaceSceneService;
+import com.nox.platform.module.engine.service.WorkspaceService;
+import com.nox.platform.module.engine.service.cache.WorkspaceGraphCache;
+import com.nox.platform.module.engine.service.cache.WorkspaceGraphSnapshot;
+import com.nox.platform.shared.exception.DomainException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WorkspaceSceneService Unit Tests")
+class WorkspaceSceneServiceTest {
+
+    @Mock
+    private WorkspaceService workspaceService;
+    @Mock
+    private WorkspaceGraphCache graphCache;
+    @Mock
+    private BlockInvaderUsageRepository usageRepository;
+
+    private WorkspaceSceneService sceneService;
+
+    private final UUID workspaceId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        sceneService = new WorkspaceSceneService(workspaceService, graphCache, usageRepository);
+    }
+
+    @Test
+    @DisplayName("Should read the graph and the usages one after the other on the calling thread")
+    void shouldReadSequentiallyOnCallingThread() {
+        // Given
+        UUID firstBlock = UUID.randomUUID();
+        UUID secondBlock = UUID.randomUUID();
+        BlockInvaderUsageResponse first = usage(firstBlock);
+        BlockInvaderUsageResponse second = usage(secondBlock);
+        BlockInvaderUsageResponse third = usage(firstBlock);
+        List<Thread> readers = new CopyOnWriteArrayList<>();
+        when(graphCache.getSnapshot(workspaceId)).thenAnswer(invocation -> {
+            readers.add(Thread.currentThread());
+            return new WorkspaceGraphSnapshot(List.of(), List.of());
+        });
+        when(usageRepository.findUsageResponsesByWorkspaceId(workspaceId)).thenAnswer(invocation -> {
+            readers.add(Thread.currentThread());
+            return List.of(first, second, third);
+        });
+
+        // When
+        WorkspaceSceneResponse scene = sceneService.getScene(workspaceId);
+
+        // Then: no extra threads, so the request never holds more than its own connection
+        assertThat(readers).containsExactly(Thread.currentThread(), Thread.currentThread());
+        assertThat(scene.invaderUsages()).containsExactly(
+                Map.entry(firstBlock, List.of(first, third)),
+                Map.entry(secondBlock, List.of(second)));
+        InOrder order = inOrder(workspaceService, graphCache, usageRepository);
+        order.verify(workspaceService).checkWorkspaceAccess(workspaceId);
+        order.verify(graphCache).getSnapshot(workspaceId);
+        order.verify(usageRepository).findUsageResponsesByWorkspaceId(workspaceId);
+    }
+
+    @Test
+    @DisplayName("Should not read anything when workspace access is denied")
+    void shouldCheckAccessBeforeReading() {
+        // Given
+        doThrow(new DomainException("FORBIDDEN", "No access to this workspace"))
+                .when(workspaceService).checkWorkspaceAccess(workspaceId);
+
+        // When / Then
+        assertThatThrownBy(() -> sceneService.getScene(workspaceId))
+                .isInstanceOf(DomainException.class);
+        verifyNoInteractions(graphCache, usageRepository);
+    }
+
+    private static BlockInvaderUsageResponse usage(UUID blockId) {
+        return new BlockInvaderUsageResponse(UUID.randomUUID(), blockId, UUID.randomUUID(), "1.0.0",
+                Map.of(), OffsetDateTime.now());
+    }
+}
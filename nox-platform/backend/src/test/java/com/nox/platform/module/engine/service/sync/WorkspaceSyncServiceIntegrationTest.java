@@ -0,0 +1,173 @@
+package com.nox.platform.module.engine.service.sync;
+
+import com.nox.platform.BaseIntegrationTest;
+import com.nox.platform.module.engine.api.response.CoreBlockResponse;
+import com.nox.platform.module.engine.api.response.WorkspaceChangesResponse;
+import com.nox.platform.module.engine.domain.CoreBlock;
+import com.nox.platform.module.engine.domain.Project;
+import com.nox.platform.module.engine.domain.Workspace;
+import com.nox.platform.module.engine.domain.WorkspaceStatus;
+import com.nox.platform.module.engine.domain.WorkspaceType;
+import com.nox.platform.module.engine.infrastructure.CoreBlockRepository;
+import com.nox.platform.module.engine.infrastructure.ProjectRepository;
+import com.nox.platform.module.engine.infrastructure.WorkspaceRepository;
+import com.nox.platform.module.engine.service.WorkspaceSyncService;
+import com.nox.platform.module.iam.domain.User;
+import com.nox.platform.module.iam.infrastructure.UserRepository;
+import com.nox.platform.module.iam.infrastructure.security.CustomUserDetails;
+import com.nox.platform.module.tenant.domain.Organization;
+import com.nox.platform.module.tenant.infrastructure.OrganizationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@DisplayName("WorkspaceSyncService Integration Tests (PostgreSQL)")
+class WorkspaceSyncServiceIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private WorkspaceSyncService workspaceSyncService;
+
+    @Autowired
+    private CoreBlockRepository coreBlockRepository;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    private Workspace workspace;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        Organization organization = Organization.builder()
+                .name("Sync Test Org")
+                .slug("sync-org-" + UUID.randomUUID())
+                .build();
+        organization.initializeTimestamps(OffsetDateTime.now());
+        organization = organizationRepository.save(organization);
+
+        user = User.builder()
+                .email("sync-" + UUID.randomUUID() + "@example.com")
+                .fullName("Sync User")
+                .build();
+        user.initializeTimestamps(OffsetDateTime.now());
+        user = userRepository.save(user);
+
+        Project project = Project.builder()
+                .organization(organization)
+                .createdBy(user)
+                .name("Sync Project")
+                .slug("sync-project-" + UUID.randomUUID())
+                .build();
+        project.initializeTimestamps(OffsetDateTime.now());
+        project = projectRepository.save(project);
+
+        workspace = Workspace.builder()
+                .project(project)
+                .createdBy(user)
+                .name("Sync Workspace")
+                .type(WorkspaceType.CANVAS)
+                .status(WorkspaceStatus.DRAFT)
+                .build();
+        workspace.initializeTimestamps(OffsetDateTime.now());
+        workspace = workspaceRepository.save(workspace);
+
+        CustomUserDetails principal = new CustomUserDetails(user.getId(), organization.getId(), user.getEmail(), "", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should return a snapshot first, then only the rows changed after the cursor, tombstones included")
+    void shouldReturnChangesAfterCursor() {
+        // Given
+        CoreBlock kept = createBlock("Kept", OffsetDateTime.now());
+        CoreBlock removed = createBlock("Removed", OffsetDateTime.now());
+        WorkspaceChangesResponse snapshot = workspaceSyncService.getChangesSince(workspace.getId(), null);
+
+        // When
+        coreBlockRepository.softDeleteBlocksByIds(List.of(removed.getId()), OffsetDateTime.now());
+        WorkspaceChangesResponse delta = workspaceSyncService.getChangesSince(workspace.getId(), snapshot.cursor());
+        WorkspaceChangesResponse idle = workspaceSyncService.getChangesSince(workspace.getId(), delta.cursor());
+
+        // Then
+        assertThat(snapshot.blocks()).extracting(CoreBlockResponse::id)
+                .containsExactlyInAnyOrder(kept.getId(), removed.getId());
+        assertThat(delta.blocks()).singleElement()
+                .satisfies(block -> {
+                    assertThat(block.id()).isEqualTo(removed.getId());
+                    assertThat(block.deletedAt()).isNotNull();
+                });
+        assertThat(delta.cursor()).isGreaterThan(snapshot.cursor());
+        assertThat(idle.blocks()).isEmpty();
+        assertThat(idle.cursor()).isEqualTo(delta.cursor());
+    }
+
+    @Test
+    @DisplayName("Should deliver a row committed after the cursor even when its updated_at is older")
+    void shouldNotMissRowsWithOlderTimestamps() {
+        // Given
+        createBlock("Existing", OffsetDateTime.now());
+        long cursor = workspaceSyncService.getChangesSince(workspace.getId(), null).cursor();
+
+        // When: a slow writer whose clock reading predates the cursor commits afterwards
+        CoreBlock late = createBlock("Late", OffsetDateTime.now().minusHours(1));
+        WorkspaceChangesResponse delta = workspaceSyncService.getChangesSince(workspace.getId(), cursor);
+
+        // Then
+        assertThat(delta.blocks()).extracting(CoreBlockResponse::id).containsExactly(late.getId());
+    }
+
+    @Test
+    @DisplayName("Should answer a cursor the workspace has not reached with a full snapshot")
+    void shouldResnapshotUnknownCursor() {
+        // Given: an updated_at watermark issued before sequence cursors
+        CoreBlock block = createBlock("Block", OffsetDateTime.now());
+        long legacyCursor = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+
+        // When
+        WorkspaceChangesResponse response = workspaceSyncService.getChangesSince(workspace.getId(), legacyCursor);
+
+        // Then
+        assertThat(response.blocks()).extracting(CoreBlockResponse::id).containsExactly(block.getId());
+        assertThat(response.cursor()).isLessThan(legacyCursor);
+    }
+
+    private CoreBlock createBlock(String name, OffsetDateTime updatedAt) {
+        CoreBlock block = CoreBlock.builder()
+                .workspace(workspace)
+                .name(name)
+                .type("logic")
+                .createdBy(user)
+                .build();
+        block.initializeTimestamps(updatedAt);
+        return coreBlockRepository.saveAndFlush(block);
+    }
+}
@@ -0,0 +1,202 @@
+package com.nox.platform.module.engine.service.writer;
+
+import com.nox.platform.BaseIntegrationTest;
+import com.nox.platform.module.engine.api.request.UpdateCoreBlockRequest;
+import com.nox.platform.module.engine.api.response.CoreBlockResponse;
+import com.nox.platform.module.engine.domain.CoreBlock;
+import com.nox.platform.module.engine.domain.Project;
+import com.nox.platform.module.engine.domain.Workspace;
+import com.nox.platform.module.engine.domain.WorkspaceStatus;
+import com.nox.platform.module.engine.domain.WorkspaceType;
+import com.nox.platform.module.engine.infrastructure.CoreBlockRepository;
+import com.nox.platform.module.engine.infrastructure.ProjectRepository;
+import com.nox.platform.module.engine.infrastructure.WorkspaceRepository;
+import com.nox.platform.module.engine.service.CoreBlockService;
+import com.nox.platform.module.iam.domain.User;
+import com.nox.platform.module.iam.infrastructure.UserRepository;
+import com.nox.platform.module.iam.infrastructure.security.CustomUserDetails;
+import com.nox.platform.module.tenant.domain.Organization;
+import com.nox.platform.module.tenant.infrastructure.OrganizationRepository;
+import com.nox.platform.shared.exception.DomainException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Group commits against the real JPA transaction manager, where a failing {@code @Transactional}
+ * service call joins the writer's transaction instead of a mocked one.
+ */
+@DisplayName("WorkspaceWriter Integration Tests (PostgreSQL)")
+class WorkspaceWriterIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private WorkspaceWriter workspaceWriter;
+
+    @Autowired
+    private CoreBlockService coreBlockService;
+
+    @Autowired
+    private CoreBlockRepository coreBlockRepository;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Workspace workspace;
+    private User user;
+    private SecurityContext callerContext;
+    private Object groupCommitWindowMs;
+
+    @BeforeEach
+    void setUp() {
+        Organization organization = Organization.builder()
+                .name("Writer Test Org")
+                .slug("writer-org-" + UUID.randomUUID())
+                .build();
+        organization.initializeTimestamps(OffsetDateTime.now());
+        organization = organizationRepository.save(organization);
+
+        user = User.builder()
+                .email("writer-" + UUID.randomUUID() + "@example.com")
+                .fullName("Writer User")
+                .build();
+        user.initializeTimestamps(OffsetDateTime.now());
+        user = userRepository.save(user);
+
+        Project project = Project.builder()
+                .organization(organization)
+                .createdBy(user)
+                .name("Writer Project")
+                .slug("writer-project-" + UUID.randomUUID())
+                .build();
+        project.initializeTimestamps(OffsetDateTime.now());
+        project = projectRepository.save(project);
+
+        workspace = Workspace.builder()
+                .project(project)
+                .createdBy(user)
+                .name("Writer Workspace")
+                .type(WorkspaceType.CANVAS)
+                .status(WorkspaceStatus.DRAFT)
+                .build();
+        workspace.initializeTimestamps(OffsetDateTime.now());
+        workspace = workspaceRepository.save(workspace);
+
+        CustomUserDetails principal = new CustomUserDetails(user.getId(), organization.getId(), user.getEmail(), "", List.of());
+        callerContext = SecurityContextHolder.createEmptyContext();
+        callerContext.setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        // A wide window so the concurrent calls below reliably share one batch
+        groupCommitWindowMs = ReflectionTestUtils.getField(workspaceWriter, "groupCommitWindowMs");
+        ReflectionTestUtils.setField(workspaceWriter, "groupCommitWindowMs", 500L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(workspaceWriter, "groupCommitWindowMs", groupCommitWindowMs);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should commit the rest of a batch in one transaction when one service call throws a DomainException")
+    void shouldCommitBatchAroundFailingServiceCall() throws Exception {
+        // Given
+        List<CoreBlock> blocks = List.of(createBlock("A"), createBlock("B"), createBlock("C"));
+        List<Callable<CoreBlockResponse>> calls = new ArrayList<>();
+        for (CoreBlock block : blocks) {
+            calls.add(() -> rename(block.getId(), block.getName() + " renamed"));
+        }
+        calls.add(1, () -> rename(UUID.randomUUID(), "Missing"));
+
+        // When
+        List<Future<CoreBlockResponse>> futures = callTogether(calls);
+
+        // Then: the missing block fails alone, the renames commit
+        assertThatThrownBy(futures.get(1)::get)
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .isInstanceOf(DomainException.class)
+                .extracting(e -> ((DomainException) e).getCode())
+                .isEqualTo("BLOCK_NOT_FOUND");
+        for (int i : new int[]{0, 2, 3}) {
+            assertThat(futures.get(i).get().name()).endsWith(" renamed");
+        }
+        assertThat(coreBlockRepository.findByWorkspaceId(workspace.getId()))
+                .extracting(CoreBlock::getName)
+                .containsExactlyInAnyOrder("A renamed", "B renamed", "C renamed");
+
+        // Then: all three rows were written by the same transaction, not replayed one by one
+        List<UUID> ids = blocks.stream().map(CoreBlock::getId).toList();
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT DISTINCT xmin::text FROM core_blocks WHERE id IN (?, ?, ?)",
+                String.class, ids.get(0), ids.get(1), ids.get(2))).hasSize(1);
+    }
+
+    private CoreBlockResponse rename(UUID blockId, String name) {
+        SecurityContextHolder.setContext(callerContext);
+        try {
+            return coreBlockService.updateBlock(workspace.getId(), blockId,
+                    new UpdateCoreBlockRequest(name, null, null, null, null, null));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private <T> List<Future<T>> callTogether(List<Callable<T>> calls) {
+        CountDownLatch gate = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Callable<T> call : calls) {
+                futures.add(callers.submit(() -> {
+                    gate.await();
+                    return call.call();
+                }));
+            }
+            gate.countDown();
+        }
+        return futures;
+    }
+
+    private CoreBlock createBlock(String name) {
+        CoreBlock block = CoreBlock.builder()
+                .workspace(workspace)
+                .name(name)
+                .type("logic")
+                .createdBy(user)
+                .build();
+        block.initializeTimestamps(OffsetDateTime.now());
+        return coreBlockRepository.save(block);
+    }
+}
@@ -0,0 +1,181 @@
+package com.nox.platform.module.engine.service.writer;
+
+import com.nox.platform.module.engine.infrastructure.WorkspaceRepository;
+import com.nox.platform.module.engine.service.oplog.WorkspaceOperationLog;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WorkspaceWriter Unit Tests")
+class WorkspaceWriterTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private TransactionStatus transactionStatus;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private WorkspaceRepository workspaceRepository;
+    @Mock
+    private WorkspaceOperationLog operationLog;
+
+    private WorkspaceWriter writer;
+
+    private final UUID workspaceId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        writer = new WorkspaceWriter(new TransactionTemplate(transactionManager), entityManager, workspaceRepository, operationLog);
+        ReflectionTestUtils.setField(writer, "enabled", true);
+        // A wide window so concurrently submitted mutations reliably share one batch
+        ReflectionTestUtils.setField(writer, "groupCommitWindowMs", 500L);
+        ReflectionTestUtils.setField(writer, "maxBatchSize", 64);
+        ReflectionTestUtils.setField(writer, "queueCapacity", 100);
+        ReflectionTestUtils.setField(writer, "submitTimeoutMs", 10_000L);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should apply concurrent mutations one at a time and commit them together")
+    void shouldGroupCommitConcurrentMutations() throws Exception {
+        // Given
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Callable<Integer>> callers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int value = i;
+            callers.add(() -> writer.execute(workspaceId, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(5);
+                running.decrementAndGet();
+                return value;
+            }));
+        }
+
+        // When
+        List<Integer> results = submitTogether(callers);
+
+        // Then: every caller gets its own result from one locked transaction, each nested inside it
+        assertThat(results).containsExactly(0, 1, 2, 3, 4);
+        assertThat(maxRunning.get()).isEqualTo(1);
+        ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(6)).getTransaction(definitions.capture());
+        assertThat(definitions.getAllValues()).extracting(TransactionDefinition::getPropagationBehavior)
+                .containsExactly(TransactionDefinition.PROPAGATION_REQUIRED,
+                        TransactionDefinition.PROPAGATION_NESTED, TransactionDefinition.PROPAGATION_NESTED,
+                        TransactionDefinition.PROPAGATION_NESTED, TransactionDefinition.PROPAGATION_NESTED,
+                        TransactionDefinition.PROPAGATION_NESTED);
+        verify(workspaceRepository, times(1)).lockWrites(workspaceId);
+        verify(entityManager, times(5)).flush();
+        verify(entityManager, times(5)).clear();
+        verify(operationLog, times(5)).sealGroups();
+    }
+
+    @Test
+    @DisplayName("Should queue submitted mutations without waiting for them and apply them in submission order")
+    void shouldSubmitWithoutWaiting() throws Exception {
+        // Given: the first mutation is held until the caller has submitted both
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> applied = new CopyOnWriteArrayList<>();
+
+        // When
+        CompletableFuture<Integer> first = writer.submit(workspaceId, () -> {
+            release.await();
+            applied.add(1);
+            return 1;
+        });
+        CompletableFuture<Integer> second = writer.submit(workspaceId, () -> {
+            applied.add(2);
+            return 2;
+        });
+        boolean returnedBeforeApplied = !first.isDone() && !second.isDone();
+        release.countDown();
+
+        // Then
+        assertThat(returnedBeforeApplied).isTrue();
+        assertThat(first.get()).isEqualTo(1);
+        assertThat(second.get()).isEqualTo(2);
+        assertThat(applied).containsExactly(1, 2);
+    }
+
+    @Test
+    @DisplayName("Should run on a virtual writer thread under the caller's security context, or inline when disabled")
+    void shouldCarryCallerContext() {
+        // Given
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("alice", null));
+        Thread caller = Thread.currentThread();
+
+        // When
+        String user = writer.execute(workspaceId,
+                () -> SecurityContextHolder.getContext().getAuthentication().getName());
+        Thread writerThread = writer.execute(workspaceId, Thread::currentThread);
+
+        ReflectionTestUtils.setField(writer, "enabled", false);
+        Thread inlineThread = writer.execute(workspaceId, Thread::currentThread);
+
+        // Then
+        assertThat(user).isEqualTo("alice");
+        assertThat(writerThread.isVirtual()).isTrue();
+        assertThat(writerThread).isNotSameAs(caller);
+        assertThat(inlineThread).isSameAs(caller);
+        verify(entityManager, never()).clear();
+    }
+
+    private <T> List<T> submitTogether(List<Callable<T>> callers) throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        try (ExecutorService callersPool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Callable<T> caller : callers) {
+                futures.add(callersPool.submit(() -> {
+                    gate.await();
+                    return caller.call();
+                }));
+            }
+            gate.countDown();
+        }
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+}
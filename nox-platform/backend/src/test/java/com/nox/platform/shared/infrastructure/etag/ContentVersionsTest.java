@@ -0,0 +1,104 @@
+package com.nox.platform.shared.infrastructure.etag;
+
+import com.nox.platform.shared.abstraction.TimeProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ContentVersions Unit Tests")
+class ContentVersionsTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+    @Mock
+    private TimeProvider timeProvider;
+
+    private ContentVersions contentVersions;
+
+    @BeforeEach
+    void setUp() {
+        contentVersions = new ContentVersions(redisTemplate, timeProvider);
+        ReflectionTestUtils.setField(contentVersions, "ttlMs", 60_000L);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @DisplayName("Should answer 304 only for the current stamp")
+    void shouldMatchCurrentStamp() {
+        // Given
+        when(valueOperations.get("etag:workspace:1")).thenReturn("42");
+        MockHttpServletResponse current = new MockHttpServletResponse();
+        MockHttpServletResponse stale = new MockHttpServletResponse();
+
+        // When
+        boolean currentUnchanged = contentVersions.checkNotModified(request("\"42-json\"", null, current), "workspace:1");
+        boolean staleUnchanged = contentVersions.checkNotModified(request("\"41-json\"", null, stale), "workspace:1");
+
+        // Then
+        assertThat(currentUnchanged).isTrue();
+        assertThat(current.getStatus()).isEqualTo(304);
+        assertThat(staleUnchanged).isFalse();
+        assertThat(stale.getHeader("ETag")).isEqualTo("\"42-json\"");
+    }
+
+    @Test
+    @DisplayName("Should tag each binary representation separately")
+    void shouldTagRepresentations() {
+        // Given
+        when(valueOperations.get("etag:workspace:1")).thenReturn("42");
+        MockHttpServletResponse smile = new MockHttpServletResponse();
+        MockHttpServletResponse cbor = new MockHttpServletResponse();
+
+        // When
+        boolean smileUnchanged = contentVersions.checkNotModified(
+                request("\"42-json\"", "application/x-jackson-smile", smile), "workspace:1");
+        contentVersions.checkNotModified(request(null, "application/cbor", cbor), "workspace:1");
+
+        // Then
+        assertThat(smileUnchanged).isFalse();
+        assertThat(smile.getHeader("ETag")).isEqualTo("\"42-smile\"");
+        assertThat(cbor.getHeader("ETag")).isEqualTo("\"42-cbor\"");
+    }
+
+    @Test
+    @DisplayName("Should serve the full response when Redis is unavailable")
+    void shouldSkipWhenRedisIsDown() {
+        // Given
+        when(valueOperations.get("etag:workspace:1")).thenThrow(new RedisConnectionFailureException("down"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean unchanged = contentVersions.checkNotModified(request("\"42-json\"", null, response), "workspace:1");
+
+        // Then
+        assertThat(unchanged).isFalse();
+        assertThat(response.getHeader("ETag")).isNull();
+    }
+
+    private static ServletWebRequest request(String ifNoneMatch, String accept, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/workspaces/1/blocks");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        if (accept != null) {
+            request.addHeader("Accept", accept);
+        }
+        return new ServletWebRequest(request, response);
+    }
+}
@@ -0,0 +1,114 @@
+package com.nox.platform.shared.infrastructure.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Insert throughput and primary key index size for random v4 keys against time-ordered v7 keys,
+ * on a table shaped like {@code core_blocks}. Excluded from {@code test}; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("UUID Primary Key Benchmark")
+class UuidKeyBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final int BATCH_SIZE = 1_000;
+    private static final int COMMIT_EVERY = 50_000;
+
+    @Test
+    @DisplayName("Should insert faster into a smaller index with UUIDv7 keys")
+    void compareKeyVersions() throws SQLException {
+        try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+                .withCommand("postgres", "-c", "shared_buffers=128MB")) {
+            postgres.start();
+            try (Connection connection = DriverManager.getConnection(
+                    postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())) {
+                // Given
+                Map<String, Supplier<UUID>> generators = new LinkedHashMap<>();
+                generators.put("v4", UUID::randomUUID);
+                generators.put("v7", UuidV7::next);
+
+                // When
+                Map<String, Long> indexBytes = new LinkedHashMap<>();
+                Map<String, Double> rowsPerSecond = new LinkedHashMap<>();
+                System.out.printf("%-4s %14s %14s %14s%n", "keys", "rows/s", "pkey MB", "table MB");
+                for (Map.Entry<String, Supplier<UUID>> generator : generators.entrySet()) {
+                    String table = "bench_blocks_" + generator.getKey();
+                    createTable(connection, table);
+                    long start = System.nanoTime();
+                    insertRows(connection, table, generator.getValue());
+                    double seconds = (System.nanoTime() - start) / 1e9;
+
+                    long pkeyBytes = relationSize(connection, table + "_pkey");
+                    long tableBytes = relationSize(connection, table);
+                    indexBytes.put(generator.getKey(), pkeyBytes);
+                    rowsPerSecond.put(generator.getKey(), ROWS / seconds);
+                    System.out.printf("%-4s %14.0f %14.1f %14.1f%n", generator.getKey(), ROWS / seconds,
+                            pkeyBytes / 1048576.0, tableBytes / 1048576.0);
+                }
+
+                // Then
+                assertThat(indexBytes.get("v7")).isLessThan(indexBytes.get("v4"));
+                assertThat(rowsPerSecond.get("v7")).isGreaterThan(rowsPerSecond.get("v4"));
+            }
+        }
+    }
+
+    private static void createTable(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE " + table + " (" +
+                    "id UUID PRIMARY KEY, workspace_id UUID NOT NULL, name VARCHAR(255) NOT NULL, " +
+                    "config JSONB NOT NULL, created_at TIMESTAMPTZ NOT NULL DEFAULT NOW())");
+        }
+    }
+
+    private static void insertRows(Connection connection, String table, Supplier<UUID> ids) throws SQLException {
+        UUID workspaceId = UUID.randomUUID();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + table + " (id, workspace_id, name, config) VALUES (?, ?, ?, ?::jsonb)")) {
+            for (int i = 1; i <= ROWS; i++) {
+                insert.setObject(1, ids.get());
+                insert.setObject(2, workspaceId);
+                insert.setString(3, "Block " + i);
+                insert.setString(4, "{\"replicas\":" + (i % 8) + "}");
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+                if (i % COMMIT_EVERY == 0) {
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static long relationSize(Connection connection, String relation) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_relation_size(?::regclass)")) {
+            statement.setString(1, relation);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+}
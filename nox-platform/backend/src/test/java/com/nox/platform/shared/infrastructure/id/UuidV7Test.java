@@ -0,0 +1,49 @@
+package com.nox.platform.shared.infrastructure.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("UuidV7 Unit Tests")
+class UuidV7Test {
+
+    @Test
+    @DisplayName("Should encode version 7, the RFC variant and the millisecond timestamp")
+    void shouldEncodeLayout() {
+        // Given
+        long millis = 1_767_225_600_000L;
+
+        // When
+        UUID id = UuidV7.next(millis + 1_000_000);
+
+        // Then
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isGreaterThanOrEqualTo(millis + 1_000_000);
+    }
+
+    @Test
+    @DisplayName("Should issue strictly increasing ids within a millisecond and across clock steps back")
+    void shouldStayMonotonic() {
+        // Given
+        long millis = 1_767_225_600_000L + 2_000_000;
+        List<UUID> ids = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 5_000; i++) {
+            ids.add(UuidV7.next(millis));
+        }
+        ids.add(UuidV7.next(millis - 10));
+
+        // Then
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(Long.compareUnsigned(ids.get(i).getMostSignificantBits(), ids.get(i - 1).getMostSignificantBits()))
+                    .isPositive();
+        }
+    }
+}
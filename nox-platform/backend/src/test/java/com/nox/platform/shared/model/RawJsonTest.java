@@ -0,0 +1,72 @@
+package com.nox.platform.shared.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RawJson Unit Tests")
+class RawJsonTest {
+
+    private static final String VISUAL = "{\"sourceHandle\":\"out-1\",\"position\":{\"x\":10,\"y\":20},\"weight\":2.5}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should write stored JSON verbatim")
+    void shouldWriteVerbatim() throws Exception {
+        // Given
+        Map<String, Object> document = Map.of("visual", RawJson.of(VISUAL));
+
+        // When
+        String json = objectMapper.writeValueAsString(document);
+
+        // Then
+        assertThat(json).isEqualTo("{\"visual\":" + VISUAL + "}");
+    }
+
+    @Test
+    @DisplayName("Should re-encode stored JSON for Smile output")
+    void shouldEncodeBinaryFormats() throws Exception {
+        // Given
+        ObjectMapper smile = objectMapper.copyWith(new SmileFactory());
+
+        // When
+        byte[] bytes = smile.writeValueAsBytes(Map.of("visual", RawJson.of(VISUAL)));
+        JsonNode decoded = smile.readTree(bytes);
+
+        // Then
+        assertThat(decoded.get("visual")).isEqualTo(objectMapper.readTree(VISUAL));
+        assertThat(smile.treeToValue(decoded.get("visual"), RawJson.class).asMap(objectMapper))
+                .isEqualTo(RawJson.of(VISUAL).asMap(objectMapper));
+    }
+
+    @Test
+    @DisplayName("Should copy stored JSON token by token into token buffers")
+    void shouldCopyIntoTokenBuffers() throws Exception {
+        // When: tree conversion serializes into a TokenBuffer, which cannot take raw text
+        JsonNode tree = objectMapper.valueToTree(Map.of("visual", RawJson.of(VISUAL)));
+
+        // Then
+        assertThat(tree.get("visual")).isEqualTo(objectMapper.readTree(VISUAL));
+    }
+
+    @Test
+    @DisplayName("Should read top-level fields on demand")
+    void shouldReadTopLevelFields() {
+        // Given
+        RawJson visual = RawJson.of(VISUAL);
+
+        // When / Then
+        assertThat(visual.fieldNames()).containsExactly("sourceHandle", "position", "weight");
+        assertThat(visual.textField("sourceHandle")).isEqualTo("out-1");
+        assertThat(visual.textField("weight")).isEqualTo("2.5");
+        assertThat(visual.textField("position")).isNull();
+        assertThat(visual.textField("targetHandle")).isNull();
+    }
+}